@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.cqfn.astranaut.core.Adapter;
+import org.cqfn.astranaut.core.ConversionVariants;
+import org.cqfn.astranaut.core.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of tree conversion by a set of rules.
+ *
+ * @since 1.1.5
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class AdapterBenchmark {
+    /**
+     * The adapter.
+     */
+    private static final Adapter ADAPTER =
+        new Adapter(Conversions.CONVERTERS, Conversions.FACTORY);
+
+    /**
+     * Converts the whole tree.
+     * @param trees Synthetic trees
+     * @return Converted tree
+     */
+    @Benchmark
+    public Node convert(final Trees trees) {
+        return AdapterBenchmark.ADAPTER.convert(trees.getBefore());
+    }
+
+    /**
+     * Converts the whole tree, processing disjoint subtrees in parallel.
+     * @param trees Synthetic trees
+     * @return Converted tree
+     */
+    @Benchmark
+    public Node convertInParallel(final Trees trees) {
+        return AdapterBenchmark.ADAPTER.convert(trees.getBefore(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts the whole tree repeatedly until it stops changing.
+     * @param trees Synthetic trees
+     * @return Converted tree
+     */
+    @Benchmark
+    public Node convertToFixedPoint(final Trees trees) {
+        return AdapterBenchmark.ADAPTER.convertToFixedPoint(trees.getBefore(), 16).getTree();
+    }
+
+    /**
+     * Finds all variants of applying the first converter and builds each variant tree.
+     * @param trees Synthetic trees
+     * @param blackhole Consumer of variant trees
+     */
+    @Benchmark
+    public void enumerateVariants(final Trees trees, final Blackhole blackhole) {
+        final ConversionVariants variants =
+            AdapterBenchmark.ADAPTER.getVariants(trees.getBefore());
+        for (final Node variant : variants) {
+            blackhole.consume(variant);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar.
+ * Runs the benchmarks with the GC profiler attached, so that allocation rates are reported
+ *  next to throughput and latency percentiles, and saves results to 'jmh-result.json'.
+ * Accepts the same command line options as the standard JMH launcher.
+ *
+ * @since 1.1.5
+ */
+public final class BenchmarkRunner {
+    /**
+     * Private constructor.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Starts the benchmarks.
+     * @param args Command line options, for example, a regular expression
+     *  that selects benchmarks or '-p size=1000' to restrict parameters
+     * @throws RunnerException If benchmarks fail
+     * @throws CommandLineOptionException If command line options are incorrect
+     */
+    public static void main(final String... args)
+        throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions parent = new CommandLineOptions(args);
+        final ChainedOptionsBuilder builder = new OptionsBuilder()
+            .parent(parent)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result("jmh-result.json");
+        if (parent.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackage().getName());
+        }
+        final Options options = builder.build();
+        new Runner(options).run();
+    }
+}
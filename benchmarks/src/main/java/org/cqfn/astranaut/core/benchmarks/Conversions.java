@@ -0,0 +1,123 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.cqfn.astranaut.core.Builder;
+import org.cqfn.astranaut.core.Converter;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Conversion rules applied to synthetic trees by the adapter benchmark.
+ * The rules are written the same way as generated ones: each checks the root type,
+ *  the number of children and their types, and builds a new node with the factory.
+ *
+ * @since 1.1.5
+ */
+public final class Conversions {
+    /**
+     * The factory that creates draft nodes for all type names.
+     */
+    public static final Factory FACTORY = new Factory(Collections.emptyMap());
+
+    /**
+     * The list of converters.
+     */
+    public static final List<Converter> CONVERTERS = Collections.unmodifiableList(
+        Arrays.asList(
+            new Leaf("Literal", "Constant"),
+            new Leaf("Variable", "Reference"),
+            new Sum()
+        )
+    );
+
+    /**
+     * Private constructor.
+     */
+    private Conversions() {
+    }
+
+    /**
+     * Converts an expression that wraps a single leaf into a single node.
+     *
+     * @since 1.1.5
+     */
+    private static final class Leaf implements Converter {
+        /**
+         * Type of the wrapped leaf.
+         */
+        private final String source;
+
+        /**
+         * Type of the resulting node.
+         */
+        private final String target;
+
+        /**
+         * Constructor.
+         * @param source Type of the wrapped leaf
+         * @param target Type of the resulting node
+         */
+        private Leaf(final String source, final String target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public Node convert(final Node node, final Factory factory) {
+            Node result = EmptyTree.INSTANCE;
+            if (node.belongsToGroup("Expression") && node.getChildCount() == 1) {
+                final Node child = node.getChild(0);
+                if (child.belongsToGroup(this.source) && child.getChildCount() == 0) {
+                    final Builder builder = factory.createBuilder(this.target);
+                    builder.setData(child.getData());
+                    result = builder.createNode();
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Converts an addition into a sum.
+     *
+     * @since 1.1.5
+     */
+    private static final class Sum implements Converter {
+        @Override
+        public Node convert(final Node node, final Factory factory) {
+            Node result = EmptyTree.INSTANCE;
+            if (node.belongsToGroup("Addition") && node.getChildCount() == 2) {
+                final Builder builder = factory.createBuilder("Sum");
+                builder.setChildrenList(node.getChildrenList());
+                result = builder.createNode();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import java.util.Collections;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.FactorySelector;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.utils.BinaryDeserializer;
+import org.cqfn.astranaut.core.utils.BinarySerializer;
+import org.cqfn.astranaut.core.utils.JsonDeserializer;
+import org.cqfn.astranaut.core.utils.JsonStreamDeserializer;
+import org.cqfn.astranaut.core.utils.JsonSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of JSON serialization and deserialization of trees, compared with
+ *  the compressed binary representation.
+ *
+ * @since 1.1.5
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class JsonBenchmark {
+    /**
+     * Factory selector that returns a factory of draft nodes for any language.
+     */
+    private static final FactorySelector SELECTOR = new FactorySelector() {
+        /**
+         * The factory.
+         */
+        private final Factory factory = new Factory(Collections.emptyMap());
+
+        @Override
+        public Factory select(final String language) {
+            return this.factory;
+        }
+    };
+
+    /**
+     * Serializes the tree to a JSON string.
+     * @param trees Synthetic trees
+     * @return JSON text
+     */
+    @Benchmark
+    public String serialize(final Trees trees) {
+        return new JsonSerializer(trees.getBefore()).serialize();
+    }
+
+    /**
+     * Deserializes the tree from a JSON string.
+     * @param trees Synthetic trees
+     * @return Root node
+     */
+    @Benchmark
+    public Node deserialize(final Trees trees) {
+        return new JsonDeserializer(trees.getJson(), JsonBenchmark.SELECTOR).convert();
+    }
+
+    /**
+     * Deserializes the tree from JSON text with the streaming deserializer.
+     * @param trees Synthetic trees
+     * @return Root node
+     * @throws IOException Never, since the text is read from a string
+     */
+    @Benchmark
+    public Node deserializeStream(final Trees trees) throws IOException {
+        return new JsonStreamDeserializer(
+            new StringReader(trees.getJson()),
+            JsonBenchmark.SELECTOR
+        ).convert();
+    }
+
+    /**
+     * Serializes the tree to the compressed binary representation.
+     * @param trees Synthetic trees
+     * @return Array of bytes
+     */
+    @Benchmark
+    public byte[] serializeBinary(final Trees trees) {
+        return new BinarySerializer(trees.getBefore(), true).serialize();
+    }
+
+    /**
+     * Deserializes the tree from the compressed binary representation.
+     * @param trees Synthetic trees
+     * @return Root node
+     */
+    @Benchmark
+    public Node deserializeBinary(final Trees trees) {
+        return new BinaryDeserializer(trees.getBinary(), JsonBenchmark.SELECTOR).convert();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.cqfn.astranaut.core.algorithms.mapping.BottomUpMapper;
+import org.cqfn.astranaut.core.algorithms.mapping.Mapping;
+import org.cqfn.astranaut.core.algorithms.mapping.TopDownMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of tree mapping.
+ *
+ * @since 1.1.5
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class MappingBenchmark {
+    /**
+     * Maps a tree to its slightly modified copy.
+     * @param trees Synthetic trees
+     * @return The mapping
+     */
+    @Benchmark
+    public Mapping topDown(final Trees trees) {
+        return TopDownMapper.INSTANCE.map(trees.getBefore(), trees.getAfter());
+    }
+
+    /**
+     * Maps a tree to its slightly modified copy using the hash index of children.
+     * @param trees Synthetic trees
+     * @return The mapping
+     */
+    @Benchmark
+    public Mapping topDownIndexed(final Trees trees) {
+        return TopDownMapper.INDEXED.map(trees.getBefore(), trees.getAfter());
+    }
+
+    /**
+     * Maps a tree to its slightly modified copy using the bottom-up mapper.
+     * @param trees Synthetic trees
+     * @return The mapping
+     */
+    @Benchmark
+    public Mapping bottomUp(final Trees trees) {
+        return BottomUpMapper.INSTANCE.map(trees.getBefore(), trees.getAfter());
+    }
+
+    /**
+     * Maps the same tree to its slightly modified copy within a session that keeps
+     *  the hashes of the tree.
+     * @param trees Synthetic trees
+     * @return The mapping
+     */
+    @Benchmark
+    public Mapping session(final Trees trees) {
+        return trees.getSession().map(trees.getAfter());
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Generator of synthetic trees built from {@link DraftNode} objects.
+ * Two generators with the same seed produce trees of the same structure; the mutation rate
+ *  defines the share of leaves whose data differs, which gives pairs of trees for mapping.
+ *
+ * @since 1.1.5
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class TreeGenerator {
+    /**
+     * Maximum length of a chain in a deep tree.
+     * Keeps the recursive code paths of the library within the default thread stack.
+     */
+    private static final int MAX_DEPTH = 2000;
+
+    /**
+     * Branching factor of a balanced tree.
+     */
+    private static final int FAN_OUT = 4;
+
+    /**
+     * The 'Block' type name.
+     */
+    private static final String BLOCK = "Block";
+
+    /**
+     * The 'Expression' type name.
+     */
+    private static final String EXPRESSION = "Expression";
+
+    /**
+     * Identifiers used as node data.
+     */
+    private static final List<String> NAMES = Collections.unmodifiableList(
+        Arrays.asList(
+            "x", "y", "count", "index", "value", "result", "total", "item", "left", "right"
+        )
+    );
+
+    /**
+     * Random generator that defines the structure of the tree.
+     */
+    private final Random random;
+
+    /**
+     * Random generator that decides which leaves are mutated.
+     */
+    private final Random mutator;
+
+    /**
+     * Share of mutated leaves, from 0 to 1.
+     */
+    private final double mutation;
+
+    /**
+     * Number of nodes that can still be created.
+     */
+    private int budget;
+
+    /**
+     * Constructor.
+     * @param seed Seed of random generators
+     * @param mutation Share of mutated leaves, from 0 to 1
+     */
+    public TreeGenerator(final long seed, final double mutation) {
+        this.random = new Random(seed);
+        this.mutator = new Random(~seed);
+        this.mutation = mutation;
+    }
+
+    /**
+     * Creates a tree.
+     * @param shape Shape of the tree
+     * @param size Approximate number of nodes
+     * @return Root node of the tree
+     */
+    public Node create(final Shape shape, final int size) {
+        this.budget = size;
+        final Node result;
+        switch (shape) {
+            case WIDE:
+                result = this.createWide();
+                break;
+            case DEEP:
+                result = this.createDeep();
+                break;
+            case BALANCED:
+                result = this.createBalanced(size);
+                break;
+            default:
+                result = this.createRealistic();
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a root with all the other nodes as its direct children.
+     * @return Root node
+     */
+    private Node createWide() {
+        this.budget = this.budget - 1;
+        final List<Node> children = new ArrayList<>(Math.max(this.budget, 0));
+        while (this.budget > 0) {
+            children.add(this.createLeaf());
+        }
+        return TreeGenerator.createNode(TreeGenerator.BLOCK, "", children);
+    }
+
+    /**
+     * Creates long chains of single-child nodes under a common root.
+     * @return Root node
+     */
+    private Node createDeep() {
+        this.budget = this.budget - 1;
+        final List<Node> chains = new ArrayList<>(1);
+        while (this.budget > 0) {
+            Node node = this.createLeaf();
+            final int length = Math.min(this.budget, TreeGenerator.MAX_DEPTH);
+            for (int index = 0; index < length; index = index + 1) {
+                node = TreeGenerator.createNode(
+                    TreeGenerator.EXPRESSION,
+                    "",
+                    Collections.singletonList(node)
+                );
+            }
+            this.budget = this.budget - length;
+            chains.add(node);
+        }
+        return TreeGenerator.createNode(TreeGenerator.BLOCK, "", chains);
+    }
+
+    /**
+     * Creates a complete tree with a fixed branching factor.
+     * The tree is built bottom-up, level by level.
+     * @param size Approximate number of nodes
+     * @return Root node
+     */
+    private Node createBalanced(final int size) {
+        final int leaves = Math.max(1, size * (TreeGenerator.FAN_OUT - 1) / TreeGenerator.FAN_OUT);
+        List<Node> level = new ArrayList<>(leaves);
+        for (int index = 0; index < leaves; index = index + 1) {
+            level.add(this.createLeaf());
+        }
+        boolean block = false;
+        while (level.size() > 1) {
+            final List<Node> parents = new ArrayList<>(level.size() / TreeGenerator.FAN_OUT + 1);
+            for (int first = 0; first < level.size(); first = first + TreeGenerator.FAN_OUT) {
+                final int last = Math.min(first + TreeGenerator.FAN_OUT, level.size());
+                final String type;
+                if (block) {
+                    type = TreeGenerator.BLOCK;
+                } else {
+                    type = TreeGenerator.EXPRESSION;
+                }
+                parents.add(TreeGenerator.createNode(type, "", level.subList(first, last)));
+            }
+            level = parents;
+            block = !block;
+        }
+        return level.get(0);
+    }
+
+    /**
+     * Creates a tree that resembles a syntax tree of a program.
+     * @return Root node
+     */
+    private Node createRealistic() {
+        this.budget = this.budget - 1;
+        final List<Node> classes = new ArrayList<>(1);
+        while (this.budget > 0) {
+            classes.add(this.createClass());
+        }
+        return TreeGenerator.createNode("Program", "", classes);
+    }
+
+    /**
+     * Creates a class declaration.
+     * @return A node
+     */
+    private Node createClass() {
+        this.budget = this.budget - 1;
+        final String name = this.createName();
+        final int count = 1 + this.random.nextInt(20);
+        final List<Node> methods = new ArrayList<>(count);
+        for (int index = 0; index < count && this.budget > 0; index = index + 1) {
+            methods.add(this.createMethod());
+        }
+        return TreeGenerator.createNode("Class", name, methods);
+    }
+
+    /**
+     * Creates a method declaration.
+     * @return A node
+     */
+    private Node createMethod() {
+        this.budget = this.budget - 2;
+        final String name = this.createName();
+        final int count = this.random.nextInt(4);
+        final List<Node> parameters = new ArrayList<>(count);
+        for (int index = 0; index < count; index = index + 1) {
+            parameters.add(this.createVariable());
+        }
+        return TreeGenerator.createNode(
+            "Method",
+            name,
+            Arrays.asList(
+                TreeGenerator.createNode("Parameters", "", parameters),
+                this.createBlock(0)
+            )
+        );
+    }
+
+    /**
+     * Creates a block of statements.
+     * @param nesting Nesting level of the block
+     * @return A node
+     */
+    private Node createBlock(final int nesting) {
+        this.budget = this.budget - 1;
+        final int count = 1 + this.random.nextInt(12);
+        final List<Node> statements = new ArrayList<>(count);
+        for (int index = 0; index < count && this.budget > 0; index = index + 1) {
+            statements.add(this.createStatement(nesting));
+        }
+        return TreeGenerator.createNode(TreeGenerator.BLOCK, "", statements);
+    }
+
+    /**
+     * Creates a statement.
+     * @param nesting Nesting level of the block that contains the statement
+     * @return A node
+     */
+    private Node createStatement(final int nesting) {
+        this.budget = this.budget - 1;
+        final int kind = this.random.nextInt(10);
+        final Node result;
+        if (kind < 5) {
+            result = TreeGenerator.createNode(
+                "Assignment",
+                "",
+                Arrays.asList(this.createVariable(), this.createExpression(0))
+            );
+        } else if (kind < 7 && nesting < 3) {
+            result = TreeGenerator.createNode(
+                "If",
+                "",
+                Arrays.asList(this.createExpression(0), this.createBlock(nesting + 1))
+            );
+        } else if (kind < 9) {
+            final String name = this.createName();
+            final int count = this.random.nextInt(3);
+            final List<Node> arguments = new ArrayList<>(count);
+            for (int index = 0; index < count; index = index + 1) {
+                arguments.add(this.createExpression(1));
+            }
+            result = TreeGenerator.createNode("Call", name, arguments);
+        } else {
+            result = TreeGenerator.createNode(
+                "Return",
+                "",
+                Collections.singletonList(this.createExpression(0))
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Creates an expression.
+     * @param nesting Nesting level of the expression
+     * @return A node
+     */
+    private Node createExpression(final int nesting) {
+        this.budget = this.budget - 1;
+        final int kind = this.random.nextInt(4);
+        final Node result;
+        if (kind < 2 && nesting < 4) {
+            result = TreeGenerator.createNode(
+                "Addition",
+                "",
+                Arrays.asList(
+                    this.createExpression(nesting + 1),
+                    this.createExpression(nesting + 1)
+                )
+            );
+        } else {
+            result = TreeGenerator.createNode(
+                TreeGenerator.EXPRESSION,
+                "",
+                Collections.singletonList(this.createLeaf())
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Creates a leaf node: a variable or a literal.
+     * @return A node
+     */
+    private Node createLeaf() {
+        final Node result;
+        if (this.random.nextBoolean()) {
+            result = this.createVariable();
+        } else {
+            this.budget = this.budget - 1;
+            result = TreeGenerator.createNode(
+                "Literal",
+                this.mutate(String.valueOf(this.random.nextInt(1000))),
+                Collections.emptyList()
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Creates a variable.
+     * @return A node
+     */
+    private Node createVariable() {
+        this.budget = this.budget - 1;
+        return TreeGenerator.createNode("Variable", this.createName(), Collections.emptyList());
+    }
+
+    /**
+     * Creates an identifier, possibly mutated.
+     * @return An identifier
+     */
+    private String createName() {
+        return this.mutate(
+            TreeGenerator.NAMES.get(this.random.nextInt(TreeGenerator.NAMES.size()))
+        );
+    }
+
+    /**
+     * Mutates data with the given probability.
+     * Uses a separate random generator so that the structure of the tree does not change.
+     * @param data Original data
+     * @return Original or mutated data
+     */
+    private String mutate(final String data) {
+        final String result;
+        if (this.mutator.nextDouble() < this.mutation) {
+            result = data.concat("_");
+        } else {
+            result = data;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a draft node.
+     * @param type Type name
+     * @param data Node data
+     * @param children List of children
+     * @return A node
+     */
+    private static Node createNode(final String type, final String data,
+        final List<Node> children) {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName(type);
+        ctor.setData(data);
+        ctor.setChildrenList(children);
+        return ctor.createNode();
+    }
+}
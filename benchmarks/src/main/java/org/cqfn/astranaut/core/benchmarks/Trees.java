@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.benchmarks;
+
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.mapping.MappingSession;
+import org.cqfn.astranaut.core.utils.BinarySerializer;
+import org.cqfn.astranaut.core.utils.JsonSerializer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state that contains a pair of synthetic trees of the requested shape and size.
+ * The 'after' tree has the same structure as the 'before' tree, but about one percent
+ *  of its leaves contain different data.
+ *
+ * @since 1.1.5
+ */
+@State(Scope.Benchmark)
+@SuppressWarnings({"PMD.BeanMembersShouldSerialize", "PMD.DataClass"})
+public class Trees {
+    /**
+     * Seed of the tree generator.
+     */
+    private static final long SEED = 0x5eedL;
+
+    /**
+     * Share of mutated leaves in the 'after' tree.
+     */
+    private static final double MUTATION = 0.01;
+
+    /**
+     * Shape of the trees.
+     */
+    @Param({"WIDE", "DEEP", "BALANCED", "REALISTIC"})
+    public Shape shape;
+
+    /**
+     * Approximate number of nodes in each tree.
+     */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * The tree before changes.
+     */
+    private Node before;
+
+    /**
+     * The tree after changes.
+     */
+    private Node after;
+
+    /**
+     * The 'before' tree serialized to JSON.
+     */
+    private String json;
+
+    /**
+     * The 'before' tree serialized to the compressed binary representation.
+     */
+    private byte[] binary;
+
+    /**
+     * Mapping session whose 'left' tree is the 'before' tree.
+     */
+    private MappingSession session;
+
+    /**
+     * Creates the trees.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        this.before = new TreeGenerator(Trees.SEED, 0).create(this.shape, this.size);
+        this.after = new TreeGenerator(Trees.SEED, Trees.MUTATION).create(this.shape, this.size);
+        this.json = new JsonSerializer(this.before).serialize();
+        this.binary = new BinarySerializer(this.before, true).serialize();
+        this.session = new MappingSession(this.before);
+    }
+
+    /**
+     * Returns the tree before changes.
+     * @return Root node
+     */
+    public Node getBefore() {
+        return this.before;
+    }
+
+    /**
+     * Returns the tree after changes.
+     * @return Root node
+     */
+    public Node getAfter() {
+        return this.after;
+    }
+
+    /**
+     * Returns the 'before' tree serialized to JSON.
+     * @return JSON text
+     */
+    public String getJson() {
+        return this.json;
+    }
+
+    /**
+     * Returns the 'before' tree serialized to the compressed binary representation.
+     * @return Array of bytes
+     */
+    @SuppressWarnings("PMD.MethodReturnsInternalArray")
+    public byte[] getBinary() {
+        return this.binary;
+    }
+
+    /**
+     * Returns the mapping session whose 'left' tree is the 'before' tree.
+     * @return Mapping session
+     */
+    public MappingSession getSession() {
+        return this.session;
+    }
+}
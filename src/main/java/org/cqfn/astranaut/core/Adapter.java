@@ -24,7 +24,11 @@
 package org.cqfn.astranaut.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
 
 /**
  * Tree converter built on a set of rules described in DSL.
@@ -32,6 +36,11 @@ import java.util.List;
  * @since 1.0
  */
 public class Adapter {
+    /**
+     * Initial capacity of the stack of converted nodes.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
     /**
      * The list of node converters.
      */
@@ -42,6 +51,11 @@ public class Adapter {
      */
     private final Factory factory;
 
+    /**
+     * Index that selects converters which can be applied to a node.
+     */
+    private final ConverterIndex index;
+
     /**
      * Constructor.
      * @param converters The list of node converters
@@ -50,58 +64,89 @@ public class Adapter {
     public Adapter(final List<Converter> converters, final Factory factory) {
         this.converters = converters;
         this.factory = factory;
+        this.index = new ConverterIndex(converters);
     }
 
     /**
      * Converts the [sub]tree to another, based on DSL rules.
+     * Each node is tried only against the converters that can be applied to it
+     *  (see {@link Converter#getRootTypes()}), in the order of the list of converters.
+     *  Converters receive a {@link Captures} buffer that is created once per call and reused
+     *  by all conversions within it.
      * @param root The root node of the subtree
      * @return A converted tree or empty tree if the conversion is impossible
      */
     public Node convert(final Node root) {
-        final ConvertibleNode convertible = new ConvertibleNode(root);
-        Node result = convertible;
-        final List<ConvertibleNode> nodes = new ArrayList<>(0);
-        NodeListBuilder.buildNodeList(convertible, nodes);
-        for (final ConvertibleNode original : nodes) {
-            boolean converted = false;
-            for (final Converter converter : this.converters) {
-                final Node transformed = converter.convert(original, this.factory);
-                if (!(transformed instanceof EmptyTree)) {
-                    result = Adapter.replace(original, result, transformed);
-                    converted = true;
-                    break;
-                }
-            }
-            if (!converted) {
-                result = Adapter.replace(original, result, original.rebuild());
-            }
+        return this.convertSubtree(root, new Captures());
+    }
+
+    /**
+     * Converts the [sub]tree to another, based on DSL rules, processing disjoint subtrees
+     *  in parallel. Small subtrees, whose parents are too large to be converted by one task,
+     *  are converted bottom-up in parallel by tasks, each of which converts several
+     *  neighboring subtrees. Then the remaining nodes above them are converted bottom-up
+     *  in the current thread. Since a node is converted only after all its children are
+     *  converted, the result is exactly the same as the result of {@link #convert(Node)}.
+     *  Nodes are wrapped only if their children have changed, as in {@link #convert(Node)}.
+     *  Converters must be thread-safe.
+     * @param root The root node of the subtree
+     * @param pool The pool in which subtrees are converted
+     * @return A converted tree or empty tree if the conversion is impossible
+     */
+    public Node convert(final Node root, final ForkJoinPool pool) {
+        final NodeListBuilder list = NodeListBuilder.build(root);
+        final List<Conversion> tasks = Conversion.split(this, list);
+        for (final Conversion task : tasks) {
+            pool.execute(task);
         }
-        return result;
+        for (final Conversion task : tasks) {
+            task.join();
+        }
+        final Assembly assembly = new Assembly(this, list);
+        new DepthFirstWalker(root).walk(assembly);
+        return assembly.results[0];
+    }
+
+    /**
+     * Converts the [sub]tree repeatedly until it stops changing, so that conversions whose
+     *  result enables other conversions higher in the tree are all made.
+     * The first pass visits all nodes; each next pass visits only the nodes created in the
+     *  previous pass and their ancestors, since the other nodes can not be converted again.
+     *  Converters must depend only on the subtree they convert.
+     * @param root The root node of the subtree
+     * @param limit Maximum number of passes
+     * @return The converted tree together with statistics of passes and conversions
+     */
+    public FixedPointResult convertToFixedPoint(final Node root, final int limit) {
+        final FixedPointConversion conversion =
+            new FixedPointConversion(this.converters, this.index, this.factory);
+        return conversion.run(root, limit);
+    }
+
+    /**
+     * Finds all variants of applying the first converter to the [sub]tree.
+     * Each variant is the [sub]tree in which one node is converted; variant trees are built
+     *  on demand and share unchanged subtrees with the original [sub]tree.
+     * @param root The root node of the subtree
+     * @return Variants of conversion
+     */
+    public ConversionVariants getVariants(final Node root) {
+        return new ConversionVariants(root, this.converters.get(0), this.factory);
     }
 
     /**
      * Converts the [sub]tree to another applying the specified variant
      * of conversion.
+     * To build several variants, use {@link #getVariants(Node)}, which finds all variants once.
      * @param variant The variant index
      * @param root The root node of the subtree
-     * @return A converted tree or empty tree if the conversion is impossible
+     * @return A converted tree, or the same tree if there is no such variant
      */
     public Node partialConvert(final int variant, final Node root) {
-        int conversions = 0;
-        final ConvertibleNode convertible = new ConvertibleNode(root);
-        Node result = convertible;
-        final List<ConvertibleNode> nodes = new ArrayList<>(0);
-        NodeListBuilder.buildNodeList(convertible, nodes);
-        for (final ConvertibleNode original : nodes) {
-            final Converter converter = this.converters.get(0);
-            final Node transformed = converter.convert(original, this.factory);
-            if (!(transformed instanceof EmptyTree)) {
-                if (variant == conversions) {
-                    result = Adapter.replace(original, result, transformed);
-                    break;
-                }
-                conversions += 1;
-            }
+        final ConversionVariants variants = this.getVariants(root);
+        Node result = root;
+        if (variant >= 0 && variant < variants.size()) {
+            result = variants.get(variant);
         }
         return result;
     }
@@ -113,59 +158,430 @@ public class Adapter {
      * @return Amount of conversions
      */
     public int calculateConversions(final Node root) {
-        int conversions = 0;
-        final ConvertibleNode convertible = new ConvertibleNode(root);
-        final List<ConvertibleNode> nodes = new ArrayList<>(0);
-        NodeListBuilder.buildNodeList(convertible, nodes);
-        for (final ConvertibleNode original : nodes) {
-            final Converter converter = this.converters.get(0);
-            final Node transformed = converter.convert(original, this.factory);
-            if (!(transformed instanceof EmptyTree)) {
-                conversions += 1;
+        return this.getVariants(root).size();
+    }
+
+    /**
+     * Converts a subtree bottom-up. A node is wrapped into a convertible node only if
+     *  some of its children have changed, so unchanged subtrees are neither copied nor rebuilt.
+     *  The tree is traversed without recursion, so its depth is not limited by the stack size.
+     * @param node The root node of the subtree
+     * @param captures The buffer for values extracted by matchers
+     * @return The converted subtree, or the same node if nothing has changed
+     */
+    private Node convertSubtree(final Node node, final Captures captures) {
+        final Pass pass = new Pass(this, captures);
+        new DepthFirstWalker(node).walk(pass);
+        return pass.results[0];
+    }
+
+    /**
+     * Converts a node whose children are already converted. The node is wrapped into
+     *  a convertible node only if some of its children have changed.
+     * @param node The node to be converted
+     * @param children Array containing converted children of the node
+     * @param first Index of the first converted child in the array
+     * @param captures The buffer for values extracted by matchers
+     * @return The converted node, or the same node if nothing has changed
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private Node convertParent(final Node node, final Node[] children, final int first,
+        final Captures captures) {
+        final int count = node.getChildCount();
+        ConvertibleNode convertible = null;
+        for (int position = 0; position < count; position = position + 1) {
+            final Node converted = children[first + position];
+            if (convertible == null && converted != node.getChild(position)) {
+                convertible = new ConvertibleNode(node);
+            }
+            if (convertible != null) {
+                convertible.setChild(position, converted);
             }
         }
-        return conversions;
+        final Node result;
+        if (convertible == null) {
+            result = this.convertNode(node, captures);
+        } else {
+            result = this.convertNode(convertible, captures);
+        }
+        return result;
     }
 
     /**
-     * Replaces the [sub]tree to another.
-     * @param original The initial node to be converted
-     * @param target The result node
-     * @param transformed The new node
-     * @return Modified [sub]tree
+     * Converts a single node whose children are already converted.
+     * @param original The node to be converted
+     * @param captures The buffer for values extracted by matchers
+     * @return The result of the first successful conversion, or the rebuilt node (which is
+     *  the same node if it is not convertible) if no converter can be applied
      */
-    private static Node replace(final ConvertibleNode original,
-        final Node target, final Node transformed) {
-        Node result = target;
-        final ConvertibleNode parent = original.getParent();
-        if (parent == null) {
-            result = transformed;
-        } else {
-            parent.replaceChild(original, transformed);
+    private Node convertNode(final Node original, final Captures captures) {
+        Node result = null;
+        for (final Converter converter : this.index.getCandidates(original)) {
+            captures.reset();
+            final Node transformed = converter.convert(original, this.factory, captures);
+            if (!(transformed instanceof EmptyTree)) {
+                result = transformed;
+                break;
+            }
+        }
+        if (result == null && original instanceof ConvertibleNode) {
+            result = ((ConvertibleNode) original).rebuild();
+        }
+        if (result == null) {
+            result = original;
         }
         return result;
     }
 
     /**
      * Creates a list from nodes.
-     * The list is sorted in descending order of nodes depth in the tree.
-     * Leaf nodes are at the beginning of the list, and the last element is the root.
+     * The list is sorted in pre-order, so that a subtree whose root has the index {@code N}
+     *  in the list and whose size is {@code S} occupies positions from {@code N}
+     *  to {@code N + S - 1}, and the first element is the root.
      *
      * @since 0.2.2
      */
-    private static class NodeListBuilder {
+    private static final class NodeListBuilder implements DepthFirstWalker.Visitor {
+        /**
+         * Nodes in pre-order. After the parallel conversion, the roots of converted
+         *  subtrees are replaced with the results of conversion.
+         */
+        private Node[] nodes;
+
+        /**
+         * Sizes of subtrees, in the same order as the nodes.
+         */
+        private int[] sizes;
+
+        /**
+         * Number of listed nodes.
+         */
+        private int count;
+
+        /**
+         * Indexes of nodes on the current path.
+         */
+        private int[] path;
+
+        /**
+         * Number of nodes on the current path.
+         */
+        private int depth;
+
+        /**
+         * Constructor.
+         */
+        private NodeListBuilder() {
+            this.nodes = new Node[Adapter.INITIAL_CAPACITY];
+            this.sizes = new int[Adapter.INITIAL_CAPACITY];
+            this.path = new int[Adapter.INITIAL_CAPACITY];
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            final int index = this.count;
+            if (index == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, index * 2);
+                this.sizes = Arrays.copyOf(this.sizes, index * 2);
+            }
+            if (this.depth == this.path.length) {
+                this.path = Arrays.copyOf(this.path, this.depth * 2);
+            }
+            this.nodes[index] = node;
+            this.path[this.depth] = index;
+            this.depth = this.depth + 1;
+            this.count = index + 1;
+            return true;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            this.depth = this.depth - 1;
+            final int index = this.path[this.depth];
+            this.sizes[index] = this.count - index;
+        }
+
         /**
          * Expands the tree to the node list.
          * @param root Root node
-         * @param nodes Resulting list of nodes
+         * @return The builder containing the list of nodes
+         */
+        private static NodeListBuilder build(final Node root) {
+            final NodeListBuilder builder = new NodeListBuilder();
+            new DepthFirstWalker(root).walk(builder);
+            return builder;
+        }
+    }
+
+    /**
+     * Task that converts sequentially the small subtrees located in a range of the list
+     *  of nodes. A subtree is small if it is not larger than the threshold; only small
+     *  subtrees whose parents are not small are converted, so tasks never overlap.
+     *
+     * @since 1.1.5
+     */
+    private static final class Conversion extends RecursiveAction {
+        /**
+         * Maximum size of a subtree converted by one task, and the minimum total size
+         *  of subtrees converted by one task (unless there are not enough subtrees).
+         */
+        private static final int THRESHOLD = 1024;
+
+        /**
+         * Version identifier.
+         */
+        private static final long serialVersionUID = -3712009867128711535L;
+
+        /**
+         * The adapter.
+         */
+        private final transient Adapter adapter;
+
+        /**
+         * List of all nodes.
          */
-        private static void buildNodeList(final ConvertibleNode root,
-            final List<ConvertibleNode> nodes) {
-            final int count = root.getChildCount();
-            for (int index = 0; index < count; index = index + 1) {
-                NodeListBuilder.buildNodeList(root.getConvertibleChild(index), nodes);
+        private final transient NodeListBuilder list;
+
+        /**
+         * Index of the first node of the range in the list of nodes.
+         */
+        private final int start;
+
+        /**
+         * Index following the last node of the range in the list of nodes.
+         */
+        private final int end;
+
+        /**
+         * Constructor.
+         * @param adapter The adapter
+         * @param list List of all nodes
+         * @param start Index of the first node of the range in the list of nodes
+         * @param end Index following the last node of the range
+         * @checkstyle ParameterNumberCheck (3 lines)
+         */
+        private Conversion(final Adapter adapter, final NodeListBuilder list,
+            final int start, final int end) {
+            super();
+            this.adapter = adapter;
+            this.list = list;
+            this.start = start;
+            this.end = end;
+        }
+
+        // @checkstyle ProtectedMethodInFinalClassCheck (2 lines)
+        @Override
+        protected void compute() {
+            final Captures captures = new Captures();
+            for (int index = this.start; index < this.end;
+                index = Conversion.next(this.list, index)) {
+                if (Conversion.isSmall(this.list, index)) {
+                    this.list.nodes[index] = this.adapter.convertSubtree(
+                        this.list.nodes[index], captures
+                    );
+                }
+            }
+        }
+
+        /**
+         * Checks whether the subtree is small enough to be converted by one task.
+         * @param list List of all nodes
+         * @param index Index of the root of the subtree
+         * @return Checking result
+         */
+        private static boolean isSmall(final NodeListBuilder list, final int index) {
+            return list.sizes[index] <= Conversion.THRESHOLD;
+        }
+
+        /**
+         * Returns the index of the next node to be visited in the list of nodes: the nodes
+         *  of small subtrees are skipped.
+         * @param list List of all nodes
+         * @param index Index of the current node
+         * @return Index of the next node
+         */
+        private static int next(final NodeListBuilder list, final int index) {
+            final int result;
+            if (Conversion.isSmall(list, index)) {
+                result = index + list.sizes[index];
+            } else {
+                result = index + 1;
+            }
+            return result;
+        }
+
+        /**
+         * Splits the tree into tasks. Each task converts the small subtrees whose parents
+         *  are not small, going one after another in the list of nodes, until their total
+         *  size reaches the threshold.
+         * @param adapter The adapter
+         * @param list List of all nodes
+         * @return List of tasks
+         */
+        private static List<Conversion> split(final Adapter adapter, final NodeListBuilder list) {
+            final List<Conversion> tasks = new ArrayList<>(0);
+            int first = 0;
+            int total = 0;
+            int index = 0;
+            while (index < list.count) {
+                if (Conversion.isSmall(list, index)) {
+                    total = total + list.sizes[index];
+                }
+                index = Conversion.next(list, index);
+                if (total >= Conversion.THRESHOLD) {
+                    tasks.add(new Conversion(adapter, list, first, index));
+                    first = index;
+                    total = 0;
+                }
+            }
+            if (total > 0) {
+                tasks.add(new Conversion(adapter, list, first, list.count));
+            }
+            return tasks;
+        }
+    }
+
+    /**
+     * Visitor that converts, in post-order, the nodes that are too large to be converted
+     *  by one task, taking the converted small subtrees from the list of nodes.
+     *
+     * @since 1.1.5
+     */
+    private static final class Assembly implements DepthFirstWalker.Visitor {
+        /**
+         * The adapter.
+         */
+        private final Adapter adapter;
+
+        /**
+         * List of all nodes in which small subtrees are converted.
+         */
+        private final NodeListBuilder list;
+
+        /**
+         * The buffer for values extracted by matchers.
+         */
+        private final Captures captures;
+
+        /**
+         * Stack of converted nodes.
+         */
+        private Node[] results;
+
+        /**
+         * Number of nodes on the stack.
+         */
+        private int size;
+
+        /**
+         * Index of the next node in the list of nodes.
+         */
+        private int index;
+
+        /**
+         * Constructor.
+         * @param adapter The adapter
+         * @param list List of all nodes in which small subtrees are converted
+         */
+        private Assembly(final Adapter adapter, final NodeListBuilder list) {
+            this.adapter = adapter;
+            this.list = list;
+            this.captures = new Captures();
+            this.results = new Node[Adapter.INITIAL_CAPACITY];
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            final int current = this.index;
+            final boolean large = !Conversion.isSmall(this.list, current);
+            if (!large) {
+                this.push(this.list.nodes[current]);
+            }
+            this.index = Conversion.next(this.list, current);
+            return large;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            final int first = this.size - node.getChildCount();
+            final Node converted = this.adapter.convertParent(
+                node, this.results, first, this.captures
+            );
+            Arrays.fill(this.results, first, this.size, null);
+            this.size = first;
+            this.push(converted);
+        }
+
+        /**
+         * Pushes a converted node onto the stack.
+         * @param node The node
+         */
+        private void push(final Node node) {
+            if (this.size == this.results.length) {
+                this.results = Arrays.copyOf(this.results, this.size * 2);
+            }
+            this.results[this.size] = node;
+            this.size = this.size + 1;
+        }
+    }
+
+    /**
+     * Visitor that converts nodes of a subtree in post-order.
+     * Converted nodes are kept on a stack until their parent is converted.
+     *
+     * @since 1.1.5
+     */
+    private static final class Pass implements DepthFirstWalker.Visitor {
+        /**
+         * The adapter.
+         */
+        private final Adapter adapter;
+
+        /**
+         * The buffer for values extracted by matchers.
+         */
+        private final Captures captures;
+
+        /**
+         * Stack of converted nodes.
+         */
+        private Node[] results;
+
+        /**
+         * Number of nodes on the stack.
+         */
+        private int size;
+
+        /**
+         * Constructor.
+         * @param adapter The adapter
+         * @param captures The buffer for values extracted by matchers
+         */
+        private Pass(final Adapter adapter, final Captures captures) {
+            this.adapter = adapter;
+            this.captures = captures;
+            this.results = new Node[Adapter.INITIAL_CAPACITY];
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            return true;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            final int first = this.size - node.getChildCount();
+            final Node converted = this.adapter.convertParent(
+                node, this.results, first, this.captures
+            );
+            Arrays.fill(this.results, first, this.size, null);
+            this.size = first;
+            if (this.size == this.results.length) {
+                this.results = Arrays.copyOf(this.results, this.size * 2);
             }
-            nodes.add(root);
+            this.results[this.size] = converted;
+            this.size = this.size + 1;
         }
     }
 }
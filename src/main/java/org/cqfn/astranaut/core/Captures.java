@@ -0,0 +1,175 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reusable buffer in which matchers save children and data extracted from a matched subtree.
+ * Captured values are indexed by small non-negative integers, as in DSL rules.
+ * The buffer is cleared by {@link #reset()} without freeing its storage, so one buffer
+ *  can serve any number of matching attempts without allocating memory.
+ * The buffer is not thread-safe.
+ *
+ * @since 1.1.5
+ */
+public final class Captures {
+    /**
+     * Initial number of slots.
+     */
+    private static final int DEFAULT_CAPACITY = 8;
+
+    /**
+     * Captured lists of children, by index.
+     */
+    private final List<List<Node>> children;
+
+    /**
+     * Captured data, by index.
+     */
+    private final List<String> data;
+
+    /**
+     * Constructor.
+     */
+    public Captures() {
+        this.children = new ArrayList<>(Captures.DEFAULT_CAPACITY);
+        this.data = new ArrayList<>(Captures.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Saves a list of children.
+     * @param index The index
+     * @param nodes The list of children
+     */
+    public void putChildren(final int index, final List<Node> nodes) {
+        Captures.put(this.children, index, nodes);
+    }
+
+    /**
+     * Returns a saved list of children.
+     * @param index The index
+     * @return The list of children or {@code null} if nothing was saved with this index
+     */
+    public List<Node> getChildren(final int index) {
+        return Captures.get(this.children, index);
+    }
+
+    /**
+     * Saves data.
+     * @param index The index
+     * @param value The data
+     */
+    public void putData(final int index, final String value) {
+        Captures.put(this.data, index, value);
+    }
+
+    /**
+     * Returns saved data.
+     * @param index The index
+     * @return The data or {@code null} if nothing was saved with this index
+     */
+    public String getData(final int index) {
+        return Captures.get(this.data, index);
+    }
+
+    /**
+     * Removes all saved values, keeping the storage for reuse.
+     */
+    public void reset() {
+        this.children.clear();
+        this.data.clear();
+    }
+
+    /**
+     * Saves all values from maps filled by a matcher that uses the map-based contract.
+     * @param nodes Lists of children, by index
+     * @param values Data, by index
+     */
+    public void putAll(final Map<Integer, List<Node>> nodes, final Map<Integer, String> values) {
+        for (final Map.Entry<Integer, List<Node>> entry : nodes.entrySet()) {
+            this.putChildren(entry.getKey(), entry.getValue());
+        }
+        for (final Map.Entry<Integer, String> entry : values.entrySet()) {
+            this.putData(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Copies all saved values to maps, as a matcher that uses the map-based contract does.
+     * @param nodes Where to copy lists of children
+     * @param values Where to copy data
+     */
+    public void copyTo(final Map<Integer, List<Node>> nodes, final Map<Integer, String> values) {
+        Captures.copy(this.children, nodes);
+        Captures.copy(this.data, values);
+    }
+
+    /**
+     * Saves a value to a list of slots, expanding the list if necessary.
+     * @param slots The list of slots
+     * @param index The index of the slot
+     * @param value The value
+     * @param <T> Type of values
+     */
+    private static <T> void put(final List<T> slots, final int index, final T value) {
+        while (slots.size() <= index) {
+            slots.add(null);
+        }
+        slots.set(index, value);
+    }
+
+    /**
+     * Returns a value from a list of slots.
+     * @param slots The list of slots
+     * @param index The index of the slot
+     * @param <T> Type of values
+     * @return The value or {@code null} if the slot is empty
+     */
+    private static <T> T get(final List<T> slots, final int index) {
+        T result = null;
+        if (index >= 0 && index < slots.size()) {
+            result = slots.get(index);
+        }
+        return result;
+    }
+
+    /**
+     * Copies non-empty slots to a map.
+     * @param slots The list of slots
+     * @param map The map
+     * @param <T> Type of values
+     */
+    private static <T> void copy(final List<T> slots, final Map<Integer, T> map) {
+        final int size = slots.size();
+        for (int index = 0; index < size; index = index + 1) {
+            final T value = slots.get(index);
+            if (value != null) {
+                map.put(index, value);
+            }
+        }
+    }
+}
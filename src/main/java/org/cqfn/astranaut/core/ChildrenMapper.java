@@ -23,49 +23,36 @@
  */
 package org.cqfn.astranaut.core;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
 /**
  * Mapping of the list of nodes by positions based on node types.
+ * Everything that depends only on the list of child descriptors (positions arranged by type
+ *  name, required positions, matches of node types with type names) is compiled once into
+ *  a plan when the mapper is created. Each call of {@link #map(Node[], List)} allocates only
+ *  small arrays with the state of the mapping, so the mapper is thread-safe and is intended
+ *  to be created once per node type and stored in a constant, for example, in the builder
+ *  class of the type.
  *
  * @since 1.0
  */
 public class ChildrenMapper {
     /**
-     * The list of child descriptors.
+     * The plan compiled from the list of child descriptors.
      */
-    private final List<ChildDescriptor> descriptors;
-
-    /**
-     * Required positions (must be filled in).
-     */
-    private PositionSet required;
-
-    /**
-     * All possible positions.
-     */
-    private PositionSet possible;
-
-    /**
-     * Number of unused cells of each type.
-     */
-    private Map<String, Integer> unused;
-
-    /**
-     * The appropriate types from the descriptors for each node.
-     */
-    private Map<Node, String> suitable;
+    private final Plan plan;
 
     /**
      * Constructor.
      * @param descriptors The list of child descriptors.
      */
     public ChildrenMapper(final List<ChildDescriptor> descriptors) {
-        this.descriptors = descriptors;
+        this.plan = new Plan(descriptors);
     }
 
     /**
@@ -77,157 +64,432 @@ public class ChildrenMapper {
      */
     public boolean map(final Node[] destination, final List<Node> source) {
         boolean result = false;
-        final int capacity = this.descriptors.size();
+        final int capacity = this.plan.capacity;
         final int count = source.size();
         if (capacity == 0 && count == 0) {
             result = true;
         } else if (capacity >= count) {
             assert destination.length == capacity;
-            this.required = new PositionSet(false);
-            this.required.init();
-            if (count >= this.required.getCount()) {
-                result = this.fullMapping(destination, source);
+            if (count >= this.plan.required) {
+                result = new Mapping(this.plan, source).map(destination);
             }
         }
         return result;
     }
 
     /**
-     * Full mapper that performs matching in two passes.
-     * @param destination The array in which each node is placed at a suitable position
-     * @param source The source list of nodes
-     * @return Mapping result, {@code true} if such a mapping is possible (array was filled)
+     * Immutable data compiled from a list of child descriptors.
+     * Type names from descriptors are numbered in alphabetical order, and positions
+     *  are arranged by these numbers.
+     *
+     * @since 1.1.5
      */
-    private boolean fullMapping(final Node[] destination, final List<Node> source) {
-        boolean result;
-        do {
-            result = this.calculate(source);
-            if (!result) {
-                break;
+    private static final class Plan {
+        /**
+         * Maximum number of node types whose matches are cached.
+         */
+        private static final int CACHE_SIZE = 64;
+
+        /**
+         * Number of positions.
+         */
+        private final int capacity;
+
+        /**
+         * Number of required positions.
+         */
+        private final int required;
+
+        /**
+         * Distinct type names from descriptors, in alphabetical order.
+         */
+        private final String[] names;
+
+        /**
+         * Positions arranged by numbers of type names, in ascending order.
+         */
+        private final int[][] positions;
+
+        /**
+         * Numbers of type names by positions.
+         */
+        private final int[] kinds;
+
+        /**
+         * Flags indicating required positions.
+         */
+        private final boolean[] mandatory;
+
+        /**
+         * Matches of node types with type names, cached by node type. The map is never
+         *  modified after publication, new entries are added by replacing the whole map.
+         */
+        private volatile Map<Type, Matches> matches;
+
+        /**
+         * Constructor.
+         * @param descriptors The list of child descriptors
+         */
+        private Plan(final List<ChildDescriptor> descriptors) {
+            this(descriptors, Plan.collectNames(descriptors));
+        }
+
+        /**
+         * Constructor.
+         * @param descriptors The list of child descriptors
+         * @param numbers Numbers of type names
+         */
+        private Plan(final List<ChildDescriptor> descriptors, final Map<String, Integer> numbers) {
+            this.capacity = descriptors.size();
+            this.required = Plan.countRequired(descriptors);
+            this.names = numbers.keySet().toArray(new String[0]);
+            this.kinds = Plan.findKinds(descriptors, numbers);
+            this.positions = Plan.arrangePositions(this.kinds, numbers.size());
+            this.mandatory = Plan.findMandatory(descriptors);
+            this.matches = Collections.emptyMap();
+        }
+
+        /**
+         * Returns matches of a node type with type names from descriptors.
+         * @param type The node type
+         * @return Matches of the node type
+         */
+        Matches getMatches(final Type type) {
+            Matches result = this.matches.get(type);
+            if (result == null) {
+                result = new Matches(type, this.names);
+                synchronized (this.names) {
+                    if (this.matches.size() < Plan.CACHE_SIZE) {
+                        final Map<Type, Matches> copy = new IdentityHashMap<>(this.matches);
+                        copy.put(type, result);
+                        this.matches = copy;
+                    }
+                }
             }
-            this.possible = new PositionSet(true);
-            this.possible.init();
-            final Node[] array = new Node[source.size()];
-            source.toArray(array);
-            final int unprocessed = this.bindAllUniqueNodes(destination, array);
-            if (unprocessed < 0) {
-                result = false;
-                break;
-            } else if (unprocessed == 0) {
-                result = this.required.getCount() == 0;
-                break;
+            return result;
+        }
+
+        /**
+         * Numbers distinct type names from descriptors in alphabetical order.
+         * @param descriptors The list of child descriptors
+         * @return Numbers of type names, in alphabetical order
+         */
+        private static Map<String, Integer> collectNames(final List<ChildDescriptor> descriptors) {
+            final Map<String, Integer> map = new TreeMap<>();
+            for (final ChildDescriptor descriptor : descriptors) {
+                map.put(descriptor.getType(), 0);
             }
-            result = this.bindAllNodes(destination, array) && this.required.getCount() == 0;
-        } while (false);
-        return result;
-    }
+            int number = 0;
+            for (final Map.Entry<String, Integer> entry : map.entrySet()) {
+                entry.setValue(number);
+                number = number + 1;
+            }
+            return map;
+        }
 
-    /**
-     * Counts the number of nodes of each type and calculates the suitable type names.
-     * @param nodes The list of nodes
-     * @return Calculation result, {@code true} if structures have been filled
-     */
-    private boolean calculate(final List<Node> nodes) {
-        boolean result = true;
-        this.unused = new TreeMap<>();
-        this.suitable = new HashMap<>();
-        final PositionSet set = new PositionSet(true);
-        set.init();
-        for (final Node node : nodes) {
-            final String type = set.findSuitableBaseType(node);
-            if (type.isEmpty()) {
-                result = false;
-                break;
+        /**
+         * Counts required positions.
+         * @param descriptors The list of child descriptors
+         * @return Number of required positions
+         */
+        private static int countRequired(final List<ChildDescriptor> descriptors) {
+            int count = 0;
+            for (final ChildDescriptor descriptor : descriptors) {
+                if (!descriptor.isOptional()) {
+                    count = count + 1;
+                }
             }
-            final Integer count = this.unused.computeIfAbsent(type, x -> 0);
-            this.unused.put(type, count + 1);
-            this.suitable.put(node, type);
+            return count;
+        }
+
+        /**
+         * Finds numbers of type names for all positions.
+         * @param descriptors The list of child descriptors
+         * @param numbers Numbers of type names
+         * @return Array of numbers of type names by positions
+         */
+        private static int[] findKinds(final List<ChildDescriptor> descriptors,
+            final Map<String, Integer> numbers) {
+            final int[] kinds = new int[descriptors.size()];
+            for (int index = 0; index < kinds.length; index = index + 1) {
+                kinds[index] = numbers.get(descriptors.get(index).getType());
+            }
+            return kinds;
+        }
+
+        /**
+         * Arranges positions by numbers of type names.
+         * @param kinds Numbers of type names by positions
+         * @param count Number of distinct type names
+         * @return Arrays of positions in ascending order, by numbers of type names
+         */
+        private static int[][] arrangePositions(final int[] kinds, final int count) {
+            final int[] sizes = new int[count];
+            for (final int kind : kinds) {
+                sizes[kind] = sizes[kind] + 1;
+            }
+            final int[][] result = new int[count][];
+            for (int kind = 0; kind < count; kind = kind + 1) {
+                result[kind] = new int[sizes[kind]];
+                sizes[kind] = 0;
+            }
+            for (int position = 0; position < kinds.length; position = position + 1) {
+                final int kind = kinds[position];
+                result[kind][sizes[kind]] = position;
+                sizes[kind] = sizes[kind] + 1;
+            }
+            return result;
+        }
+
+        /**
+         * Finds required positions.
+         * @param descriptors The list of child descriptors
+         * @return Array of flags indicating required positions
+         */
+        private static boolean[] findMandatory(final List<ChildDescriptor> descriptors) {
+            final boolean[] flags = new boolean[descriptors.size()];
+            for (int index = 0; index < flags.length; index = index + 1) {
+                flags[index] = !descriptors.get(index).isOptional();
+            }
+            return flags;
         }
-        return result;
     }
 
     /**
-     * Binds all nodes, the type of which occurs once.
-     * @param destination Array in which each node is placed at a suitable position
-     * @param source Array of source nodes
-     * @return Number of unprocessed nodes, or -1 if binding failed
+     * Matches of a node type with type names from descriptors: the number of the type name
+     *  of the node type and the groups to which the node type belongs.
+     *
+     * @since 1.1.5
      */
-    private int bindAllUniqueNodes(final Node[] destination, final Node... source) {
-        int count = source.length;
-        for (int index = 0; index < source.length; index = index + 1) {
-            final Node node = source[index];
-            final String type = this.suitable.get(node);
-            if (this.unused.get(type) == 1) {
-                count = count - 1;
-                List<Integer> positions = this.required.getPositionsByType(type);
-                if (positions == null) {
-                    positions = this.possible.getPositionsByType(type);
-                }
-                if (positions.size() > 1) {
-                    count = -1;
-                    break;
-                }
-                final Integer position = positions.get(0);
-                destination[position] = node;
-                source[index] = EmptyTree.INSTANCE;
-                this.required.removePosition(type, position);
-                this.possible.removePosition(type, position);
-                this.unused.put(type, 0);
+    private static final class Matches {
+        /**
+         * The number of the name of the node type, or -1 if there is no such type name.
+         */
+        private final int number;
+
+        /**
+         * Flags indicating type names of groups to which the node type belongs,
+         *  by numbers of type names.
+         */
+        private final boolean[] groups;
+
+        /**
+         * Constructor.
+         * @param type The node type
+         * @param names Type names, in alphabetical order
+         */
+        private Matches(final Type type, final String... names) {
+            this.number = Math.max(-1, Arrays.binarySearch(names, type.getName()));
+            this.groups = Matches.findGroups(type, names);
+        }
+
+        /**
+         * Checks to which groups the node type belongs.
+         * @param type The node type
+         * @param names Type names, in alphabetical order
+         * @return Flags indicating type names of groups, by numbers of type names
+         */
+        private static boolean[] findGroups(final Type type, final String... names) {
+            final boolean[] flags = new boolean[names.length];
+            for (int index = 0; index < names.length; index = index + 1) {
+                flags[index] = type.belongsToGroup(names[index]);
             }
+            return flags;
         }
-        return count;
     }
 
     /**
-     * Binds all nodes (given their order).
-     * @param destination Array in which each node is placed at a suitable position
-     * @param source Array of source nodes
-     * @return Binding result, {@code true} if all nodes were bind
+     * State of mapping of one list of nodes.
+     *
+     * @since 1.1.5
      */
-    private boolean bindAllNodes(final Node[] destination, final Node... source) {
-        boolean result = true;
-        for (final Node node : source) {
-            if (!(node instanceof EmptyTree)) {
-                final String type = this.suitable.get(node);
-                final List<Integer> allowed = this.possible.getPositionsByType(type);
-                if (allowed == null) {
+    private static final class Mapping {
+        /**
+         * The plan.
+         */
+        private final Plan plan;
+
+        /**
+         * Source nodes; bound nodes are replaced with the empty tree.
+         */
+        private final Node[] nodes;
+
+        /**
+         * Numbers of suitable type names for each node.
+         */
+        private final int[] suitable;
+
+        /**
+         * Number of unused cells of each type.
+         */
+        private final int[] unused;
+
+        /**
+         * Required positions (must be filled in).
+         */
+        private final PositionSet required;
+
+        /**
+         * All possible positions.
+         */
+        private final PositionSet possible;
+
+        /**
+         * Constructor.
+         * @param plan The plan
+         * @param source The source list of nodes
+         */
+        private Mapping(final Plan plan, final List<Node> source) {
+            this.plan = plan;
+            this.nodes = source.toArray(new Node[0]);
+            this.suitable = new int[this.nodes.length];
+            this.unused = new int[plan.names.length];
+            this.required = new PositionSet(plan, false);
+            this.possible = new PositionSet(plan, true);
+        }
+
+        /**
+         * Full mapper that performs matching in two passes.
+         * @param destination The array in which each node is placed at a suitable position
+         * @return Mapping result, {@code true} if such a mapping is possible (array was filled)
+         */
+        private boolean map(final Node... destination) {
+            boolean result = this.calculate();
+            if (result) {
+                final int unprocessed = this.bindAllUniqueNodes(destination);
+                if (unprocessed < 0) {
                     result = false;
-                    break;
+                } else if (unprocessed == 0) {
+                    result = this.required.getCount() == 0;
+                } else {
+                    result = this.bindAllNodes(destination) && this.required.getCount() == 0;
                 }
-                final int unprocessed = this.unused.get(type);
-                final List<Integer> obligatory = this.required.getPositionsByType(type);
-                final Integer position;
-                if (obligatory == null && allowed.size() > 1) {
+            }
+            return result;
+        }
+
+        /**
+         * Counts the number of nodes of each type and calculates the suitable type names.
+         * If the same node occurs several times, for example, if it is shared by
+         *  {@link SharingFactory}, each occurrence is considered separately.
+         * @return Calculation result, {@code true} if structures have been filled
+         */
+        private boolean calculate() {
+            boolean result = true;
+            final PositionSet set = new PositionSet(this.plan, true);
+            for (int index = 0; index < this.nodes.length; index = index + 1) {
+                final int kind = set.findSuitableBaseType(this.nodes[index]);
+                if (kind < 0) {
                     result = false;
                     break;
-                } else if (obligatory == null || unprocessed > obligatory.size()) {
-                    position = allowed.get(0);
-                } else  {
-                    position = obligatory.get(0);
                 }
-                destination[position] = node;
-                this.required.removePosition(type, position);
-                this.possible.removePosition(type, position);
-                this.unused.put(type, unprocessed - 1);
+                this.unused[kind] = this.unused[kind] + 1;
+                this.suitable[index] = kind;
             }
+            return result;
+        }
+
+        /**
+         * Binds all nodes, the type of which occurs once.
+         * @param destination Array in which each node is placed at a suitable position
+         * @return Number of unprocessed nodes, or -1 if binding failed
+         */
+        private int bindAllUniqueNodes(final Node... destination) {
+            int count = this.nodes.length;
+            for (int index = 0; index < this.nodes.length; index = index + 1) {
+                final int kind = this.suitable[index];
+                if (this.unused[kind] == 1) {
+                    count = count - 1;
+                    PositionSet positions = this.required;
+                    if (positions.getSize(kind) == 0) {
+                        positions = this.possible;
+                    }
+                    if (positions.getSize(kind) > 1) {
+                        count = -1;
+                        break;
+                    }
+                    this.bind(destination, index, positions.getFirst(kind));
+                    this.unused[kind] = 0;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Binds all nodes (given their order).
+         * @param destination Array in which each node is placed at a suitable position
+         * @return Binding result, {@code true} if all nodes were bind
+         */
+        private boolean bindAllNodes(final Node... destination) {
+            boolean result = true;
+            for (int index = 0; result && index < this.nodes.length; index = index + 1) {
+                if (!(this.nodes[index] instanceof EmptyTree)) {
+                    result = this.bindNode(destination, index);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Binds a node, the type of which may occur several times.
+         * @param destination Array in which each node is placed at a suitable position
+         * @param index Index of the node
+         * @return Binding result, {@code true} if the node was bind
+         */
+        private boolean bindNode(final Node[] destination, final int index) {
+            final int kind = this.suitable[index];
+            final int allowed = this.possible.getSize(kind);
+            final int obligatory = this.required.getSize(kind);
+            final int unprocessed = this.unused[kind];
+            final boolean result = allowed > 0 && (obligatory > 0 || allowed == 1);
+            if (result) {
+                final int position;
+                if (obligatory == 0 || unprocessed > obligatory) {
+                    position = this.possible.getFirst(kind);
+                } else {
+                    position = this.required.getFirst(kind);
+                }
+                this.bind(destination, index, position);
+                this.unused[kind] = unprocessed - 1;
+            }
+            return result;
+        }
+
+        /**
+         * Places a node at a position.
+         * @param destination Array in which each node is placed at a suitable position
+         * @param index Index of the node
+         * @param position The position
+         */
+        private void bind(final Node[] destination, final int index, final int position) {
+            final int kind = this.suitable[index];
+            destination[position] = this.nodes[index];
+            this.nodes[index] = EmptyTree.INSTANCE;
+            this.required.removePosition(kind, position);
+            this.possible.removePosition(kind, position);
         }
-        return result;
     }
 
     /**
-     * The set of types with a relationship of possible position for a node of each such type.
+     * The set of positions arranged by numbers of type names.
+     *
      * @since 1.0
      */
-    private final class PositionSet {
+    private static final class PositionSet {
+        /**
+         * The plan.
+         */
+        private final Plan plan;
+
         /**
-         * Also consider optional items.
+         * Flags indicating positions which are in the set.
          */
-        private final boolean optional;
+        private final boolean[] present;
 
         /**
-         * The set of positions arranged by type name.
+         * Number of positions in the set, by numbers of type names.
          */
-        private Map<String, List<Integer>> positions;
+        private final int[] sizes;
 
         /**
          * The number of positions.
@@ -236,10 +498,14 @@ public class ChildrenMapper {
 
         /**
          * Constructor.
+         * @param plan The plan
          * @param optional Also consider optional items
          */
-        private PositionSet(final boolean optional) {
-            this.optional = optional;
+        private PositionSet(final Plan plan, final boolean optional) {
+            this.plan = plan;
+            this.present = PositionSet.select(plan, optional);
+            this.sizes = new int[plan.names.length];
+            this.count = PositionSet.fill(this.sizes, this.present, plan.kinds);
         }
 
         /**
@@ -251,31 +517,45 @@ public class ChildrenMapper {
         }
 
         /**
-         * Returns list of positions by type name.
-         * @param type The type name
-         * @return The list of positions
+         * Returns the number of positions for a type name.
+         * @param kind The number of type name
+         * @return The number of positions
+         */
+        public int getSize(final int kind) {
+            return this.sizes[kind];
+        }
+
+        /**
+         * Returns the first position for a type name.
+         * @param kind The number of type name
+         * @return The position, or -1 if there are no positions for the type name
          */
-        public List<Integer> getPositionsByType(final String type) {
-            this.init();
-            return this.positions.get(type);
+        public int getFirst(final int kind) {
+            int result = -1;
+            for (final int position : this.plan.positions[kind]) {
+                if (this.present[position]) {
+                    result = position;
+                    break;
+                }
+            }
+            return result;
         }
 
         /**
          * Looks for suitable base type that can be mapped.
+         * If the node is mapped to a group, the first position of the group is removed.
          * @param node The node
-         * @return Base type or an empty string if node can't be mapped
-         */
-        public String findSuitableBaseType(final Node node) {
-            String result = "";
-            final Type type = node.getType();
-            final String name = type.getName();
-            if (this.positions.containsKey(name)) {
-                result = name;
-            } else {
-                for (final String group : this.positions.keySet()) {
-                    if (type.belongsToGroup(group)) {
-                        result = group;
-                        this.removeFirstPosition(group);
+         * @return The number of base type name, or -1 if node can't be mapped
+         */
+        public int findSuitableBaseType(final Node node) {
+            final Matches matches = this.plan.getMatches(node.getType());
+            int result = matches.number;
+            if (result < 0 || this.sizes[result] == 0) {
+                result = -1;
+                for (int kind = 0; kind < this.sizes.length; kind = kind + 1) {
+                    if (this.sizes[kind] > 0 && matches.groups[kind]) {
+                        result = kind;
+                        this.removePosition(kind, this.getFirst(kind));
                         break;
                     }
                 }
@@ -285,55 +565,47 @@ public class ChildrenMapper {
 
         /**
          * Removes position from the set.
-         * @param type The type name
-         * @param index The position index
+         * @param kind The number of type name
+         * @param position The position
          */
-        public void removePosition(final String type, final Integer index) {
-            final List<Integer> list = this.positions.get(type);
-            if (list != null && list.remove(index)) {
+        public void removePosition(final int kind, final int position) {
+            if (this.plan.kinds[position] == kind && this.present[position]) {
+                this.present[position] = false;
+                this.sizes[kind] = this.sizes[kind] - 1;
                 this.count = this.count - 1;
-                if (list.isEmpty()) {
-                    this.positions.remove(type);
-                }
             }
         }
 
         /**
-         * Initializes the set of positions.
+         * Selects positions which are initially in the set.
+         * @param plan The plan
+         * @param optional Also consider optional items
+         * @return Flags indicating positions which are in the set
          */
-        public void init() {
-            if (this.positions == null) {
-                this.positions = new TreeMap<>();
-                this.count = 0;
-                int index = 0;
-                for (final ChildDescriptor descriptor : ChildrenMapper.this.descriptors) {
-                    boolean allowed = true;
-                    if (!this.optional && descriptor.isOptional()) {
-                        allowed = false;
-                    }
-                    if (allowed) {
-                        final String type = descriptor.getType();
-                        final List<Integer> indexes = this.positions.computeIfAbsent(
-                            type, x -> new ArrayList<>(2)
-                        );
-                        indexes.add(index);
-                        this.count = this.count + 1;
-                    }
-                    index = index + 1;
-                }
+        private static boolean[] select(final Plan plan, final boolean optional) {
+            final boolean[] flags = new boolean[plan.capacity];
+            for (int position = 0; position < flags.length; position = position + 1) {
+                flags[position] = optional || plan.mandatory[position];
             }
+            return flags;
         }
 
         /**
-         * Removes first position from the set for the specified type.
-         * @param type The type name
+         * Counts positions by numbers of type names.
+         * @param sizes Where to store numbers of positions by numbers of type names
+         * @param present Flags indicating positions which are in the set
+         * @param kinds Numbers of type names by positions
+         * @return Total number of positions
          */
-        private void removeFirstPosition(final String type) {
-            final List<Integer> list = this.positions.get(type);
-            list.remove(0);
-            if (list.isEmpty()) {
-                this.positions.remove(type);
+        private static int fill(final int[] sizes, final boolean[] present, final int... kinds) {
+            int total = 0;
+            for (int position = 0; position < kinds.length; position = position + 1) {
+                if (present[position]) {
+                    sizes[kinds[position]] = sizes[kinds[position]] + 1;
+                    total = total + 1;
+                }
             }
+            return total;
         }
     }
 }
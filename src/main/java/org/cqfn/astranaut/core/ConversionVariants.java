@@ -0,0 +1,238 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
+
+/**
+ * Variants of converting a tree, each of which is the original tree in which one subtree
+ *  is converted by a converter.
+ * All places where the converter can be applied are found once, when the object is created.
+ *  Variant trees are built on demand, and each of them shares all unchanged subtrees with
+ *  the original tree: only the ancestors of the converted subtree are replaced, by nodes
+ *  that differ from the original ones in a single child.
+ * Variants are ordered the same way as nodes are visited by {@link Adapter#convert(Node)},
+ *  that is, children before their parent.
+ *
+ * @since 1.1.5
+ */
+public final class ConversionVariants implements Iterable<Node> {
+    /**
+     * The original tree.
+     */
+    private final Node root;
+
+    /**
+     * Places where the converter can be applied.
+     */
+    private final List<Site> sites;
+
+    /**
+     * Constructor.
+     * @param root The original tree
+     * @param converter The converter
+     * @param factory The node factory
+     */
+    ConversionVariants(final Node root, final Converter converter, final Factory factory) {
+        this.root = root;
+        this.sites = new Finder(converter, factory).find(root);
+    }
+
+    /**
+     * Returns the number of variants.
+     * @return Number of places where the converter can be applied
+     */
+    public int size() {
+        return this.sites.size();
+    }
+
+    /**
+     * Builds a variant tree.
+     * @param index Index of the variant
+     * @return The original tree in which one subtree is converted
+     */
+    public Node get(final int index) {
+        final Site site = this.sites.get(index);
+        final int depth = site.path.length;
+        final Node[] ancestors = new Node[depth];
+        Node node = this.root;
+        for (int level = 0; level < depth; level = level + 1) {
+            ancestors[level] = node;
+            node = node.getChild(site.path[level]);
+        }
+        Node result = site.transformed;
+        for (int level = depth - 1; level >= 0; level = level - 1) {
+            final List<Node> children = new ArrayList<>(ancestors[level].getChildrenList());
+            children.set(site.path[level], result);
+            result = new PatchedNode(ancestors[level], children);
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+        return new Iterator<Node>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return this.position < ConversionVariants.this.size();
+            }
+
+            @Override
+            public Node next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Node result = ConversionVariants.this.get(this.position);
+                this.position = this.position + 1;
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Place where the converter can be applied.
+     *
+     * @since 1.1.5
+     */
+    private static final class Site {
+        /**
+         * Indexes of children on the path from the root to the converted subtree.
+         */
+        private final int[] path;
+
+        /**
+         * The converted subtree.
+         */
+        private final Node transformed;
+
+        /**
+         * Constructor.
+         * @param path Indexes of children on the path from the root to the converted subtree
+         * @param transformed The converted subtree
+         */
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        private Site(final int[] path, final Node transformed) {
+            this.path = path;
+            this.transformed = transformed;
+        }
+    }
+
+    /**
+     * Finds places where the converter can be applied. The tree is traversed without
+     *  recursion; the path to the current node is kept in an array.
+     *
+     * @since 1.1.5
+     */
+    private static final class Finder implements DepthFirstWalker.Visitor {
+        /**
+         * Initial capacity of the path.
+         */
+        private static final int INITIAL_DEPTH = 16;
+
+        /**
+         * The converter.
+         */
+        private final Converter converter;
+
+        /**
+         * The node factory.
+         */
+        private final Factory factory;
+
+        /**
+         * Buffer for values extracted by matchers.
+         */
+        private final Captures captures;
+
+        /**
+         * Found places.
+         */
+        private final List<Site> sites;
+
+        /**
+         * Indexes of children on the path from the root to the current node. The element
+         *  that follows the path is the index of the last visited child of the current node.
+         */
+        private int[] path;
+
+        /**
+         * Number of nodes on the path from the root to the current node, inclusive.
+         */
+        private int depth;
+
+        /**
+         * Constructor.
+         * @param converter The converter
+         * @param factory The node factory
+         */
+        private Finder(final Converter converter, final Factory factory) {
+            this.converter = converter;
+            this.factory = factory;
+            this.captures = new Captures();
+            this.sites = new ArrayList<>(0);
+            this.path = new int[Finder.INITIAL_DEPTH];
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            final int level = this.depth;
+            if (level > 0) {
+                this.path[level - 1] = this.path[level - 1] + 1;
+            }
+            if (level == this.path.length) {
+                this.path = Arrays.copyOf(this.path, level * 2);
+            }
+            this.path[level] = -1;
+            this.depth = level + 1;
+            return true;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            this.depth = this.depth - 1;
+            this.captures.reset();
+            final Node transformed = this.converter.convert(node, this.factory, this.captures);
+            if (!(transformed instanceof EmptyTree)) {
+                this.sites.add(new Site(Arrays.copyOf(this.path, this.depth), transformed));
+            }
+        }
+
+        /**
+         * Finds places where the converter can be applied in a tree.
+         * @param node The root node of the tree
+         * @return List of places, children before their parent
+         */
+        private List<Site> find(final Node node) {
+            new DepthFirstWalker(node).walk(this);
+            return this.sites;
+        }
+    }
+}
@@ -23,9 +23,15 @@
  */
 package org.cqfn.astranaut.core;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * Interface for converters that check one rule described in DSL
  * and convert the initial AST built to the specified target format.
+ * A converter may also override the conversion method that takes a {@link Captures} buffer,
+ *  which lets the converter match subtrees without allocating memory. By default, that
+ *  method delegates to the method without the buffer.
  *
  * @since 1.0
  */
@@ -38,4 +44,30 @@ public interface Converter {
      * @return A new node
      */
     Node convert(Node node, Factory factory);
+
+    /**
+     * Converts an initial AST to the target format, using a buffer to save values
+     *  extracted by matchers. The buffer is cleared before the call, and its content is not
+     *  used after the call.
+     *
+     * @param node The root of the AST to be converted
+     * @param factory The node factory
+     * @param captures The buffer for extracted children and data
+     * @return A new node
+     */
+    default Node convert(Node node, Factory factory, Captures captures) {
+        return this.convert(node, factory);
+    }
+
+    /**
+     * Returns the names of types or groups to one of which the root of a subtree must belong
+     *  to be converted. The adapter uses these names to try the converter only on suitable
+     *  nodes, so the converter must return an empty tree for any node that does not belong
+     *  to any of them.
+     * @return Set of type or group names, or an empty set if the converter can be applied
+     *  to a node of any type
+     */
+    default Set<String> getRootTypes() {
+        return Collections.emptySet();
+    }
 }
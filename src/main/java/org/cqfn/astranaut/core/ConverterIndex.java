@@ -0,0 +1,202 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index that selects converters which can be applied to a node.
+ * Converters are grouped by the names of types and groups returned by
+ *  {@link Converter#getRootTypes()}; converters that can be applied to any node form a separate
+ *  bucket. Candidates for a node are the converters from the buckets of all names in the
+ *  hierarchy of its type and the converters applicable to any node, in their original order.
+ *  Lists of candidates are cached by type name.
+ *
+ * @since 1.1.5
+ */
+final class ConverterIndex {
+    /**
+     * All converters.
+     */
+    private final List<Converter> converters;
+
+    /**
+     * Positions of converters by type or group names.
+     */
+    private final Map<String, List<Integer>> buckets;
+
+    /**
+     * Positions of converters that can be applied to any node.
+     */
+    private final List<Integer> wildcards;
+
+    /**
+     * Cached candidates by type name.
+     */
+    private final Map<String, Candidates> cache;
+
+    /**
+     * Constructor.
+     * @param converters All converters
+     */
+    ConverterIndex(final List<Converter> converters) {
+        this.converters = converters;
+        this.buckets = ConverterIndex.groupByTypes(converters);
+        this.wildcards = ConverterIndex.findWildcards(converters);
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns converters that can be applied to the node, in their original order.
+     * @param node The node
+     * @return Array of converters
+     */
+    Converter[] getCandidates(final Node node) {
+        final Type type = node.getType();
+        final List<String> hierarchy = type.getHierarchy();
+        final Candidates cached = this.cache.get(type.getName());
+        final Converter[] result;
+        if (cached == null) {
+            result = this.select(hierarchy);
+            this.cache.putIfAbsent(type.getName(), new Candidates(hierarchy, result));
+        } else if (cached.suits(hierarchy)) {
+            result = cached.getConverters();
+        } else {
+            result = this.select(hierarchy);
+        }
+        return result;
+    }
+
+    /**
+     * Selects converters that can be applied to a node with the given hierarchy of types.
+     * @param hierarchy The hierarchy
+     * @return Array of converters in their original order
+     */
+    private Converter[] select(final List<String> hierarchy) {
+        final boolean[] selected = new boolean[this.converters.size()];
+        for (final int index : this.wildcards) {
+            selected[index] = true;
+        }
+        for (final String name : hierarchy) {
+            for (final int index : this.buckets.getOrDefault(name, Collections.emptyList())) {
+                selected[index] = true;
+            }
+        }
+        final Converter[] result = new Converter[selected.length];
+        int count = 0;
+        for (int index = 0; index < selected.length; index = index + 1) {
+            if (selected[index]) {
+                result[count] = this.converters.get(index);
+                count = count + 1;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Groups positions of converters by the names of types and groups of their roots.
+     * @param converters The converters
+     * @return Map of positions by names
+     */
+    private static Map<String, List<Integer>> groupByTypes(final List<Converter> converters) {
+        final Map<String, List<Integer>> result = new HashMap<>();
+        final int count = converters.size();
+        for (int index = 0; index < count; index = index + 1) {
+            for (final String name : converters.get(index).getRootTypes()) {
+                result.computeIfAbsent(name, key -> new ArrayList<>(1)).add(index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds positions of converters that can be applied to any node.
+     * @param converters The converters
+     * @return List of positions
+     */
+    private static List<Integer> findWildcards(final List<Converter> converters) {
+        final List<Integer> result = new ArrayList<>(0);
+        final int count = converters.size();
+        for (int index = 0; index < count; index = index + 1) {
+            if (converters.get(index).getRootTypes().isEmpty()) {
+                result.add(index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Candidates cached for a type.
+     *
+     * @since 1.1.5
+     */
+    private static final class Candidates {
+        /**
+         * The hierarchy of the type.
+         */
+        private final List<String> hierarchy;
+
+        /**
+         * The converters.
+         */
+        private final Converter[] converters;
+
+        /**
+         * Constructor.
+         * @param hierarchy The hierarchy of the type
+         * @param converters The converters
+         */
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        private Candidates(final List<String> hierarchy, final Converter... converters) {
+            this.hierarchy = hierarchy;
+            this.converters = converters;
+        }
+
+        /**
+         * Checks whether the candidates were selected for the same hierarchy. Types with
+         *  the same name almost always have the same hierarchy, so this is a cheap check.
+         * @param other The hierarchy of another type
+         * @return Checking result
+         */
+        @SuppressWarnings("PMD.CompareObjectsWithEquals")
+        boolean suits(final List<String> other) {
+            return this.hierarchy == other || this.hierarchy.equals(other);
+        }
+
+        /**
+         * Returns the converters.
+         * @return Array of converters
+         */
+        @SuppressWarnings("PMD.MethodReturnsInternalArray")
+        Converter[] getConverters() {
+            return this.converters;
+        }
+    }
+}
@@ -28,6 +28,9 @@ import java.util.List;
 
 /**
  * Mutable node whose children can be replaced during syntactic tree customization.
+ * The node is a copy-on-write view of the prototype node: the list of children is copied
+ *  only when a child is wrapped or replaced, and children are wrapped into convertible nodes
+ *  only when they are requested, so unchanged subtrees of the prototype are never copied.
  *
  * @since 1.0
  */
@@ -43,9 +46,9 @@ public final class ConvertibleNode implements Node {
     private final Node prototype;
 
     /**
-     * The list of children.
-      */
-    private final List<Node> children;
+     * The list of children, or {@code null} if the children of the prototype are used.
+     */
+    private List<Node> children;
 
     /**
      * Constructor.
@@ -55,7 +58,6 @@ public final class ConvertibleNode implements Node {
     private ConvertibleNode(final ConvertibleNode parent, final Node prototype) {
         this.parent = parent;
         this.prototype = prototype;
-        this.children = this.initChildrenList();
     }
 
     /**
@@ -91,12 +93,24 @@ public final class ConvertibleNode implements Node {
 
     @Override
     public int getChildCount() {
-        return this.children.size();
+        final int count;
+        if (this.children == null) {
+            count = this.prototype.getChildCount();
+        } else {
+            count = this.children.size();
+        }
+        return count;
     }
 
     @Override
     public Node getChild(final int index) {
-        return this.children.get(index);
+        final Node child;
+        if (this.children == null) {
+            child = this.prototype.getChild(index);
+        } else {
+            child = this.children.get(index);
+        }
+        return child;
     }
 
     /**
@@ -105,7 +119,7 @@ public final class ConvertibleNode implements Node {
      * @return Convertible node
      */
     public ConvertibleNode getConvertibleChild(final int index) {
-        final Node node = this.children.get(index);
+        final Node node = this.getModifiableChildren().get(index);
         final ConvertibleNode result;
         if (node instanceof ConvertibleNode) {
             result = (ConvertibleNode) node;
@@ -118,7 +132,13 @@ public final class ConvertibleNode implements Node {
 
     @Override
     public List<Node> getChildrenList() {
-        return this.children;
+        final List<Node> list;
+        if (this.children == null) {
+            list = this.prototype.getChildrenList();
+        } else {
+            list = this.children;
+        }
+        return list;
     }
 
     /**
@@ -129,9 +149,9 @@ public final class ConvertibleNode implements Node {
      */
     public boolean replaceChild(final Node child, final Node substitute) {
         boolean result = false;
-        final int index = this.children.indexOf(child);
+        final int index = this.getChildrenList().indexOf(child);
         if (index >= 0) {
-            this.children.set(index, substitute);
+            this.setChild(index, substitute);
             result = true;
         }
         return result;
@@ -139,20 +159,62 @@ public final class ConvertibleNode implements Node {
 
     /**
      * Builds a non-convertible subtree from this node.
+     * If no child of this node or of its descendants has been replaced, the prototype
+     *  node is returned, otherwise only the nodes whose subtrees have changed are created anew.
      * @return The root of a non-convertible subtree
      */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
     public Node rebuild() {
+        Node result = this.prototype;
+        if (this.children != null) {
+            final List<Node> list = new ArrayList<>(this.children.size());
+            boolean changed = false;
+            for (final Node child : this.children) {
+                final Node rebuilt = ConvertibleNode.rebuild(child);
+                changed = changed || rebuilt != this.prototype.getChild(list.size());
+                list.add(rebuilt);
+            }
+            if (changed) {
+                result = this.createNode(list);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces a child node with another node by its index.
+     * @param index Child index
+     * @param substitute Substitute node
+     */
+    void setChild(final int index, final Node substitute) {
+        this.getModifiableChildren().set(index, substitute);
+    }
+
+    /**
+     * Builds a non-convertible subtree from a child node.
+     * @param child The child node
+     * @return The root of a non-convertible subtree
+     */
+    private static Node rebuild(final Node child) {
+        final Node result;
+        if (child instanceof ConvertibleNode) {
+            result = ((ConvertibleNode) child).rebuild();
+        } else {
+            result = child;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a node with the same type, data and fragment as the prototype has,
+     *  but with other children.
+     * @param list The list of children
+     * @return A new node or an empty tree if the node can not be created
+     */
+    private Node createNode(final List<Node> list) {
         final Builder builder = this.prototype.getType().createBuilder();
         builder.setFragment(this.prototype.getFragment());
         builder.setData(this.prototype.getData());
-        final List<Node> list = new ArrayList<>(this.children.size());
-        for (final Node child : this.children) {
-            if (child instanceof ConvertibleNode) {
-                list.add(((ConvertibleNode) child).rebuild());
-            } else {
-                list.add(child);
-            }
-        }
         builder.setChildrenList(list);
         final Node result;
         if (builder.isValid()) {
@@ -164,15 +226,14 @@ public final class ConvertibleNode implements Node {
     }
 
     /**
-     * Transforms children nodes to convertible ones.
-     * @return Array of convertible nodes
+     * Returns the list of children that can be modified, copying the list of children
+     *  of the prototype if it has not been copied yet.
+     * @return The list of children
      */
-    private List<Node> initChildrenList() {
-        final int count = this.prototype.getChildCount();
-        final List<Node> result = new ArrayList<>(count);
-        for (int index = 0; index < count; index = index + 1) {
-            result.add(new ConvertibleNode(this, this.prototype.getChild(index)));
+    private List<Node> getModifiableChildren() {
+        if (this.children == null) {
+            this.children = new ArrayList<>(this.prototype.getChildrenList());
         }
-        return result;
+        return this.children;
     }
 }
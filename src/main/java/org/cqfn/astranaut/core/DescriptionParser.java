@@ -0,0 +1,313 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser of tree descriptions in the draft notation, that creates trees of draft nodes.
+ * Description format: {@code A<"data">(B, C(...), ...)} where 'A' is the type name
+ *  (it starts with a letter and consists of letters, digits and underscores), followed by
+ *  optional data in angle brackets and quotes, followed by optional child nodes
+ *  (in the same format) in parentheses separated by commas. Inside the data, the characters
+ *  {@code "} and {@code \} are escaped with a backslash, as well as line breaks
+ *  and tabs ({@code \n}, {@code \r}, {@code \t}).
+ * The parser does not use recursion, so the depth of the tree is limited only by memory.
+ *
+ * @since 1.1.5
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class DescriptionParser {
+    /**
+     * The character returned when the end of the description is reached.
+     */
+    private static final char END = '\uffff';
+
+    /**
+     * The description.
+     */
+    private final CharSequence source;
+
+    /**
+     * Builders of nodes whose children are being parsed, from the root to the current node.
+     */
+    private final List<DraftNode.Constructor> stack;
+
+    /**
+     * The current position in the description.
+     */
+    private int position;
+
+    /**
+     * Constructor.
+     * @param source The description
+     */
+    public DescriptionParser(final CharSequence source) {
+        this.source = source;
+        this.stack = new ArrayList<>(0);
+    }
+
+    /**
+     * Constructor.
+     * @param chars The description as an array of characters
+     */
+    public DescriptionParser(final char... chars) {
+        this(CharBuffer.wrap(chars));
+    }
+
+    /**
+     * Parses the description.
+     * @return Root node of the tree created by description
+     * @throws IllegalArgumentException If the description has a syntax error
+     */
+    public Node parse() {
+        this.position = 0;
+        this.stack.clear();
+        this.skipSpaces();
+        Node node = this.parseNode();
+        while (!this.stack.isEmpty()) {
+            node = this.parseNext(node);
+        }
+        this.skipSpaces();
+        if (this.position < this.source.length()) {
+            throw this.createException("Unexpected character");
+        }
+        return node;
+    }
+
+    /**
+     * Parses a node. If the node has children, parses the first child, the first child
+     *  of the first child, and so on, until a node without children is reached,
+     *  and puts the builders of all parsed nodes that have children on the stack.
+     * @return The last parsed node, that has no children
+     */
+    private Node parseNode() {
+        DraftNode.Constructor builder = this.parseHeader();
+        this.skipSpaces();
+        boolean open = this.current() == '(';
+        while (open) {
+            this.position = this.position + 1;
+            this.skipSpaces();
+            if (this.current() == ')') {
+                this.position = this.position + 1;
+                open = false;
+            } else {
+                this.stack.add(builder);
+                builder = this.parseHeader();
+                this.skipSpaces();
+                open = this.current() == '(';
+            }
+        }
+        return builder.createNode();
+    }
+
+    /**
+     * Adds a parsed node to the node on top of the stack and parses what follows it,
+     *  that is, either the next sibling or the end of the children list.
+     * @param node The parsed node
+     * @return The next parsed node
+     */
+    private Node parseNext(final Node node) {
+        final int last = this.stack.size() - 1;
+        final DraftNode.Constructor parent = this.stack.get(last);
+        parent.addChild(node);
+        this.skipSpaces();
+        final char symbol = this.current();
+        final Node result;
+        if (symbol == ',') {
+            this.position = this.position + 1;
+            this.skipSpaces();
+            result = this.parseNode();
+        } else if (symbol == ')') {
+            this.position = this.position + 1;
+            this.stack.remove(last);
+            result = parent.createNode();
+        } else {
+            throw this.createException("Expected ',' or ')'");
+        }
+        return result;
+    }
+
+    /**
+     * Parses the type name and the data of a node.
+     * @return The builder of the node
+     */
+    private DraftNode.Constructor parseHeader() {
+        final int start = this.position;
+        final int length = this.source.length();
+        if (start < length && Character.isLetter(this.source.charAt(start))) {
+            this.position = start + 1;
+            while (this.position < length
+                && DescriptionParser.isNamePart(this.source.charAt(this.position))) {
+                this.position = this.position + 1;
+            }
+        }
+        if (this.position == start) {
+            throw this.createException("Expected type name");
+        }
+        final DraftNode.Constructor builder = new DraftNode.Constructor();
+        builder.setName(this.source.subSequence(start, this.position).toString());
+        if (this.current() == '<') {
+            this.position = this.position + 1;
+            builder.setData(this.parseData());
+        }
+        return builder;
+    }
+
+    /**
+     * Parses the data of a node, that is, the text between angle brackets.
+     * @return The data
+     */
+    private String parseData() {
+        String data = "";
+        if (this.current() == '"') {
+            this.position = this.position + 1;
+            data = this.parseString();
+        }
+        if (this.current() != '>') {
+            throw this.createException("Expected '>'");
+        }
+        this.position = this.position + 1;
+        return data;
+    }
+
+    /**
+     * Parses a string in quotes, the opening quote is already skipped.
+     * @return The string without quotes and with escape sequences replaced
+     */
+    private String parseString() {
+        final int start = this.position;
+        char symbol = this.current();
+        while (symbol != '"' && symbol != '\\' && symbol != DescriptionParser.END) {
+            this.position = this.position + 1;
+            symbol = this.current();
+        }
+        final String result;
+        if (symbol == '"') {
+            result = this.source.subSequence(start, this.position).toString();
+            this.position = this.position + 1;
+        } else {
+            final StringBuilder builder = new StringBuilder(this.position - start + 16);
+            builder.append(this.source, start, this.position);
+            this.parseEscapedString(builder);
+            result = builder.toString();
+        }
+        return result;
+    }
+
+    /**
+     * Parses the rest of a string in quotes that contains escape sequences.
+     * @param builder The builder the characters of the string are appended to
+     */
+    private void parseEscapedString(final StringBuilder builder) {
+        char symbol = this.current();
+        while (symbol != '"') {
+            if (symbol == DescriptionParser.END) {
+                throw this.createException("Unterminated string");
+            }
+            this.position = this.position + 1;
+            if (symbol == '\\') {
+                builder.append(this.parseEscapeSequence());
+            } else {
+                builder.append(symbol);
+            }
+            symbol = this.current();
+        }
+        this.position = this.position + 1;
+    }
+
+    /**
+     * Parses an escape sequence, the backslash is already skipped.
+     * @return The character that the escape sequence stands for
+     */
+    private char parseEscapeSequence() {
+        final char symbol = this.current();
+        final char result;
+        switch (symbol) {
+            case '"':
+            case '\\':
+                result = symbol;
+                break;
+            case 'n':
+                result = '\n';
+                break;
+            case 'r':
+                result = '\r';
+                break;
+            case 't':
+                result = '\t';
+                break;
+            default:
+                throw this.createException("Invalid escape sequence");
+        }
+        this.position = this.position + 1;
+        return result;
+    }
+
+    /**
+     * Skips whitespace characters.
+     */
+    private void skipSpaces() {
+        while (Character.isWhitespace(this.current())) {
+            this.position = this.position + 1;
+        }
+    }
+
+    /**
+     * Returns the character at the current position.
+     * @return The character or {@link #END} if the end of the description is reached
+     */
+    private char current() {
+        final char result;
+        if (this.position < this.source.length()) {
+            result = this.source.charAt(this.position);
+        } else {
+            result = DescriptionParser.END;
+        }
+        return result;
+    }
+
+    /**
+     * Creates an exception about a syntax error at the current position.
+     * @param message The error message
+     * @return The exception
+     */
+    private IllegalArgumentException createException(final String message) {
+        return new IllegalArgumentException(
+            String.format("%s at position %d", message, this.position)
+        );
+    }
+
+    /**
+     * Checks whether a character can be a part of the type name.
+     * @param symbol The character
+     * @return Checking result, {@code true} if the character is a letter, a digit
+     *  or an underscore
+     */
+    private static boolean isNamePart(final char symbol) {
+        return Character.isLetterOrDigit(symbol) || symbol == '_';
+    }
+}
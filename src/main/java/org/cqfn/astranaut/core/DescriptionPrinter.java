@@ -0,0 +1,195 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Printer that writes trees in the draft notation, which is read by {@link DescriptionParser}.
+ * The printer does not use recursion, so the depth of the tree is limited only by memory.
+ *
+ * @since 1.1.5
+ */
+public final class DescriptionPrinter {
+    /**
+     * The output.
+     */
+    private final Appendable output;
+
+    /**
+     * Nodes whose children are being printed, from the root to the current node.
+     */
+    private Node[] nodes;
+
+    /**
+     * Indexes of the next child to be printed for each node on the stack.
+     */
+    private int[] indexes;
+
+    /**
+     * Constructor.
+     * @param output The output
+     */
+    public DescriptionPrinter(final Appendable output) {
+        this.output = output;
+        this.nodes = new Node[16];
+        this.indexes = new int[16];
+    }
+
+    /**
+     * Prints a tree.
+     * @param root The root node of the tree
+     * @throws IOException If the output fails
+     */
+    public void print(final Node root) throws IOException {
+        int depth = this.printNode(root, 0);
+        while (depth > 0) {
+            final Node node = this.nodes[depth - 1];
+            final int index = this.indexes[depth - 1];
+            if (index < node.getChildCount()) {
+                if (index > 0) {
+                    this.output.append(", ");
+                }
+                this.indexes[depth - 1] = index + 1;
+                depth = this.printNode(node.getChild(index), depth);
+            } else {
+                this.output.append(')');
+                depth = depth - 1;
+            }
+        }
+    }
+
+    /**
+     * Prints a node that is not created yet, i.e. exists as a type name, data and children.
+     * @param name The type name
+     * @param data The data
+     * @param children The list of children
+     * @throws IOException If the output fails
+     */
+    public void print(final String name, final String data, final List<Node> children)
+        throws IOException {
+        this.printHeader(name, data);
+        if (!children.isEmpty()) {
+            this.output.append('(');
+            boolean flag = false;
+            for (final Node child : children) {
+                if (flag) {
+                    this.output.append(", ");
+                }
+                flag = true;
+                this.print(child);
+            }
+            this.output.append(')');
+        }
+    }
+
+    /**
+     * Prints the type name and the data of a node and, if the node has children,
+     *  the opening parenthesis, and puts the node on the stack.
+     * @param node The node
+     * @param depth The number of nodes on the stack
+     * @return The new number of nodes on the stack
+     * @throws IOException If the output fails
+     */
+    private int printNode(final Node node, final int depth) throws IOException {
+        this.printHeader(node.getTypeName(), node.getData());
+        int result = depth;
+        if (node.getChildCount() > 0) {
+            this.output.append('(');
+            if (depth == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, depth * 2);
+                this.indexes = Arrays.copyOf(this.indexes, depth * 2);
+            }
+            this.nodes[depth] = node;
+            this.indexes[depth] = 0;
+            result = depth + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Prints the type name and the data of a node.
+     * @param name The type name
+     * @param data The data
+     * @throws IOException If the output fails
+     */
+    private void printHeader(final String name, final String data) throws IOException {
+        this.output.append(name);
+        if (!data.isEmpty()) {
+            this.output.append("<\"");
+            this.printEscaped(data);
+            this.output.append("\">");
+        }
+    }
+
+    /**
+     * Prints a string, escaping characters that can't be written as is.
+     * @param data The string
+     * @throws IOException If the output fails
+     */
+    private void printEscaped(final String data) throws IOException {
+        final int length = data.length();
+        int start = 0;
+        for (int index = 0; index < length; index = index + 1) {
+            final String escaped = DescriptionPrinter.escape(data.charAt(index));
+            if (!escaped.isEmpty()) {
+                this.output.append(data, start, index).append(escaped);
+                start = index + 1;
+            }
+        }
+        this.output.append(data, start, length);
+    }
+
+    /**
+     * Returns the escape sequence for a character.
+     * @param symbol The character
+     * @return The escape sequence or an empty string if the character is written as is
+     */
+    private static String escape(final char symbol) {
+        final String result;
+        switch (symbol) {
+            case '"':
+                result = "\\\"";
+                break;
+            case '\\':
+                result = "\\\\";
+                break;
+            case '\n':
+                result = "\\n";
+                break;
+            case '\r':
+                result = "\\r";
+                break;
+            case '\t':
+                result = "\\t";
+                break;
+            default:
+                result = "";
+                break;
+        }
+        return result;
+    }
+}
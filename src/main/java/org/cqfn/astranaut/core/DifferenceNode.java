@@ -24,15 +24,16 @@
 package org.cqfn.astranaut.core;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
-import java.util.ListIterator;
+import org.cqfn.astranaut.core.utils.IdentityIntMap;
 
 /**
  * Node containing child nodes, as well as actions on these nodes.
  *
  * @since 1.1.0
  */
+@SuppressWarnings("PMD.TooManyMethods")
 public final class DifferenceNode implements DifferenceTreeItem {
     /**
      * The parent node with action.
@@ -45,9 +46,53 @@ public final class DifferenceNode implements DifferenceTreeItem {
     private final Node prototype;
 
     /**
-     * The list of children with actions.
-      */
-    private final List<DifferenceTreeItem> children;
+     * Children of the prototype node with actions applied to them, one slot per child.
+     */
+    private final DifferenceTreeItem[] slots;
+
+    /**
+     * Indexes of slots arranged by prototypes of children,
+     *  created when a child is searched by its prototype for the first time.
+     */
+    private IdentityIntMap<Node> indexes;
+
+    /**
+     * Lists of inserted nodes, one list per gap between slots: the first list contains nodes
+     *  inserted at the beginning, the next one contains nodes inserted after the first slot,
+     *  and so on. Created when the first node is inserted.
+     */
+    private List<List<Insert>> insertions;
+
+    /**
+     * Indexes of gaps arranged by inserted nodes.
+     */
+    private IdentityIntMap<Node> gaps;
+
+    /**
+     * The number of inserted nodes.
+     */
+    private int inserted;
+
+    /**
+     * The list of children with actions, that is, slots and inserted nodes in their order.
+     *  Built when it is requested and rebuilt after a node is inserted.
+     */
+    private List<DifferenceTreeItem> children;
+
+    /**
+     * Flag indicating that the list of children is up to date.
+     */
+    private boolean actual;
+
+    /**
+     * Indexes of slots for each item in the list of children, or -1 for inserted nodes.
+     */
+    private int[] origins;
+
+    /**
+     * Indexes in the list of children for each slot.
+     */
+    private int[] positions;
 
     /**
      * Constructor.
@@ -57,7 +102,7 @@ public final class DifferenceNode implements DifferenceTreeItem {
     private DifferenceNode(final DifferenceNode parent, final Node prototype) {
         this.parent = parent;
         this.prototype = prototype;
-        this.children = this.initChildrenList();
+        this.slots = this.initSlots();
     }
 
     /**
@@ -101,12 +146,12 @@ public final class DifferenceNode implements DifferenceTreeItem {
 
     @Override
     public int getChildCount() {
-        return this.children.size();
+        return this.getChildrenItems().size();
     }
 
     @Override
     public Node getChild(final int index) {
-        return this.children.get(index);
+        return this.getChildrenItems().get(index);
     }
 
     @Override
@@ -122,27 +167,38 @@ public final class DifferenceNode implements DifferenceTreeItem {
     /**
      * Adds an action that inserts the node after another node.
      * If no other node is specified, inserts at the beginning of the children's list.
+     * The other node is either a prototype of a child that has not been deleted or replaced,
+     *  or a node inserted before. Nodes inserted after the same node follow each other
+     *  in the order in which they were inserted.
      * @param node Node to be inserted
      * @param after Node after which to insert
      * @return Result of operation, @return {@code true} if action was added
      */
     public boolean insertNodeAfter(final Node node, final Node after) {
-        boolean result = false;
+        int gap = -1;
+        int position = 0;
         if (after == null) {
-            this.children.add(0, new Insert(node));
-            result = true;
+            gap = 0;
         } else {
-            final ListIterator<DifferenceTreeItem> iterator = this.children.listIterator();
-            while (iterator.hasNext()) {
-                final Node child = iterator.next();
-                if (child instanceof DifferenceNode
-                    && ((DifferenceNode) child).getPrototype() == after) {
-                    iterator.add(new Insert(node));
-                    result = true;
-                    break;
-                }
+            final int slot = this.findSlot(after);
+            if (slot >= 0) {
+                gap = slot + 1;
+            } else if (this.gaps != null) {
+                gap = this.gaps.get(after, -1);
+                position = this.findInsertion(gap, after) + 1;
             }
         }
+        final boolean result = gap >= 0;
+        if (result) {
+            final List<Insert> list = this.getInsertions(gap);
+            if (position == 0) {
+                position = list.size();
+            }
+            list.add(position, new Insert(node));
+            this.gaps.put(node, gap);
+            this.inserted = this.inserted + 1;
+            this.actual = false;
+        }
         return result;
     }
 
@@ -154,21 +210,7 @@ public final class DifferenceNode implements DifferenceTreeItem {
      * @return Result of operation, @return {@code true} if action was added
      */
     public boolean replaceNode(final int index, final Node replacement) {
-        boolean result = false;
-        if (index >= 0 && index < this.children.size()) {
-            final DifferenceTreeItem child = this.children.get(index);
-            if (child instanceof DifferenceNode) {
-                this.children.set(
-                    index,
-                    new Replace(
-                        ((DifferenceNode) child).getPrototype(),
-                        replacement
-                    )
-                );
-                result = true;
-            }
-        }
-        return result;
+        return this.replaceSlot(this.getSlot(index), replacement);
     }
 
     /**
@@ -178,12 +220,7 @@ public final class DifferenceNode implements DifferenceTreeItem {
      * @return Result of operation, @return {@code true} if action was added
      */
     public boolean replaceNode(final Node node, final Node replacement) {
-        boolean result = false;
-        final int index = this.findChildIndex(node);
-        if (index >= 0) {
-            result = this.replaceNode(index, replacement);
-        }
-        return result;
+        return this.replaceSlot(this.findSlot(node), replacement);
     }
 
     /**
@@ -192,15 +229,7 @@ public final class DifferenceNode implements DifferenceTreeItem {
      * @return Result of operation, @return {@code true} if action was added
      */
     public boolean deleteNode(final int index) {
-        boolean result = false;
-        if (index >= 0 && index < this.children.size()) {
-            final DifferenceTreeItem child = this.children.get(index);
-            if (child instanceof DifferenceNode) {
-                this.children.set(index, new Delete(((DifferenceNode) child).getPrototype()));
-                result = true;
-            }
-        }
-        return result;
+        return this.deleteSlot(this.getSlot(index));
     }
 
     /**
@@ -209,48 +238,197 @@ public final class DifferenceNode implements DifferenceTreeItem {
      * @return Result of operation, @return {@code true} if action was added
      */
     public boolean deleteNode(final Node node) {
-        boolean result = false;
-        final int index = this.findChildIndex(node);
-        if (index >= 0) {
-            result = this.deleteNode(index);
-        }
-        return result;
+        return this.deleteSlot(this.findSlot(node));
     }
 
     /**
      * Transforms children nodes to convertible ones.
-     * @return List of difference nodes
+     * @return Array of difference nodes
      */
-    private List<DifferenceTreeItem> initChildrenList() {
+    private DifferenceTreeItem[] initSlots() {
         final int count = this.prototype.getChildCount();
-        final List<DifferenceTreeItem> result = new LinkedList<>();
+        final DifferenceTreeItem[] result = new DifferenceTreeItem[count];
         for (int index = 0; index < count; index = index + 1) {
-            result.add(
-                new DifferenceNode(this, this.prototype.getChild(index))
+            result[index] = new DifferenceNode(this, this.prototype.getChild(index));
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the child in a slot.
+     * @param slot Index of the slot, or -1 if there is no suitable slot
+     * @param replacement Child node to be replaced by
+     * @return Result of operation, @return {@code true} if action was added
+     */
+    private boolean replaceSlot(final int slot, final Node replacement) {
+        boolean result = false;
+        if (slot >= 0) {
+            this.setSlot(
+                slot,
+                new Replace(((DifferenceNode) this.slots[slot]).getPrototype(), replacement)
             );
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Deletes the child in a slot.
+     * @param slot Index of the slot, or -1 if there is no suitable slot
+     * @return Result of operation, @return {@code true} if action was added
+     */
+    private boolean deleteSlot(final int slot) {
+        boolean result = false;
+        if (slot >= 0) {
+            this.setSlot(slot, new Delete(((DifferenceNode) this.slots[slot]).getPrototype()));
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Sets an item to a slot, keeping the list of children up to date.
+     * @param slot Index of the slot
+     * @param item The item
+     */
+    private void setSlot(final int slot, final DifferenceTreeItem item) {
+        this.slots[slot] = item;
+        if (this.actual) {
+            this.children.set(this.positions[slot], item);
+        }
+    }
+
+    /**
+     * Returns the index of the slot that contains a child with the specified index
+     *  in the list of children.
+     * @param index Index in the list of children
+     * @return Index of the slot or -1 if there is no such child, or it is an inserted node,
+     *  or it has already been deleted or replaced
+     */
+    private int getSlot(final int index) {
+        int result = -1;
+        final int size = this.getChildrenItems().size();
+        if (index >= 0 && index < size) {
+            result = this.origins[index];
+        }
+        if (result >= 0 && !(this.slots[result] instanceof DifferenceNode)) {
+            result = -1;
         }
         return result;
     }
 
     /**
-     * Searches the index of a child element by its prototype.
-     * @param node Prototype of the node whose index is to be found
+     * Searches the index of a slot containing a child by its prototype.
+     * @param node Prototype of the node whose slot is to be found
      * @return Index or -1 if there is no such node or it has already been deleted or replaced
      */
-    private int findChildIndex(final Node node) {
+    private int findSlot(final Node node) {
+        final int count = this.slots.length;
+        if (this.indexes == null) {
+            this.indexes = new IdentityIntMap<>();
+            for (int index = count - 1; index >= 0; index = index - 1) {
+                this.indexes.put(((DifferenceNode) this.slots[index]).getPrototype(), index);
+            }
+        }
+        int result = this.indexes.get(node, count);
+        while (result < count && !this.isOriginal(result, node)) {
+            result = result + 1;
+        }
+        if (result == count) {
+            result = -1;
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a slot contains a child that has not been deleted or replaced
+     *  and is created from the specified prototype.
+     * @param slot Index of the slot
+     * @param node The prototype
+     * @return Checking result
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private boolean isOriginal(final int slot, final Node node) {
+        final DifferenceTreeItem item = this.slots[slot];
+        return item instanceof DifferenceNode
+            && ((DifferenceNode) item).getPrototype() == node;
+    }
+
+    /**
+     * Searches the position of an inserted node in the list of nodes inserted into a gap.
+     * @param gap Index of the gap, or -1 if the node is not inserted
+     * @param node The inserted node
+     * @return Position or -1 if there is no such node
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private int findInsertion(final int gap, final Node node) {
         int result = -1;
-        final int count = this.children.size();
-        for (int index = 0; index < count; index = index + 1) {
-            final DifferenceTreeItem child = this.children.get(index);
-            if (child instanceof DifferenceNode
-                && node == ((DifferenceNode) child).getPrototype()) {
-                result = index;
-                break;
+        if (gap >= 0) {
+            final List<Insert> list = this.insertions.get(gap);
+            result = list.size() - 1;
+            while (result >= 0 && list.get(result).getAfter() != node) {
+                result = result - 1;
             }
         }
         return result;
     }
 
+    /**
+     * Returns the list of nodes inserted into a gap, creating it if necessary.
+     * @param gap Index of the gap
+     * @return The list of inserted nodes
+     */
+    private List<Insert> getInsertions(final int gap) {
+        if (this.insertions == null) {
+            this.insertions = new ArrayList<>(
+                Collections.<List<Insert>>nCopies(this.slots.length + 1, null)
+            );
+            this.gaps = new IdentityIntMap<>();
+        }
+        List<Insert> list = this.insertions.get(gap);
+        if (list == null) {
+            list = new ArrayList<>(1);
+            this.insertions.set(gap, list);
+        }
+        return list;
+    }
+
+    /**
+     * Returns the list of children with actions, building it if necessary.
+     * @return The list of children
+     */
+    private List<DifferenceTreeItem> getChildrenItems() {
+        if (!this.actual) {
+            final int count = this.slots.length;
+            final int size = count + this.inserted;
+            this.children = new ArrayList<>(size);
+            this.origins = new int[size];
+            this.positions = new int[count];
+            this.addInsertions(0);
+            for (int slot = 0; slot < count; slot = slot + 1) {
+                this.positions[slot] = this.children.size();
+                this.origins[this.children.size()] = slot;
+                this.children.add(this.slots[slot]);
+                this.addInsertions(slot + 1);
+            }
+            this.actual = true;
+        }
+        return this.children;
+    }
+
+    /**
+     * Adds nodes inserted into a gap to the list of children.
+     * @param gap Index of the gap
+     */
+    private void addInsertions(final int gap) {
+        if (this.insertions != null && this.insertions.get(gap) != null) {
+            for (final Insert insert : this.insertions.get(gap)) {
+                this.origins[this.children.size()] = -1;
+                this.children.add(insert);
+            }
+        }
+    }
+
     /**
      * Returns a branch: before or after the changes.
      * @param selector Branch selector
@@ -267,8 +445,9 @@ public final class DifferenceNode implements DifferenceTreeItem {
             if (!builder.setData(this.getData())) {
                 break;
             }
-            final List<Node> list = new ArrayList<>(this.children.size());
-            for (final DifferenceTreeItem child : this.children) {
+            final List<DifferenceTreeItem> items = this.getChildrenItems();
+            final List<Node> list = new ArrayList<>(items.size());
+            for (final DifferenceTreeItem child : items) {
                 final Node branch = selector.select(child);
                 if (branch != null) {
                     list.add(branch);
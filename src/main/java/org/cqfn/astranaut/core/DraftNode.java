@@ -23,13 +23,16 @@
  */
 package org.cqfn.astranaut.core;
 
-import java.text.CharacterIterator;
-import java.text.StringCharacterIterator;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Draft node for wrapping the results of third-party parsers
@@ -38,6 +41,18 @@ import java.util.Objects;
  * @since 1.0
  */
 public final class DraftNode implements Node {
+    /**
+     * Types of draft nodes created by builders without a table of types, arranged by name.
+     *  The table keeps weak references, so a type stays in it only while there are
+     *  nodes of that type.
+     */
+    private static final Map<String, SharedType> SHARED = new ConcurrentHashMap<>();
+
+    /**
+     * Queue of references to types that are no longer used.
+     */
+    private static final ReferenceQueue<Type> UNUSED = new ReferenceQueue<>();
+
     /**
      * The fragment associated with the node.
      */
@@ -92,21 +107,10 @@ public final class DraftNode implements Node {
     @Override
     public String toString() {
         final StringBuilder builder = new StringBuilder();
-        builder.append(this.type.getName());
-        if (!this.data.isEmpty()) {
-            builder.append("<\"").append(this.data).append("\">");
-        }
-        if (!this.children.isEmpty()) {
-            boolean flag = false;
-            builder.append('(');
-            for (final Node child : this.children) {
-                if (flag) {
-                    builder.append(", ");
-                }
-                flag = true;
-                builder.append(child.toString());
-            }
-            builder.append(')');
+        try {
+            new DescriptionPrinter(builder).print(this);
+        } catch (final IOException ignored) {
+            builder.setLength(0);
         }
         return builder.toString();
     }
@@ -114,89 +118,87 @@ public final class DraftNode implements Node {
     /**
      * Creates a tree from draft nodes based on description.
      *  Description format: A(B,C(...),...) where 'A' is the type name
-     *  (it consists only of letters) followed by child nodes (in the same format) in parentheses
-     *  separated by commas.
+     *  (it starts with a letter and consists of letters, digits and underscores) followed by
+     *  optional data in the format {@code <"data">} and by child nodes (in the same format)
+     *  in parentheses separated by commas. See {@link DescriptionParser} for details.
      * @param description Description
      * @return Root node of the tree created by description
+     * @throws IllegalArgumentException If the description has a syntax error
      */
     @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
     public static Node createByDescription(final String description) {
-        final CharacterIterator iterator = new StringCharacterIterator(description);
-        return DraftNode.createByDescription(iterator);
+        return new DescriptionParser(description).parse();
     }
 
     /**
-     * Creates a tree based on its description (recursive method).
-     * @param iterator Iterator by description characters
-     * @return Node of the tree with its children, created by description
+     * Returns the shared type of draft nodes with the given name, creating it if necessary.
+     * @param name The type name
+     * @return The type
      */
-    private static Node createByDescription(final CharacterIterator iterator) {
-        char symbol = iterator.current();
-        final Node result;
-        final StringBuilder name = new StringBuilder();
-        while (symbol >= 'A' && symbol <= 'Z' || symbol >= 'a' && symbol <= 'z') {
-            name.append(symbol);
-            symbol = iterator.next();
+    private static Type share(final String name) {
+        DraftNode.purge();
+        Type type = null;
+        final SharedType existing = DraftNode.SHARED.get(name);
+        if (existing != null) {
+            type = existing.get();
         }
-        if (name.length() > 0) {
-            final DraftNode.Constructor builder = new DraftNode.Constructor();
-            builder.setName(name.toString());
-            if (symbol == '<') {
-                builder.setData(DraftNode.parseData(iterator));
-                symbol = iterator.current();
-            }
-            if (symbol == '(') {
-                builder.setChildrenList(DraftNode.parseChildrenList(iterator));
-            }
-            result = builder.createNode();
+        while (type == null) {
+            final Type created = new TypeImpl(name, null);
+            type = DraftNode.SHARED.merge(
+                name,
+                new SharedType(name, created),
+                (old, fresh) -> DraftNode.select(old, fresh)
+            ).get();
+        }
+        return type;
+    }
+
+    /**
+     * Selects the reference to be kept in the table of shared types.
+     * @param old The reference in the table
+     * @param fresh The new reference
+     * @return The old reference if its type is still used, otherwise the new one
+     */
+    private static SharedType select(final SharedType old, final SharedType fresh) {
+        final SharedType result;
+        if (old.get() == null) {
+            result = fresh;
         } else {
-            result = null;
+            result = old;
         }
         return result;
     }
 
     /**
-     * Parses data from description.
-     * @param iterator Iterator by description characters
-     * @return Node data, extracted from description
+     * Removes references to types that are no longer used from the table of shared types.
      */
-    private static String parseData(final CharacterIterator iterator) {
-        assert iterator.current() == '<';
-        final StringBuilder data = new StringBuilder();
-        char symbol = iterator.next();
-        if (symbol == '\"') {
-            symbol = iterator.next();
-            while (symbol != '\"') {
-                data.append(symbol);
-                symbol = iterator.next();
-            }
-            symbol = iterator.next();
+    private static void purge() {
+        for (Reference<? extends Type> ref = DraftNode.UNUSED.poll(); ref != null;
+            ref = DraftNode.UNUSED.poll()) {
+            DraftNode.SHARED.remove(((SharedType) ref).name, ref);
         }
-        if (symbol == '>') {
-            iterator.next();
-        }
-        return data.toString();
     }
 
     /**
-     * Parses children list from description.
-     * @param iterator Iterator by description characters
-     * @return Children list, created by description
+     * Weak reference to a shared type of draft nodes.
+     *
+     * @since 1.1.5
      */
-    private static List<Node> parseChildrenList(final CharacterIterator iterator) {
-        assert iterator.current() == '(';
-        final List<Node> children = new LinkedList<>();
-        char next;
-        do {
-            iterator.next();
-            final Node child = DraftNode.createByDescription(iterator);
-            if (child != null) {
-                children.add(child);
-            }
-            next = iterator.current();
-            assert next == ')' || next == ',' || next == ' ';
-        } while (next != ')');
-        return children;
+    private static final class SharedType extends WeakReference<Type> {
+        /**
+         * The type name.
+         */
+        private final String name;
+
+        /**
+         * Constructor.
+         * @param name The type name
+         * @param type The type
+         */
+        private SharedType(final String name, final Type type) {
+            super(type, DraftNode.UNUSED);
+            this.name = name;
+        }
     }
 
     /**
@@ -210,12 +212,20 @@ public final class DraftNode implements Node {
          */
         private final String name;
 
+        /**
+         * Types of draft nodes arranged by name, in which this type is interned,
+         *  or {@code null} if the type is shared through the table of weak references.
+         */
+        private final Map<String, Type> types;
+
         /**
          * Constructor.
          * @param name The type name
+         * @param types Types of draft nodes arranged by name, or {@code null}
          */
-        TypeImpl(final String name) {
+        TypeImpl(final String name, final Map<String, Type> types) {
             this.name = name;
+            this.types = types;
         }
 
         @Override
@@ -233,6 +243,11 @@ public final class DraftNode implements Node {
             return Collections.singletonList(this.name);
         }
 
+        @Override
+        public boolean belongsToGroup(final String type) {
+            return this.name.equals(type);
+        }
+
         @Override
         public String getProperty(final String property) {
             return "";
@@ -240,7 +255,7 @@ public final class DraftNode implements Node {
 
         @Override
         public Builder createBuilder() {
-            final Constructor builder = new Constructor();
+            final Constructor builder = new Constructor(this.types);
             builder.setName(this.name);
             return builder;
         }
@@ -272,13 +287,31 @@ public final class DraftNode implements Node {
         private final List<Node> children;
 
         /**
-         * Constructor.
+         * Types of draft nodes arranged by name, or {@code null} if types are shared
+         *  through the table of weak references.
+         */
+        private final Map<String, Type> types;
+
+        /**
+         * Constructor. Nodes created by the builder share types with all other nodes
+         *  that have the same type name and are created without a table of types.
          */
         public Constructor() {
+            this(null);
+        }
+
+        /**
+         * Constructor that creates a builder whose nodes share types with other nodes that
+         *  have the same type name, using a table of types. The table is filled by builders
+         *  and must be thread-safe if builders that share it are used in several threads.
+         * @param types Types of draft nodes arranged by name
+         */
+        public Constructor(final Map<String, Type> types) {
             this.fragment = EmptyFragment.INSTANCE;
             this.name = "";
             this.data = "";
-            this.children = new LinkedList<>();
+            this.children = new ArrayList<>(0);
+            this.types = types;
         }
 
         @Override
@@ -327,7 +360,7 @@ public final class DraftNode implements Node {
             }
             final DraftNode node = new DraftNode();
             node.fragment = this.fragment;
-            node.type = new TypeImpl(this.name);
+            node.type = this.createType();
             node.data = this.data;
             node.children = new ArrayList<>(this.children);
             return node;
@@ -336,23 +369,29 @@ public final class DraftNode implements Node {
         @Override
         public String toString() {
             final StringBuilder builder = new StringBuilder();
-            builder.append(this.name);
-            if (!this.data.isEmpty()) {
-                builder.append("<\"").append(this.data).append("\">");
-            }
-            if (!this.children.isEmpty()) {
-                boolean flag = false;
-                builder.append('(');
-                for (final Node child : this.children) {
-                    if (flag) {
-                        builder.append(", ");
-                    }
-                    flag = true;
-                    builder.append(child.toString());
-                }
-                builder.append(')');
+            try {
+                new DescriptionPrinter(builder).print(this.name, this.data, this.children);
+            } catch (final IOException ignored) {
+                builder.setLength(0);
             }
             return builder.toString();
         }
+
+        /**
+         * Creates the type of the node or takes it from the table of types.
+         * @return The type
+         */
+        private Type createType() {
+            final Type type;
+            if (this.types == null) {
+                type = DraftNode.share(this.name);
+            } else {
+                type = this.types.computeIfAbsent(
+                    this.name,
+                    key -> new TypeImpl(key, this.types)
+                );
+            }
+            return type;
+        }
     }
 }
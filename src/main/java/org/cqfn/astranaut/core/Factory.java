@@ -24,6 +24,7 @@
 package org.cqfn.astranaut.core;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The node factory.
@@ -36,12 +37,35 @@ public class Factory {
      */
     private final Map<String, Type> types;
 
+    /**
+     * Types of draft nodes created by this factory, arranged by name.
+     */
+    private final Map<String, Type> drafts;
+
     /**
      * Constructor.
      * @param types The set of types arranged by name
      */
     public Factory(final Map<String, Type> types) {
+        this(types, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Constructor that creates a factory with the same set of types as another factory.
+     * @param base The factory whose set of types is used
+     */
+    protected Factory(final Factory base) {
+        this(base.types, base.drafts);
+    }
+
+    /**
+     * Constructor.
+     * @param types The set of types arranged by name
+     * @param drafts Types of draft nodes arranged by name
+     */
+    private Factory(final Map<String, Type> types, final Map<String, Type> drafts) {
         this.types = types;
+        this.drafts = drafts;
     }
 
     /**
@@ -49,7 +73,7 @@ public class Factory {
      * @param name The type name
      * @return A node builder
      */
-    public final Builder createBuilder(final String name) {
+    public Builder createBuilder(final String name) {
         final Builder result;
         if (this.types.containsKey(name)) {
             final Type type = this.types.get(name);
@@ -66,7 +90,7 @@ public class Factory {
                     result = new Delete.Constructor();
                     break;
                 default:
-                    final DraftNode.Constructor draft = new DraftNode.Constructor();
+                    final DraftNode.Constructor draft = new DraftNode.Constructor(this.drafts);
                     draft.setName(name);
                     result = draft;
                     break;
@@ -74,4 +98,36 @@ public class Factory {
         }
         return result;
     }
+
+    /**
+     * Returns the type by its name.
+     * For names that are not in the set of types, returns the types of actions
+     *  or the type of draft nodes, in the same way as {@link #createBuilder(String)}.
+     * @param name The type name
+     * @return The type
+     */
+    public final Type getType(final String name) {
+        final Type result;
+        if (this.types.containsKey(name)) {
+            result = this.types.get(name);
+        } else {
+            switch (name) {
+                case "Insert":
+                    result = Insert.TYPE;
+                    break;
+                case "Replace":
+                    result = Replace.TYPE;
+                    break;
+                case "Delete":
+                    result = Delete.TYPE;
+                    break;
+                default:
+                    final DraftNode.Constructor draft = new DraftNode.Constructor(this.drafts);
+                    draft.setName(name);
+                    result = draft.createNode().getType();
+                    break;
+            }
+        }
+        return result;
+    }
 }
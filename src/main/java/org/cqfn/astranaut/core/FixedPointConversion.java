@@ -0,0 +1,301 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
+import org.cqfn.astranaut.core.utils.IdentityIntMap;
+
+/**
+ * Conversion of a tree that is repeated until the tree stops changing.
+ * Each pass converts the tree bottom-up, like {@link Adapter#convert(Node)}, but does not wrap
+ *  the tree into convertible nodes: nodes are immutable, and a node is copied only if some
+ *  of its children have changed. Nodes to which no converter could be applied, and whose
+ *  descendants are the same, are remembered as stable, so the next pass skips their subtrees
+ *  and visits only the nodes created in the previous pass and their ancestors.
+ * This relies on converters depending only on the subtree they convert.
+ * Passes do not use recursion, so the depth of the tree is limited only by memory. The set
+ *  of stable nodes is rebuilt in each pass and contains only nodes reached by the pass,
+ *  so nodes of trees of previous passes are not kept in memory.
+ *
+ * @since 1.1.5
+ */
+final class FixedPointConversion {
+    /**
+     * Marker stored in the set of stable nodes.
+     */
+    private static final int STABLE = 1;
+
+    /**
+     * Initial capacity of the stack of converted nodes.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The index that selects converters which can be applied to a node.
+     */
+    private final ConverterIndex index;
+
+    /**
+     * The node factory.
+     */
+    private final Factory factory;
+
+    /**
+     * Positions of converters in the list of converters.
+     */
+    private final IdentityIntMap<Converter> positions;
+
+    /**
+     * Nodes to which no converter can be applied, as well as to their descendants,
+     *  found by the previous pass.
+     */
+    private IdentityIntMap<Node> stable;
+
+    /**
+     * Stable nodes found by the current pass.
+     */
+    private IdentityIntMap<Node> next;
+
+    /**
+     * Buffer for values extracted by matchers.
+     */
+    private final Captures captures;
+
+    /**
+     * Number of conversions made by each converter.
+     */
+    private final int[] fired;
+
+    /**
+     * Total number of node visits.
+     */
+    private long visits;
+
+    /**
+     * Constructor.
+     * @param converters The list of node converters
+     * @param index The index that selects converters which can be applied to a node
+     * @param factory The node factory
+     */
+    FixedPointConversion(final List<Converter> converters, final ConverterIndex index,
+        final Factory factory) {
+        this.index = index;
+        this.factory = factory;
+        this.positions = FixedPointConversion.findPositions(converters);
+        this.stable = new IdentityIntMap<>();
+        this.next = new IdentityIntMap<>();
+        this.captures = new Captures();
+        this.fired = new int[converters.size()];
+    }
+
+    /**
+     * Converts the tree until it stops changing or the limit of passes is reached.
+     * @param root The root node of the tree
+     * @param limit Maximum number of passes
+     * @return Result of conversion
+     */
+    FixedPointResult run(final Node root, final int limit) {
+        Node tree = root;
+        int passes = 0;
+        boolean changed = true;
+        while (changed && passes < limit) {
+            final long before = this.countConversions();
+            tree = this.visit(tree);
+            passes = passes + 1;
+            changed = this.countConversions() != before;
+        }
+        return new FixedPointResult(tree, passes, !changed, this.fired, this.visits);
+    }
+
+    /**
+     * Converts a tree in one pass.
+     * @param root The root node of the tree
+     * @return The converted tree, or the same node if nothing has changed
+     */
+    private Node visit(final Node root) {
+        final Pass pass = new Pass();
+        new DepthFirstWalker(root).walk(pass);
+        final IdentityIntMap<Node> previous = this.stable;
+        this.stable = this.next;
+        this.next = previous;
+        this.next.clear();
+        return pass.results[0];
+    }
+
+    /**
+     * Applies the first suitable converter to a node whose children have been converted.
+     * @param node The node
+     * @param children New list of children, or {@code null} if children are the same
+     * @param settled Flag indicating that all children are stable
+     * @return The converted node, the node with new children, or the same node
+     */
+    private Node convert(final Node node, final List<Node> children, final boolean settled) {
+        final Node current;
+        if (children == null) {
+            current = node;
+        } else {
+            current = new PatchedNode(node, children);
+        }
+        Node result = null;
+        for (final Converter converter : this.index.getCandidates(current)) {
+            this.captures.reset();
+            final Node transformed = converter.convert(current, this.factory, this.captures);
+            if (!(transformed instanceof EmptyTree)) {
+                final int position = this.positions.get(converter, 0);
+                this.fired[position] = this.fired[position] + 1;
+                result = transformed;
+                break;
+            }
+        }
+        if (result == null) {
+            result = FixedPointConversion.rebuild(node, children);
+            if (settled) {
+                this.next.put(result, FixedPointConversion.STABLE);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts conversions made by all converters.
+     * @return Number of conversions
+     */
+    private long countConversions() {
+        long total = 0;
+        for (final int count : this.fired) {
+            total = total + count;
+        }
+        return total;
+    }
+
+    /**
+     * Collects positions of converters in the list of converters.
+     * @param converters The list of converters
+     * @return Map of positions
+     */
+    private static IdentityIntMap<Converter> findPositions(final List<Converter> converters) {
+        final IdentityIntMap<Converter> map = new IdentityIntMap<>();
+        for (int position = converters.size() - 1; position >= 0; position = position - 1) {
+            map.put(converters.get(position), position);
+        }
+        return map;
+    }
+
+    /**
+     * Creates a copy of a node with new children, as {@link ConvertibleNode#rebuild()} does.
+     * @param node The node
+     * @param children New list of children, or {@code null} if children are the same
+     * @return A new node, the same node, or an empty tree if the node can not be created
+     */
+    private static Node rebuild(final Node node, final List<Node> children) {
+        Node result = node;
+        if (children != null) {
+            final Builder builder = node.getType().createBuilder();
+            builder.setFragment(node.getFragment());
+            builder.setData(node.getData());
+            builder.setChildrenList(children);
+            if (builder.isValid()) {
+                result = builder.createNode();
+            } else {
+                result = EmptyTree.INSTANCE;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visitor that converts nodes of a tree in post-order.
+     * Converted nodes are kept on a stack until their parent is converted.
+     *
+     * @since 1.1.5
+     */
+    private final class Pass implements DepthFirstWalker.Visitor {
+        /**
+         * Stack of converted nodes.
+         */
+        private Node[] results;
+
+        /**
+         * Number of nodes on the stack.
+         */
+        private int size;
+
+        /**
+         * Constructor.
+         */
+        private Pass() {
+            this.results = new Node[FixedPointConversion.INITIAL_CAPACITY];
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            final boolean unstable = !FixedPointConversion.this.stable.containsKey(node);
+            if (unstable) {
+                FixedPointConversion.this.visits = FixedPointConversion.this.visits + 1;
+            } else {
+                FixedPointConversion.this.next.put(node, FixedPointConversion.STABLE);
+                this.push(node);
+            }
+            return unstable;
+        }
+
+        @Override
+        @SuppressWarnings("PMD.CompareObjectsWithEquals")
+        public void leave(final Node node) {
+            final int count = node.getChildCount();
+            final int first = this.size - count;
+            List<Node> children = null;
+            boolean settled = true;
+            for (int position = 0; position < count; position = position + 1) {
+                final Node converted = this.results[first + position];
+                if (children == null && converted != node.getChild(position)) {
+                    children = new ArrayList<>(node.getChildrenList());
+                }
+                if (children != null) {
+                    children.set(position, converted);
+                }
+                settled = settled
+                    && FixedPointConversion.this.next.containsKey(converted);
+            }
+            Arrays.fill(this.results, first, this.size, null);
+            this.size = first;
+            this.push(FixedPointConversion.this.convert(node, children, settled));
+        }
+
+        /**
+         * Pushes a converted node onto the stack.
+         * @param node The node
+         */
+        private void push(final Node node) {
+            if (this.size == this.results.length) {
+                this.results = Arrays.copyOf(this.results, this.size * 2);
+            }
+            this.results[this.size] = node;
+            this.size = this.size + 1;
+        }
+    }
+}
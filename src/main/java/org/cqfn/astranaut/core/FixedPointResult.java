@@ -0,0 +1,130 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+/**
+ * Result of converting a tree repeatedly until it stops changing,
+ *  see {@link Adapter#convertToFixedPoint(Node, int)}.
+ *
+ * @since 1.1.5
+ */
+public final class FixedPointResult {
+    /**
+     * The converted tree.
+     */
+    private final Node tree;
+
+    /**
+     * Number of passes made.
+     */
+    private final int passes;
+
+    /**
+     * Flag indicating that the last pass has not changed the tree.
+     */
+    private final boolean stable;
+
+    /**
+     * Number of conversions made by each converter, in the order of the list of converters.
+     */
+    private final int[] fired;
+
+    /**
+     * Total number of node visits in all passes.
+     */
+    private final long visits;
+
+    /**
+     * Constructor.
+     * @param tree The converted tree
+     * @param passes Number of passes made
+     * @param stable Flag indicating that the last pass has not changed the tree
+     * @param fired Number of conversions made by each converter
+     * @param visits Total number of node visits in all passes
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    FixedPointResult(final Node tree, final int passes, final boolean stable,
+        final int[] fired, final long visits) {
+        this.tree = tree;
+        this.passes = passes;
+        this.stable = stable;
+        this.fired = fired.clone();
+        this.visits = visits;
+    }
+
+    /**
+     * Returns the converted tree.
+     * @return The root node of the converted tree
+     */
+    public Node getTree() {
+        return this.tree;
+    }
+
+    /**
+     * Returns the number of passes made.
+     * @return Number of passes
+     */
+    public int getPasses() {
+        return this.passes;
+    }
+
+    /**
+     * Checks whether the fixed point was reached, that is, the last pass has not
+     *  changed the tree. If not, the conversion was stopped by the limit of passes.
+     * @return Checking result
+     */
+    public boolean isFixedPoint() {
+        return this.stable;
+    }
+
+    /**
+     * Returns the total number of conversions made by all converters in all passes.
+     * @return Number of conversions
+     */
+    public int getConversions() {
+        int total = 0;
+        for (final int count : this.fired) {
+            total = total + count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of conversions made by a converter in all passes.
+     * @param index Index of the converter in the list of converters
+     * @return Number of conversions
+     */
+    public int getConversions(final int index) {
+        return this.fired[index];
+    }
+
+    /**
+     * Returns the total number of node visits in all passes. In the first pass all nodes
+     *  are visited, in the next passes only changed nodes and their ancestors.
+     * @return Number of visits
+     */
+    public long getVisits() {
+        return this.visits;
+    }
+}
@@ -25,10 +25,14 @@ package org.cqfn.astranaut.core;
 
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Checks if the node matches some structure and extracts the data or (and) children
  * if the latter are used in the target [sub]tree.
+ * A matcher implements the map-based method and may also override the method that saves
+ *  extracted values to a reusable {@link Captures} buffer, so as not to allocate memory.
+ *  By default, the latter delegates to the former.
  *
  * @since 1.0
  */
@@ -41,4 +45,20 @@ public interface Matcher {
      * @return The result of matching, {@code true} if node matches and data was extracted
      */
     boolean match(Node node, Map<Integer, List<Node>> children, Map<Integer, String> data);
+
+    /**
+     * Matches the node, saving extracted children and data to a buffer.
+     * @param node The node
+     * @param captures Where to save children and data when matched
+     * @return The result of matching, {@code true} if node matches and data was extracted
+     */
+    default boolean match(Node node, Captures captures) {
+        final Map<Integer, List<Node>> children = new TreeMap<>();
+        final Map<Integer, String> data = new TreeMap<>();
+        final boolean result = this.match(node, children, data);
+        if (result) {
+            captures.putAll(children, data);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Node that has the same type, data and fragment as another node, but other children.
+ * It is used to show a node with replaced children to converters without building a new node,
+ *  and to build trees that differ from the original tree in a few nodes, sharing all
+ *  unchanged subtrees.
+ *
+ * @since 1.1.5
+ */
+final class PatchedNode implements Node {
+    /**
+     * The original node.
+     */
+    private final Node prototype;
+
+    /**
+     * New list of children.
+     */
+    private final List<Node> children;
+
+    /**
+     * Constructor.
+     * @param prototype The original node
+     * @param children New list of children
+     */
+    PatchedNode(final Node prototype, final List<Node> children) {
+        this.prototype = prototype;
+        this.children = children;
+    }
+
+    @Override
+    public Fragment getFragment() {
+        return this.prototype.getFragment();
+    }
+
+    @Override
+    public Type getType() {
+        return this.prototype.getType();
+    }
+
+    @Override
+    public String getData() {
+        return this.prototype.getData();
+    }
+
+    @Override
+    public int getChildCount() {
+        return this.children.size();
+    }
+
+    @Override
+    public Node getChild(final int index) {
+        return this.children.get(index);
+    }
+
+    @Override
+    public List<Node> getChildrenList() {
+        return Collections.unmodifiableList(this.children);
+    }
+}
@@ -23,9 +23,9 @@
  */
 package org.cqfn.astranaut.core.algorithms;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.utils.IdentityIntMap;
 
 /**
  * Algorithm for measuring the depth of syntax trees.
@@ -33,17 +33,22 @@ import org.cqfn.astranaut.core.Node;
  * @since 1.1.0
  */
 public final class Depth {
+    /**
+     * Initial capacity of the stack of depths.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
     /**
      * A table with the calculated values.
      * Since nodes are immutable, depth calculated once for a node will never change.
      */
-    private final Map<Node, Integer> calculated;
+    private final IdentityIntMap<Node> calculated;
 
     /**
      * Constructor.
      */
     public Depth() {
-        this.calculated = new HashMap<>();
+        this.calculated = new IdentityIntMap<>();
     }
 
     /**
@@ -52,21 +57,76 @@ public final class Depth {
      * @return Calculated depth
      */
     public int calculate(final Node node) {
-        final int depth;
-        if (this.calculated.containsKey(node)) {
-            depth = this.calculated.get(node);
-        } else {
+        final Calculator calculator = new Calculator(this.calculated);
+        new DepthFirstWalker(node).walk(calculator);
+        return calculator.values[0];
+    }
+
+    /**
+     * Visitor that calculates depths of subtrees in post-order.
+     * The depths of the children are kept on a stack until the depth of the parent is calculated.
+     *
+     * @since 1.1.5
+     */
+    private static final class Calculator implements DepthFirstWalker.Visitor {
+        /**
+         * A table with the calculated values.
+         */
+        private final IdentityIntMap<Node> calculated;
+
+        /**
+         * Stack of calculated depths.
+         */
+        private int[] values;
+
+        /**
+         * Number of depths on the stack.
+         */
+        private int size;
+
+        /**
+         * Constructor.
+         * @param calculated A table with the calculated values
+         */
+        private Calculator(final IdentityIntMap<Node> calculated) {
+            this.calculated = calculated;
+            this.values = new int[Depth.INITIAL_CAPACITY];
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            final boolean absent = !this.calculated.containsKey(node);
+            if (!absent) {
+                this.push(this.calculated.get(node, 0));
+            }
+            return absent;
+        }
+
+        @Override
+        public void leave(final Node node) {
             int max = 0;
-            final int count = node.getChildCount();
-            for (int index = 0; index < count; index = index + 1) {
-                final int value = this.calculate(node.getChild(index));
-                if (max < value) {
-                    max = value;
+            final int first = this.size - node.getChildCount();
+            for (int index = first; index < this.size; index = index + 1) {
+                if (max < this.values[index]) {
+                    max = this.values[index];
                 }
             }
-            depth = 1 + max;
+            this.size = first;
+            final int depth = 1 + max;
             this.calculated.put(node, depth);
+            this.push(depth);
+        }
+
+        /**
+         * Pushes a depth onto the stack.
+         * @param depth The depth
+         */
+        private void push(final int depth) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size] = depth;
+            this.size = this.size + 1;
         }
-        return depth;
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms;
+
+import java.util.Arrays;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Depth-first traversal of a syntax tree that uses an explicit stack instead of recursion.
+ * The visitor is notified when the traversal enters a node (pre-order) and when it leaves
+ * the node after all its children have been processed (post-order).
+ * Since the stack is allocated in the heap, the depth of the tree is limited only
+ * by the available memory, so even very deep trees do not cause a stack overflow.
+ * Children that are {@code null} are passed to the visitor as they are and are considered
+ * to have no children.
+ *
+ * @since 1.1.5
+ */
+public final class DepthFirstWalker {
+    /**
+     * Initial capacity of the stack.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The root node of the tree to be traversed.
+     */
+    private final Node root;
+
+    /**
+     * Constructor.
+     * @param root The root node of the tree to be traversed
+     */
+    public DepthFirstWalker(final Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Traverses the tree.
+     * @param visitor Visitor that will be notified about entering and leaving nodes
+     */
+    public void walk(final Visitor visitor) {
+        if (visitor.enter(this.root)) {
+            final Stack stack = new Stack(this.root);
+            while (stack.top >= 0) {
+                stack.step(visitor);
+            }
+        }
+    }
+
+    /**
+     * Visitor that is notified during the traversal.
+     *
+     * @since 1.1.5
+     */
+    public interface Visitor {
+        /**
+         * Called when the traversal enters a node, before its children are processed.
+         * @param node The node (may be {@code null} if the parent node has a {@code null} child)
+         * @return True if the children of the node should be traversed, in which case
+         *  the {@link #leave(Node)} method will be called for the node after the children,
+         *  or false to skip the children, then {@link #leave(Node)} is not called
+         */
+        boolean enter(Node node);
+
+        /**
+         * Called when the traversal leaves a node, after all its children are processed.
+         * @param node The node
+         */
+        void leave(Node node);
+    }
+
+    /**
+     * Stack of nodes being traversed, with the index of the next child to be visited
+     * for each node.
+     *
+     * @since 1.1.5
+     */
+    private static final class Stack {
+        /**
+         * Nodes being traversed, starting from the root.
+         */
+        private Node[] nodes;
+
+        /**
+         * Index of the next child to be visited for each node.
+         */
+        private int[] indexes;
+
+        /**
+         * Index of the top of the stack, or {@code -1} if the stack is empty.
+         */
+        private int top;
+
+        /**
+         * Constructor.
+         * @param root The root node of the tree
+         */
+        private Stack(final Node root) {
+            this.nodes = new Node[DepthFirstWalker.INITIAL_CAPACITY];
+            this.indexes = new int[DepthFirstWalker.INITIAL_CAPACITY];
+            this.nodes[0] = root;
+        }
+
+        /**
+         * Makes one step of the traversal: either enters the next child of the node on the top
+         * of the stack, or leaves that node if all its children have been visited.
+         * @param visitor Visitor that will be notified about entering and leaving nodes
+         */
+        private void step(final Visitor visitor) {
+            final Node node = this.nodes[this.top];
+            final int index = this.indexes[this.top];
+            if (node != null && index < node.getChildCount()) {
+                this.indexes[this.top] = index + 1;
+                final Node child = node.getChild(index);
+                if (visitor.enter(child)) {
+                    this.push(child);
+                }
+            } else {
+                this.top = this.top - 1;
+                visitor.leave(node);
+            }
+        }
+
+        /**
+         * Pushes a node onto the stack.
+         * @param node The node
+         */
+        private void push(final Node node) {
+            this.top = this.top + 1;
+            if (this.top == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, this.top * 2);
+                this.indexes = Arrays.copyOf(this.indexes, this.top * 2);
+            }
+            this.nodes[this.top] = node;
+            this.indexes[this.top] = 0;
+        }
+    }
+}
@@ -56,10 +56,14 @@ public final class DifferenceTreeBuilder {
 
     /**
      * Constructor.
+     * Nodes are identified by their identity, so if a node occurs in the original tree
+     *  several times, only the first occurrence is kept, and the others are replaced
+     *  by copies, see {@link DistinctOccurrences}. Root of the resulting difference tree
+     *  refers to the processed tree as to its prototype.
      * @param before Root node of an 'ordinary', non-difference original tree before the changes
      */
     public DifferenceTreeBuilder(final Node before) {
-        this.root = new DifferenceNode(before);
+        this.root = new DifferenceNode(new DistinctOccurrences().process(before));
         this.info = DifferenceTreeBuilder.buildNodeInfoMap(this.root);
     }
 
@@ -0,0 +1,177 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.cqfn.astranaut.core.Builder;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.utils.IdentityIntMap;
+
+/**
+ * Algorithm that makes each occurrence of a node in trees a distinct object.
+ * A node may occur in a tree several times, for example, if the tree is built by
+ *  {@link org.cqfn.astranaut.core.SharingFactory}, and the same node may occur in two trees.
+ *  Algorithms that identify nodes by identity, such as mappers, would treat all
+ *  such occurrences as one node, therefore, they process trees in which the first
+ *  occurrence of each node is kept and all others are replaced by copies.
+ * Trees are processed one by one, and a node is considered as repeated if it occurs
+ *  in any tree processed before by the same object.
+ * A tree in which no node is repeated is returned as is.
+ *
+ * @since 1.1.5
+ */
+public final class DistinctOccurrences {
+    /**
+     * Nodes that have already occurred.
+     */
+    private final IdentityIntMap<Node> nodes;
+
+    /**
+     * Constructor.
+     */
+    public DistinctOccurrences() {
+        this.nodes = new IdentityIntMap<>();
+    }
+
+    /**
+     * Processes a tree.
+     * Repeated nodes are copied using builders of their types, and the ancestors
+     *  of copied nodes are rebuilt. If a node can't be rebuilt (its type does not provide
+     *  a builder, or the builder does not accept the data or the children), the node
+     *  is kept as is.
+     * @param root The root node of the tree
+     * @return The root node of a tree that is equal to the source tree and in which
+     *  each node is a distinct object
+     */
+    public Node process(final Node root) {
+        final Pass pass = new Pass(this.nodes);
+        new DepthFirstWalker(root).walk(pass);
+        return pass.results.get(0);
+    }
+
+    /**
+     * Visitor that replaces repeated nodes by copies.
+     *
+     * @since 1.1.5
+     */
+    private static final class Pass implements DepthFirstWalker.Visitor {
+        /**
+         * Nodes that have already occurred.
+         */
+        private final IdentityIntMap<Node> nodes;
+
+        /**
+         * Resulting subtrees of processed nodes whose parents have not yet been left.
+         */
+        private final List<Node> results;
+
+        /**
+         * Positions of the first result for each node being traversed,
+         *  starting from the current one.
+         */
+        private final Deque<Integer> starts;
+
+        /**
+         * Flags indicating that a node being traversed is repeated,
+         *  starting from the current one.
+         */
+        private final Deque<Boolean> repeated;
+
+        /**
+         * Constructor.
+         * @param nodes Nodes that have already occurred
+         */
+        Pass(final IdentityIntMap<Node> nodes) {
+            this.nodes = nodes;
+            this.results = new ArrayList<>(1);
+            this.starts = new ArrayDeque<>();
+            this.repeated = new ArrayDeque<>();
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            boolean repeat = false;
+            if (node != null) {
+                repeat = this.nodes.containsKey(node);
+                this.nodes.put(node, 0);
+            }
+            this.starts.push(this.results.size());
+            this.repeated.push(repeat);
+            return true;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            final List<Node> children = this.results.subList(
+                this.starts.pop(),
+                this.results.size()
+            );
+            Node result = node;
+            if (this.repeated.pop() || Pass.isChanged(node, children)) {
+                result = Pass.copy(node, children);
+            }
+            children.clear();
+            this.results.add(result);
+        }
+
+        /**
+         * Checks whether some children of a node have been replaced.
+         * @param node The node
+         * @param children Resulting subtrees of the children
+         * @return Checking result
+         */
+        @SuppressWarnings("PMD.CompareObjectsWithEquals")
+        private static boolean isChanged(final Node node, final List<Node> children) {
+            boolean changed = false;
+            final int count = children.size();
+            for (int index = 0; !changed && index < count; index = index + 1) {
+                changed = node.getChild(index) != children.get(index);
+            }
+            return changed;
+        }
+
+        /**
+         * Creates a copy of a node with other children.
+         * @param node The node
+         * @param children The children of the copy
+         * @return The copy, or the node itself if it can't be rebuilt
+         */
+        private static Node copy(final Node node, final List<Node> children) {
+            Node result = node;
+            final Builder builder = node.getType().createBuilder();
+            if (builder != null) {
+                builder.setFragment(node.getFragment());
+                if (builder.setData(node.getData())
+                    && builder.setChildrenList(new ArrayList<>(children))
+                    && builder.isValid()) {
+                    result = builder.createNode();
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -23,9 +23,9 @@
  */
 package org.cqfn.astranaut.core.algorithms;
 
+import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Set;
 import org.cqfn.astranaut.core.Node;
 
@@ -80,7 +80,7 @@ public class NodeSelector {
      *
      * @since 1.1.4
      */
-    private static final class Walker {
+    private static final class Walker implements DepthFirstWalker.Visitor {
         /**
          * Node selection criteria.
          */
@@ -91,6 +91,11 @@ public class NodeSelector {
          */
         private final Set<Node> set;
 
+        /**
+         * Stack containing the parents of the current node.
+         */
+        private final Deque<Node> parents;
+
         /**
          * Constructor.
          * @param criteria Node selection criteria
@@ -98,6 +103,24 @@ public class NodeSelector {
         private Walker(final Criteria criteria) {
             this.criteria = criteria;
             this.set = new HashSet<>();
+            this.parents = new ArrayDeque<>();
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            if (this.criteria.isApplicable(node, this.parents)) {
+                this.set.add(node);
+            }
+            final boolean descend = node.getChildCount() > 0;
+            if (descend) {
+                this.parents.addFirst(node);
+            }
+            return descend;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            this.parents.removeFirst();
         }
 
         /**
@@ -105,26 +128,7 @@ public class NodeSelector {
          * @param root Root node of the tree
          */
         void walk(final Node root) {
-            this.check(root, new LinkedList<>());
-        }
-
-        /**
-         * Checks the node and recursively all children of the node against the criterion.
-         * @param node The node
-         * @param parents Stack containing the parents of the node
-         */
-        void check(final Node node, final Deque<Node> parents) {
-            if (this.criteria.isApplicable(node, parents)) {
-                this.set.add(node);
-            }
-            final int count = node.getChildCount();
-            if (count > 0) {
-                parents.addFirst(node);
-                for (int index = 0; index < count; index = index + 1) {
-                    this.check(node.getChild(index), parents);
-                }
-                parents.removeFirst();
-            }
+            new DepthFirstWalker(root).walk(this);
         }
     }
 }
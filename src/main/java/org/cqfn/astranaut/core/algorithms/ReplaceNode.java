@@ -23,7 +23,9 @@
  */
 package org.cqfn.astranaut.core.algorithms;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import org.cqfn.astranaut.core.Builder;
 import org.cqfn.astranaut.core.EmptyTree;
@@ -45,30 +47,126 @@ public class ReplaceNode {
      *  and the index:
      *  - {@code -1} if the full tree was replaced or was not replaced at all;
      *  - index of the root child which branch was modified if a subtree was replaced
+     * @checkstyle NonStaticMethodCheck (2 lines)
      */
     public Pair<Node, Integer> replace(final Node tree, final Node source, final Node target) {
-        Pair<Node, Integer> result = new Pair<>(EmptyTree.INSTANCE, -1);
-        if (tree.equals(source)) {
-            result = new Pair<>(target, -1);
-        } else if (tree.getChildCount() > 0) {
-            final List<Node> list = new ArrayList<>(tree.getChildCount());
-            int pos = -1;
-            for (int idx = 0; idx < tree.getChildCount(); idx += 1) {
-                final Node child = tree.getChild(idx);
-                final Pair<Node, Integer> replacement = this.replace(child, source, target);
-                if (replacement.getKey().equals(EmptyTree.INSTANCE)) {
-                    list.add(child);
-                } else {
-                    list.add(replacement.getKey());
-                    pos = idx;
-                }
+        final Replacer replacer = new Replacer(source, target);
+        new DepthFirstWalker(tree).walk(replacer);
+        return replacer.result;
+    }
+
+    /**
+     * Visitor that rebuilds the branch of the tree containing the subtree to be replaced.
+     * For each node being traversed, a frame is stored that contains the list of (possibly
+     *  replaced) children of the node.
+     *
+     * @since 1.1.5
+     */
+    private static final class Replacer implements DepthFirstWalker.Visitor {
+        /**
+         * The subtree to be replaced.
+         */
+        private final Node source;
+
+        /**
+         * The new subtree.
+         */
+        private final Node target;
+
+        /**
+         * Frames of the nodes being traversed, starting from the current one.
+         */
+        private final Deque<Frame> frames;
+
+        /**
+         * The result.
+         */
+        private Pair<Node, Integer> result;
+
+        /**
+         * Constructor.
+         * @param source The subtree to be replaced
+         * @param target The new subtree
+         */
+        private Replacer(final Node source, final Node target) {
+            this.source = source;
+            this.target = target;
+            this.frames = new ArrayDeque<>();
+            this.result = new Pair<>(EmptyTree.INSTANCE, -1);
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            final boolean descend;
+            if (node.equals(this.source)) {
+                descend = false;
+                this.complete(node, this.target, -1);
+            } else if (node.getChildCount() > 0) {
+                descend = true;
+                this.frames.addFirst(new Frame(node.getChildCount()));
+            } else {
+                descend = false;
+                this.complete(node, EmptyTree.INSTANCE, -1);
+            }
+            return descend;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            final Frame frame = this.frames.removeFirst();
+            Node replacement = EmptyTree.INSTANCE;
+            if (frame.position != -1) {
+                final Builder builder = node.getType().createBuilder();
+                builder.setChildrenList(frame.children);
+                replacement = builder.createNode();
             }
-            if (pos != -1) {
-                final Builder builder = tree.getType().createBuilder();
-                builder.setChildrenList(list);
-                result = new Pair<>(builder.createNode(), pos);
+            this.complete(node, replacement, frame.position);
+        }
+
+        /**
+         * Passes the result of processing a node to its parent, or stores it as the result
+         *  if the node is the root.
+         * @param node The node
+         * @param replacement The node that replaces the original one,
+         *  or an empty tree if the node was not replaced
+         * @param position Index of the root child which branch was modified
+         */
+        private void complete(final Node node, final Node replacement, final int position) {
+            final Frame parent = this.frames.peekFirst();
+            if (parent == null) {
+                this.result = new Pair<>(replacement, position);
+            } else if (replacement.equals(EmptyTree.INSTANCE)) {
+                parent.children.add(node);
+            } else {
+                parent.position = parent.children.size();
+                parent.children.add(replacement);
             }
         }
-        return result;
+    }
+
+    /**
+     * Frame of a node being traversed.
+     *
+     * @since 1.1.5
+     */
+    private static final class Frame {
+        /**
+         * Children of the node, some of which may be replaced.
+         */
+        private final List<Node> children;
+
+        /**
+         * Index of the last replaced child, or {@code -1} if no children were replaced.
+         */
+        private int position;
+
+        /**
+         * Constructor.
+         * @param count Number of children
+         */
+        private Frame(final int count) {
+            this.children = new ArrayList<>(count);
+            this.position = -1;
+        }
     }
 }
@@ -23,7 +23,9 @@
  */
 package org.cqfn.astranaut.core.algorithms;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -79,7 +81,7 @@ public class Subtree {
      */
     public Node create(final Set<Node> nodes) {
         final Map<Node, List<Integer>> indexes = new HashMap<>();
-        this.build(this.root, indexes, nodes);
+        new DepthFirstWalker(this.root).walk(new IndexBuilder(indexes, nodes));
         final Node result;
         if (indexes.get(this.root).isEmpty()) {
             result = EmptyTree.INSTANCE;
@@ -89,26 +91,6 @@ public class Subtree {
         return result;
     }
 
-    /**
-     * Constructs an index map containing the indexes of the nodes that will be included
-     *  in the resulting tree.
-     * @param node Current node
-     * @param indexes Index map
-     * @param set The set of nodes
-     */
-    private void build(final Node node, final Map<Node, List<Integer>> indexes,
-        final Set<Node> set) {
-        final List<Integer> list = indexes.computeIfAbsent(node, s -> new ArrayList<>(0));
-        final int count = node.getChildCount();
-        for (int index = 0; index < count; index = index + 1) {
-            final Node child = node.getChild(index);
-            if (this.algorithm.isApplicable(child, set)) {
-                list.add(index);
-                this.build(child, indexes, set);
-            }
-        }
-    }
-
     /**
      * An algorithm that selects nodes based on some criteria.
      *
@@ -189,4 +171,69 @@ public class Subtree {
             return this.children[index];
         }
     }
+
+    /**
+     * Visitor that constructs an index map containing the indexes of the nodes that will be
+     *  included in the resulting tree.
+     *
+     * @since 1.1.5
+     */
+    private final class IndexBuilder implements DepthFirstWalker.Visitor {
+        /**
+         * Index map.
+         */
+        private final Map<Node, List<Integer>> indexes;
+
+        /**
+         * The set of nodes.
+         */
+        private final Set<Node> set;
+
+        /**
+         * Index lists of the nodes being traversed, starting from the current one.
+         */
+        private final Deque<List<Integer>> lists;
+
+        /**
+         * Index of the next child for each node being traversed, starting from the current one.
+         */
+        private final Deque<int[]> counters;
+
+        /**
+         * Constructor.
+         * @param indexes Index map to be filled
+         * @param set The set of nodes
+         */
+        private IndexBuilder(final Map<Node, List<Integer>> indexes, final Set<Node> set) {
+            this.indexes = indexes;
+            this.set = set;
+            this.lists = new ArrayDeque<>();
+            this.counters = new ArrayDeque<>();
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            boolean applicable = true;
+            if (!this.lists.isEmpty()) {
+                final int[] counter = this.counters.peekFirst();
+                final int index = counter[0];
+                counter[0] = index + 1;
+                applicable = Subtree.this.algorithm.isApplicable(node, this.set);
+                if (applicable) {
+                    this.lists.peekFirst().add(index);
+                }
+            }
+            if (applicable) {
+                this.lists.addFirst(this.indexes.computeIfAbsent(node, s -> new ArrayList<>(0)));
+                this.counters.addFirst(new int[1]);
+            }
+            return applicable;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            this.lists.removeFirst();
+            this.counters.removeFirst();
+        }
+    }
 }
@@ -23,45 +23,195 @@
  */
 package org.cqfn.astranaut.core.algorithms.hash;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
+import org.cqfn.astranaut.core.utils.IdentityIntMap;
 
 /**
  * Computes the absolute hash of a node, that is, a hash that is computed from both the data
  * of node itself and the data of all children of node.
  * The main feature: if subtrees match, the absolute hashes of their roots are equal.
  * This feature allows us to quickly compare trees and find a subtree in a tree.
+ * Calculated hashes are cached by node identity in a table of primitive integers, so the
+ * cache stays small even for large trees; it can be dropped by calling {@link #clear()}.
+ * A hash can be layered on top of another one, the base: hashes cached in the base are
+ * reused, but hashes of new nodes are stored only in the layer. This allows a tree that is
+ * compared with many other trees to keep its hashes, while the hashes of the other trees
+ * are dropped together with their layers.
  *
  * @since 1.1.0
  */
 public final class AbsoluteHash implements Hash {
+    /**
+     * Initial capacity of the stack of hashes.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Empty table used as the base of hashes that have no base. It is never modified.
+     */
+    private static final IdentityIntMap<Node> NO_BASE = new IdentityIntMap<>();
+
     /**
      * A table with the calculated hashes.
      * Since nodes are immutable, a hash calculated once for a node will never change.
      */
-    private final Map<Node, Integer> calculated;
+    private final IdentityIntMap<Node> calculated;
+
+    /**
+     * A table with the hashes calculated by the base. This table is only read.
+     */
+    private final IdentityIntMap<Node> base;
 
     /**
      * Constructor.
      */
     public AbsoluteHash() {
-        this.calculated = new HashMap<>();
+        this(AbsoluteHash.NO_BASE);
+    }
+
+    /**
+     * Constructor of a hash layered on top of another one.
+     * @param base The base whose cached hashes are reused but not modified
+     */
+    public AbsoluteHash(final AbsoluteHash base) {
+        this(base.calculated);
+    }
+
+    /**
+     * Constructor.
+     * @param base A table with the hashes calculated by the base
+     */
+    private AbsoluteHash(final IdentityIntMap<Node> base) {
+        this.calculated = new IdentityIntMap<>();
+        this.base = base;
     }
 
     @Override
     public int calculate(final Node node) {
-        int hash;
-        if (this.calculated.containsKey(node)) {
-            hash = this.calculated.get(node);
-        } else {
-            hash = node.getTypeName().hashCode() * 31 + node.getData().hashCode();
+        final Calculator calculator = new Calculator(this.calculated, this.base, true);
+        new DepthFirstWalker(node).walk(calculator);
+        return calculator.values[0];
+    }
+
+    /**
+     * Calculates the hash of a node without storing the hashes of the visited nodes
+     *  in the cache; hashes that are already cached are reused. The memory used
+     *  by the calculation depends only on the depth of the tree, so this is the way
+     *  to hash trees that are hashed once, and trees whose nodes are created on demand
+     *  and have no stable identity, such as trees opened from a file.
+     * @param node The node
+     * @return The hash
+     */
+    public int calculateTransient(final Node node) {
+        final Calculator calculator = new Calculator(this.calculated, this.base, false);
+        new DepthFirstWalker(node).walk(calculator);
+        return calculator.values[0];
+    }
+
+    /**
+     * Returns the number of nodes whose hashes are stored in the cache.
+     * @return Number of cached hashes
+     */
+    public int size() {
+        return this.calculated.size();
+    }
+
+    /**
+     * Drops all calculated hashes and releases the memory occupied by the cache.
+     * Call it when the trees processed so far are no longer needed,
+     * for example, after processing each file of a large repository.
+     */
+    public void clear() {
+        this.calculated.clear();
+    }
+
+    /**
+     * Visitor that calculates hashes of nodes in post-order.
+     * The hashes of the children are kept on a stack until the hash of the parent is calculated.
+     *
+     * @since 1.1.5
+     */
+    private static final class Calculator implements DepthFirstWalker.Visitor {
+        /**
+         * A table with the calculated values.
+         */
+        private final IdentityIntMap<Node> calculated;
+
+        /**
+         * A table with the values calculated by the base.
+         */
+        private final IdentityIntMap<Node> base;
+
+        /**
+         * Flag indicating that calculated hashes are stored in the table.
+         */
+        private final boolean store;
+
+        /**
+         * Stack of calculated hashes.
+         */
+        private int[] values;
+
+        /**
+         * Number of hashes on the stack.
+         */
+        private int size;
+
+        /**
+         * Constructor.
+         * @param calculated A table with the calculated values
+         * @param base A table with the values calculated by the base
+         * @param store Flag indicating that calculated hashes are stored in the table
+         */
+        private Calculator(final IdentityIntMap<Node> calculated,
+            final IdentityIntMap<Node> base, final boolean store) {
+            this.calculated = calculated;
+            this.base = base;
+            this.store = store;
+            this.values = new int[AbsoluteHash.INITIAL_CAPACITY];
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            boolean absent = !this.calculated.containsKey(node);
+            if (absent) {
+                absent = !this.base.containsKey(node);
+                if (!absent) {
+                    this.push(this.base.get(node, 0));
+                }
+            } else {
+                this.push(this.calculated.get(node, 0));
+            }
+            return absent;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            int hash = node.getTypeName().hashCode() * 31 + node.getData().hashCode();
             final int count = node.getChildCount();
-            for (int index = 0; index < count; index = index + 1) {
-                hash = 31 * hash + this.calculate(node.getChild(index));
+            final int first = this.size - count;
+            for (int index = first; index < this.size; index = index + 1) {
+                hash = 31 * hash + this.values[index];
+            }
+            this.size = first;
+            if (this.store) {
+                this.calculated.put(node, hash);
+            }
+            this.push(hash);
+        }
+
+        /**
+         * Pushes a hash onto the stack.
+         * @param hash The hash
+         */
+        private void push(final int hash) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
             }
-            this.calculated.put(node, hash);
+            this.values[this.size] = hash;
+            this.size = this.size + 1;
         }
-        return hash;
     }
 }
@@ -0,0 +1,529 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.hash;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
+import org.cqfn.astranaut.core.utils.IdentityIntMap;
+
+/**
+ * Computes the same absolute hash as {@link AbsoluteHash}, but processes large independent
+ * subtrees in parallel using a fork/join pool.
+ * When a node has several children and the pool is short of work, children whose subtrees
+ * contain more than a threshold number of nodes are hashed in separate tasks.
+ * The hashes of the children are still combined in the order of the children,
+ * so the result is exactly the same as the result of the sequential algorithm.
+ * Each task looks up a node in the table once and collects the calculated hashes in a batch,
+ * which is stored in the table locking each segment once.
+ *
+ * @since 1.1.5
+ */
+public final class ParallelHash implements Hash {
+    /**
+     * Minimum number of nodes in a subtree that is worth hashing in a separate task.
+     */
+    private static final int THRESHOLD = 2048;
+
+    /**
+     * Maximum number of surplus tasks queued by the current worker, above which
+     * new tasks are not created.
+     */
+    private static final int SURPLUS = 2;
+
+    /**
+     * Number of segments of the table with the calculated hashes, must be a power of two.
+     */
+    private static final int SEGMENTS = 64;
+
+    /**
+     * Initial capacity of stacks.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Number of calculated hashes that a task collects before storing them in the table.
+     */
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * Result of a lookup in a segment if the node has no calculated hash.
+     */
+    private static final long ABSENT = -1L;
+
+    /**
+     * Pool in which tasks are executed.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Segments of the table with the calculated hashes. Each segment is locked separately,
+     * so that tasks that process different subtrees rarely wait for each other.
+     */
+    private final Segment[] segments;
+
+    /**
+     * Constructor that uses the common pool.
+     */
+    public ParallelHash() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     * @param pool Pool in which tasks are executed
+     */
+    public ParallelHash(final ForkJoinPool pool) {
+        this.pool = pool;
+        this.segments = ParallelHash.createSegments();
+    }
+
+    @Override
+    public int calculate(final Node node) {
+        final long found = this.segments[ParallelHash.indexOf(node)].find(node);
+        final int hash;
+        if (found == ParallelHash.ABSENT) {
+            final Task task = new Task(node);
+            this.pool.invoke(task);
+            hash = task.result;
+        } else {
+            hash = (int) found;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the number of nodes whose hashes are stored in the cache.
+     * @return Number of cached hashes
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment segment : this.segments) {
+            size = size + segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Drops all calculated hashes and releases the memory occupied by the cache.
+     */
+    public void clear() {
+        for (final Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Creates segments of the table with the calculated hashes.
+     * @return Array of segments
+     */
+    private static Segment[] createSegments() {
+        final Segment[] segments = new Segment[ParallelHash.SEGMENTS];
+        for (int index = 0; index < ParallelHash.SEGMENTS; index = index + 1) {
+            segments[index] = new Segment();
+        }
+        return segments;
+    }
+
+    /**
+     * Returns the index of the segment of the table that contains the hash of the node.
+     * @param node The node
+     * @return Index of the segment
+     */
+    private static int indexOf(final Node node) {
+        return System.identityHashCode(node) & ParallelHash.SEGMENTS - 1;
+    }
+
+    /**
+     * Counts the nodes of the subtree, but visits no more than {@link #THRESHOLD} nodes.
+     * @param root The root node of the subtree
+     * @param stack Array of {@link #THRESHOLD} elements used as the stack of nodes
+     * @return Number of nodes in the subtree, or the threshold if the subtree is larger
+     */
+    private static int countNodes(final Node root, final Node... stack) {
+        stack[0] = root;
+        int size = 1;
+        int count = 0;
+        while (size > 0 && count < ParallelHash.THRESHOLD) {
+            size = size - 1;
+            final Node node = stack[size];
+            count = count + 1;
+            final int children = node.getChildCount();
+            if (count + size + children >= ParallelHash.THRESHOLD) {
+                count = ParallelHash.THRESHOLD;
+            } else {
+                for (int index = 0; index < children; index = index + 1) {
+                    stack[size + index] = node.getChild(index);
+                }
+                size = size + children;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Segment of the table with the calculated hashes.
+     *
+     * @since 1.1.5
+     */
+    private static final class Segment {
+        /**
+         * Calculated hashes.
+         */
+        private final IdentityIntMap<Node> table;
+
+        /**
+         * Constructor.
+         */
+        private Segment() {
+            this.table = new IdentityIntMap<>();
+        }
+
+        /**
+         * Looks for the calculated hash of the node.
+         * @param node The node
+         * @return The hash as an unsigned value, or {@link #ABSENT} if it is not calculated
+         */
+        private long find(final Node node) {
+            synchronized (this.table) {
+                long result = ParallelHash.ABSENT;
+                if (this.table.containsKey(node)) {
+                    result = this.table.get(node, 0) & 0xFFFF_FFFFL;
+                }
+                return result;
+            }
+        }
+
+        /**
+         * Stores calculated hashes of several nodes at once.
+         * @param nodes Array of nodes
+         * @param hashes Array of hashes of the nodes
+         * @param start Index of the first node to be stored
+         * @param end Index after the last node to be stored
+         * @checkstyle ParameterNumberCheck (3 lines)
+         */
+        private void putAll(final Node[] nodes, final int[] hashes, final int start,
+            final int end) {
+            synchronized (this.table) {
+                for (int index = start; index < end; index = index + 1) {
+                    this.table.put(nodes[index], hashes[index]);
+                }
+            }
+        }
+
+        /**
+         * Returns the number of hashes stored in the segment.
+         * @return Number of hashes
+         */
+        private int size() {
+            synchronized (this.table) {
+                return this.table.size();
+            }
+        }
+
+        /**
+         * Removes all hashes from the segment.
+         */
+        private void clear() {
+            synchronized (this.table) {
+                this.table.clear();
+            }
+        }
+    }
+
+    /**
+     * Task that calculates the hash of a subtree.
+     *
+     * @since 1.1.5
+     */
+    private final class Task extends RecursiveAction {
+        /**
+         * Serial version UID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The root node of the subtree.
+         */
+        private final transient Node root;
+
+        /**
+         * Calculated hash.
+         */
+        private int result;
+
+        /**
+         * Constructor.
+         * @param root The root node of the subtree
+         */
+        private Task(final Node root) {
+            this.root = root;
+        }
+
+        // @checkstyle ProtectedMethodInFinalClassCheck (2 lines)
+        @Override
+        protected void compute() {
+            final Calculator calculator = new Calculator();
+            new DepthFirstWalker(this.root).walk(calculator);
+            calculator.batch.flush(ParallelHash.this.segments);
+            this.result = calculator.values[0];
+        }
+    }
+
+    /**
+     * Visitor that calculates hashes of nodes in post-order, forking tasks for
+     * large subtrees.
+     * Counting nodes to find large subtrees is paid for with credit, which is earned by
+     * visiting nodes, so the counting never takes longer than the hashing itself.
+     *
+     * @since 1.1.5
+     */
+    private final class Calculator implements DepthFirstWalker.Visitor {
+        /**
+         * Tasks forked for children of nodes being traversed, that have not been joined yet.
+         */
+        private final Map<Node, Task> forked;
+
+        /**
+         * Calculated hashes that are not yet stored in the table.
+         */
+        private final Batch batch;
+
+        /**
+         * Array used as the stack of nodes when counting nodes of subtrees.
+         */
+        private final Node[] scratch;
+
+        /**
+         * Stack of calculated hashes.
+         */
+        private int[] values;
+
+        /**
+         * Number of hashes on the stack.
+         */
+        private int size;
+
+        /**
+         * Number of nodes that can still be visited to find large subtrees.
+         */
+        private int credit;
+
+        /**
+         * Constructor.
+         */
+        private Calculator() {
+            this.forked = new IdentityHashMap<>();
+            this.batch = new Batch();
+            this.scratch = new Node[ParallelHash.THRESHOLD];
+            this.values = new int[ParallelHash.INITIAL_CAPACITY];
+            this.credit = ParallelHash.THRESHOLD;
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            final Task task = this.forked.remove(node);
+            long found = ParallelHash.ABSENT;
+            if (task == null) {
+                found = ParallelHash.this.segments[ParallelHash.indexOf(node)].find(node);
+            }
+            boolean descend = false;
+            this.credit = this.credit + 1;
+            if (task == null && found == ParallelHash.ABSENT) {
+                descend = true;
+                if (node.getChildCount() > 1 && this.credit > 0
+                    && ForkJoinTask.getSurplusQueuedTaskCount() <= ParallelHash.SURPLUS) {
+                    this.split(node);
+                }
+            } else if (task == null) {
+                this.push((int) found);
+            } else {
+                task.join();
+                this.push(task.result);
+            }
+            return descend;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            int hash = node.getTypeName().hashCode() * 31 + node.getData().hashCode();
+            final int count = node.getChildCount();
+            final int first = this.size - count;
+            for (int index = first; index < this.size; index = index + 1) {
+                hash = 31 * hash + this.values[index];
+            }
+            this.size = first;
+            this.batch.add(node, hash, ParallelHash.this.segments);
+            this.push(hash);
+        }
+
+        /**
+         * Forks tasks for large subtrees of the node, except the first one,
+         * which will be processed by the current task.
+         * @param node The node
+         */
+        private void split(final Node node) {
+            final int count = node.getChildCount();
+            boolean first = true;
+            for (int index = 0; index < count; index = index + 1) {
+                final Node child = node.getChild(index);
+                final boolean large = !this.forked.containsKey(child) && this.isLarge(child);
+                if (large && first) {
+                    first = false;
+                } else if (large) {
+                    final Task task = new Task(child);
+                    task.fork();
+                    this.forked.put(child, task);
+                }
+            }
+        }
+
+        /**
+         * Checks whether the subtree is large enough to be hashed in a separate task.
+         * @param root The root node of the subtree
+         * @return Checking result
+         */
+        private boolean isLarge(final Node root) {
+            final int count = ParallelHash.countNodes(root, this.scratch);
+            this.credit = this.credit - count;
+            return count == ParallelHash.THRESHOLD;
+        }
+
+        /**
+         * Pushes a hash onto the stack.
+         * @param hash The hash
+         */
+        private void push(final int hash) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size] = hash;
+            this.size = this.size + 1;
+        }
+    }
+
+    /**
+     * Hashes calculated by a task, that are stored in the table in batches, so that
+     *  each segment is locked once per batch rather than once per node.
+     *
+     * @since 1.1.5
+     */
+    private static final class Batch {
+        /**
+         * Nodes whose hashes are calculated.
+         */
+        private final Node[] nodes;
+
+        /**
+         * Hashes of the nodes.
+         */
+        private final int[] hashes;
+
+        /**
+         * Indexes of segments of the nodes.
+         */
+        private final int[] indexes;
+
+        /**
+         * Nodes sorted by indexes of segments.
+         */
+        private final Node[] sorted;
+
+        /**
+         * Hashes of the sorted nodes.
+         */
+        private final int[] values;
+
+        /**
+         * Number of nodes in the batch.
+         */
+        private int size;
+
+        /**
+         * Constructor.
+         */
+        private Batch() {
+            this.nodes = new Node[ParallelHash.BATCH_SIZE];
+            this.hashes = new int[ParallelHash.BATCH_SIZE];
+            this.indexes = new int[ParallelHash.BATCH_SIZE];
+            this.sorted = new Node[ParallelHash.BATCH_SIZE];
+            this.values = new int[ParallelHash.BATCH_SIZE];
+        }
+
+        /**
+         * Adds a calculated hash to the batch, storing the batch if it is full.
+         * @param node The node
+         * @param hash The hash
+         * @param segments Segments of the table
+         */
+        private void add(final Node node, final int hash, final Segment... segments) {
+            this.nodes[this.size] = node;
+            this.hashes[this.size] = hash;
+            this.indexes[this.size] = ParallelHash.indexOf(node);
+            this.size = this.size + 1;
+            if (this.size == ParallelHash.BATCH_SIZE) {
+                this.flush(segments);
+            }
+        }
+
+        /**
+         * Stores all hashes of the batch in the table, locking each segment once.
+         * @param segments Segments of the table
+         */
+        private void flush(final Segment... segments) {
+            final int[] starts = new int[ParallelHash.SEGMENTS + 1];
+            for (int index = 0; index < this.size; index = index + 1) {
+                starts[this.indexes[index]] += 1;
+            }
+            int total = 0;
+            for (int segment = 0; segment <= ParallelHash.SEGMENTS; segment = segment + 1) {
+                final int count = starts[segment];
+                starts[segment] = total;
+                total = total + count;
+            }
+            final int[] next = Arrays.copyOf(starts, ParallelHash.SEGMENTS);
+            for (int index = 0; index < this.size; index = index + 1) {
+                final int position = next[this.indexes[index]];
+                this.sorted[position] = this.nodes[index];
+                this.values[position] = this.hashes[index];
+                next[this.indexes[index]] = position + 1;
+            }
+            for (int segment = 0; segment < ParallelHash.SEGMENTS; segment = segment + 1) {
+                if (starts[segment] < starts[segment + 1]) {
+                    segments[segment].putAll(
+                        this.sorted, this.values, starts[segment], starts[segment + 1]
+                    );
+                }
+            }
+            Arrays.fill(this.nodes, 0, this.size, null);
+            Arrays.fill(this.sorted, 0, this.size, null);
+            this.size = 0;
+        }
+    }
+}
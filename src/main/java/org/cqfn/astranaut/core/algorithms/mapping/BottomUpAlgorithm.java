@@ -0,0 +1,816 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.mapping;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import org.cqfn.astranaut.core.Insertion;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.hash.AbsoluteHash;
+import org.cqfn.astranaut.core.algorithms.hash.Hash;
+
+/**
+ * Bottom-up mapping algorithm, similar to the one used in the GumTree tool.
+ * First, identical subtrees are matched greedily, from the highest to the lowest ones.
+ * Then, nodes are matched bottom-up: a node is matched to a node of the same type if
+ *  a large enough share of their descendants are matched to each other (the dice
+ *  coefficient), after which unmatched children of matched nodes are matched with each
+ *  other. Finally, an edit script is built for each pair of matched nodes.
+ *
+ * @since 1.1.5
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class BottomUpAlgorithm {
+    /**
+     * Minimum height of identical subtrees matched in the first phase.
+     * Smaller subtrees (leaves) are too common to be matched without context.
+     */
+    private static final int MIN_HEIGHT = 2;
+
+    /**
+     * Minimum dice coefficient of two nodes matched in the second phase.
+     */
+    private static final double THRESHOLD = 0.5;
+
+    /**
+     * The 'left' tree.
+     */
+    private final TreeIndex left;
+
+    /**
+     * The 'right' tree.
+     */
+    private final TreeIndex right;
+
+    /**
+     * Set of node hashes.
+     */
+    private final Hash hashes;
+
+    /**
+     * For each left node, the index of the matched right node, or {@code -1}.
+     */
+    private final int[] ltr;
+
+    /**
+     * For each right node, the index of the matched left node, or {@code -1}.
+     */
+    private final int[] rtl;
+
+    /**
+     * Right nodes matched to the descendants of the left node processed
+     *  in the second phase, used to calculate the dice coefficient.
+     */
+    private final RangeCounter partners;
+
+    /**
+     * Set containing inserted nodes.
+     */
+    private final Set<Insertion> inserted;
+
+    /**
+     * Map containing replaces nodes.
+     */
+    private final Map<Node, Node> replaced;
+
+    /**
+     * Set of deleted nodes.
+     */
+    private final Set<Node> deleted;
+
+    /**
+     * Constructor.
+     * @param left Root node of the 'left' tree
+     * @param right Root node of the 'right' tree
+     */
+    BottomUpAlgorithm(final Node left, final Node right) {
+        this.left = new TreeIndex(left);
+        this.right = new TreeIndex(right);
+        this.hashes = new AbsoluteHash();
+        this.ltr = BottomUpAlgorithm.createPartners(this.left.size());
+        this.rtl = BottomUpAlgorithm.createPartners(this.right.size());
+        this.partners = new RangeCounter(this.right.size());
+        this.inserted = new LinkedHashSet<>();
+        this.replaced = new HashMap<>();
+        this.deleted = new HashSet<>();
+    }
+
+    /**
+     * Performs the mapping.
+     */
+    void execute() {
+        this.matchIdenticalSubtrees();
+        this.matchContainers();
+        if (this.ltr[0] < 0 && this.rtl[0] < 0) {
+            this.link(0, 0);
+            this.recover(0, 0);
+        }
+        this.buildScript();
+    }
+
+    /**
+     * Returns result of mapping.
+     * @return Result of mapping
+     */
+    Mapping getResult() {
+        return new Result(this);
+    }
+
+    /**
+     * First phase: greedily matches identical subtrees, starting from the highest ones.
+     * Subtrees of the same height are compared by hash. The children of subtrees that
+     *  were not matched are compared at the next steps.
+     */
+    private void matchIdenticalSubtrees() {
+        final NavigableMap<Integer, List<Integer>> first = new TreeMap<>();
+        final NavigableMap<Integer, List<Integer>> second = new TreeMap<>();
+        BottomUpAlgorithm.push(first, this.left, 0);
+        BottomUpAlgorithm.push(second, this.right, 0);
+        while (!first.isEmpty() && !second.isEmpty()) {
+            final int height = Math.max(first.lastKey(), second.lastKey());
+            if (Math.min(first.lastKey(), second.lastKey()) < BottomUpAlgorithm.MIN_HEIGHT) {
+                break;
+            }
+            final List<Integer> lnodes = first.remove(height);
+            final List<Integer> rnodes = second.remove(height);
+            if (lnodes != null && rnodes != null) {
+                this.matchSubtreesOfSameHeight(lnodes, rnodes);
+            }
+            BottomUpAlgorithm.open(
+                first, this.left, BottomUpAlgorithm.unmatched(lnodes, this.ltr)
+            );
+            BottomUpAlgorithm.open(
+                second, this.right, BottomUpAlgorithm.unmatched(rnodes, this.rtl)
+            );
+        }
+    }
+
+    /**
+     * Matches subtrees of the same height that have the same hashes.
+     * If several subtrees have the same hash, they are matched in order.
+     * @param lnodes Indexes of roots of left subtrees
+     * @param rnodes Indexes of roots of right subtrees
+     */
+    private void matchSubtreesOfSameHeight(final List<Integer> lnodes,
+        final List<Integer> rnodes) {
+        final Map<Integer, Deque<Integer>> index = new HashMap<>();
+        for (final int node : rnodes) {
+            index.computeIfAbsent(
+                this.hashes.calculate(this.right.getNode(node)),
+                key -> new ArrayDeque<>()
+            ).addLast(node);
+        }
+        for (final int node : lnodes) {
+            final Deque<Integer> candidates =
+                index.get(this.hashes.calculate(this.left.getNode(node)));
+            if (candidates != null && !candidates.isEmpty()) {
+                this.linkSubtrees(node, candidates.pollFirst());
+            }
+        }
+    }
+
+    /**
+     * Second phase: matches nodes bottom-up. Children are processed before their parents,
+     *  and the candidates for each unmatched node are the unmatched parents of the right
+     *  nodes matched to its children.
+     * To calculate the dice coefficient quickly, the right nodes matched to the descendants
+     *  of the node being processed are kept in the counter. The counter is filled from
+     *  the largest child, which is processed after its siblings and whose matches are not
+     *  removed from the counter, so each node is added to the counter a logarithmic number
+     *  of times.
+     */
+    private void matchContainers() {
+        this.partners.clear();
+        final Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[] {0, 0});
+        while (!stack.isEmpty()) {
+            final int[] entry = stack.pop();
+            if (entry[0] < 0) {
+                this.leaveContainer(-entry[0] - 1, entry[1] != 0);
+            } else {
+                final int[] children = this.left.getChildren(entry[0]);
+                final int largest = this.findLargest(children);
+                stack.push(new int[] {-entry[0] - 1, entry[1]});
+                if (largest >= 0) {
+                    stack.push(new int[] {largest, 1});
+                }
+                for (final int child : children) {
+                    if (child != largest) {
+                        stack.push(new int[] {child, 0});
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes a left node in the second phase after all its descendants. At this point,
+     *  the counter contains matches of the descendants of the largest child.
+     * @param node Index of the left node
+     * @param keep Whether to keep the matches of the subtree in the counter
+     */
+    private void leaveContainer(final int node, final boolean keep) {
+        final int[] children = this.left.getChildren(node);
+        final int largest = this.findLargest(children);
+        for (final int child : children) {
+            if (child != largest) {
+                this.countPartners(child, 1);
+            }
+        }
+        if (this.ltr[node] < 0 && children.length > 0) {
+            final int candidate = this.findCandidate(node);
+            if (candidate >= 0) {
+                this.link(node, candidate);
+                this.recover(node, candidate);
+            }
+        } else if (this.ltr[node] >= 0) {
+            this.partners.add(this.ltr[node], 1);
+        }
+        if (!keep) {
+            this.countPartners(node, -1);
+        }
+    }
+
+    /**
+     * Finds the child with the largest subtree.
+     * @param children Indexes of children of a left node
+     * @return Index of the child, or {@code -1} if there are no children
+     */
+    private int findLargest(final int... children) {
+        int largest = -1;
+        for (final int child : children) {
+            if (largest < 0 || this.left.getSize(child) > this.left.getSize(largest)) {
+                largest = child;
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Adds the right nodes matched to the nodes of a left subtree to the counter
+     *  or removes them from the counter.
+     * @param root Index of the root of the left subtree
+     * @param delta Value to be added to the counter of each right node
+     */
+    private void countPartners(final int root, final int delta) {
+        final int end = root + this.left.getSize(root);
+        for (int node = root; node < end; node = node + 1) {
+            if (this.ltr[node] >= 0) {
+                this.partners.add(this.ltr[node], delta);
+            }
+        }
+    }
+
+    /**
+     * Finds the best candidate for a left node among the parents of right nodes
+     *  matched to its children.
+     * @param node Index of the left node
+     * @return Index of the right node, or {@code -1} if there is no suitable candidate
+     */
+    private int findCandidate(final int node) {
+        final String type = this.left.getNode(node).getTypeName();
+        final Set<Integer> checked = new HashSet<>();
+        int best = -1;
+        double max = BottomUpAlgorithm.THRESHOLD;
+        for (final int child : this.left.getChildren(node)) {
+            final int partner = this.ltr[child];
+            final int candidate;
+            if (partner >= 0) {
+                candidate = this.right.getParent(partner);
+            } else {
+                candidate = -1;
+            }
+            if (candidate >= 0 && this.rtl[candidate] < 0 && checked.add(candidate)
+                && type.equals(this.right.getNode(candidate).getTypeName())) {
+                final double dice = this.calculateDice(node, candidate);
+                if (dice > max || best < 0 && dice >= max) {
+                    best = candidate;
+                    max = dice;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Calculates the dice coefficient of two nodes, that is, the ratio of the number of
+     *  matched descendants of both nodes to the total number of their descendants.
+     *  The counter must contain exactly the right nodes matched to the descendants
+     *  of the left node.
+     * @param first Index of the left node
+     * @param second Index of the right node
+     * @return Dice coefficient, from 0 to 1
+     */
+    private double calculateDice(final int first, final int second) {
+        final int common = this.partners.count(second + 1, second + this.right.getSize(second));
+        final int total = this.left.getSize(first) + this.right.getSize(second) - 2;
+        return 2.0 * common / total;
+    }
+
+    /**
+     * Matches unmatched children of two matched nodes: first, children with identical
+     *  subtrees, then children of the same type, after which the same is repeated
+     *  for the children of the matched children.
+     * @param first Index of the left node
+     * @param second Index of the right node
+     */
+    private void recover(final int first, final int second) {
+        final Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[] {first, second});
+        while (!stack.isEmpty()) {
+            final int[] pair = stack.pop();
+            final int[] lnodes = this.left.getChildren(pair[0]);
+            final int[] rnodes = this.right.getChildren(pair[1]);
+            final Map<Integer, Deque<Integer>> hashed = new HashMap<>();
+            final Map<String, Deque<Integer>> typed = new HashMap<>();
+            for (final int node : rnodes) {
+                if (this.rtl[node] < 0) {
+                    final Node child = this.right.getNode(node);
+                    hashed.computeIfAbsent(this.hashes.calculate(child), key -> new ArrayDeque<>())
+                        .addLast(node);
+                    typed.computeIfAbsent(child.getTypeName(), key -> new ArrayDeque<>())
+                        .addLast(node);
+                }
+            }
+            for (final int node : lnodes) {
+                if (this.ltr[node] < 0) {
+                    this.linkSubtrees(
+                        node,
+                        BottomUpAlgorithm.pollUnmatched(
+                            hashed.get(this.hashes.calculate(this.left.getNode(node))), this.rtl
+                        )
+                    );
+                }
+            }
+            for (final int node : lnodes) {
+                final int candidate = this.pollUnmatchedOfSameType(node, typed);
+                if (candidate >= 0) {
+                    this.link(node, candidate);
+                    stack.push(new int[] {node, candidate});
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the first unmatched right node of the same type as the left node, if the left
+     *  node is not matched yet.
+     * @param node Index of the left node
+     * @param typed Queues of unmatched right nodes, by type name
+     * @return Index of the right node, or {@code -1} if the left node is already matched
+     *  or there is no suitable right node
+     */
+    private int pollUnmatchedOfSameType(final int node, final Map<String, Deque<Integer>> typed) {
+        int result = -1;
+        if (this.ltr[node] < 0) {
+            result = BottomUpAlgorithm.pollUnmatched(
+                typed.get(this.left.getNode(node).getTypeName()), this.rtl
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Third phase: builds the edit script for each pair of matched nodes with the same
+     *  type and data, starting from the roots.
+     */
+    private void buildScript() {
+        final Node root = this.right.getNode(0);
+        if (this.ltr[0] == 0 && this.isSameLabel(0, 0)) {
+            final Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[] {0, 0});
+            while (!stack.isEmpty()) {
+                final int[] pair = stack.pop();
+                new ScriptBuilder(pair[0], pair[1], stack).build();
+            }
+        } else {
+            this.replaced.put(this.left.getNode(0), root);
+        }
+    }
+
+    /**
+     * Checks whether two nodes have the same type and data.
+     * @param first Index of the left node
+     * @param second Index of the right node
+     * @return Checking result
+     */
+    private boolean isSameLabel(final int first, final int second) {
+        final Node one = this.left.getNode(first);
+        final Node two = this.right.getNode(second);
+        return one.getTypeName().equals(two.getTypeName()) && one.getData().equals(two.getData());
+    }
+
+    /**
+     * Checks whether two nodes have identical subtrees.
+     * @param first Index of the left node
+     * @param second Index of the right node
+     * @return Checking result
+     */
+    private boolean isSameSubtree(final int first, final int second) {
+        final int one = this.hashes.calculate(this.left.getNode(first));
+        final int two = this.hashes.calculate(this.right.getNode(second));
+        return one == two;
+    }
+
+    /**
+     * Matches two nodes and adds the right node to the counter.
+     * @param first Index of the left node
+     * @param second Index of the right node
+     */
+    private void link(final int first, final int second) {
+        this.ltr[first] = second;
+        this.rtl[second] = first;
+        this.partners.add(second, 1);
+    }
+
+    /**
+     * Matches all nodes of two identical subtrees. Nodes of such subtrees have the same
+     *  relative indexes.
+     * @param first Index of the root of the left subtree
+     * @param second Index of the root of the right subtree, or {@code -1} to do nothing
+     */
+    private void linkSubtrees(final int first, final int second) {
+        final int size = this.left.getSize(first);
+        if (second >= 0 && size == this.right.getSize(second)) {
+            for (int offset = 0; offset < size; offset = offset + 1) {
+                this.link(first + offset, second + offset);
+            }
+        }
+    }
+
+    /**
+     * Returns the node matched to the node of the 'left' tree.
+     * @param node The node of the 'left' tree
+     * @return The node of the 'right' tree or {@code null}
+     */
+    private Node findRight(final Node node) {
+        final int index = this.left.getIndex(node);
+        Node result = null;
+        if (index >= 0 && this.ltr[index] >= 0) {
+            result = this.right.getNode(this.ltr[index]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the node matched to the node of the 'right' tree.
+     * @param node The node of the 'right' tree
+     * @return The node of the 'left' tree or {@code null}
+     */
+    private Node findLeft(final Node node) {
+        final int index = this.right.getIndex(node);
+        Node result = null;
+        if (index >= 0 && this.rtl[index] >= 0) {
+            result = this.left.getNode(this.rtl[index]);
+        }
+        return result;
+    }
+
+    /**
+     * Creates an array of matched nodes in which no node is matched.
+     * @param size Number of nodes
+     * @return The array filled with {@code -1}
+     */
+    private static int[] createPartners(final int size) {
+        final int[] partners = new int[size];
+        Arrays.fill(partners, -1);
+        return partners;
+    }
+
+    /**
+     * Selects unmatched nodes from the list.
+     * @param nodes List of nodes, may be {@code null}
+     * @param matched Matched nodes of the tree
+     * @return List of unmatched nodes
+     */
+    private static List<Integer> unmatched(final List<Integer> nodes, final int... matched) {
+        final List<Integer> result;
+        if (nodes == null) {
+            result = Collections.emptyList();
+        } else {
+            result = new ArrayList<>(nodes.size());
+            for (final int node : nodes) {
+                if (matched[node] < 0) {
+                    result.add(node);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds children of nodes to the lists of nodes to be compared in the first phase.
+     * @param lists Lists of nodes to be compared, by height
+     * @param tree The tree
+     * @param nodes Nodes to be opened
+     */
+    private static void open(final NavigableMap<Integer, List<Integer>> lists,
+        final TreeIndex tree, final List<Integer> nodes) {
+        for (final int node : nodes) {
+            for (final int child : tree.getChildren(node)) {
+                BottomUpAlgorithm.push(lists, tree, child);
+            }
+        }
+    }
+
+    /**
+     * Adds a node to the lists of nodes to be compared in the first phase.
+     * @param lists Lists of nodes to be compared, by height
+     * @param tree The tree
+     * @param node Index of the node
+     */
+    private static void push(final NavigableMap<Integer, List<Integer>> lists,
+        final TreeIndex tree, final int node) {
+        lists.computeIfAbsent(tree.getHeight(node), key -> new ArrayList<>(1)).add(node);
+    }
+
+    /**
+     * Takes the first unmatched node from the queue.
+     * @param queue Queue of nodes, may be {@code null}
+     * @param matched Matched nodes
+     * @return Index of the node, or {@code -1} if there are no unmatched nodes in the queue
+     */
+    private static int pollUnmatched(final Deque<Integer> queue, final int... matched) {
+        int result = -1;
+        while (queue != null && !queue.isEmpty() && result < 0) {
+            final int node = queue.pollFirst();
+            if (matched[node] < 0) {
+                result = node;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builder of the edit script for children of two matched nodes.
+     * Children matched to each other that keep their relative order remain in place.
+     *  Other children between them are paired by position and replaced,
+     *  and the remaining ones are deleted or inserted.
+     *
+     * @since 1.1.5
+     */
+    private final class ScriptBuilder {
+        /**
+         * Index of the left node.
+         */
+        private final int first;
+
+        /**
+         * Indexes of children of the left node.
+         */
+        private final int[] lnodes;
+
+        /**
+         * Indexes of children of the right node.
+         */
+        private final int[] rnodes;
+
+        /**
+         * For each right child, the position of the matched left child, or {@code -1}.
+         */
+        private final int[] pairs;
+
+        /**
+         * For each right child, a flag indicating that it remains in place.
+         */
+        private final boolean[] anchors;
+
+        /**
+         * For each left child, a flag indicating that it remains in place.
+         */
+        private final boolean[] used;
+
+        /**
+         * Stack of pairs of matched nodes to be processed.
+         */
+        private final Deque<int[]> stack;
+
+        /**
+         * Position of the next left child that can be paired by position.
+         */
+        private int cursor;
+
+        /**
+         * The last left child that remains in place or the last inserted right child
+         *  (after which nodes are inserted).
+         */
+        private Node after;
+
+        /**
+         * Constructor.
+         * @param first Index of the left node
+         * @param second Index of the right node
+         * @param stack Stack of pairs of matched nodes to be processed
+         */
+        private ScriptBuilder(final int first, final int second, final Deque<int[]> stack) {
+            this.first = first;
+            this.lnodes = BottomUpAlgorithm.this.left.getChildren(first);
+            this.rnodes = BottomUpAlgorithm.this.right.getChildren(second);
+            this.stack = stack;
+            this.pairs = this.findPairs();
+            this.anchors = Subsequence.findAnchors(this.pairs);
+            this.used = this.findUsed();
+        }
+
+        /**
+         * Builds the edit script.
+         */
+        void build() {
+            if (!BottomUpAlgorithm.this.isSameSubtree(this.first, this.ltrOf(this.first))) {
+                int limit = this.lnodes.length;
+                final int[] limits = new int[this.rnodes.length];
+                for (int index = this.rnodes.length - 1; index >= 0; index = index - 1) {
+                    if (this.anchors[index]) {
+                        limit = this.pairs[index];
+                    }
+                    limits[index] = limit;
+                }
+                for (int index = 0; index < this.rnodes.length; index = index + 1) {
+                    if (this.anchors[index]) {
+                        this.delete(this.pairs[index]);
+                        this.pair(this.pairs[index], index);
+                    } else {
+                        this.pairByPosition(index, limits[index]);
+                    }
+                }
+                this.delete(this.lnodes.length);
+            }
+        }
+
+        /**
+         * For each right child, finds the position of the matched child of the left node.
+         * @return Array of positions, {@code -1} if the right child is not matched to any
+         *  child of the left node
+         */
+        private int[] findPairs() {
+            final int[] result = new int[this.rnodes.length];
+            for (int index = 0; index < this.rnodes.length; index = index + 1) {
+                final int partner = BottomUpAlgorithm.this.rtl[this.rnodes[index]];
+                result[index] = -1;
+                if (partner >= 0 && BottomUpAlgorithm.this.left.getParent(partner) == this.first) {
+                    result[index] = Arrays.binarySearch(this.lnodes, partner);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Marks left children that remain in place.
+         * @return Array of flags
+         */
+        private boolean[] findUsed() {
+            final boolean[] result = new boolean[this.lnodes.length];
+            for (int index = 0; index < this.rnodes.length; index = index + 1) {
+                if (this.anchors[index]) {
+                    result[this.pairs[index]] = true;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the index of the right node matched to the left node.
+         * @param node Index of the left node
+         * @return Index of the right node
+         */
+        private int ltrOf(final int node) {
+            return BottomUpAlgorithm.this.ltr[node];
+        }
+
+        /**
+         * Pairs a right child with the next left child that does not remain in place,
+         *  if there is such child before the limit, otherwise inserts the right child.
+         * @param index Index of the right child
+         * @param limit Position of the next left child that remains in place
+         */
+        private void pairByPosition(final int index, final int limit) {
+            while (this.cursor < limit && this.used[this.cursor]) {
+                this.cursor = this.cursor + 1;
+            }
+            if (this.cursor < limit) {
+                this.pair(this.cursor, index);
+            } else {
+                final Node node = BottomUpAlgorithm.this.right.getNode(this.rnodes[index]);
+                BottomUpAlgorithm.this.inserted.add(
+                    new Insertion(node, BottomUpAlgorithm.this.left.getNode(this.first), this.after)
+                );
+                this.after = node;
+            }
+        }
+
+        /**
+         * Pairs a left child with a right child. If they are matched to each other and have
+         *  the same type and data, their children are processed later, otherwise the left
+         *  child is replaced.
+         * @param position Position of the left child
+         * @param index Index of the right child
+         */
+        private void pair(final int position, final int index) {
+            final int one = this.lnodes[position];
+            final int two = this.rnodes[index];
+            if (this.ltrOf(one) == two && BottomUpAlgorithm.this.isSameLabel(one, two)) {
+                this.stack.push(new int[] {one, two});
+            } else {
+                BottomUpAlgorithm.this.replaced.put(
+                    BottomUpAlgorithm.this.left.getNode(one),
+                    BottomUpAlgorithm.this.right.getNode(two)
+                );
+            }
+            this.after = BottomUpAlgorithm.this.left.getNode(one);
+            this.cursor = position + 1;
+        }
+
+        /**
+         * Deletes left children that do not remain in place, from the cursor
+         *  to the specified position.
+         * @param limit Position of the left child up to which children are deleted
+         */
+        private void delete(final int limit) {
+            for (int position = this.cursor; position < limit; position = position + 1) {
+                if (!this.used[position]) {
+                    BottomUpAlgorithm.this.deleted.add(
+                        BottomUpAlgorithm.this.left.getNode(this.lnodes[position])
+                    );
+                }
+            }
+            this.cursor = Math.max(this.cursor, limit);
+        }
+    }
+
+    /**
+     * Mapping result.
+     *
+     * @since 1.1.5
+     */
+    private static final class Result implements Mapping {
+        /**
+         * Structure from which the mapping results can be taken.
+         */
+        private final BottomUpAlgorithm data;
+
+        /**
+         * Constructor.
+         * @param data Structure from which the mapping results can be taken
+         */
+        private Result(final BottomUpAlgorithm data) {
+            this.data = data;
+        }
+
+        @Override
+        public Node getRight(final Node node) {
+            return this.data.findRight(node);
+        }
+
+        @Override
+        public Node getLeft(final Node node) {
+            return this.data.findLeft(node);
+        }
+
+        @Override
+        public Set<Insertion> getInserted() {
+            return Collections.unmodifiableSet(this.data.inserted);
+        }
+
+        @Override
+        public Map<Node, Node> getReplaced() {
+            return Collections.unmodifiableMap(this.data.replaced);
+        }
+
+        @Override
+        public Set<Node> getDeleted() {
+            return Collections.unmodifiableSet(this.data.deleted);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.mapping;
+
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.DistinctOccurrences;
+
+/**
+ * Bottom-up mapper.
+ * Matches identical subtrees first and then matches their ancestors bottom-up,
+ *  so that nodes are mapped even if the roots of the trees or some of their ancestors
+ *  have been changed (for example, when a class has been renamed).
+ * Pairs of matched nodes with different types or data are reported as replaced.
+ * Nodes are identified by identity, so repeated occurrences of a node in the trees
+ *  are replaced by copies before mapping, see {@link DistinctOccurrences}.
+ *
+ * @since 1.1.5
+ */
+public final class BottomUpMapper implements Mapper {
+    /**
+     * The instance.
+     */
+    public static final Mapper INSTANCE = new BottomUpMapper();
+
+    /**
+     * Private constructor.
+     */
+    private BottomUpMapper() {
+    }
+
+    @Override
+    public Mapping map(final Node left, final Node right) {
+        final DistinctOccurrences distinct = new DistinctOccurrences();
+        final BottomUpAlgorithm algorithm = new BottomUpAlgorithm(
+            distinct.process(left), distinct.process(right)
+        );
+        algorithm.execute();
+        return algorithm.getResult();
+    }
+}
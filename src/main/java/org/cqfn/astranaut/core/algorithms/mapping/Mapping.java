@@ -23,6 +23,7 @@
  */
 package org.cqfn.astranaut.core.algorithms.mapping;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import org.cqfn.astranaut.core.Insertion;
@@ -71,4 +72,17 @@ public interface Mapping {
      * @return The set of deleted nodes
      */
     Set<Node> getDeleted();
+
+    /**
+     * Returns relationship between the nodes of the 'left' tree that have been moved
+     * to another position and the corresponding nodes of the 'right' tree.
+     * Subtrees of such nodes are identical. A moved node is also reported as deleted
+     * from its old position and inserted into the new one, so that the sets of deleted
+     * and inserted nodes are enough to get the 'right' tree.
+     * @return Mapping, where keys are the nodes of the 'left' tree
+     *  and values are the corresponding nodes of the 'right' tree
+     */
+    default Map<Node, Node> getMoved() {
+        return Collections.emptyMap();
+    }
 }
@@ -0,0 +1,262 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.mapping;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.cqfn.astranaut.core.Insertion;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.hash.AbsoluteHash;
+
+/**
+ * Session that maps one 'left' tree to a sequence of 'right' trees using the top-down
+ *  algorithm, for example, a base revision of a project to its slightly different revisions.
+ * The hashes and the index of the 'left' tree are calculated once and reused by all mappings.
+ *  The hashes of each 'right' tree are dropped together with its mapping, and hashes of nodes
+ *  shared by both trees are not recalculated.
+ * Identical subtrees are mapped only by their roots, and the nodes inside them are mapped
+ *  on demand, so the cost of a mapping is proportional to the size of the changes rather
+ *  than to the size of the trees.
+ * The session is not thread-safe.
+ *
+ * @since 1.1.5
+ */
+public final class MappingSession {
+    /**
+     * Root node of the 'left' tree.
+     */
+    private final Node left;
+
+    /**
+     * Flag indicating that children are matched using an index from subtree hash to children.
+     */
+    private final boolean indexed;
+
+    /**
+     * Hashes of nodes of the 'left' tree.
+     */
+    private final AbsoluteHash hashes;
+
+    /**
+     * Index of the 'left' tree, created on demand.
+     */
+    private TreeIndex index;
+
+    /**
+     * Constructor.
+     * @param left Root node of the 'left' tree
+     */
+    public MappingSession(final Node left) {
+        this(left, false);
+    }
+
+    /**
+     * Constructor.
+     * @param left Root node of the 'left' tree
+     * @param indexed Flag indicating that children are matched using an index
+     *  from subtree hash to children (see {@link TopDownMapper#INDEXED})
+     */
+    public MappingSession(final Node left, final boolean indexed) {
+        this.left = left;
+        this.indexed = indexed;
+        this.hashes = new AbsoluteHash();
+    }
+
+    /**
+     * Returns the root node of the 'left' tree.
+     * @return Root node of the 'left' tree
+     */
+    public Node getLeft() {
+        return this.left;
+    }
+
+    /**
+     * Maps the 'left' tree to a 'right' tree.
+     * @param right Root node of the 'right' tree
+     * @return Result of mapping
+     */
+    public Mapping map(final Node right) {
+        this.hashes.calculate(this.left);
+        final TopDownAlgorithm algorithm = new TopDownAlgorithm(
+            this.indexed, new AbsoluteHash(this.hashes), true
+        );
+        algorithm.execute(this.left, right);
+        return new Result(algorithm.getResult(), algorithm.getIdenticalSubtrees(), right);
+    }
+
+    /**
+     * Returns the index of the 'left' tree, creating it if necessary.
+     * @return Index of the 'left' tree
+     */
+    private TreeIndex getIndex() {
+        if (this.index == null) {
+            this.index = new TreeIndex(this.left);
+        }
+        return this.index;
+    }
+
+    /**
+     * Mapping result in which the nodes of identical subtrees are mapped on demand.
+     *
+     * @since 1.1.5
+     */
+    private final class Result implements Mapping {
+        /**
+         * Result of mapping in which identical subtrees are mapped only by their roots.
+         */
+        private final Mapping mapping;
+
+        /**
+         * Roots of identical subtrees, left to right.
+         */
+        private final Map<Node, Node> identical;
+
+        /**
+         * Root node of the 'right' tree.
+         */
+        private final Node right;
+
+        /**
+         * Roots of identical subtrees, right to left, created on demand.
+         */
+        private Map<Node, Node> inverse;
+
+        /**
+         * Index of the 'right' tree, created on demand.
+         */
+        private TreeIndex index;
+
+        /**
+         * Constructor.
+         * @param mapping Result of mapping in which identical subtrees are mapped only
+         *  by their roots
+         * @param identical Roots of identical subtrees, left to right
+         * @param right Root node of the 'right' tree
+         */
+        private Result(final Mapping mapping, final Map<Node, Node> identical,
+            final Node right) {
+            this.mapping = mapping;
+            this.identical = identical;
+            this.right = right;
+        }
+
+        @Override
+        public Node getRight(final Node node) {
+            Node result = this.mapping.getRight(node);
+            if (result == null) {
+                result = this.findRight(node);
+            }
+            return result;
+        }
+
+        @Override
+        public Node getLeft(final Node node) {
+            Node result = this.mapping.getLeft(node);
+            if (result == null) {
+                result = this.findLeft(node);
+            }
+            return result;
+        }
+
+        @Override
+        public Set<Insertion> getInserted() {
+            return this.mapping.getInserted();
+        }
+
+        @Override
+        public Map<Node, Node> getReplaced() {
+            return this.mapping.getReplaced();
+        }
+
+        @Override
+        public Set<Node> getDeleted() {
+            return this.mapping.getDeleted();
+        }
+
+        @Override
+        public Map<Node, Node> getMoved() {
+            return this.mapping.getMoved();
+        }
+
+        /**
+         * Finds the node of the 'right' tree mapped to a node of the 'left' tree located
+         *  inside an identical subtree.
+         * The nodes of the 'right' subtree are visited only along the path from its root.
+         * @param node Node of the 'left' tree
+         * @return Node of the 'right' tree or {@code null}
+         */
+        private Node findRight(final Node node) {
+            final TreeIndex tree = MappingSession.this.getIndex();
+            final int target = tree.getIndex(node);
+            int ancestor = target;
+            while (ancestor >= 0 && !this.identical.containsKey(tree.getNode(ancestor))) {
+                ancestor = tree.getParent(ancestor);
+            }
+            Node result = null;
+            if (ancestor >= 0) {
+                result = this.identical.get(tree.getNode(ancestor));
+                while (ancestor != target) {
+                    int child = ancestor + 1;
+                    int position = 0;
+                    while (child + tree.getSize(child) <= target) {
+                        child = child + tree.getSize(child);
+                        position = position + 1;
+                    }
+                    ancestor = child;
+                    result = result.getChild(position);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Finds the node of the 'left' tree mapped to a node of the 'right' tree located
+         *  inside an identical subtree.
+         * @param node Node of the 'right' tree
+         * @return Node of the 'left' tree or {@code null}
+         */
+        private Node findLeft(final Node node) {
+            if (this.index == null) {
+                this.index = new TreeIndex(this.right);
+                this.inverse = new IdentityHashMap<>();
+                for (final Map.Entry<Node, Node> entry : this.identical.entrySet()) {
+                    this.inverse.put(entry.getValue(), entry.getKey());
+                }
+            }
+            final int target = this.index.getIndex(node);
+            int ancestor = target;
+            while (ancestor >= 0 && !this.inverse.containsKey(this.index.getNode(ancestor))) {
+                ancestor = this.index.getParent(ancestor);
+            }
+            Node result = null;
+            if (ancestor >= 0) {
+                final TreeIndex tree = MappingSession.this.getIndex();
+                final int root = tree.getIndex(this.inverse.get(this.index.getNode(ancestor)));
+                result = tree.getNode(root + target - ancestor);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.mapping;
+
+import java.util.Arrays;
+
+/**
+ * Counter of marked indexes that finds the number of marked indexes in a range
+ *  in logarithmic time (a binary indexed tree).
+ *
+ * @since 1.1.5
+ */
+final class RangeCounter {
+    /**
+     * Partial sums, the element {@code i} contains the sum of the counters in the range
+     *  from {@code i - (i & -i)} to {@code i - 1}.
+     */
+    private final int[] sums;
+
+    /**
+     * Constructor.
+     * @param size Number of indexes
+     */
+    RangeCounter(final int size) {
+        this.sums = new int[size + 1];
+    }
+
+    /**
+     * Changes the counter of an index.
+     * @param index The index
+     * @param delta Value to be added to the counter, {@code 1} to mark the index once
+     *  and {@code -1} to unmark it
+     */
+    void add(final int index, final int delta) {
+        for (int item = index + 1; item < this.sums.length; item = item + (item & -item)) {
+            this.sums[item] = this.sums[item] + delta;
+        }
+    }
+
+    /**
+     * Returns the sum of the counters of indexes in a range.
+     * @param start The first index of the range
+     * @param end The index following the last index of the range
+     * @return Sum of the counters
+     */
+    int count(final int start, final int end) {
+        return this.prefix(end) - this.prefix(start);
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    void clear() {
+        Arrays.fill(this.sums, 0);
+    }
+
+    /**
+     * Returns the sum of the counters of indexes from zero.
+     * @param end The index following the last index of the range
+     * @return Sum of the counters
+     */
+    private int prefix(final int end) {
+        int sum = 0;
+        for (int item = end; item > 0; item = item - (item & -item)) {
+            sum = sum + this.sums[item];
+        }
+        return sum;
+    }
+}
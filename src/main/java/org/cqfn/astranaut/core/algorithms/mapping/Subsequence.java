@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.mapping;
+
+/**
+ * Search for children of two related nodes that remain in their places.
+ * Each left child is related to at most one right child. Related children that
+ *  keep their relative order form the longest increasing subsequence of indexes of left
+ *  children, taken in the order of right children, which is found in O(n log n) time.
+ *
+ * @since 1.1.5
+ */
+final class Subsequence {
+    /**
+     * Private constructor.
+     */
+    private Subsequence() {
+    }
+
+    /**
+     * Finds the longest increasing subsequence of indexes of left children related
+     *  to right children, taken in the order of right children. Children from this
+     *  subsequence remain in their places, while other related children are moved.
+     * @param pairs For each right child, the index of the related left child,
+     *  or {@code -1} if there is no such child
+     * @return For each right child, a flag indicating that it remains in its place
+     */
+    static boolean[] findAnchors(final int... pairs) {
+        final int count = pairs.length;
+        final int[] tails = new int[count];
+        final int[] previous = new int[count];
+        int length = 0;
+        for (int index = 0; index < count; index = index + 1) {
+            final int value = pairs[index];
+            if (value >= 0) {
+                int low = 0;
+                int high = length;
+                while (low < high) {
+                    final int middle = low + high >>> 1;
+                    if (pairs[tails[middle]] < value) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                previous[index] = -1;
+                if (low > 0) {
+                    previous[index] = tails[low - 1];
+                }
+                tails[low] = index;
+                length = Math.max(length, low + 1);
+            }
+        }
+        final boolean[] anchors = new boolean[count];
+        int index = -1;
+        if (length > 0) {
+            index = tails[length - 1];
+        }
+        while (index >= 0) {
+            anchors[index] = true;
+            index = previous[index];
+        }
+        return anchors;
+    }
+}
@@ -23,9 +23,12 @@
  */
 package org.cqfn.astranaut.core.algorithms.mapping;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import org.cqfn.astranaut.core.Insertion;
@@ -36,11 +39,26 @@ import org.cqfn.astranaut.core.algorithms.hash.Hash;
 /**
  * Top-down mapping algorithm.
  * Compares root nodes first and then children in depth.
+ * In the indexed mode, children of two mapped nodes are matched using an index
+ *  from subtree hash to children, so that identical subtrees are found regardless
+ *  of their positions and moved subtrees are detected.
+ * In the lazy mode, only the roots of identical subtrees are mapped, and the mapping
+ *  of their descendants is left to the caller, see {@link #getIdenticalSubtrees()}.
  *
  * @since 1.1.0
  */
 @SuppressWarnings("PMD.TooManyMethods")
 final class TopDownAlgorithm {
+    /**
+     * Flag indicating that children are matched using an index from subtree hash to children.
+     */
+    private final boolean indexed;
+
+    /**
+     * Flag indicating that only the roots of identical subtrees are mapped.
+     */
+    private final boolean lazy;
+
     /**
      * Set of node hashes.
      */
@@ -71,16 +89,43 @@ final class TopDownAlgorithm {
      */
     private final Set<Node> deleted;
 
+    /**
+     * Map containing moved nodes.
+     */
+    private final Map<Node, Node> moved;
+
+    /**
+     * Roots of identical subtrees, left to right.
+     */
+    private final Map<Node, Node> identical;
+
     /**
      * Constructor.
+     * @param indexed Flag indicating that children are matched using an index
+     *  from subtree hash to children
      */
-    TopDownAlgorithm() {
-        this.hashes = new AbsoluteHash();
+    TopDownAlgorithm(final boolean indexed) {
+        this(indexed, new AbsoluteHash(), false);
+    }
+
+    /**
+     * Constructor.
+     * @param indexed Flag indicating that children are matched using an index
+     *  from subtree hash to children
+     * @param hashes Set of node hashes
+     * @param lazy Flag indicating that only the roots of identical subtrees are mapped
+     */
+    TopDownAlgorithm(final boolean indexed, final Hash hashes, final boolean lazy) {
+        this.indexed = indexed;
+        this.lazy = lazy;
+        this.hashes = hashes;
         this.ltr = new HashMap<>();
         this.rtl = new HashMap<>();
-        this.inserted = new HashSet<>();
+        this.inserted = new LinkedHashSet<>();
         this.replaced = new HashMap<>();
         this.deleted = new HashSet<>();
+        this.moved = new HashMap<>();
+        this.identical = new HashMap<>();
     }
 
     /**
@@ -100,7 +145,7 @@ final class TopDownAlgorithm {
             if (result) {
                 this.ltr.put(left, right);
                 this.rtl.put(right, left);
-                this.mapSubtreesWithDifferentHashes(left, right);
+                this.mapChildren(left, right);
             }
         }
         return result;
@@ -114,6 +159,17 @@ final class TopDownAlgorithm {
         return new Result(this);
     }
 
+    /**
+     * Returns the roots of identical subtrees that have been mapped to each other.
+     * In the lazy mode, the descendants of these roots are absent from the result
+     *  of mapping, and the descendant of a left root at some position in pre-order
+     *  corresponds to the descendant of the right root at the same position.
+     * @return Map of roots, left to right
+     */
+    Map<Node, Node> getIdenticalSubtrees() {
+        return Collections.unmodifiableMap(this.identical);
+    }
+
     /**
      * Maps subtrees with the same hash, adding the corresponding nodes to the resulting
      * collections.
@@ -122,13 +178,47 @@ final class TopDownAlgorithm {
      */
     private void mapSubtreesWithTheSameHash(final Node left, final Node right) {
         assert this.hashes.calculate(left) == this.hashes.calculate(right);
-        this.ltr.put(left, right);
-        this.rtl.put(right, left);
-        final int count = left.getChildCount();
-        for (int index = 0; index < count; index = index + 1) {
-            final Node first = left.getChild(index);
-            final Node second = left.getChild(index);
-            this.mapSubtreesWithTheSameHash(first, second);
+        this.identical.put(left, right);
+        if (this.lazy) {
+            this.ltr.put(left, right);
+            this.rtl.put(right, left);
+        } else {
+            this.mapAllNodesOfSubtrees(left, right);
+        }
+    }
+
+    /**
+     * Maps all nodes of two identical subtrees, adding them to the resulting collections.
+     * @param left Left node
+     * @param right Related node to the left node
+     */
+    private void mapAllNodesOfSubtrees(final Node left, final Node right) {
+        final Deque<Node> stack = new ArrayDeque<>();
+        stack.push(right);
+        stack.push(left);
+        while (!stack.isEmpty()) {
+            final Node first = stack.pop();
+            final Node second = stack.pop();
+            this.ltr.put(first, second);
+            this.rtl.put(second, first);
+            final int count = Math.min(first.getChildCount(), second.getChildCount());
+            for (int index = count - 1; index >= 0; index = index - 1) {
+                stack.push(second.getChild(index));
+                stack.push(first.getChild(index));
+            }
+        }
+    }
+
+    /**
+     * Maps children of two mapped nodes whose subtrees have different hashes.
+     * @param left Left node
+     * @param right Related node to the left node
+     */
+    private void mapChildren(final Node left, final Node right) {
+        if (this.indexed) {
+            new SiblingMatcher(left, right).map();
+        } else {
+            this.mapSubtreesWithDifferentHashes(left, right);
         }
     }
 
@@ -370,6 +460,11 @@ final class TopDownAlgorithm {
         public Set<Node> getDeleted() {
             return Collections.unmodifiableSet(this.data.deleted);
         }
+
+        @Override
+        public Map<Node, Node> getMoved() {
+            return Collections.unmodifiableMap(this.data.moved);
+        }
     }
 
     /**
@@ -510,5 +605,208 @@ final class TopDownAlgorithm {
             return this.node.toString();
         }
     }
-}
 
+    /**
+     * Matcher of children of two mapped nodes, which uses an index from subtree hash
+     *  to children.
+     * Right children whose subtrees are identical to subtrees of left children are matched
+     *  in constant time regardless of their positions. The longest sequence of such pairs
+     *  that keeps the order of children is left in place, other pairs are moved. Children
+     *  between pairs left in place are matched by their positions.
+     *
+     * @since 1.1.5
+     */
+    private final class SiblingMatcher {
+        /**
+         * Left node.
+         */
+        private final Node left;
+
+        /**
+         * Right node.
+         */
+        private final Node right;
+
+        /**
+         * For each right child, the index of the left child with identical subtree,
+         *  or {@code -1} if there is no such child.
+         */
+        private final int[] pairs;
+
+        /**
+         * For each left child, a flag indicating that it has a right child with identical
+         *  subtree.
+         */
+        private final boolean[] used;
+
+        /**
+         * For each right child, a flag indicating that it is identical to a left child
+         *  and remains in its place.
+         */
+        private final boolean[] anchors;
+
+        /**
+         * For each right child, the index of the left child that remains in its place
+         *  and is mapped to this right child or to the next one.
+         */
+        private final int[] limits;
+
+        /**
+         * Index of the next left child that can be matched by position.
+         */
+        private int cursor;
+
+        /**
+         * The last left child that remains in its place or the last inserted right child
+         *  (after which nodes are inserted).
+         */
+        private Node after;
+
+        /**
+         * Constructor.
+         * @param left Left node
+         * @param right Related node to the left node
+         */
+        private SiblingMatcher(final Node left, final Node right) {
+            this.left = left;
+            this.right = right;
+            this.used = new boolean[left.getChildCount()];
+            this.pairs = this.findPairs();
+            this.anchors = Subsequence.findAnchors(this.pairs);
+            this.limits = this.findLimits();
+        }
+
+        /**
+         * Maps the children.
+         */
+        void map() {
+            final int count = this.right.getChildCount();
+            for (int index = 0; index < count; index = index + 1) {
+                final int pair = this.pairs[index];
+                if (pair >= 0 && this.anchors[index]) {
+                    this.deleteUnmatched(pair);
+                    final Node node = this.left.getChild(pair);
+                    TopDownAlgorithm.this.mapSubtreesWithTheSameHash(
+                        node,
+                        this.right.getChild(index)
+                    );
+                    this.after = node;
+                    this.cursor = pair + 1;
+                } else if (pair >= 0) {
+                    this.move(pair, index);
+                } else {
+                    this.matchByPosition(index);
+                }
+            }
+            this.deleteUnmatched(this.left.getChildCount());
+        }
+
+        /**
+         * For each right child, finds a left child with identical subtree.
+         * @return Indexes of found left children, or {@code -1} for right children
+         *  without identical left ones
+         */
+        private int[] findPairs() {
+            final Map<Integer, Deque<Integer>> index = new HashMap<>();
+            final int total = this.left.getChildCount();
+            for (int position = 0; position < total; position = position + 1) {
+                index.computeIfAbsent(
+                    TopDownAlgorithm.this.hashes.calculate(this.left.getChild(position)),
+                    key -> new ArrayDeque<>()
+                ).addLast(position);
+            }
+            final int count = this.right.getChildCount();
+            final int[] result = new int[count];
+            for (int position = 0; position < count; position = position + 1) {
+                final Deque<Integer> candidates = index.get(
+                    TopDownAlgorithm.this.hashes.calculate(this.right.getChild(position))
+                );
+                if (candidates == null || candidates.isEmpty()) {
+                    result[position] = -1;
+                } else {
+                    result[position] = candidates.pollFirst();
+                    this.used[result[position]] = true;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * For each right child, finds the index of the left child that remains in its place
+         *  and is mapped to this right child or to the next one.
+         * @return Array of indexes
+         */
+        private int[] findLimits() {
+            final int count = this.right.getChildCount();
+            final int[] result = new int[count];
+            int limit = this.left.getChildCount();
+            for (int index = count - 1; index >= 0; index = index - 1) {
+                if (this.anchors[index]) {
+                    limit = this.pairs[index];
+                }
+                result[index] = limit;
+            }
+            return result;
+        }
+
+        /**
+         * Maps an identical left child to a right child at another position.
+         * Such a child is removed from the old position and inserted into the new one.
+         * @param pair Index of the left child
+         * @param index Index of the right child
+         */
+        private void move(final int pair, final int index) {
+            final Node first = this.left.getChild(pair);
+            final Node second = this.right.getChild(index);
+            TopDownAlgorithm.this.mapSubtreesWithTheSameHash(first, second);
+            TopDownAlgorithm.this.moved.put(first, second);
+            TopDownAlgorithm.this.deleted.add(first);
+            TopDownAlgorithm.this.inserted.add(new Insertion(second, this.left, this.after));
+            this.after = second;
+        }
+
+        /**
+         * Matches a right child without an identical left child to the next left child
+         *  without an identical right child, if there is such a child before the next
+         *  left child that remains in its place. Otherwise, the right child is inserted.
+         * @param index Index of the right child
+         */
+        private void matchByPosition(final int index) {
+            final int limit = this.limits[index];
+            while (this.cursor < limit && this.used[this.cursor]) {
+                this.cursor = this.cursor + 1;
+            }
+            final Node second = this.right.getChild(index);
+            if (this.cursor < limit) {
+                final Node first = this.left.getChild(this.cursor);
+                if (!TopDownAlgorithm.this.execute(first, second)) {
+                    TopDownAlgorithm.this.replaced.put(first, second);
+                    TopDownAlgorithm.this.ltr.put(first, second);
+                    TopDownAlgorithm.this.rtl.put(second, first);
+                }
+                this.after = first;
+                this.cursor = this.cursor + 1;
+            } else {
+                TopDownAlgorithm.this.inserted.add(new Insertion(second, this.left, this.after));
+                TopDownAlgorithm.this.rtl.put(second, null);
+                this.after = second;
+            }
+        }
+
+        /**
+         * Deletes all left children without identical right children that are located
+         *  between the cursor and the specified index.
+         * @param limit Index of the left child up to which children are deleted
+         */
+        private void deleteUnmatched(final int limit) {
+            for (int index = this.cursor; index < limit; index = index + 1) {
+                if (!this.used[index]) {
+                    final Node node = this.left.getChild(index);
+                    TopDownAlgorithm.this.deleted.add(node);
+                    TopDownAlgorithm.this.ltr.put(node, null);
+                }
+            }
+            this.cursor = Math.max(this.cursor, limit);
+        }
+    }
+}
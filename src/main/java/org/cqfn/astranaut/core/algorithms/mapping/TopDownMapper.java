@@ -24,10 +24,16 @@
 package org.cqfn.astranaut.core.algorithms.mapping;
 
 import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.DistinctOccurrences;
 
 /**
  * Top-down mapper.
  * Compares root nodes first and then children in depth.
+ * There are two instances: the default one, which compares children by their positions,
+ *  and the indexed one, which finds identical subtrees among children regardless of
+ *  their positions and runs in near-linear time even for nodes with many children.
+ * Nodes are identified by identity, so repeated occurrences of a node in the trees
+ *  are replaced by copies before mapping, see {@link DistinctOccurrences}.
  *
  * @since 1.1.0
  */
@@ -35,18 +41,33 @@ public final class TopDownMapper implements Mapper {
     /**
      * The instance.
      */
-    public static final Mapper INSTANCE = new TopDownMapper();
+    public static final Mapper INSTANCE = new TopDownMapper(false);
+
+    /**
+     * The instance that matches children using an index from subtree hash to children
+     *  and reports moved subtrees.
+     */
+    public static final Mapper INDEXED = new TopDownMapper(true);
+
+    /**
+     * Flag indicating that children are matched using an index from subtree hash to children.
+     */
+    private final boolean indexed;
 
     /**
      * Private constructor.
+     * @param indexed Flag indicating that children are matched using an index
+     *  from subtree hash to children
      */
-    private TopDownMapper() {
+    private TopDownMapper(final boolean indexed) {
+        this.indexed = indexed;
     }
 
     @Override
     public Mapping map(final Node left, final Node right) {
-        final TopDownAlgorithm algorithm = new TopDownAlgorithm();
-        algorithm.execute(left, right);
+        final DistinctOccurrences distinct = new DistinctOccurrences();
+        final TopDownAlgorithm algorithm = new TopDownAlgorithm(this.indexed);
+        algorithm.execute(distinct.process(left), distinct.process(right));
         return algorithm.getResult();
     }
 }
@@ -0,0 +1,258 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.mapping;
+
+import java.util.Arrays;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
+import org.cqfn.astranaut.core.utils.IdentityIntMap;
+
+/**
+ * Tree in which each node is identified by its index in pre-order traversal.
+ * Nodes of a subtree occupy a continuous range of indexes starting from the index
+ *  of the root of the subtree.
+ *
+ * @since 1.1.5
+ */
+final class TreeIndex {
+    /**
+     * Initial capacity of arrays.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Nodes in pre-order.
+     */
+    private final Node[] nodes;
+
+    /**
+     * Index of the parent of each node, {@code -1} for the root.
+     */
+    private final int[] parents;
+
+    /**
+     * Number of nodes in the subtree of each node, including the node itself.
+     */
+    private final int[] sizes;
+
+    /**
+     * Height of the subtree of each node, which is 1 for nodes without children.
+     */
+    private final int[] heights;
+
+    /**
+     * Number of nodes.
+     */
+    private final int count;
+
+    /**
+     * Indexes of nodes.
+     */
+    private final IdentityIntMap<Node> indexes;
+
+    /**
+     * Constructor.
+     * @param root The root node of the tree
+     */
+    TreeIndex(final Node root) {
+        this(TreeIndex.Builder.build(root));
+    }
+
+    /**
+     * Constructor.
+     * @param builder Builder that has traversed the tree
+     */
+    private TreeIndex(final Builder builder) {
+        this.nodes = builder.nodes;
+        this.parents = builder.parents;
+        this.sizes = builder.sizes;
+        this.heights = builder.heights;
+        this.count = builder.count;
+        this.indexes = builder.indexes;
+    }
+
+    /**
+     * Returns the number of nodes in the tree.
+     * @return Number of nodes
+     */
+    int size() {
+        return this.count;
+    }
+
+    /**
+     * Returns the node by its index.
+     * @param index Index of the node
+     * @return The node
+     */
+    Node getNode(final int index) {
+        return this.nodes[index];
+    }
+
+    /**
+     * Returns the index of the node.
+     * @param node The node
+     * @return Index of the node or {@code -1} if the node does not belong to the tree
+     */
+    int getIndex(final Node node) {
+        return this.indexes.get(node, -1);
+    }
+
+    /**
+     * Returns the index of the parent of the node.
+     * @param index Index of the node
+     * @return Index of the parent or {@code -1} if the node is the root
+     */
+    int getParent(final int index) {
+        return this.parents[index];
+    }
+
+    /**
+     * Returns the number of nodes in the subtree.
+     * @param index Index of the root of the subtree
+     * @return Number of nodes, including the root of the subtree
+     */
+    int getSize(final int index) {
+        return this.sizes[index];
+    }
+
+    /**
+     * Returns the height of the subtree.
+     * @param index Index of the root of the subtree
+     * @return Height, which is 1 for nodes without children
+     */
+    int getHeight(final int index) {
+        return this.heights[index];
+    }
+
+    /**
+     * Returns indexes of children of the node.
+     * @param index Index of the node
+     * @return Array of indexes of children
+     */
+    int[] getChildren(final int index) {
+        final int[] children = new int[this.nodes[index].getChildCount()];
+        int child = index + 1;
+        for (int position = 0; position < children.length; position = position + 1) {
+            children[position] = child;
+            child = child + this.sizes[child];
+        }
+        return children;
+    }
+
+    /**
+     * Visitor that fills the arrays.
+     *
+     * @since 1.1.5
+     */
+    private static final class Builder implements DepthFirstWalker.Visitor {
+        /**
+         * Nodes in pre-order.
+         */
+        private Node[] nodes;
+
+        /**
+         * Index of the parent of each node.
+         */
+        private int[] parents;
+
+        /**
+         * Number of nodes in the subtree of each node.
+         */
+        private int[] sizes;
+
+        /**
+         * Height of the subtree of each node.
+         */
+        private int[] heights;
+
+        /**
+         * Number of traversed nodes.
+         */
+        private int count;
+
+        /**
+         * Indexes of nodes.
+         */
+        private final IdentityIntMap<Node> indexes;
+
+        /**
+         * Index of the node being traversed.
+         */
+        private int current;
+
+        /**
+         * Constructor.
+         */
+        private Builder() {
+            this.nodes = new Node[TreeIndex.INITIAL_CAPACITY];
+            this.parents = new int[TreeIndex.INITIAL_CAPACITY];
+            this.sizes = new int[TreeIndex.INITIAL_CAPACITY];
+            this.heights = new int[TreeIndex.INITIAL_CAPACITY];
+            this.indexes = new IdentityIntMap<>();
+            this.current = -1;
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            final int index = this.count;
+            if (index == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, index * 2);
+                this.parents = Arrays.copyOf(this.parents, index * 2);
+                this.sizes = Arrays.copyOf(this.sizes, index * 2);
+                this.heights = Arrays.copyOf(this.heights, index * 2);
+            }
+            this.nodes[index] = node;
+            this.parents[index] = this.current;
+            this.heights[index] = 1;
+            this.indexes.put(node, index);
+            this.count = index + 1;
+            this.current = index;
+            return true;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            final int index = this.current;
+            this.sizes[index] = this.count - index;
+            this.current = this.parents[index];
+            if (this.current >= 0) {
+                this.heights[this.current] = Math.max(
+                    this.heights[this.current],
+                    this.heights[index] + 1
+                );
+            }
+        }
+
+        /**
+         * Traverses the tree and collects its nodes.
+         * @param root The root node of the tree
+         * @return The builder containing the collected nodes
+         */
+        private static Builder build(final Node root) {
+            final Builder builder = new Builder();
+            new DepthFirstWalker(root).walk(builder);
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.cqfn.astranaut.core.Builder;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.FactorySelector;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.utils.binary.BinaryInput;
+import org.cqfn.astranaut.core.utils.binary.BlockCodec;
+import org.cqfn.astranaut.core.utils.binary.Dictionary;
+import org.cqfn.astranaut.core.utils.deserializer.ActionList;
+import org.cqfn.astranaut.core.utils.deserializer.ChildrenCollector;
+
+/**
+ * Converts an array of bytes produced by {@link BinarySerializer} to a tree.
+ * Nodes are created in the same way as by {@link JsonDeserializer}, so both representations
+ *  of a tree are converted to equal trees, including difference trees.
+ *
+ * @since 1.1.5
+ */
+public final class BinaryDeserializer {
+    /**
+     * Array of bytes that contains the tree.
+     */
+    private final byte[] source;
+
+    /**
+     * The factory selector.
+     */
+    private final FactorySelector selector;
+
+    /**
+     * Constructor.
+     * @param source Array of bytes that contains the tree
+     * @param selector The factory selector
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    public BinaryDeserializer(final byte[] source, final FactorySelector selector) {
+        this.source = source;
+        this.selector = selector;
+    }
+
+    /**
+     * Converts the array of bytes to a syntax tree.
+     * @return Root node, or an empty tree if the array does not contain a tree
+     */
+    public Node convert() {
+        Node result = EmptyTree.INSTANCE;
+        try {
+            final BinaryInput input = this.openPayload();
+            final Factory factory = this.selector.select(input.readString());
+            if (factory != null) {
+                result = BinaryDeserializer.readTree(input, factory);
+            }
+        } catch (final IllegalArgumentException ignored) {
+            result = EmptyTree.INSTANCE;
+        }
+        return result;
+    }
+
+    /**
+     * Checks the header and returns the input from which the payload can be read.
+     * @return The input
+     */
+    private BinaryInput openPayload() {
+        final BinaryInput header = new BinaryInput(this.source);
+        for (final byte expected : BinarySerializer.SIGNATURE) {
+            if (header.readByte() != expected) {
+                throw new IllegalArgumentException("Wrong signature");
+            }
+        }
+        if (header.readByte() != BinarySerializer.VERSION) {
+            throw new IllegalArgumentException("Unsupported version");
+        }
+        final BinaryInput payload;
+        if ((header.readByte() & BinarySerializer.FLAG_COMPRESSED) == 0) {
+            payload = header;
+        } else {
+            payload = new BinaryInput(BlockCodec.INSTANCE.decompress(header));
+        }
+        return payload;
+    }
+
+    /**
+     * Reads nodes in pre-order and builds the tree.
+     * @param input The input
+     * @param factory The node factory
+     * @return Root node
+     */
+    private static Node readTree(final BinaryInput input, final Factory factory) {
+        final Dictionary types = new Dictionary();
+        final Dictionary data = new Dictionary();
+        final ActionList actions = new ActionList();
+        final Deque<Frame> stack = new ArrayDeque<>();
+        Node root = null;
+        do {
+            stack.push(new Frame(types.read(input), data.read(input), input.readVarInt(), actions));
+            while (!stack.isEmpty() && stack.peek().isComplete()) {
+                final Node node = stack.pop().build(factory);
+                if (stack.isEmpty()) {
+                    root = node;
+                } else {
+                    stack.peek().add(node);
+                }
+            }
+        } while (!stack.isEmpty());
+        if (actions.hasActions()) {
+            root = actions.convertTreeToDifferenceTree(root);
+        }
+        return root;
+    }
+
+    /**
+     * A node whose children are being read.
+     *
+     * @since 1.1.5
+     */
+    private static final class Frame {
+        /**
+         * The type name.
+         */
+        private final String type;
+
+        /**
+         * The data.
+         */
+        private final String data;
+
+        /**
+         * Number of children.
+         */
+        private final int count;
+
+        /**
+         * Collector of children.
+         */
+        private final ChildrenCollector children;
+
+        /**
+         * Number of children that have been read.
+         */
+        private int added;
+
+        /**
+         * Constructor.
+         * @param type The type name
+         * @param data The data
+         * @param count Number of children
+         * @param actions List of actions to be added to the tree after deserialization
+         * @checkstyle ParameterNumberCheck (3 lines)
+         */
+        private Frame(final String type, final String data, final int count,
+            final ActionList actions) {
+            this.type = type;
+            this.data = data;
+            this.count = count;
+            this.children = new ChildrenCollector(actions, Math.min(count, 16));
+        }
+
+        /**
+         * Checks whether all children have been read.
+         * @return Checking result
+         */
+        boolean isComplete() {
+            return this.added == this.count;
+        }
+
+        /**
+         * Adds a child.
+         * @param node The child node
+         */
+        void add(final Node node) {
+            this.children.add(node);
+            this.added = this.added + 1;
+        }
+
+        /**
+         * Creates the node.
+         * @param factory The node factory
+         * @return The node, or an empty tree if it can't be created
+         */
+        Node build(final Factory factory) {
+            Node result = EmptyTree.INSTANCE;
+            final Builder builder = factory.createBuilder(this.type);
+            if (builder != null) {
+                if (!this.data.isEmpty()) {
+                    builder.setData(this.data);
+                }
+                boolean filled = true;
+                if (this.count > 0) {
+                    filled = builder.setChildrenList(this.children.getList());
+                }
+                if (filled && builder.isValid()) {
+                    result = builder.createNode();
+                }
+            }
+            return result;
+        }
+    }
+}
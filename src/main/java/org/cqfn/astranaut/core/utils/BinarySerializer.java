@@ -0,0 +1,210 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.Type;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
+import org.cqfn.astranaut.core.utils.binary.BinaryOutput;
+import org.cqfn.astranaut.core.utils.binary.BlockCodec;
+import org.cqfn.astranaut.core.utils.binary.Dictionary;
+
+/**
+ * Converts a tree to a compact binary representation, an alternative to JSON.
+ * The representation starts with a signature, a version and flags, followed by the
+ *  programming language of the tree and the nodes in pre-order. Each node is written
+ *  as its type name, data and number of children; type names and data are taken from
+ *  dictionaries filled on the fly, and numbers are written as variable-length quantities.
+ *  Everything after the flags can be compressed by blocks.
+ * The result can be converted back to a tree by {@link BinaryDeserializer}.
+ *
+ * @since 1.1.5
+ */
+public final class BinarySerializer {
+    /**
+     * Signature of the binary representation.
+     */
+    static final byte[] SIGNATURE = {'A', 'S', 'T', 'B'};
+
+    /**
+     * Version of the binary representation.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Flag indicating that the representation is compressed.
+     */
+    static final int FLAG_COMPRESSED = 1;
+
+    /**
+     * The 'language' string.
+     */
+    private static final String STR_LANGUAGE = "language";
+
+    /**
+     * The root node.
+     */
+    private final Node root;
+
+    /**
+     * Flag indicating that the representation is compressed.
+     */
+    private final boolean compressed;
+
+    /**
+     * Programming language that defines a factory
+     * with which the inverse transformation will be performed.
+     */
+    private String language;
+
+    /**
+     * Constructor.
+     * @param root The root node
+     */
+    public BinarySerializer(final Node root) {
+        this(root, false);
+    }
+
+    /**
+     * Constructor.
+     * @param root The root node
+     * @param compressed Flag indicating that the representation is compressed
+     */
+    public BinarySerializer(final Node root, final boolean compressed) {
+        this.root = root;
+        this.compressed = compressed;
+        this.language = "";
+    }
+
+    /**
+     * Converts the tree to an array of bytes.
+     * @return The tree represented as an array of bytes
+     */
+    public byte[] serialize() {
+        final BinaryOutput nodes = new BinaryOutput();
+        new DepthFirstWalker(this.root).walk(new NodeWriter(nodes));
+        final BinaryOutput payload = new BinaryOutput();
+        payload.writeString(this.language);
+        payload.writeAll(nodes);
+        final BinaryOutput result = new BinaryOutput();
+        result.writeBytes(BinarySerializer.SIGNATURE, 0, BinarySerializer.SIGNATURE.length);
+        result.writeByte(BinarySerializer.VERSION);
+        if (this.compressed) {
+            result.writeByte(BinarySerializer.FLAG_COMPRESSED);
+            BlockCodec.INSTANCE.compress(payload.toByteArray(), payload.size(), result);
+        } else {
+            result.writeByte(0);
+            result.writeAll(payload);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Converts the tree to an array of bytes and writes the result to a file.
+     * @param filename The file name
+     * @return The result, {@code true} if the file was successful written
+     */
+    public boolean serializeToFile(final String filename) {
+        final byte[] bytes = this.serialize();
+        boolean success = true;
+        try {
+            final Path path = Paths.get(filename);
+            final Path dir = path.toAbsolutePath().getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            try (OutputStream stream = Files.newOutputStream(path)) {
+                stream.write(bytes);
+            }
+        } catch (final IOException | InvalidPathException ignored) {
+            success = false;
+        }
+        return success;
+    }
+
+    /**
+     * Takes the programming language from the type of node, if it is not yet known.
+     * @param type The type of node
+     */
+    private void detectLanguage(final Type type) {
+        if (this.language.isEmpty()) {
+            final String property = type.getProperty(BinarySerializer.STR_LANGUAGE);
+            if (!"common".equals(property)) {
+                this.language = property;
+            }
+        }
+    }
+
+    /**
+     * Visitor that writes nodes of the tree in pre-order.
+     * The language is detected in post-order, as in the JSON serializer.
+     *
+     * @since 1.1.5
+     */
+    private final class NodeWriter implements DepthFirstWalker.Visitor {
+        /**
+         * The output.
+         */
+        private final BinaryOutput output;
+
+        /**
+         * Dictionary of type names.
+         */
+        private final Dictionary types;
+
+        /**
+         * Dictionary of data.
+         */
+        private final Dictionary data;
+
+        /**
+         * Constructor.
+         * @param output The output
+         */
+        private NodeWriter(final BinaryOutput output) {
+            this.output = output;
+            this.types = new Dictionary();
+            this.data = new Dictionary();
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            this.types.write(this.output, node.getTypeName());
+            this.data.write(this.output, node.getData());
+            this.output.writeVarInt(node.getChildCount());
+            return true;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            BinarySerializer.this.detectLanguage(node.getType());
+        }
+    }
+}
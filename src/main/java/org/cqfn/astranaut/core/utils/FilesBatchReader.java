@@ -0,0 +1,143 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads many files in parallel.
+ * Files are read by a fixed number of threads, each of which takes the next unread file
+ *  from the list, so that large and small files are distributed evenly. Each file is read
+ *  in the same way as by {@link FilesReader}.
+ *
+ * @since 1.1.5
+ */
+public final class FilesBatchReader {
+    /**
+     * Paths of the files.
+     */
+    private final List<String> paths;
+
+    /**
+     * Number of threads.
+     */
+    private final int threads;
+
+    /**
+     * Constructor, which uses as many threads as there are processors.
+     * @param paths Paths of the files
+     */
+    public FilesBatchReader(final List<String> paths) {
+        this(paths, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     * @param paths Paths of the files
+     * @param threads Number of threads
+     */
+    public FilesBatchReader(final List<String> paths, final int threads) {
+        this.paths = paths;
+        this.threads = Math.max(threads, 1);
+    }
+
+    /**
+     * Reads the content of all files.
+     * If a file can't be read, the remaining files are not read.
+     * @return List of contents of the files, in the same order as the paths
+     * @throws IOException If a file can't be read
+     */
+    public List<String> readAll() throws IOException {
+        final int count = this.paths.size();
+        final String[] contents = new String[count];
+        final AtomicInteger next = new AtomicInteger();
+        final int workers = Math.min(this.threads, count);
+        final ExecutorService pool = Executors.newFixedThreadPool(Math.max(workers, 1));
+        final List<Future<Void>> futures = new ArrayList<>(workers);
+        try {
+            for (int index = 0; index < workers; index = index + 1) {
+                futures.add(pool.submit(() -> this.read(contents, next)));
+            }
+            for (final Future<Void> future : futures) {
+                FilesBatchReader.await(future);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return Arrays.asList(contents);
+    }
+
+    /**
+     * Reads files one by one until all files are taken.
+     * @param contents Array in which the contents of the files are stored
+     * @param next Index of the next file to be read
+     * @return Nothing
+     * @throws IOException If a file can't be read
+     */
+    private Void read(final String[] contents, final AtomicInteger next) throws IOException {
+        final int count = contents.length;
+        try {
+            for (int index = next.getAndIncrement(); index < count;
+                index = next.getAndIncrement()) {
+                contents[index] = new FilesReader(this.paths.get(index)).readAsString();
+            }
+        } catch (final IOException exception) {
+            next.set(count);
+            throw exception;
+        }
+        return null;
+    }
+
+    /**
+     * Waits for a task to complete, rethrowing the exception thrown by the task.
+     * @param future The result of the task
+     * @throws IOException If the task has failed or the thread has been interrupted
+     */
+    private static void await(final Future<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException interrupted =
+                new InterruptedIOException(exception.getMessage());
+            interrupted.initCause(exception);
+            throw interrupted;
+        } catch (final ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), exception);
+        }
+    }
+}
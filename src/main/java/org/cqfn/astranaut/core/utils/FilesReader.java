@@ -24,17 +24,35 @@
 package org.cqfn.astranaut.core.utils;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Class for reading files.
+ * A file is read in bulk through a file channel; large files are mapped into memory
+ *  instead of being copied. The content is decoded using a charset (UTF-8 by default),
+ *  and carriage return characters are removed, so that lines end with line feeds only.
  *
  * @since 1.0.2
  */
 public final class FilesReader {
+    /**
+     * Size of a file starting from which the file is mapped into memory.
+     */
+    private static final long MAP_THRESHOLD = 1 << 20;
+
+    /**
+     * Size of the buffer used if the size of a file is unknown.
+     */
+    private static final int MIN_BUFFER_SIZE = 4096;
+
     /**
      * The file path.
      */
@@ -45,7 +63,15 @@ public final class FilesReader {
      * @param path Path as a string
      */
     public FilesReader(final String path) {
-        this.path = Paths.get(path);
+        this(Paths.get(path));
+    }
+
+    /**
+     * Constructor.
+     * @param path The path
+     */
+    public FilesReader(final Path path) {
+        this.path = path;
     }
 
     /**
@@ -54,15 +80,34 @@ public final class FilesReader {
      * @throws IOException If the file can't be read
      */
     public String readAsString() throws IOException {
-        final InputStream stream = Files.newInputStream(this.path);
-        final StringBuilder builder = new StringBuilder();
-        for (int chr = stream.read(); chr != -1; chr = stream.read()) {
-            if (chr != '\r') {
-                builder.append((char) chr);
+        return this.readAsString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads file content as a string using the specified charset.
+     * Malformed input is replaced with the replacement character of the charset.
+     * @param charset The charset
+     * @return The file content
+     * @throws IOException If the file can't be read
+     */
+    public String readAsString(final Charset charset) throws IOException {
+        final ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format("The file is too large: %s", this.path));
+            }
+            if (size >= FilesReader.MAP_THRESHOLD) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                bytes = FilesReader.readFully(channel, (int) size);
             }
         }
-        stream.close();
-        return builder.toString();
+        final CharBuffer chars = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(bytes);
+        return FilesReader.removeCarriageReturns(chars);
     }
 
     /**
@@ -81,6 +126,48 @@ public final class FilesReader {
         }
     }
 
+    /**
+     * Reads all bytes from a channel.
+     * @param channel The channel
+     * @param size Expected number of bytes
+     * @return Buffer containing the bytes, ready to be read
+     * @throws IOException If the channel can't be read
+     */
+    private static ByteBuffer readFully(final FileChannel channel, final int size)
+        throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(size + 1, FilesReader.MIN_BUFFER_SIZE));
+        while (channel.read(buffer) >= 0) {
+            if (!buffer.hasRemaining()) {
+                final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Creates a string from characters, removing carriage return characters.
+     * @param chars The characters
+     * @return The string
+     */
+    private static String removeCarriageReturns(final CharBuffer chars) {
+        final char[] array = chars.array();
+        final int start = chars.arrayOffset() + chars.position();
+        final int end = start + chars.remaining();
+        int length = 0;
+        for (int index = start; index < end; index = index + 1) {
+            final char chr = array[index];
+            if (chr != '\r') {
+                array[start + length] = chr;
+                length = length + 1;
+            }
+        }
+        return new String(array, start, length);
+    }
+
     /**
      * Custom exception creator.
      * @param <T> The exception type
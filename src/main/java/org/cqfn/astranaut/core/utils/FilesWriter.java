@@ -23,8 +23,11 @@
  */
 package org.cqfn.astranaut.core.utils;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -55,15 +58,23 @@ public final class FilesWriter {
      * @throws IOException If the file can't be written
      */
     public void writeString(final String str) throws IOException {
-        final Path dir = this.path.getParent();
-        if (dir != null) {
-            Files.createDirectories(dir);
-        }
-        final OutputStream stream = Files.newOutputStream(this.path);
+        final OutputStream stream = this.createStream();
         stream.write(str.getBytes(StandardCharsets.UTF_8));
         stream.close();
     }
 
+    /**
+     * Creates a buffered writer that writes text to the file in the UTF-8 encoding.
+     * The writer must be closed by the caller.
+     * @return The writer
+     * @throws IOException If the file can't be created
+     */
+    public Writer createWriter() throws IOException {
+        return new BufferedWriter(
+            new OutputStreamWriter(this.createStream(), StandardCharsets.UTF_8)
+        );
+    }
+
     /**
      * Writes the string to the file (without exception).
      * @param str The string
@@ -78,4 +89,17 @@ public final class FilesWriter {
         }
         return success;
     }
+
+    /**
+     * Creates the directories containing the file and opens the file for writing.
+     * @return The output stream
+     * @throws IOException If the file can't be created
+     */
+    private OutputStream createStream() throws IOException {
+        final Path dir = this.path.getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        return Files.newOutputStream(this.path);
+    }
 }
@@ -0,0 +1,194 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * Map from objects to primitive integers, where keys are compared by identity.
+ * The table uses open addressing with linear probing, so neither keys nor values are
+ * wrapped into additional objects, and integer values are never boxed.
+ * Entries can not be removed one by one, but the whole table can be cleared, which also
+ * releases the memory occupied by it.
+ *
+ * @param <K> The key type
+ * @since 1.1.5
+ */
+public final class IdentityIntMap<K> {
+    /**
+     * Initial capacity of the table, must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Hash multiplier (the golden ratio) used to spread identity hashes over the table.
+     */
+    private static final int MULTIPLIER = 0x9E3779B9;
+
+    /**
+     * Array of keys, empty cells contain {@code null}.
+     */
+    private Object[] keys;
+
+    /**
+     * Array of values.
+     */
+    private int[] values;
+
+    /**
+     * Number of entries stored in the table.
+     */
+    private int count;
+
+    /**
+     * Number of entries after which the table grows.
+     */
+    private int threshold;
+
+    /**
+     * Shift that leaves as many high bits of a spread hash as needed to address a cell.
+     */
+    private int shift;
+
+    /**
+     * Constructor.
+     */
+    public IdentityIntMap() {
+        this.keys = new Object[IdentityIntMap.INITIAL_CAPACITY];
+        this.values = new int[IdentityIntMap.INITIAL_CAPACITY];
+        this.threshold = IdentityIntMap.INITIAL_CAPACITY / 2;
+        this.shift = Integer.numberOfLeadingZeros(IdentityIntMap.INITIAL_CAPACITY) + 1;
+    }
+
+    /**
+     * Returns the number of entries stored in the table.
+     * @return Number of entries
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Checks whether the table contains the specified key.
+     * @param key The key
+     * @return Checking result, {@code true} if the table contains this key
+     */
+    public boolean containsKey(final K key) {
+        return this.keys[this.find(key)] != null;
+    }
+
+    /**
+     * Returns the value associated with the key.
+     * @param key The key
+     * @param absent Value to be returned if the table does not contain the key
+     * @return The value or the value passed as {@code absent}
+     */
+    public int get(final K key, final int absent) {
+        final int index = this.find(key);
+        final int result;
+        if (this.keys[index] == null) {
+            result = absent;
+        } else {
+            result = this.values[index];
+        }
+        return result;
+    }
+
+    /**
+     * Associates the value with the key. If the table already contains the key,
+     * the old value is replaced.
+     * @param key The key, can't be {@code null}
+     * @param value The value
+     */
+    public void put(final K key, final int value) {
+        if (key == null) {
+            throw new IllegalArgumentException();
+        }
+        final int index = this.find(key);
+        if (this.keys[index] == null) {
+            this.keys[index] = key;
+            this.count = this.count + 1;
+        }
+        this.values[index] = value;
+        if (this.count > this.threshold) {
+            this.grow();
+        }
+    }
+
+    /**
+     * Removes all entries and shrinks the table to its initial capacity.
+     */
+    public void clear() {
+        if (this.keys.length == IdentityIntMap.INITIAL_CAPACITY) {
+            Arrays.fill(this.keys, null);
+        } else {
+            this.allocate(IdentityIntMap.INITIAL_CAPACITY);
+        }
+        this.count = 0;
+    }
+
+    /**
+     * Finds the cell that contains the key, or the empty cell where the key can be placed.
+     * @param key The key
+     * @return Index of the cell
+     */
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    private int find(final Object key) {
+        final int mask = this.keys.length - 1;
+        int index = System.identityHashCode(key) * IdentityIntMap.MULTIPLIER >>> this.shift;
+        Object current = this.keys[index];
+        while (current != null && current != key) {
+            index = index + 1 & mask;
+            current = this.keys[index];
+        }
+        return index;
+    }
+
+    /**
+     * Doubles the capacity of the table and reinserts all entries.
+     */
+    private void grow() {
+        final Object[] old = this.keys;
+        final int[] data = this.values;
+        this.allocate(old.length * 2);
+        for (int index = 0; index < old.length; index = index + 1) {
+            if (old[index] != null) {
+                final int cell = this.find(old[index]);
+                this.keys[cell] = old[index];
+                this.values[cell] = data[index];
+            }
+        }
+    }
+
+    /**
+     * Allocates arrays of the specified capacity.
+     * @param capacity Capacity, must be a power of two
+     */
+    private void allocate(final int capacity) {
+        this.keys = new Object[capacity];
+        this.values = new int[capacity];
+        this.threshold = capacity / 2;
+        this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+}
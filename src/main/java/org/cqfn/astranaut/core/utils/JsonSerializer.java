@@ -23,15 +23,22 @@
  */
 package org.cqfn.astranaut.core.utils;
 
-import com.kniazkov.json.JsonArray;
-import com.kniazkov.json.JsonObject;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.InvalidPathException;
 import org.cqfn.astranaut.core.Node;
 import org.cqfn.astranaut.core.Type;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
 
 /**
  * Converts a tree to a string that contains JSON object.
+ * The text is produced in a single traversal of the tree and is written to the output
+ *  in portions, so a large tree can be written to a stream or a file without building
+ *  the whole text in memory.
  *
  * @since 1.0.2
  */
@@ -66,11 +73,26 @@ public final class JsonSerializer {
      */
     private static final String STR_COMMON = "common";
 
+    /**
+     * The string used for one level of indentation.
+     */
+    private static final String INDENT = "  ";
+
+    /**
+     * Number of characters that are accumulated before being passed to the output.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
     /**
      * The root node.
      */
     private final Node root;
 
+    /**
+     * Flag indicating that the text is written without line breaks and indentation.
+     */
+    private final boolean compact;
+
     /**
      * Programming language that defines a factory
      * with which the inverse transformation will be performed.
@@ -82,7 +104,17 @@ public final class JsonSerializer {
      * @param root The root node
      */
     public JsonSerializer(final Node root) {
+        this(root, false);
+    }
+
+    /**
+     * Constructor.
+     * @param root The root node
+     * @param compact Write the text without line breaks and indentation
+     */
+    public JsonSerializer(final Node root, final boolean compact) {
         this.root = root;
+        this.compact = compact;
         this.language = "";
     }
 
@@ -91,13 +123,50 @@ public final class JsonSerializer {
      * @return The tree represented as a string
      */
     public String serialize() {
-        final JsonObject obj = new JsonObject();
-        final JsonObject child = obj.createObject(JsonSerializer.STR_ROOT);
-        this.convertNode(this.root, child);
+        final StringWriter writer = new StringWriter();
+        String result;
+        try {
+            this.serialize(writer);
+            result = writer.toString();
+        } catch (final IOException ignored) {
+            result = "";
+        }
+        return result;
+    }
+
+    /**
+     * Converts the tree to a JSON object and writes it to a character stream.
+     * The stream is not closed.
+     * @param writer The character stream
+     * @throws IOException If the text can't be written
+     */
+    public void serialize(final Writer writer) throws IOException {
+        final TextBuilder builder = new TextBuilder(writer);
+        builder.append('{');
+        builder.newline(1);
+        builder.appendKey(JsonSerializer.STR_ROOT);
+        new DepthFirstWalker(this.root).walk(builder);
         if (!this.language.isEmpty()) {
-            obj.addString(JsonSerializer.STR_LANGUAGE, this.language);
+            builder.append(',');
+            builder.newline(1);
+            builder.appendKey(JsonSerializer.STR_LANGUAGE);
+            builder.appendString(this.language);
         }
-        return obj.toText("  ");
+        builder.newline(0);
+        builder.append('}');
+        builder.finish();
+    }
+
+    /**
+     * Converts the tree to a JSON object and writes it to a byte stream
+     *  in the UTF-8 encoding. The stream is not closed.
+     * @param stream The byte stream
+     * @throws IOException If the text can't be written
+     */
+    public void serialize(final OutputStream stream) throws IOException {
+        final Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        this.serialize(writer);
+        writer.flush();
     }
 
     /**
@@ -107,10 +176,9 @@ public final class JsonSerializer {
      * @return The result, {@code true} if the file was successful written
      */
     public boolean serializeToFile(final String filename) {
-        final String json = this.serialize();
         boolean success = true;
-        try {
-            new FilesWriter(filename).writeString(json);
+        try (Writer writer = new FilesWriter(filename).createWriter()) {
+            this.serialize(writer);
         } catch (final IOException | InvalidPathException ignored) {
             success = false;
         }
@@ -118,25 +186,10 @@ public final class JsonSerializer {
     }
 
     /**
-     * Converts the node to a JSON object.
-     * @param node The node
-     * @param result Object to be filled with node data
+     * Takes the programming language from the type of node, if it is not yet known.
+     * @param type The type of node
      */
-    private void convertNode(final Node node, final JsonObject result) {
-        final Type type = node.getType();
-        result.addString(JsonSerializer.STR_TYPE, type.getName());
-        final String data = node.getData();
-        if (!data.isEmpty()) {
-            result.addString(JsonSerializer.STR_DATA, data);
-        }
-        final int count = node.getChildCount();
-        if (count > 0) {
-            final JsonArray children = result.createArray(JsonSerializer.STR_CHILDREN);
-            for (int index = 0; index < count; index = index + 1) {
-                final JsonObject child = children.createObject();
-                this.convertNode(node.getChild(index), child);
-            }
-        }
+    private void detectLanguage(final Type type) {
         if (this.language.isEmpty()) {
             final String property = type.getProperty(JsonSerializer.STR_LANGUAGE);
             if (!JsonSerializer.STR_COMMON.equals(property)) {
@@ -144,4 +197,240 @@ public final class JsonSerializer {
             }
         }
     }
+
+    /**
+     * Returns the escape sequence that replaces a character in a JSON string.
+     * @param chr The character
+     * @return The escape sequence or an empty string if the character is written as it is
+     */
+    private static String escape(final char chr) {
+        final String result;
+        switch (chr) {
+            case '"':
+                result = "\\\"";
+                break;
+            case '\\':
+                result = "\\\\";
+                break;
+            case '\b':
+                result = "\\b";
+                break;
+            case '\f':
+                result = "\\f";
+                break;
+            case '\n':
+                result = "\\n";
+                break;
+            case '\r':
+                result = "\\r";
+                break;
+            case '\t':
+                result = "\\t";
+                break;
+            default:
+                if (chr < ' ') {
+                    result = String.format("\\u%04x", (int) chr);
+                } else {
+                    result = "";
+                }
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * Visitor that converts the nodes of the tree to JSON text.
+     * The text is accumulated in a buffer of limited size, which is passed to the output
+     *  when it is full. The layout of the indented text is the same as the layout
+     *  produced by the JSON library used by the deserializer.
+     *
+     * @since 1.1.5
+     */
+    private final class TextBuilder implements DepthFirstWalker.Visitor {
+        /**
+         * The output.
+         */
+        private final Writer writer;
+
+        /**
+         * The buffer, which is emptied each time it is passed to the output.
+         */
+        @SuppressWarnings("PMD.AvoidStringBufferField")
+        private final StringBuilder buffer;
+
+        /**
+         * The line separator.
+         */
+        private final String separator;
+
+        /**
+         * Depth of the current node.
+         */
+        private int depth;
+
+        /**
+         * Flag indicating that the next node is the first child of its parent.
+         */
+        private boolean first;
+
+        /**
+         * Exception thrown by the output, if any.
+         */
+        private IOException exception;
+
+        /**
+         * Constructor.
+         * @param writer The output
+         */
+        private TextBuilder(final Writer writer) {
+            this.writer = writer;
+            this.buffer = new StringBuilder(JsonSerializer.BUFFER_SIZE * 2);
+            this.separator = System.lineSeparator();
+            this.depth = -1;
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            final int level = this.depth * 2 + 3;
+            if (this.depth >= 0) {
+                if (!this.first) {
+                    this.append(',');
+                }
+                this.newline(level);
+            }
+            this.depth = this.depth + 1;
+            final Type type = node.getType();
+            final String data = node.getData();
+            final boolean descend = node.getChildCount() > 0;
+            final boolean simple = data.isEmpty() && !descend;
+            this.append('{');
+            if (!simple) {
+                this.newline(level + 1);
+            }
+            this.appendKey(JsonSerializer.STR_TYPE);
+            this.appendString(type.getName());
+            if (!data.isEmpty()) {
+                this.append(',');
+                this.newline(level + 1);
+                this.appendKey(JsonSerializer.STR_DATA);
+                this.appendString(data);
+            }
+            if (descend) {
+                this.append(',');
+                this.newline(level + 1);
+                this.appendKey(JsonSerializer.STR_CHILDREN);
+                this.append('[');
+                this.first = true;
+            } else {
+                this.close(simple, level);
+                JsonSerializer.this.detectLanguage(type);
+            }
+            return descend && this.exception == null;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            final int level = this.depth * 2 + 1;
+            this.newline(level + 1);
+            this.append(']');
+            this.close(false, level);
+            JsonSerializer.this.detectLanguage(node.getType());
+        }
+
+        /**
+         * Appends a character to the text.
+         * @param chr The character
+         */
+        private void append(final char chr) {
+            this.buffer.append(chr);
+        }
+
+        /**
+         * Appends a line break and indentation, unless the text is compact.
+         * @param level Level of indentation
+         */
+        private void newline(final int level) {
+            if (!JsonSerializer.this.compact) {
+                this.buffer.append(this.separator);
+                for (int index = 0; index < level; index = index + 1) {
+                    this.buffer.append(JsonSerializer.INDENT);
+                }
+            }
+        }
+
+        /**
+         * Appends a key of an object and a separator that follows it.
+         * @param key The key
+         */
+        private void appendKey(final String key) {
+            this.appendString(key);
+            this.append(':');
+            if (!JsonSerializer.this.compact) {
+                this.append(' ');
+            }
+        }
+
+        /**
+         * Appends a string in quotes, replacing special characters with escape sequences.
+         * @param str The string
+         */
+        private void appendString(final String str) {
+            this.append('"');
+            final int length = str.length();
+            for (int index = 0; index < length; index = index + 1) {
+                final char chr = str.charAt(index);
+                final String escaped = JsonSerializer.escape(chr);
+                if (escaped.isEmpty()) {
+                    this.append(chr);
+                } else {
+                    this.buffer.append(escaped);
+                }
+            }
+            this.append('"');
+            if (this.buffer.length() >= JsonSerializer.BUFFER_SIZE) {
+                this.flush();
+            }
+        }
+
+        /**
+         * Closes an object that describes a node.
+         * @param simple Flag indicating that the object is written in one line
+         * @param level Level of indentation of the object
+         */
+        private void close(final boolean simple, final int level) {
+            if (!simple) {
+                this.newline(level);
+            }
+            this.append('}');
+            this.first = false;
+            this.depth = this.depth - 1;
+        }
+
+        /**
+         * Passes the rest of the text to the output.
+         * @throws IOException If the output has failed while the text was being written
+         */
+        private void finish() throws IOException {
+            this.flush();
+            if (this.exception != null) {
+                throw this.exception;
+            }
+        }
+
+        /**
+         * Passes the accumulated text to the output.
+         * The first exception thrown by the output is stored and rethrown after
+         *  the traversal of the tree, since the visitor can't throw checked exceptions.
+         */
+        private void flush() {
+            if (this.exception == null) {
+                try {
+                    this.writer.write(this.buffer.toString());
+                } catch (final IOException caught) {
+                    this.exception = caught;
+                }
+            }
+            this.buffer.setLength(0);
+        }
+    }
 }
@@ -0,0 +1,384 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.FactorySelector;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.utils.deserializer.JsonTokenizer;
+import org.cqfn.astranaut.core.utils.deserializer.NodeAssembler;
+import org.cqfn.astranaut.core.utils.deserializer.NodeSink;
+import org.cqfn.astranaut.core.utils.deserializer.NodeTape;
+
+/**
+ * Converts JSON text read from a stream to a tree, without building an intermediate
+ *  representation of the whole text.
+ * The text has the same format as the text accepted by {@link JsonDeserializer}. If the
+ *  language is specified before the root node, nodes are created by the factory while
+ *  the text is being parsed; otherwise, nodes are recorded in a compact form and created
+ *  after the language becomes known.
+ *
+ * @since 1.1.5
+ */
+public final class JsonStreamDeserializer {
+    /**
+     * The 'root' string.
+     */
+    private static final String STR_ROOT = "root";
+
+    /**
+     * The 'language' string.
+     */
+    private static final String STR_LANGUAGE = "language";
+
+    /**
+     * The 'type' string.
+     */
+    private static final String STR_TYPE = "type";
+
+    /**
+     * The 'data' string.
+     */
+    private static final String STR_DATA = "data";
+
+    /**
+     * The 'children' string.
+     */
+    private static final String STR_CHILDREN = "children";
+
+    /**
+     * Character stream that contains JSON text.
+     */
+    private final Reader reader;
+
+    /**
+     * The factory selector.
+     */
+    private final FactorySelector selector;
+
+    /**
+     * Constructor.
+     * @param reader Character stream that contains JSON text
+     * @param selector The factory selector
+     */
+    public JsonStreamDeserializer(final Reader reader, final FactorySelector selector) {
+        this.reader = reader;
+        this.selector = selector;
+    }
+
+    /**
+     * Constructor.
+     * @param stream Byte stream that contains JSON text in the UTF-8 encoding
+     * @param selector The factory selector
+     */
+    public JsonStreamDeserializer(final InputStream stream, final FactorySelector selector) {
+        this(new InputStreamReader(stream, StandardCharsets.UTF_8), selector);
+    }
+
+    /**
+     * Reads JSON text from the stream and converts it to a syntax tree.
+     * The stream is not closed.
+     * @return Root node, or an empty tree if the text does not contain a tree
+     * @throws IOException If the stream can't be read
+     */
+    public Node convert() throws IOException {
+        Node result;
+        try {
+            result = this.parse(new JsonTokenizer(this.reader));
+        } catch (final IllegalArgumentException ignored) {
+            result = EmptyTree.INSTANCE;
+        }
+        return result;
+    }
+
+    /**
+     * Parses the object that contains the tree.
+     * @param tokenizer The tokenizer
+     * @return Root node
+     * @throws IOException If the stream can't be read
+     */
+    private Node parse(final JsonTokenizer tokenizer) throws IOException {
+        JsonStreamDeserializer.expect(tokenizer, JsonTokenizer.Token.OBJECT_START);
+        final Tree tree = new Tree();
+        for (JsonTokenizer.Token token = tokenizer.next();
+            token != JsonTokenizer.Token.OBJECT_END; token = tokenizer.next()) {
+            final String name = JsonStreamDeserializer.getName(tokenizer, token);
+            if (JsonStreamDeserializer.STR_LANGUAGE.equals(name)) {
+                tree.select(this.selector.select(JsonStreamDeserializer.readString(tokenizer)));
+            } else if (JsonStreamDeserializer.STR_ROOT.equals(name)) {
+                tree.readRoot(tokenizer);
+            } else {
+                tokenizer.skipValue();
+            }
+        }
+        JsonStreamDeserializer.expect(tokenizer, JsonTokenizer.Token.END);
+        return tree.getResult(this.selector);
+    }
+
+    /**
+     * Parses an object that describes a node, with all its descendants, and reports
+     *  the nodes to a receiver. Only the nodes on the current path are kept on a stack.
+     * @param tokenizer The tokenizer
+     * @param sink The receiver
+     * @throws IOException If the stream can't be read
+     */
+    private static void readNode(final JsonTokenizer tokenizer, final NodeSink sink)
+        throws IOException {
+        JsonStreamDeserializer.expect(tokenizer, JsonTokenizer.Token.OBJECT_START);
+        sink.begin();
+        final Deque<Description> path = new ArrayDeque<>();
+        path.push(new Description());
+        while (!path.isEmpty()) {
+            final Description current = path.peek();
+            final JsonTokenizer.Token token = tokenizer.next();
+            if (current.isReadingChildren()) {
+                JsonStreamDeserializer.readChild(tokenizer, token, sink, path);
+            } else if (token == JsonTokenizer.Token.OBJECT_END) {
+                path.pop();
+                current.complete(tokenizer, sink);
+            } else {
+                current.readProperty(tokenizer, JsonStreamDeserializer.getName(tokenizer, token));
+            }
+        }
+    }
+
+    /**
+     * Processes a token inside a list of children.
+     * @param tokenizer The tokenizer
+     * @param token The token
+     * @param sink The receiver
+     * @param path Descriptions of the nodes on the current path
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private static void readChild(final JsonTokenizer tokenizer, final JsonTokenizer.Token token,
+        final NodeSink sink, final Deque<Description> path) {
+        if (token == JsonTokenizer.Token.ARRAY_END) {
+            path.peek().finishChildren();
+        } else if (token == JsonTokenizer.Token.OBJECT_START) {
+            sink.begin();
+            path.push(new Description());
+        } else {
+            throw tokenizer.error("Expected node");
+        }
+    }
+
+    /**
+     * Checks that the token is a name and returns the name.
+     * @param tokenizer The tokenizer
+     * @param token The token
+     * @return The name
+     */
+    private static String getName(final JsonTokenizer tokenizer,
+        final JsonTokenizer.Token token) {
+        if (token != JsonTokenizer.Token.NAME) {
+            throw tokenizer.error("Expected name");
+        }
+        return tokenizer.getText();
+    }
+
+    /**
+     * Reads a string value.
+     * @param tokenizer The tokenizer
+     * @return The string
+     * @throws IOException If the stream can't be read
+     */
+    private static String readString(final JsonTokenizer tokenizer) throws IOException {
+        JsonStreamDeserializer.expect(tokenizer, JsonTokenizer.Token.STRING);
+        return tokenizer.getText();
+    }
+
+    /**
+     * Reads the next token and checks that it is the expected one.
+     * @param tokenizer The tokenizer
+     * @param expected The expected token
+     * @throws IOException If the stream can't be read
+     */
+    private static void expect(final JsonTokenizer tokenizer,
+        final JsonTokenizer.Token expected) throws IOException {
+        if (tokenizer.next() != expected) {
+            throw tokenizer.error(String.format("Expected %s", expected.name()));
+        }
+    }
+
+    /**
+     * State of the tree that is being read.
+     *
+     * @since 1.1.5
+     */
+    private static final class Tree {
+        /**
+         * The node factory, if it has been selected.
+         */
+        private Factory factory;
+
+        /**
+         * Flag indicating that the factory has been selected.
+         */
+        private boolean selected;
+
+        /**
+         * Assembler of nodes, if the root node has been read after the language.
+         */
+        private NodeAssembler assembler;
+
+        /**
+         * Record of nodes, if the root node has been read before the language.
+         */
+        private NodeTape tape;
+
+        /**
+         * Sets the factory selected for the language.
+         * @param selection The factory, or {@code null} if the language is not supported
+         */
+        void select(final Factory selection) {
+            this.factory = selection;
+            this.selected = true;
+        }
+
+        /**
+         * Reads the root node. Nodes are created immediately if the factory is known
+         *  and recorded otherwise.
+         * @param tokenizer The tokenizer
+         * @throws IOException If the stream can't be read
+         */
+        void readRoot(final JsonTokenizer tokenizer) throws IOException {
+            if (this.selected && this.factory == null) {
+                tokenizer.skipValue();
+            } else if (this.selected) {
+                this.assembler = new NodeAssembler(this.factory);
+                JsonStreamDeserializer.readNode(tokenizer, this.assembler);
+            } else {
+                this.tape = new NodeTape();
+                JsonStreamDeserializer.readNode(tokenizer, this.tape);
+            }
+        }
+
+        /**
+         * Creates the recorded nodes, if any, and returns the resulting tree.
+         * @param selector The factory selector used if the language has not been specified
+         * @return Root node
+         */
+        Node getResult(final FactorySelector selector) {
+            if (!this.selected) {
+                this.select(selector.select(null));
+            }
+            if (this.tape != null && this.factory != null) {
+                this.assembler = new NodeAssembler(this.factory);
+                this.tape.replay(this.assembler);
+            }
+            Node result = EmptyTree.INSTANCE;
+            if (this.assembler != null) {
+                result = this.assembler.getResult();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Properties of a node that is being read.
+     *
+     * @since 1.1.5
+     */
+    private static final class Description {
+        /**
+         * The type name.
+         */
+        private String type;
+
+        /**
+         * The data, or {@code null} if there is no data.
+         */
+        private String data;
+
+        /**
+         * Flag indicating that the description contains a list of children.
+         */
+        private boolean children;
+
+        /**
+         * Flag indicating that the list of children is being read.
+         */
+        private boolean reading;
+
+        /**
+         * Checks whether the list of children is being read.
+         * @return Checking result
+         */
+        boolean isReadingChildren() {
+            return this.reading;
+        }
+
+        /**
+         * Marks the end of the list of children.
+         */
+        void finishChildren() {
+            this.reading = false;
+        }
+
+        /**
+         * Reads a property of the node.
+         * @param tokenizer The tokenizer
+         * @param name The name of the property
+         * @throws IOException If the stream can't be read
+         */
+        void readProperty(final JsonTokenizer tokenizer, final String name) throws IOException {
+            switch (name) {
+                case JsonStreamDeserializer.STR_TYPE:
+                    this.type = JsonStreamDeserializer.readString(tokenizer);
+                    break;
+                case JsonStreamDeserializer.STR_DATA:
+                    this.data = JsonStreamDeserializer.readString(tokenizer);
+                    break;
+                case JsonStreamDeserializer.STR_CHILDREN:
+                    JsonStreamDeserializer.expect(tokenizer, JsonTokenizer.Token.ARRAY_START);
+                    this.children = true;
+                    this.reading = true;
+                    break;
+                default:
+                    tokenizer.skipValue();
+                    break;
+            }
+        }
+
+        /**
+         * Reports the end of the node to a receiver.
+         * @param tokenizer The tokenizer
+         * @param sink The receiver
+         */
+        void complete(final JsonTokenizer tokenizer, final NodeSink sink) {
+            if (this.type == null) {
+                throw tokenizer.error("Node without type");
+            }
+            sink.end(this.type, this.data, this.children);
+        }
+    }
+}
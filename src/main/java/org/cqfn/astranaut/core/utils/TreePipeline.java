@@ -0,0 +1,397 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import org.cqfn.astranaut.core.Adapter;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.FactorySelector;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Processes many files containing trees in parallel.
+ * Each file is deserialized from JSON while it is being read, transformed (for example,
+ *  by an adapter) and serialized to a JSON file. All stages of processing of one file are performed
+ *  by one task, so that the tree stays in the cache of one core; tasks of different files
+ *  are executed in parallel. The number of files being processed at the same time is
+ *  limited, so that the files are not read faster than they are processed.
+ *
+ * @since 1.1.5
+ */
+public final class TreePipeline {
+    /**
+     * Default maximum number of files being processed at the same time.
+     */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The factory selector used to deserialize trees.
+     */
+    private final FactorySelector selector;
+
+    /**
+     * The transformation of trees.
+     */
+    private final Function<Node, Node> function;
+
+    /**
+     * Maximum number of files being processed at the same time.
+     */
+    private final int capacity;
+
+    /**
+     * Constructor.
+     * @param selector The factory selector used to deserialize trees
+     * @param adapter The adapter that converts trees
+     */
+    public TreePipeline(final FactorySelector selector, final Adapter adapter) {
+        this(selector, adapter::convert, TreePipeline.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     * @param selector The factory selector used to deserialize trees
+     * @param transformation The transformation of trees, which must be thread-safe
+     *  and must return an empty tree if a tree can't be transformed
+     * @param capacity Maximum number of files being processed at the same time
+     */
+    public TreePipeline(final FactorySelector selector,
+        final Function<Node, Node> transformation, final int capacity) {
+        this.selector = selector;
+        this.function = transformation;
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    /**
+     * Processes files using virtual threads, if they are supported by the Java runtime,
+     *  or a pool containing a thread per processor otherwise.
+     * @param files List of pairs of paths: the source file and the file to which
+     *  the result is written
+     * @return Statistics of processing
+     */
+    public Statistics run(final List<Pair<String, String>> files) {
+        final ExecutorService executor = TreePipeline.createExecutor();
+        try {
+            return this.run(files, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Processes files using the specified executor.
+     * The method returns when all submitted files have been processed; the executor is not
+     *  shut down. If the current thread is interrupted, no more files are submitted, but
+     *  the method still waits for the submitted files, so the returned statistics
+     *  are complete, and the interrupted status of the thread is kept.
+     * @param files List of pairs of paths: the source file and the file to which
+     *  the result is written
+     * @param executor The executor
+     * @return Statistics of processing
+     */
+    public Statistics run(final List<Pair<String, String>> files,
+        final ExecutorService executor) {
+        final Statistics statistics = new Statistics();
+        final Semaphore permits = new Semaphore(this.capacity);
+        try {
+            for (final Pair<String, String> file : files) {
+                permits.acquire();
+                this.submit(executor, file, statistics, permits);
+            }
+        } catch (final InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } finally {
+            permits.acquireUninterruptibly(this.capacity);
+        }
+        statistics.finish();
+        return statistics;
+    }
+
+    /**
+     * Submits a task that processes a file.
+     * @param executor The executor
+     * @param file Paths of the source and the resulting file
+     * @param statistics Statistics of processing
+     * @param permits Permits to process files, one of which is released when the task ends
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private void submit(final ExecutorService executor, final Pair<String, String> file,
+        final Statistics statistics, final Semaphore permits) {
+        boolean submitted = false;
+        try {
+            executor.execute(
+                () -> {
+                    try {
+                        this.process(file, statistics);
+                    } finally {
+                        permits.release();
+                    }
+                }
+            );
+            submitted = true;
+        } catch (final RejectedExecutionException ignored) {
+            statistics.complete(file.getKey(), false);
+        } finally {
+            if (!submitted) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Processes a file.
+     * The file is deserialized directly from the stream, without reading its content
+     *  into a string. Any exception thrown while processing the file, including exceptions
+     *  thrown by the transformation, marks the file as failed and does not affect
+     *  other files.
+     * @param file Paths of the source and the resulting file
+     * @param statistics Statistics of processing
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void process(final Pair<String, String> file, final Statistics statistics) {
+        boolean success = false;
+        long mark = System.nanoTime();
+        try (InputStream stream = Files.newInputStream(Paths.get(file.getKey()))) {
+            mark = statistics.measure(Stage.READ, mark);
+            final Node tree = new JsonStreamDeserializer(stream, this.selector).convert();
+            mark = statistics.measure(Stage.DESERIALIZE, mark);
+            final Node result = this.transform(tree);
+            mark = statistics.measure(Stage.TRANSFORM, mark);
+            if (!(result instanceof EmptyTree)) {
+                success = new JsonSerializer(result).serializeToFile(file.getValue());
+                statistics.measure(Stage.SERIALIZE, mark);
+            }
+            // @checkstyle IllegalCatchCheck (1 line)
+        } catch (final IOException | RuntimeException ignored) {
+            success = false;
+        } finally {
+            statistics.complete(file.getKey(), success);
+        }
+    }
+
+    /**
+     * Transforms a tree, unless it is empty.
+     * @param tree The tree
+     * @return Transformed tree or empty tree
+     */
+    private Node transform(final Node tree) {
+        Node result = EmptyTree.INSTANCE;
+        if (!(tree instanceof EmptyTree)) {
+            result = this.function.apply(tree);
+        }
+        return result;
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread for each task, if the Java runtime
+     *  supports virtual threads, or a pool containing a thread per processor otherwise.
+     * @return The executor
+     */
+    private static ExecutorService createExecutor() {
+        ExecutorService result;
+        try {
+            final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            result = (ExecutorService) method.invoke(null);
+        } catch (final ReflectiveOperationException | UnsupportedOperationException ignored) {
+            result = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+        return result;
+    }
+
+    /**
+     * Stage of processing of a file.
+     *
+     * @since 1.1.5
+     */
+    public enum Stage {
+        /**
+         * Opening of the source file. The file is read while the tree is deserialized,
+         *  so the time of reading is included in the time of deserialization.
+         */
+        READ,
+
+        /**
+         * Deserialization of the tree.
+         */
+        DESERIALIZE,
+
+        /**
+         * Transformation of the tree.
+         */
+        TRANSFORM,
+
+        /**
+         * Serialization of the tree to the resulting file.
+         */
+        SERIALIZE
+    }
+
+    /**
+     * Statistics of processing of files.
+     *
+     * @since 1.1.5
+     */
+    public static final class Statistics {
+        /**
+         * Time of the start of processing, in nanoseconds.
+         */
+        private final long start;
+
+        /**
+         * Total time spent on each stage by all tasks, in nanoseconds.
+         */
+        private final AtomicLongArray times;
+
+        /**
+         * Number of successfully processed files.
+         */
+        private final AtomicInteger processed;
+
+        /**
+         * Paths of the files that could not be processed.
+         */
+        private final Queue<String> failed;
+
+        /**
+         * Elapsed time of processing, in nanoseconds.
+         */
+        private long elapsed;
+
+        /**
+         * Constructor.
+         */
+        private Statistics() {
+            this.start = System.nanoTime();
+            this.times = new AtomicLongArray(Stage.values().length);
+            this.processed = new AtomicInteger();
+            this.failed = new ConcurrentLinkedQueue<>();
+        }
+
+        /**
+         * Returns the number of successfully processed files.
+         * @return Number of files
+         */
+        public int getProcessed() {
+            return this.processed.get();
+        }
+
+        /**
+         * Returns the paths of the files that could not be processed.
+         * @return List of paths of the source files
+         */
+        public List<String> getFailed() {
+            return new ArrayList<>(this.failed);
+        }
+
+        /**
+         * Returns the total time spent on a stage by all tasks.
+         * Since tasks are executed in parallel, the sum of times of all stages may exceed
+         *  the elapsed time.
+         * @param stage The stage
+         * @return Time in nanoseconds
+         */
+        public long getTime(final Stage stage) {
+            return this.times.get(stage.ordinal());
+        }
+
+        /**
+         * Returns the elapsed time of processing of all files.
+         * @return Time in nanoseconds
+         */
+        public long getElapsedTime() {
+            return this.elapsed;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder(128);
+            builder.append(
+                String.format(
+                    "processed: %d, failed: %d, elapsed: %d ms",
+                    this.processed.get(),
+                    this.failed.size(),
+                    this.elapsed / 1_000_000
+                )
+            );
+            for (final Stage stage : Stage.values()) {
+                builder.append(
+                    String.format(
+                        ", %s: %d ms",
+                        stage.name().toLowerCase(Locale.ENGLISH),
+                        this.getTime(stage) / 1_000_000
+                    )
+                );
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Adds the time elapsed since a mark to the time of a stage.
+         * @param stage The stage
+         * @param mark The mark, in nanoseconds
+         * @return The current time, which is the mark for the next stage
+         */
+        private long measure(final Stage stage, final long mark) {
+            final long now = System.nanoTime();
+            this.times.addAndGet(stage.ordinal(), now - mark);
+            return now;
+        }
+
+        /**
+         * Registers the end of processing of a file.
+         * @param path Path of the source file
+         * @param success Flag indicating that the file was successfully processed
+         */
+        private void complete(final String path, final boolean success) {
+            if (success) {
+                this.processed.incrementAndGet();
+            } else {
+                this.failed.add(path);
+            }
+        }
+
+        /**
+         * Registers the end of processing of all files.
+         */
+        private void finish() {
+            this.elapsed = System.nanoTime() - this.start;
+        }
+    }
+}
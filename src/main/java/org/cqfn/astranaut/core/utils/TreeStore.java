@@ -0,0 +1,681 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cqfn.astranaut.core.EmptyFragment;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.FactorySelector;
+import org.cqfn.astranaut.core.Fragment;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.Type;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
+import org.cqfn.astranaut.core.algorithms.hash.AbsoluteHash;
+
+/**
+ * Stores a tree in a binary file and opens it through memory mapping, so that trees
+ *  larger than the heap can be processed.
+ * The file contains nodes in breadth-first order as columns of integers (type, data,
+ *  index of the first child) followed by a pool of strings. When the file is opened,
+ *  only the types are read; the nodes are views that read their properties from
+ *  the mapped file on demand.
+ * The views do not keep references to each other, so a node obtained twice is represented
+ *  by two equal, but not identical objects: views are equal and have the same hash code
+ *  if they represent the same node of the same file, and a view that is no longer used
+ *  is collected by the garbage collector. So, stored nodes can be keys of hash-based
+ *  collections such as {@link java.util.HashMap}, but algorithms that cache results by node
+ *  identity do not benefit from the cache and keep every visited view in it. To hash
+ *  a stored tree, use {@link AbsoluteHash#calculateTransient(Node)}, which does not cache
+ *  hashes of visited nodes; mapping algorithms, which rely on node identity, should be
+ *  applied to subtrees copied into memory. Fragments are not stored, and difference trees
+ *  are stored as regular trees.
+ *
+ * @since 1.1.5
+ */
+public final class TreeStore {
+    /**
+     * Signature of the file.
+     */
+    private static final int MAGIC = 0x41535454;
+
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Size of the file header, in bytes.
+     */
+    private static final int HEADER = 24;
+
+    /**
+     * Size of a mapped segment of the file, in bytes.
+     */
+    private static final long SEGMENT = 1L << 30;
+
+    /**
+     * The 'language' string.
+     */
+    private static final String STR_LANGUAGE = "language";
+
+    /**
+     * The file path.
+     */
+    private final Path path;
+
+    /**
+     * Constructor.
+     * @param path The path as a string
+     */
+    public TreeStore(final String path) {
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * Writes the tree to the file.
+     * The tree is traversed twice: the first pass collects types and strings, the second one
+     *  writes the nodes directly to the file. Apart from the pool of distinct strings,
+     *  only the queue of nodes of the breadth-first traversal is kept in memory, so the
+     *  size of the written tree is limited by the size of its widest part rather than by
+     *  the size of the whole tree; the source tree itself may be a tree opened from
+     *  another file.
+     * @param root The root node
+     * @throws IOException If the file can't be written
+     */
+    public void write(final Node root) throws IOException {
+        final Path dir = this.path.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        final Layout layout = Layout.build(root);
+        try (FileChannel channel = FileChannel.open(
+            this.path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE
+        )) {
+            layout.write(root, channel);
+        }
+    }
+
+    /**
+     * Opens the tree stored in the file.
+     * @param selector The factory selector, which provides types of nodes
+     * @return Root node of the tree, or an empty tree if there is no factory
+     *  for the language of the tree
+     * @throws IOException If the file can't be read or has an unknown format
+     */
+    public Node open(final FactorySelector selector) throws IOException {
+        final Storage storage;
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            storage = new Storage(TreeStore.map(channel));
+        }
+        final Factory factory = selector.select(storage.getString(storage.getInt(20)));
+        Node result = EmptyTree.INSTANCE;
+        if (factory != null) {
+            storage.resolveTypes(factory);
+            result = new View(storage, 0);
+        }
+        return result;
+    }
+
+    /**
+     * Maps the whole file into memory as a sequence of segments.
+     * @param channel The file channel
+     * @return Array of mapped segments
+     * @throws IOException If the file can't be mapped or has an unknown format
+     */
+    private static MappedByteBuffer[] map(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final MappedByteBuffer[] segments =
+            new MappedByteBuffer[(int) ((size + TreeStore.SEGMENT - 1) / TreeStore.SEGMENT)];
+        for (int index = 0; index < segments.length; index = index + 1) {
+            final long start = index * TreeStore.SEGMENT;
+            segments[index] = channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                start,
+                Math.min(TreeStore.SEGMENT, size - start)
+            );
+        }
+        if (size < TreeStore.HEADER || segments[0].getInt(0) != TreeStore.MAGIC
+            || segments[0].getInt(4) != TreeStore.VERSION) {
+            throw new IOException("Unknown format of the tree file");
+        }
+        return segments;
+    }
+
+    /**
+     * Rounds the offset up to a multiple of eight.
+     * @param offset The offset
+     * @return Aligned offset
+     */
+    private static long align(final long offset) {
+        return offset + 7 & ~7L;
+    }
+
+    /**
+     * Types and strings of the tree, collected from the source tree by the first pass
+     *  of the writer.
+     *
+     * @since 1.1.5
+     */
+    private static final class Layout implements DepthFirstWalker.Visitor {
+        /**
+         * Initial capacity of lists.
+         */
+        private static final int INITIAL_CAPACITY = 64;
+
+        /**
+         * Pool of strings.
+         */
+        private final List<String> strings;
+
+        /**
+         * Identifiers of strings.
+         */
+        private final Map<String, Integer> sids;
+
+        /**
+         * String identifiers of type names, by type identifiers.
+         */
+        private final List<Integer> types;
+
+        /**
+         * Type identifiers by type names.
+         */
+        private final Map<String, Integer> tids;
+
+        /**
+         * Number of nodes.
+         */
+        private int count;
+
+        /**
+         * The programming language of the tree.
+         */
+        private String language;
+
+        /**
+         * Constructor.
+         */
+        private Layout() {
+            this.strings = new ArrayList<>(Layout.INITIAL_CAPACITY);
+            this.sids = new HashMap<>();
+            this.types = new ArrayList<>(Layout.INITIAL_CAPACITY);
+            this.tids = new HashMap<>();
+            this.language = "";
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            this.intern(node.getType());
+            this.intern(node.getData());
+            return true;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            this.count = this.count + 1;
+        }
+
+        /**
+         * Collects types and strings of the tree.
+         * @param root The root node
+         * @return The layout
+         */
+        private static Layout build(final Node root) {
+            final Layout layout = new Layout();
+            new DepthFirstWalker(root).walk(layout);
+            layout.intern(layout.language);
+            return layout;
+        }
+
+        /**
+         * Writes the tree to a file channel. Nodes are written in breadth-first order,
+         *  each column through its own buffer, so only the queue of nodes waiting
+         *  for their turn is kept in memory.
+         * @param root The root node
+         * @param channel The file channel
+         * @throws IOException If the file can't be written
+         */
+        private void write(final Node root, final FileChannel channel) throws IOException {
+            final Column header = new Column(channel, 0);
+            header.putInt(TreeStore.MAGIC);
+            header.putInt(TreeStore.VERSION);
+            header.putInt(this.count);
+            header.putInt(this.types.size());
+            header.putInt(this.strings.size() + 1);
+            header.putInt(this.sids.get(this.language));
+            for (final int name : this.types) {
+                header.putInt(name);
+            }
+            final long start = TreeStore.HEADER + 4L * this.types.size();
+            final Column type = new Column(channel, start);
+            final Column data = new Column(channel, start + 4L * this.count);
+            final Column first = new Column(channel, start + 8L * this.count);
+            final Deque<Node> queue = new ArrayDeque<>();
+            queue.add(root);
+            int next = 1;
+            while (!queue.isEmpty()) {
+                final Node node = queue.poll();
+                type.putInt(this.tids.get(node.getTypeName()));
+                data.putInt(this.sids.get(node.getData()));
+                first.putInt(next);
+                final int children = node.getChildCount();
+                for (int position = 0; position < children; position = position + 1) {
+                    queue.add(node.getChild(position));
+                }
+                next = next + children;
+            }
+            first.putInt(next);
+            final long end = start + 12L * this.count + 4;
+            for (long pad = end; pad < TreeStore.align(end); pad = pad + 1) {
+                first.putByte(0);
+            }
+            header.flush();
+            type.flush();
+            data.flush();
+            first.flush();
+            this.writeStrings(channel, TreeStore.align(end));
+        }
+
+        /**
+         * Writes the table of string offsets and the string bytes.
+         * @param channel The file channel
+         * @param start Offset of the table of string offsets
+         * @throws IOException If the file can't be written
+         */
+        private void writeStrings(final FileChannel channel, final long start)
+            throws IOException {
+            final Column offsets = new Column(channel, start);
+            final Column bytes = new Column(channel, start + 8L * (this.strings.size() + 1));
+            long offset = 0;
+            offsets.putLong(offset);
+            for (final String string : this.strings) {
+                final byte[] value = string.getBytes(StandardCharsets.UTF_8);
+                bytes.putBytes(value);
+                offset = offset + value.length;
+                offsets.putLong(offset);
+            }
+            offsets.flush();
+            bytes.flush();
+        }
+
+        /**
+         * Adds a type to the table if necessary.
+         * The language of the tree is taken from the first type that specifies it.
+         * @param value The type
+         */
+        private void intern(final Type value) {
+            if (!this.tids.containsKey(value.getName())) {
+                this.tids.put(value.getName(), this.types.size());
+                this.types.add(this.intern(value.getName()));
+                final String property = value.getProperty(TreeStore.STR_LANGUAGE);
+                if (this.language.isEmpty() && !"common".equals(property)) {
+                    this.language = property;
+                }
+            }
+        }
+
+        /**
+         * Returns the identifier of a string, adding the string to the pool if necessary.
+         * @param value The string
+         * @return String identifier
+         */
+        private int intern(final String value) {
+            Integer id = this.sids.get(value);
+            if (id == null) {
+                id = this.strings.size();
+                this.strings.add(value);
+                this.sids.put(value, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Buffered writer of a contiguous region of a file.
+     *
+     * @since 1.1.5
+     */
+    private static final class Column {
+        /**
+         * Size of the buffer, in bytes.
+         */
+        private static final int BUFFER_SIZE = 1 << 16;
+
+        /**
+         * The file channel.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The buffer.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Offset in the file at which the content of the buffer will be written.
+         */
+        private long position;
+
+        /**
+         * Constructor.
+         * @param channel The file channel
+         * @param position Offset of the region in the file
+         */
+        private Column(final FileChannel channel, final long position) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(Column.BUFFER_SIZE);
+            this.position = position;
+        }
+
+        /**
+         * Writes a byte.
+         * @param value The byte
+         * @throws IOException If the file can't be written
+         */
+        private void putByte(final int value) throws IOException {
+            this.reserve(1);
+            this.buffer.put((byte) value);
+        }
+
+        /**
+         * Writes an integer.
+         * @param value The integer
+         * @throws IOException If the file can't be written
+         */
+        private void putInt(final int value) throws IOException {
+            this.reserve(4);
+            this.buffer.putInt(value);
+        }
+
+        /**
+         * Writes a long integer.
+         * @param value The integer
+         * @throws IOException If the file can't be written
+         */
+        private void putLong(final long value) throws IOException {
+            this.reserve(8);
+            this.buffer.putLong(value);
+        }
+
+        /**
+         * Writes an array of bytes.
+         * @param value The array
+         * @throws IOException If the file can't be written
+         */
+        private void putBytes(final byte... value) throws IOException {
+            int offset = 0;
+            while (offset < value.length) {
+                this.reserve(1);
+                final int length = Math.min(value.length - offset, this.buffer.remaining());
+                this.buffer.put(value, offset, length);
+                offset = offset + length;
+            }
+        }
+
+        /**
+         * Writes the content of the buffer to the file.
+         * @throws IOException If the file can't be written
+         */
+        private void flush() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.position = this.position + this.channel.write(this.buffer, this.position);
+            }
+            this.buffer.clear();
+        }
+
+        /**
+         * Makes sure that the buffer has room for the specified number of bytes.
+         * @param count Number of bytes
+         * @throws IOException If the file can't be written
+         */
+        private void reserve(final int count) throws IOException {
+            if (this.buffer.remaining() < count) {
+                this.flush();
+            }
+        }
+    }
+
+    /**
+     * The mapped file.
+     *
+     * @since 1.1.5
+     */
+    private static final class Storage {
+        /**
+         * Mapped segments of the file.
+         */
+        private final MappedByteBuffer[] segments;
+
+        /**
+         * Offset of the column of types of nodes.
+         */
+        private final long types;
+
+        /**
+         * Offset of the column of data of nodes.
+         */
+        private final long data;
+
+        /**
+         * Offset of the column of indexes of first children of nodes.
+         */
+        private final long first;
+
+        /**
+         * Offset of the table of string offsets.
+         */
+        private final long offsets;
+
+        /**
+         * Offset of the string bytes.
+         */
+        private final long bytes;
+
+        /**
+         * Types of nodes, by type identifiers.
+         */
+        private Type[] resolved;
+
+        /**
+         * Constructor.
+         * @param segments Mapped segments of the file
+         */
+        private Storage(final MappedByteBuffer... segments) {
+            this.segments = segments.clone();
+            this.types = TreeStore.HEADER + 4L * segments[0].getInt(12);
+            this.data = this.types + 4L * segments[0].getInt(8);
+            this.first = this.data + 4L * segments[0].getInt(8);
+            this.offsets = TreeStore.align(this.first + 4L * segments[0].getInt(8) + 4);
+            this.bytes = this.offsets + 8L * segments[0].getInt(16);
+        }
+
+        /**
+         * Reads the types of the tree using the factory.
+         * @param factory The factory
+         */
+        private void resolveTypes(final Factory factory) {
+            final int count = this.getInt(12);
+            this.resolved = new Type[count];
+            for (int index = 0; index < count; index = index + 1) {
+                this.resolved[index] = factory.getType(
+                    this.getString(this.getInt(TreeStore.HEADER + 4L * index))
+                );
+            }
+        }
+
+        /**
+         * Returns the type of a node.
+         * @param node Index of the node
+         * @return The type
+         */
+        private Type getType(final int node) {
+            return this.resolved[this.getInt(this.types + 4L * node)];
+        }
+
+        /**
+         * Returns the data of a node.
+         * @param node Index of the node
+         * @return The data
+         */
+        private String getData(final int node) {
+            return this.getString(this.getInt(this.data + 4L * node));
+        }
+
+        /**
+         * Returns the index of the first child of a node.
+         * @param node Index of the node
+         * @return Index of the first child
+         */
+        private int getFirstChild(final int node) {
+            return this.getInt(this.first + 4L * node);
+        }
+
+        /**
+         * Reads a string from the pool.
+         * @param id String identifier
+         * @return The string
+         */
+        private String getString(final int id) {
+            final long start = this.getLong(this.offsets + 8L * id);
+            final int length = (int) (this.getLong(this.offsets + 8L * id + 8) - start);
+            final byte[] buffer = new byte[length];
+            for (int index = 0; index < length; index = index + 1) {
+                final long offset = this.bytes + start + index;
+                buffer[index] = this.segments[(int) (offset / TreeStore.SEGMENT)]
+                    .get((int) (offset % TreeStore.SEGMENT));
+            }
+            return new String(buffer, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads an integer from the file. Integers are aligned to four bytes,
+         *  so they never cross the boundary of a segment.
+         * @param offset Offset of the integer
+         * @return The integer
+         */
+        private int getInt(final long offset) {
+            return this.segments[(int) (offset / TreeStore.SEGMENT)]
+                .getInt((int) (offset % TreeStore.SEGMENT));
+        }
+
+        /**
+         * Reads a long integer from the file. Long integers are aligned to eight bytes,
+         *  so they never cross the boundary of a segment.
+         * @param offset Offset of the integer
+         * @return The integer
+         */
+        private long getLong(final long offset) {
+            return this.segments[(int) (offset / TreeStore.SEGMENT)]
+                .getLong((int) (offset % TreeStore.SEGMENT));
+        }
+    }
+
+    /**
+     * View of a node stored in the file.
+     * Views are equal if they represent the same node of the same file.
+     *
+     * @since 1.1.5
+     */
+    private static final class View implements Node {
+        /**
+         * The mapped file.
+         */
+        private final Storage storage;
+
+        /**
+         * Index of the node.
+         */
+        private final int index;
+
+        /**
+         * Constructor.
+         * @param storage The mapped file
+         * @param index Index of the node
+         */
+        private View(final Storage storage, final int index) {
+            this.storage = storage;
+            this.index = index;
+        }
+
+        @Override
+        public Fragment getFragment() {
+            return EmptyFragment.INSTANCE;
+        }
+
+        @Override
+        public Type getType() {
+            return this.storage.getType(this.index);
+        }
+
+        @Override
+        public String getData() {
+            return this.storage.getData(this.index);
+        }
+
+        @Override
+        public int getChildCount() {
+            return this.storage.getFirstChild(this.index + 1)
+                - this.storage.getFirstChild(this.index);
+        }
+
+        @Override
+        public Node getChild(final int position) {
+            if (position < 0 || position >= this.getChildCount()) {
+                throw new IndexOutOfBoundsException();
+            }
+            return new View(this.storage, this.storage.getFirstChild(this.index) + position);
+        }
+
+        @Override
+        @SuppressWarnings("PMD.CompareObjectsWithEquals")
+        public boolean equals(final Object obj) {
+            return obj instanceof View && ((View) obj).storage == this.storage
+                && ((View) obj).index == this.index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.storage) * 31 + this.index;
+        }
+    }
+}
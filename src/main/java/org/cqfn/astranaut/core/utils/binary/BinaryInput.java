@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.binary;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader of values written by {@link BinaryOutput} from an array of bytes.
+ * Methods throw {@link IllegalArgumentException} if the data is malformed or truncated.
+ *
+ * @since 1.1.5
+ */
+public final class BinaryInput {
+    /**
+     * The array of bytes.
+     */
+    private final byte[] buffer;
+
+    /**
+     * Index of the byte after the last one that can be read.
+     */
+    private final int limit;
+
+    /**
+     * Index of the next byte to be read.
+     */
+    private int position;
+
+    /**
+     * Constructor.
+     * @param buffer The array of bytes
+     */
+    public BinaryInput(final byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    /**
+     * Constructor.
+     * @param buffer The array of bytes
+     * @param offset Index of the first byte to be read
+     * @param limit Index of the byte after the last one that can be read
+     */
+    @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+    public BinaryInput(final byte[] buffer, final int offset, final int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * Checks whether there are bytes that have not been read yet.
+     * @return Checking result
+     */
+    public boolean hasMore() {
+        return this.position < this.limit;
+    }
+
+    /**
+     * Returns the number of bytes that have not been read yet.
+     * @return Number of bytes
+     */
+    public int available() {
+        return this.limit - this.position;
+    }
+
+    /**
+     * Reads a byte.
+     * @return The byte as an unsigned value
+     */
+    public int readByte() {
+        this.require(1);
+        final int value = this.buffer[this.position] & 0xFF;
+        this.position = this.position + 1;
+        return value;
+    }
+
+    /**
+     * Reads a non-negative integer written as a variable-length quantity.
+     * @return The integer
+     */
+    public int readVarInt() {
+        int value = 0;
+        int shift = 0;
+        int current = 0x80;
+        while ((current & 0x80) != 0) {
+            if (shift > 28) {
+                throw new IllegalArgumentException("Malformed variable-length integer");
+            }
+            current = this.readByte();
+            value = value | (current & 0x7F) << shift;
+            shift = shift + 7;
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative variable-length integer");
+        }
+        return value;
+    }
+
+    /**
+     * Reads a sequence of bytes into an array.
+     * @param target The array
+     * @param offset Offset in the array
+     * @param length Number of bytes to be read
+     */
+    public void readBytes(final byte[] target, final int offset, final int length) {
+        this.require(length);
+        System.arraycopy(this.buffer, this.position, target, offset, length);
+        this.position = this.position + length;
+    }
+
+    /**
+     * Reads a string.
+     * @return The string
+     */
+    public String readString() {
+        final int length = this.readVarInt();
+        this.require(length);
+        final String value = new String(this.buffer, this.position, length, StandardCharsets.UTF_8);
+        this.position = this.position + length;
+        return value;
+    }
+
+    /**
+     * Makes sure that the specified number of bytes can be read.
+     * @param count Number of bytes
+     */
+    private void require(final int count) {
+        if (count > this.limit - this.position) {
+            throw new IllegalArgumentException("Unexpected end of binary data");
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.binary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growing array of bytes to which values are written in the binary format.
+ * Non-negative integers are written as variable-length quantities, seven bits per byte,
+ *  starting from the lowest ones; strings are written as their length in bytes followed
+ *  by their UTF-8 representation.
+ *
+ * @since 1.1.5
+ */
+public final class BinaryOutput {
+    /**
+     * Initial capacity of the array.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * The array of bytes.
+     */
+    private byte[] buffer;
+
+    /**
+     * Number of written bytes.
+     */
+    private int written;
+
+    /**
+     * Constructor.
+     */
+    public BinaryOutput() {
+        this.buffer = new byte[BinaryOutput.INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the number of written bytes.
+     * @return Number of bytes
+     */
+    public int size() {
+        return this.written;
+    }
+
+    /**
+     * Writes a byte.
+     * @param value The byte (only the lowest eight bits are written)
+     */
+    public void writeByte(final int value) {
+        this.ensureCapacity(1);
+        this.buffer[this.written] = (byte) value;
+        this.written = this.written + 1;
+    }
+
+    /**
+     * Writes a non-negative integer as a variable-length quantity.
+     * @param value The integer
+     */
+    public void writeVarInt(final int value) {
+        this.ensureCapacity(5);
+        int rest = value;
+        while ((rest & ~0x7F) != 0) {
+            this.buffer[this.written] = (byte) (rest & 0x7F | 0x80);
+            this.written = this.written + 1;
+            rest = rest >>> 7;
+        }
+        this.buffer[this.written] = (byte) rest;
+        this.written = this.written + 1;
+    }
+
+    /**
+     * Writes a part of an array of bytes.
+     * @param bytes The array
+     * @param offset Offset of the first byte to be written
+     * @param length Number of bytes to be written
+     */
+    public void writeBytes(final byte[] bytes, final int offset, final int length) {
+        this.ensureCapacity(length);
+        System.arraycopy(bytes, offset, this.buffer, this.written, length);
+        this.written = this.written + length;
+    }
+
+    /**
+     * Writes a string.
+     * @param value The string
+     */
+    public void writeString(final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.writeVarInt(bytes.length);
+        this.writeBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes all bytes written to another output.
+     * @param other The other output
+     */
+    public void writeAll(final BinaryOutput other) {
+        this.writeBytes(other.buffer, 0, other.written);
+    }
+
+    /**
+     * Returns the written bytes.
+     * @return A new array containing the written bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.written);
+    }
+
+    /**
+     * Returns a byte that has already been written.
+     * @param index Index of the byte
+     * @return The byte
+     */
+    byte getByte(final int index) {
+        return this.buffer[index];
+    }
+
+    /**
+     * Makes sure that the specified number of bytes can be written without growing the array.
+     * @param count Number of bytes
+     */
+    private void ensureCapacity(final int count) {
+        if (this.written + count > this.buffer.length) {
+            this.buffer = Arrays.copyOf(
+                this.buffer,
+                Math.max(this.buffer.length * 2, this.written + count)
+            );
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.binary;
+
+import java.util.Arrays;
+
+/**
+ * Block compression in the style of LZ4.
+ * Data is split into blocks of 64 kilobytes, each of which is compressed independently.
+ *  A compressed block is a sequence of tokens: a number of literal bytes, the literal bytes
+ *  themselves, and a back reference to a match (its offset and length). A block that can't
+ *  be compressed is stored as it is. The compression is fast and works well for serialized
+ *  trees, which contain a lot of repeating sequences.
+ *
+ * @since 1.1.5
+ */
+public final class BlockCodec {
+    /**
+     * The instance.
+     */
+    public static final BlockCodec INSTANCE = new BlockCodec();
+
+    /**
+     * Maximum size of a block.
+     */
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    /**
+     * Minimum length of a match.
+     */
+    private static final int MIN_MATCH = 4;
+
+    /**
+     * Number of bits in the index of the hash table.
+     */
+    private static final int HASH_BITS = 12;
+
+    /**
+     * Number of bytes at the end of a block that are always written as literals.
+     */
+    private static final int TAIL = 5;
+
+    /**
+     * Maximum value of a four-bit length in a token.
+     */
+    private static final int NIBBLE = 15;
+
+    /**
+     * Marker of a block stored as it is.
+     */
+    private static final int STORED = 0;
+
+    /**
+     * Marker of a compressed block.
+     */
+    private static final int COMPRESSED = 1;
+
+    /**
+     * Private constructor.
+     */
+    private BlockCodec() {
+    }
+
+    /**
+     * Compresses data and writes it to the output.
+     * Each block is written as its original size, a marker, the size of the stored bytes
+     *  and the bytes; the sequence is terminated by zero.
+     * @param source The data
+     * @param length Number of bytes of the data
+     * @param output The output
+     * @checkstyle NonStaticMethodCheck (3 lines)
+     */
+    public void compress(final byte[] source, final int length,
+        final BinaryOutput output) {
+        final int[] table = new int[1 << BlockCodec.HASH_BITS];
+        final BinaryOutput block = new BinaryOutput();
+        for (int start = 0; start < length; start = start + BlockCodec.BLOCK_SIZE) {
+            final int end = Math.min(length, start + BlockCodec.BLOCK_SIZE);
+            Arrays.fill(table, -1);
+            final BinaryOutput compressed = new BinaryOutput();
+            BlockCodec.compressBlock(source, start, end, table, compressed);
+            block.writeVarInt(end - start);
+            if (compressed.size() < end - start) {
+                block.writeByte(BlockCodec.COMPRESSED);
+                block.writeVarInt(compressed.size());
+                block.writeAll(compressed);
+            } else {
+                block.writeByte(BlockCodec.STORED);
+                block.writeVarInt(end - start);
+                block.writeBytes(source, start, end - start);
+            }
+        }
+        block.writeVarInt(0);
+        output.writeAll(block);
+    }
+
+    /**
+     * Reads and decompresses data written by {@link #compress(byte[], int, BinaryOutput)}.
+     * Lengths read from the input are checked against the size of the block and the number
+     *  of remaining bytes before any buffer is allocated, so malformed data can't cause
+     *  allocation of a huge array.
+     * @param input The input
+     * @return The decompressed data
+     * @checkstyle NonStaticMethodCheck (2 lines)
+     */
+    public byte[] decompress(final BinaryInput input) {
+        final BinaryOutput output = new BinaryOutput();
+        for (int size = input.readVarInt(); size > 0; size = input.readVarInt()) {
+            if (size > BlockCodec.BLOCK_SIZE) {
+                throw new IllegalArgumentException("Block is too large");
+            }
+            final int marker = input.readByte();
+            final byte[] bytes = BlockCodec.readBlock(input, size);
+            if (marker == BlockCodec.COMPRESSED) {
+                BlockCodec.decompressBlock(new BinaryInput(bytes), size, output);
+            } else if (marker == BlockCodec.STORED && bytes.length == size) {
+                output.writeBytes(bytes, 0, size);
+            } else {
+                throw new IllegalArgumentException("Malformed block");
+            }
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Reads the stored bytes of a block, checking their number before allocating a buffer.
+     * @param input The input
+     * @param size Size of the decompressed block
+     * @return The stored bytes
+     */
+    private static byte[] readBlock(final BinaryInput input, final int size) {
+        final int length = input.readVarInt();
+        if (length > size || length > input.available()) {
+            throw new IllegalArgumentException("Malformed block");
+        }
+        final byte[] bytes = new byte[length];
+        input.readBytes(bytes, 0, length);
+        return bytes;
+    }
+
+    /**
+     * Compresses a block.
+     * @param source The data
+     * @param start Index of the first byte of the block
+     * @param end Index of the byte after the last byte of the block
+     * @param table Hash table containing the last positions of four-byte sequences
+     * @param output The output
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private static void compressBlock(final byte[] source, final int start, final int end,
+        final int[] table, final BinaryOutput output) {
+        int anchor = start;
+        int position = start;
+        final int limit = end - BlockCodec.TAIL - BlockCodec.MIN_MATCH;
+        while (position < limit) {
+            final int sequence = BlockCodec.readInt(source, position);
+            final int hash = sequence * -1_640_531_535 >>> 32 - BlockCodec.HASH_BITS;
+            final int candidate = table[hash];
+            table[hash] = position;
+            if (candidate >= 0 && BlockCodec.readInt(source, candidate) == sequence) {
+                int length = BlockCodec.MIN_MATCH;
+                while (position + length < end - BlockCodec.TAIL
+                    && source[candidate + length] == source[position + length]) {
+                    length = length + 1;
+                }
+                BlockCodec.writeSequence(source, anchor, position - anchor, output);
+                output.writeByte(position - candidate);
+                output.writeByte(position - candidate >>> 8);
+                BlockCodec.writeLength(length - BlockCodec.MIN_MATCH, output);
+                position = position + length;
+                anchor = position;
+            } else {
+                position = position + 1;
+            }
+        }
+        BlockCodec.writeSequence(source, anchor, end - anchor, output);
+    }
+
+    /**
+     * Writes a token and literal bytes.
+     * The token contains the number of literals in the high four bits (if there are
+     *  fifteen or more literals, the rest of the number follows the token). Unlike LZ4,
+     *  the length of the match is always written separately after its offset.
+     * @param source The data
+     * @param offset Index of the first literal byte
+     * @param count Number of literal bytes
+     * @param output The output
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private static void writeSequence(final byte[] source, final int offset, final int count,
+        final BinaryOutput output) {
+        output.writeByte(Math.min(count, BlockCodec.NIBBLE) << 4);
+        if (count >= BlockCodec.NIBBLE) {
+            BlockCodec.writeLength(count - BlockCodec.NIBBLE, output);
+        }
+        output.writeBytes(source, offset, count);
+    }
+
+    /**
+     * Writes a length as a sequence of bytes of 255 terminated by a smaller byte.
+     * @param length The length
+     * @param output The output
+     */
+    private static void writeLength(final int length, final BinaryOutput output) {
+        int rest = length;
+        while (rest >= 255) {
+            output.writeByte(255);
+            rest = rest - 255;
+        }
+        output.writeByte(rest);
+    }
+
+    /**
+     * Decompresses a block.
+     * @param input The compressed block
+     * @param size Size of the decompressed block
+     * @param output The output
+     */
+    private static void decompressBlock(final BinaryInput input, final int size,
+        final BinaryOutput output) {
+        final int start = output.size();
+        while (input.hasMore()) {
+            int count = input.readByte() >>> 4;
+            if (count == BlockCodec.NIBBLE) {
+                count = count + BlockCodec.readLength(input);
+            }
+            if (count > input.available() || output.size() - start + count > size) {
+                throw new IllegalArgumentException("Malformed literals");
+            }
+            final byte[] literals = new byte[count];
+            input.readBytes(literals, 0, count);
+            output.writeBytes(literals, 0, count);
+            if (input.hasMore()) {
+                final int distance = input.readByte() | input.readByte() << 8;
+                final int length = BlockCodec.readLength(input) + BlockCodec.MIN_MATCH;
+                BlockCodec.copyMatch(output, start, distance, length);
+            }
+        }
+        if (output.size() - start != size) {
+            throw new IllegalArgumentException("Wrong size of a decompressed block");
+        }
+    }
+
+    /**
+     * Copies a match from the already decompressed data. The match may overlap
+     *  the bytes being written, so the bytes are copied one by one.
+     * @param output The output
+     * @param start Index of the first byte of the block in the output
+     * @param distance Distance from the current position to the match
+     * @param length Length of the match
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private static void copyMatch(final BinaryOutput output, final int start,
+        final int distance, final int length) {
+        final int from = output.size() - distance;
+        final int total = output.size() - start + length;
+        if (distance == 0 || from < start || total > BlockCodec.BLOCK_SIZE) {
+            throw new IllegalArgumentException("Malformed match");
+        }
+        for (int index = 0; index < length; index = index + 1) {
+            output.writeByte(output.getByte(from + index));
+        }
+    }
+
+    /**
+     * Reads a length written as a sequence of bytes of 255 terminated by a smaller byte.
+     * @param input The input
+     * @return The length
+     */
+    private static int readLength(final BinaryInput input) {
+        int length = 0;
+        int current = 255;
+        while (current == 255) {
+            current = input.readByte();
+            length = length + current;
+        }
+        return length;
+    }
+
+    /**
+     * Reads four bytes as an integer.
+     * @param source The data
+     * @param offset Index of the first byte
+     * @return The integer
+     */
+    private static int readInt(final byte[] source, final int offset) {
+        int result = 0;
+        for (int index = 3; index >= 0; index = index - 1) {
+            result = result << 8 | source[offset + index] & 0xFF;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.binary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary of strings that is filled while strings are written or read.
+ * The first occurrence of a string is written as zero followed by the string itself,
+ *  and the following ones are written as the number of the string in the dictionary
+ *  plus one, so no separate table of strings is needed.
+ *
+ * @since 1.1.5
+ */
+public final class Dictionary {
+    /**
+     * Strings in the order they were added.
+     */
+    private final List<String> strings;
+
+    /**
+     * Numbers of strings.
+     */
+    private final Map<String, Integer> numbers;
+
+    /**
+     * Constructor.
+     */
+    public Dictionary() {
+        this.strings = new ArrayList<>(16);
+        this.numbers = new HashMap<>();
+    }
+
+    /**
+     * Writes a string, adding it to the dictionary if it is not there.
+     * @param output The output
+     * @param value The string
+     */
+    public void write(final BinaryOutput output, final String value) {
+        final Integer number = this.numbers.get(value);
+        if (number == null) {
+            output.writeVarInt(0);
+            output.writeString(value);
+            this.numbers.put(value, this.strings.size());
+            this.strings.add(value);
+        } else {
+            output.writeVarInt(number + 1);
+        }
+    }
+
+    /**
+     * Reads a string, adding it to the dictionary if it is read for the first time.
+     * @param input The input
+     * @return The string
+     */
+    public String read(final BinaryInput input) {
+        final int reference = input.readVarInt();
+        final String value;
+        if (reference == 0) {
+            value = input.readString();
+            this.strings.add(value);
+        } else if (reference <= this.strings.size()) {
+            value = this.strings.get(reference - 1);
+        } else {
+            throw new IllegalArgumentException("Reference to an unknown string");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.deserializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.cqfn.astranaut.core.Delete;
+import org.cqfn.astranaut.core.Insert;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.Replace;
+
+/**
+ * Collects deserialized children of a node.
+ * Actions found among the children are not added to the list as they are: instead,
+ *  the nodes they refer to are added to the list (if any), and the actions are added
+ *  to the list of actions, so that a difference tree can be built later.
+ *
+ * @since 1.1.5
+ */
+public final class ChildrenCollector {
+    /**
+     * List of actions to be added to the tree after deserialization.
+     */
+    private final ActionList actions;
+
+    /**
+     * List of child nodes.
+     */
+    private final List<Node> list;
+
+    /**
+     * Constructor.
+     * @param actions List of actions to be added to the tree after deserialization
+     *  to produce a difference tree
+     * @param capacity Expected number of children
+     */
+    public ChildrenCollector(final ActionList actions, final int capacity) {
+        this.actions = actions;
+        this.list = new ArrayList<>(capacity);
+    }
+
+    /**
+     * Adds a deserialized child.
+     * @param converted The child node
+     */
+    public void add(final Node converted) {
+        if (converted instanceof Insert) {
+            final Node node = ((Insert) converted).getAfter();
+            Node after = null;
+            final int size = this.list.size();
+            if (size > 0) {
+                after = this.list.get(size - 1);
+            }
+            this.actions.insertNodeAfter(node, null, after);
+        } else if (converted instanceof Replace) {
+            final Replace action = (Replace) converted;
+            final Node node = action.getBefore();
+            this.list.add(node);
+            this.actions.replaceNode(node, action.getAfter());
+        } else if (converted instanceof Delete) {
+            final Node node = ((Delete) converted).getBefore();
+            this.list.add(node);
+            this.actions.deleteNode(node);
+        } else {
+            this.list.add(converted);
+        }
+    }
+
+    /**
+     * Returns the list of collected children.
+     * @return List of child nodes
+     */
+    public List<Node> getList() {
+        return this.list;
+    }
+}
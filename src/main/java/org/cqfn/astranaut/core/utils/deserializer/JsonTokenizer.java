@@ -0,0 +1,446 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.deserializer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull tokenizer of JSON text.
+ * The text is read from a character stream through a buffer of fixed size, and tokens are
+ *  returned one by one, so the text is never kept in memory as a whole. Commas and colons
+ *  are checked by the tokenizer itself and are not returned: a string followed by a colon
+ *  is returned as a name. Malformed text causes an {@link IllegalArgumentException}.
+ *
+ * @since 1.1.5
+ */
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.GodClass"})
+public final class JsonTokenizer {
+    /**
+     * Size of the buffer.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Radix of hexadecimal digits of escape sequences.
+     */
+    private static final int HEX = 16;
+
+    /**
+     * The character stream.
+     */
+    private final Reader reader;
+
+    /**
+     * The buffer.
+     */
+    private final char[] buffer;
+
+    /**
+     * Text of the last string or literal, which is reused for each token.
+     */
+    @SuppressWarnings("PMD.AvoidStringBufferField")
+    private final StringBuilder text;
+
+    /**
+     * Index of the next character in the buffer.
+     */
+    private int position;
+
+    /**
+     * Number of characters in the buffer.
+     */
+    private int limit;
+
+    /**
+     * Number of characters read before the characters in the buffer.
+     */
+    private long offset;
+
+    /**
+     * Flag indicating that the last token has completed a value, so the next token
+     *  must be preceded by a comma unless it closes an object or an array.
+     */
+    private boolean pending;
+
+    /**
+     * Constructor.
+     * @param reader The character stream
+     */
+    public JsonTokenizer(final Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[JsonTokenizer.BUFFER_SIZE];
+        this.text = new StringBuilder();
+    }
+
+    /**
+     * Reads the next token.
+     * @return The token
+     * @throws IOException If the stream can't be read
+     */
+    public Token next() throws IOException {
+        this.separate();
+        final Token token;
+        switch (this.peek()) {
+            case -1:
+                token = Token.END;
+                break;
+            case '{':
+                token = this.single(Token.OBJECT_START);
+                break;
+            case '}':
+                token = this.single(Token.OBJECT_END);
+                break;
+            case '[':
+                token = this.single(Token.ARRAY_START);
+                break;
+            case ']':
+                token = this.single(Token.ARRAY_END);
+                break;
+            case '"':
+                this.readString();
+                token = this.detectName();
+                break;
+            default:
+                this.readLiteral();
+                token = Token.LITERAL;
+                break;
+        }
+        this.pending = token.completes();
+        return token;
+    }
+
+    /**
+     * Returns the text of the last string, name or literal.
+     * @return The text
+     */
+    public String getText() {
+        return this.text.toString();
+    }
+
+    /**
+     * Skips a value, including all nested objects and arrays.
+     * @throws IOException If the stream can't be read
+     */
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            final Token token = this.next();
+            if (token == Token.OBJECT_START || token == Token.ARRAY_START) {
+                depth = depth + 1;
+            } else if (token == Token.OBJECT_END || token == Token.ARRAY_END) {
+                depth = depth - 1;
+            } else if (token == Token.END) {
+                throw this.error("Unexpected end of text");
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Creates an exception describing malformed text at the current position.
+     * @param message The message
+     * @return The exception
+     */
+    public IllegalArgumentException error(final String message) {
+        return new IllegalArgumentException(
+            String.format("%s at position %d", message, this.offset + this.position)
+        );
+    }
+
+    /**
+     * Skips whitespace and a comma, checking that the comma is present where it is required.
+     * @throws IOException If the stream can't be read
+     */
+    private void separate() throws IOException {
+        int chr = this.skipSpaces();
+        final boolean comma = chr == ',';
+        if (comma) {
+            this.position = this.position + 1;
+            chr = this.skipSpaces();
+        }
+        final boolean closing = chr == '}' || chr == ']' || chr < 0;
+        if (comma != (this.pending && !closing)) {
+            throw this.error("Misplaced comma");
+        }
+    }
+
+    /**
+     * Consumes a single-character token.
+     * @param token The token
+     * @return The same token
+     */
+    private Token single(final Token token) {
+        this.position = this.position + 1;
+        return token;
+    }
+
+    /**
+     * Checks whether the string just read is followed by a colon, and consumes the colon.
+     * @return Token, which is a name if a colon follows the string
+     * @throws IOException If the stream can't be read
+     */
+    private Token detectName() throws IOException {
+        Token token = Token.STRING;
+        if (this.skipSpaces() == ':') {
+            this.position = this.position + 1;
+            token = Token.NAME;
+        }
+        return token;
+    }
+
+    /**
+     * Reads a string in quotes, replacing escape sequences with characters.
+     * @throws IOException If the stream can't be read
+     */
+    private void readString() throws IOException {
+        this.position = this.position + 1;
+        this.text.setLength(0);
+        boolean closed = false;
+        while (!closed) {
+            if (this.peek() < 0) {
+                throw this.error("Unclosed string");
+            }
+            final int start = this.position;
+            while (this.position < this.limit && this.buffer[this.position] != '"'
+                && this.buffer[this.position] != '\\') {
+                this.position = this.position + 1;
+            }
+            this.text.append(this.buffer, start, this.position - start);
+            closed = this.readSpecial();
+        }
+    }
+
+    /**
+     * Reads a closing quote or an escape sequence, if any.
+     * @return True if the closing quote has been read
+     * @throws IOException If the stream can't be read
+     */
+    private boolean readSpecial() throws IOException {
+        boolean closed = false;
+        if (this.position < this.limit) {
+            final char chr = this.buffer[this.position];
+            this.position = this.position + 1;
+            closed = chr == '"';
+            if (!closed) {
+                this.text.append(this.readEscape());
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Reads an escape sequence after a backslash.
+     * @return The character
+     * @throws IOException If the stream can't be read
+     */
+    private char readEscape() throws IOException {
+        final int chr = this.read();
+        final char result;
+        switch (chr) {
+            case '"':
+            case '\\':
+            case '/':
+                result = (char) chr;
+                break;
+            case 'b':
+                result = '\b';
+                break;
+            case 'f':
+                result = '\f';
+                break;
+            case 'n':
+                result = '\n';
+                break;
+            case 'r':
+                result = '\r';
+                break;
+            case 't':
+                result = '\t';
+                break;
+            case 'u':
+                result = this.readCode();
+                break;
+            default:
+                throw this.error("Wrong escape sequence");
+        }
+        return result;
+    }
+
+    /**
+     * Reads four hexadecimal digits of a character code.
+     * @return The character
+     * @throws IOException If the stream can't be read
+     */
+    private char readCode() throws IOException {
+        int code = 0;
+        for (int index = 0; index < 4; index = index + 1) {
+            final int digit = Character.digit(this.read(), JsonTokenizer.HEX);
+            if (digit < 0) {
+                throw this.error("Expected hexadecimal digit");
+            }
+            code = code * JsonTokenizer.HEX + digit;
+        }
+        return (char) code;
+    }
+
+    /**
+     * Reads a literal, that is, a number, {@code true}, {@code false} or {@code null}.
+     * @throws IOException If the stream can't be read
+     */
+    private void readLiteral() throws IOException {
+        this.text.setLength(0);
+        int chr = this.peek();
+        while (JsonTokenizer.isLiteralCharacter(chr)) {
+            this.text.append((char) chr);
+            this.position = this.position + 1;
+            chr = this.peek();
+        }
+        if (this.text.length() == 0) {
+            throw this.error("Unexpected character");
+        }
+    }
+
+    /**
+     * Checks whether a character can be a part of a literal.
+     * @param chr The character, or -1 if the end of the stream is reached
+     * @return Checking result
+     */
+    private static boolean isLiteralCharacter(final int chr) {
+        return Character.isLetterOrDigit(chr) || "+-.".indexOf(chr) >= 0;
+    }
+
+    /**
+     * Skips whitespace.
+     * @return The next character, or -1 if the end of the stream is reached
+     * @throws IOException If the stream can't be read
+     */
+    private int skipSpaces() throws IOException {
+        int chr = this.peek();
+        while (chr >= 0 && Character.isWhitespace(chr)) {
+            this.position = this.position + 1;
+            chr = this.peek();
+        }
+        return chr;
+    }
+
+    /**
+     * Reads the next character.
+     * @return The character
+     * @throws IOException If the stream can't be read
+     */
+    private int read() throws IOException {
+        final int chr = this.peek();
+        if (chr < 0) {
+            throw this.error("Unexpected end of text");
+        }
+        this.position = this.position + 1;
+        return chr;
+    }
+
+    /**
+     * Returns the next character without consuming it, filling the buffer if necessary.
+     * @return The character, or -1 if the end of the stream is reached
+     * @throws IOException If the stream can't be read
+     */
+    private int peek() throws IOException {
+        if (this.position == this.limit) {
+            this.offset = this.offset + this.limit;
+            this.position = 0;
+            this.limit = Math.max(this.reader.read(this.buffer), 0);
+        }
+        int chr = -1;
+        if (this.position < this.limit) {
+            chr = this.buffer[this.position];
+        }
+        return chr;
+    }
+
+    /**
+     * Token of JSON text.
+     *
+     * @since 1.1.5
+     */
+    public enum Token {
+        /**
+         * Opening curly bracket.
+         */
+        OBJECT_START(false),
+
+        /**
+         * Closing curly bracket.
+         */
+        OBJECT_END(true),
+
+        /**
+         * Opening square bracket.
+         */
+        ARRAY_START(false),
+
+        /**
+         * Closing square bracket.
+         */
+        ARRAY_END(true),
+
+        /**
+         * Name of a value in an object, that is, a string followed by a colon.
+         */
+        NAME(false),
+
+        /**
+         * String.
+         */
+        STRING(true),
+
+        /**
+         * Number, {@code true}, {@code false} or {@code null}.
+         */
+        LITERAL(true),
+
+        /**
+         * End of text.
+         */
+        END(false);
+
+        /**
+         * Flag indicating that the token completes a value.
+         */
+        private final boolean value;
+
+        /**
+         * Constructor.
+         * @param value Flag indicating that the token completes a value
+         */
+        Token(final boolean value) {
+            this.value = value;
+        }
+
+        /**
+         * Checks whether the token completes a value.
+         * @return Checking result
+         */
+        boolean completes() {
+            return this.value;
+        }
+    }
+}
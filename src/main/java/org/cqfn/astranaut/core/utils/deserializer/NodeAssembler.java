@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.deserializer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.cqfn.astranaut.core.Builder;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+
+/**
+ * Creates nodes as soon as they are read by a streaming deserializer.
+ * Only the children of the nodes on the current path are kept, so the memory used
+ *  in addition to the resulting tree is proportional to the depth of the tree.
+ *  Nodes are created in the same way as by {@link NodeDescriptor}.
+ *
+ * @since 1.1.5
+ */
+public final class NodeAssembler implements NodeSink {
+    /**
+     * Expected number of children of a node.
+     */
+    private static final int CAPACITY = 4;
+
+    /**
+     * The node factory.
+     */
+    private final Factory factory;
+
+    /**
+     * List of actions to be added to the tree after deserialization.
+     */
+    private final ActionList actions;
+
+    /**
+     * Collectors of children of the nodes on the current path.
+     */
+    private final Deque<ChildrenCollector> path;
+
+    /**
+     * The root node.
+     */
+    private Node root;
+
+    /**
+     * Constructor.
+     * @param factory The node factory
+     */
+    public NodeAssembler(final Factory factory) {
+        this.factory = factory;
+        this.actions = new ActionList();
+        this.path = new ArrayDeque<>();
+        this.root = EmptyTree.INSTANCE;
+    }
+
+    @Override
+    public void begin() {
+        this.path.push(new ChildrenCollector(this.actions, NodeAssembler.CAPACITY));
+    }
+
+    @Override
+    public void end(final String type, final String data, final boolean children) {
+        final ChildrenCollector collector = this.path.pop();
+        Node node = EmptyTree.INSTANCE;
+        final Builder builder = this.factory.createBuilder(type);
+        if (builder != null) {
+            if (data != null) {
+                builder.setData(data);
+            }
+            boolean filled = true;
+            if (children) {
+                filled = builder.setChildrenList(collector.getList());
+            }
+            if (filled && builder.isValid()) {
+                node = builder.createNode();
+            }
+        }
+        if (this.path.isEmpty()) {
+            this.root = node;
+        } else {
+            this.path.peek().add(node);
+        }
+    }
+
+    /**
+     * Returns the resulting tree.
+     * @return Root node, or a root of the difference tree if actions have been read
+     */
+    public Node getResult() {
+        Node result = this.root;
+        if (this.actions.hasActions()) {
+            result = this.actions.convertTreeToDifferenceTree(result);
+        }
+        return result;
+    }
+}
@@ -23,15 +23,11 @@
  */
 package org.cqfn.astranaut.core.utils.deserializer;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.cqfn.astranaut.core.Builder;
-import org.cqfn.astranaut.core.Delete;
 import org.cqfn.astranaut.core.EmptyTree;
 import org.cqfn.astranaut.core.Factory;
-import org.cqfn.astranaut.core.Insert;
 import org.cqfn.astranaut.core.Node;
-import org.cqfn.astranaut.core.Replace;
 
 /**
  * Node descriptor represented as it is stored in the JSON file.
@@ -94,30 +90,10 @@ public class NodeDescriptor {
      * @return List of child nodes
      */
     private List<Node> convertChildren(final Factory factory, final ActionList actions) {
-        final List<Node> list = new ArrayList<>(this.children.size());
+        final ChildrenCollector collector = new ChildrenCollector(actions, this.children.size());
         for (final NodeDescriptor child : this.children) {
-            final Node converted = child.convert(factory, actions);
-            if (converted instanceof Insert) {
-                final Node node = ((Insert) converted).getAfter();
-                Node after = null;
-                final int size = list.size();
-                if (size > 0) {
-                    after = list.get(size - 1);
-                }
-                actions.insertNodeAfter(node, null, after);
-            } else if (converted instanceof Replace) {
-                final Replace action = (Replace) converted;
-                final Node node = action.getBefore();
-                list.add(node);
-                actions.replaceNode(node, action.getAfter());
-            } else if (converted instanceof Delete) {
-                final Node node = ((Delete) converted).getBefore();
-                list.add(node);
-                actions.deleteNode(node);
-            } else {
-                list.add(converted);
-            }
+            collector.add(child.convert(factory, actions));
         }
-        return list;
+        return collector.getList();
     }
 }
@@ -0,0 +1,48 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.deserializer;
+
+/**
+ * Receiver of nodes read by a streaming deserializer.
+ * Nodes are reported in the order in which they end in the source, that is, children
+ *  before their parent; the beginning of each node is reported separately, so that
+ *  the receiver knows which nodes are children of which.
+ *
+ * @since 1.1.5
+ */
+public interface NodeSink {
+    /**
+     * Reports the beginning of a node.
+     */
+    void begin();
+
+    /**
+     * Reports the end of a node, the children of which have already been reported.
+     * @param type The type name
+     * @param data The data, or {@code null} if the node description contains no data
+     * @param children Flag indicating that the node description contains a list of children,
+     *  even an empty one
+     */
+    void end(String type, String data, boolean children);
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.deserializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact record of nodes read by a streaming deserializer, which can be replayed later.
+ * It is used when the factory that creates nodes is not yet known while the nodes are
+ *  being read. Each node takes a few integers: type names are stored once, and the data
+ *  strings are kept as they are.
+ *
+ * @since 1.1.5
+ */
+public final class NodeTape implements NodeSink {
+    /**
+     * Code that marks the beginning of a node.
+     */
+    private static final int START = -1;
+
+    /**
+     * Code of absent data.
+     */
+    private static final int ABSENT = -1;
+
+    /**
+     * Initial size of the array of codes.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Type names.
+     */
+    private final List<String> types;
+
+    /**
+     * Indexes of type names.
+     */
+    private final Map<String, Integer> indexes;
+
+    /**
+     * Data strings.
+     */
+    private final List<String> data;
+
+    /**
+     * Codes: the beginning of a node is written as {@link #START}, and the end
+     *  as the index of the type name, the index of the data and the children flag.
+     */
+    private int[] codes;
+
+    /**
+     * Number of codes.
+     */
+    private int count;
+
+    /**
+     * Constructor.
+     */
+    public NodeTape() {
+        this.types = new ArrayList<>(NodeTape.INITIAL_CAPACITY);
+        this.indexes = new HashMap<>();
+        this.data = new ArrayList<>(NodeTape.INITIAL_CAPACITY);
+        this.codes = new int[NodeTape.INITIAL_CAPACITY];
+    }
+
+    @Override
+    public void begin() {
+        this.write(NodeTape.START);
+    }
+
+    @Override
+    public void end(final String type, final String value, final boolean children) {
+        Integer index = this.indexes.get(type);
+        if (index == null) {
+            index = this.types.size();
+            this.types.add(type);
+            this.indexes.put(type, index);
+        }
+        this.write(index);
+        if (value == null) {
+            this.write(NodeTape.ABSENT);
+        } else {
+            this.write(this.data.size());
+            this.data.add(value);
+        }
+        this.write(Boolean.compare(children, false));
+    }
+
+    /**
+     * Reports the recorded nodes to another receiver in the same order.
+     * @param sink The receiver
+     */
+    public void replay(final NodeSink sink) {
+        int index = 0;
+        while (index < this.count) {
+            final int code = this.codes[index];
+            if (code == NodeTape.START) {
+                sink.begin();
+                index = index + 1;
+            } else {
+                final int value = this.codes[index + 1];
+                String str = null;
+                if (value != NodeTape.ABSENT) {
+                    str = this.data.get(value);
+                }
+                sink.end(this.types.get(code), str, this.codes[index + 2] != 0);
+                index = index + 3;
+            }
+        }
+    }
+
+    /**
+     * Writes a code.
+     * @param code The code
+     */
+    private void write(final int code) {
+        if (this.count == this.codes.length) {
+            this.codes = Arrays.copyOf(this.codes, this.count * 2);
+        }
+        this.codes[this.count] = code;
+        this.count = this.count + 1;
+    }
+}
@@ -23,7 +23,7 @@
  */
 
 /**
- * This package contains helper classes for the JSON deserializer.
+ * This package contains helper classes for the JSON and binary deserializers.
  *
  * @since 1.1.0
  */
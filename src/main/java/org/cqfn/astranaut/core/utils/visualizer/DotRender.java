@@ -23,10 +23,12 @@
  */
 package org.cqfn.astranaut.core.utils.visualizer;
 
+import java.util.Arrays;
 import java.util.Objects;
 import org.cqfn.astranaut.core.EmptyTree;
 import org.cqfn.astranaut.core.Node;
 import org.cqfn.astranaut.core.Type;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
 
 /**
  * Renders a DOT file from a tree.
@@ -39,6 +41,11 @@ public class DotRender {
      */
     private static final String NODE = "  node_";
 
+    /**
+     * Initial capacity of the stack of nodes being processed.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
     /**
      * Stores the generated DOT text.
      */
@@ -73,33 +80,11 @@ public class DotRender {
      */
     public String render() {
         this.appendStart();
-        this.processNode(this.tree);
+        new DepthFirstWalker(this.tree).walk(new Processor());
         this.appendEnd();
         return this.builder.toString();
     }
 
-    /**
-     * Processes a node with all its children.
-     *
-     * @param node A node.
-     */
-    private void processNode(final Node node) {
-        final boolean empty = node == null || node == EmptyTree.INSTANCE;
-        if (empty) {
-            this.appendNullNode();
-        } else {
-            final Type type = node.getType();
-            this.appendNode(type.getName(), node.getData(), type.getProperty("color"));
-            final int parent = this.index;
-            for (int idx = 0; idx < node.getChildCount(); idx += 1) {
-                this.index += 1;
-                final int child = this.index;
-                this.processNode(node.getChild(idx));
-                this.appendEdge(parent, child, idx);
-            }
-        }
-    }
-
     /**
      * Appends tree start text.
      */
@@ -206,4 +191,86 @@ public class DotRender {
         }
         return result.toString();
     }
+
+    /**
+     * Visitor that processes nodes with all their children.
+     * For each node being traversed, its index and the index of its current child are stored
+     *  on a stack, so that an edge can be added after the subtree of the child is processed.
+     *
+     * @since 1.1.5
+     */
+    private final class Processor implements DepthFirstWalker.Visitor {
+        /**
+         * Indexes of the nodes being traversed.
+         */
+        private int[] nodes;
+
+        /**
+         * Indexes of current children of the nodes being traversed.
+         */
+        private int[] children;
+
+        /**
+         * Number of nodes on the stack.
+         */
+        private int size;
+
+        /**
+         * Constructor.
+         */
+        private Processor() {
+            this.nodes = new int[DotRender.INITIAL_CAPACITY];
+            this.children = new int[DotRender.INITIAL_CAPACITY];
+        }
+
+        @Override
+        public boolean enter(final Node node) {
+            if (this.size > 0) {
+                DotRender.this.index += 1;
+            }
+            final boolean empty = node == null || node == EmptyTree.INSTANCE;
+            final boolean descend;
+            if (empty) {
+                DotRender.this.appendNullNode();
+                descend = false;
+            } else {
+                final Type type = node.getType();
+                DotRender.this.appendNode(
+                    type.getName(), node.getData(), type.getProperty("color")
+                );
+                descend = node.getChildCount() > 0;
+            }
+            if (descend) {
+                if (this.size == this.nodes.length) {
+                    this.nodes = Arrays.copyOf(this.nodes, this.size * 2);
+                    this.children = Arrays.copyOf(this.children, this.size * 2);
+                }
+                this.nodes[this.size] = DotRender.this.index;
+                this.children[this.size] = 0;
+                this.size = this.size + 1;
+            } else {
+                this.appendEdge(DotRender.this.index);
+            }
+            return descend;
+        }
+
+        @Override
+        public void leave(final Node node) {
+            this.size = this.size - 1;
+            this.appendEdge(this.nodes[this.size]);
+        }
+
+        /**
+         * Appends the edge from the current parent node to a processed child node,
+         *  if the node has a parent.
+         * @param child The child node index
+         */
+        private void appendEdge(final int child) {
+            if (this.size > 0) {
+                final int top = this.size - 1;
+                DotRender.this.appendEdge(this.nodes[top], child, this.children[top]);
+                this.children[top] += 1;
+            }
+        }
+    }
 }
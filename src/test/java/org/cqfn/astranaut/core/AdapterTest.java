@@ -24,7 +24,10 @@
 package org.cqfn.astranaut.core;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import org.cqfn.astranaut.core.example.green.GreenFactory;
 import org.cqfn.astranaut.core.example.javascript.rules.Rule0;
 import org.junit.jupiter.api.Assertions;
@@ -35,6 +38,7 @@ import org.junit.jupiter.api.Test;
  *
  * @since 1.0
  */
+@SuppressWarnings("PMD.TooManyMethods")
 class AdapterTest {
     /**
      * The 'literal' string constant.
@@ -76,6 +80,11 @@ class AdapterTest {
      */
     private static final String STR_NUM_LITERAL = "numericLiteral";
 
+    /**
+     * The 'block' string constant.
+     */
+    private static final String STR_BLOCK = "block";
+
     /**
      * Testing tree converter.
      */
@@ -196,6 +205,199 @@ class AdapterTest {
         Assertions.assertEquals(converted.getChild(1).getTypeName(), AdapterTest.STR_ADDITION);
     }
 
+    /**
+     * Testing that converters are tried only on nodes they can be applied to,
+     *  and converters applicable to any node are tried on all nodes.
+     */
+    @Test
+    void testDispatch() {
+        final Node original = this.createNode(
+            AdapterTest.STR_SINGLE_EXPR,
+            "",
+            this.createNode(
+                AdapterTest.STR_IDENTIFIER,
+                "",
+                this.createNode(AdapterTest.STR_LITERAL, "y")
+            )
+        );
+        final CountingConverter never = new CountingConverter(
+            Collections.singleton(AdapterTest.STR_NUM_LITERAL)
+        );
+        final CountingConverter literals = new CountingConverter(
+            Collections.singleton(AdapterTest.STR_LITERAL)
+        );
+        final CountingConverter any = new CountingConverter(Collections.emptySet());
+        final Adapter adapter = new Adapter(
+            Arrays.asList(never, literals, any, Rule0.INSTANCE),
+            GreenFactory.INSTANCE
+        );
+        final Node converted = adapter.convert(original);
+        Assertions.assertEquals(AdapterTest.STR_VARIABLE, converted.getTypeName());
+        Assertions.assertEquals("y", converted.getData());
+        Assertions.assertEquals(0, never.getCount());
+        Assertions.assertEquals(1, literals.getCount());
+        Assertions.assertEquals(3, any.getCount());
+        final Node unchanged = DraftNode.createByDescription("block(literal<\"y\">)");
+        Assertions.assertSame(unchanged, adapter.convert(unchanged));
+    }
+
+    /**
+     * Testing that parallel conversion gives the same result as the sequential one.
+     */
+    @Test
+    void testParallelConversion() {
+        final Node original = this.createBlock(6);
+        final Adapter adapter = new Adapter(
+            Arrays.asList(
+                new VariableConverter(),
+                new NumericConverter(),
+                new AdditionConverter()
+            ),
+            GreenFactory.INSTANCE
+        );
+        final Node expected = adapter.convert(original);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final Node converted = adapter.convert(original, pool);
+            Assertions.assertTrue(expected.deepCompare(converted));
+            Node leaf = converted;
+            while (leaf.getTypeName().equals(AdapterTest.STR_BLOCK)) {
+                leaf = leaf.getChild(0);
+            }
+            Assertions.assertEquals(AdapterTest.STR_ADDITION, leaf.getTypeName());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Testing conversion until a fixed point, where the result of one conversion
+     *  enables another conversion of the same node.
+     */
+    @Test
+    void testFixedPointConversion() {
+        final Node original = DraftNode.createByDescription("X(A, A, Y(Z))");
+        final Adapter adapter = new Adapter(
+            Arrays.asList(new RenamingConverter("B", "C"), new RenamingConverter("A", "B")),
+            new Factory(Collections.emptyMap())
+        );
+        Assertions.assertTrue(
+            adapter.convert(original).deepCompare(
+                DraftNode.createByDescription("X(B, B, Y(Z))")
+            )
+        );
+        final FixedPointResult result = adapter.convertToFixedPoint(original, 10);
+        Assertions.assertTrue(
+            result.getTree().deepCompare(DraftNode.createByDescription("X(C, C, Y(Z))"))
+        );
+        Assertions.assertTrue(result.isFixedPoint());
+        Assertions.assertEquals(3, result.getPasses());
+        Assertions.assertEquals(4, result.getConversions());
+        Assertions.assertEquals(2, result.getConversions(0));
+        Assertions.assertEquals(2, result.getConversions(1));
+        Assertions.assertEquals(11, result.getVisits());
+        final FixedPointResult limited = adapter.convertToFixedPoint(original, 1);
+        Assertions.assertFalse(limited.isFixedPoint());
+        Assertions.assertEquals(1, limited.getPasses());
+        Assertions.assertTrue(
+            limited.getTree().deepCompare(DraftNode.createByDescription("X(B, B, Y(Z))"))
+        );
+    }
+
+    /**
+     * Testing conversion until a fixed point of a tree that is too deep for recursion.
+     */
+    @Test
+    void testFixedPointConversionOfDeepTree() {
+        final int depth = 100_000;
+        final Node node = this.createChain(depth);
+        final Adapter adapter = new Adapter(
+            Arrays.asList(new RenamingConverter("B", "C"), new RenamingConverter("A", "B")),
+            new Factory(Collections.emptyMap())
+        );
+        final FixedPointResult result = adapter.convertToFixedPoint(node, 10);
+        Assertions.assertTrue(result.isFixedPoint());
+        Assertions.assertEquals(3, result.getPasses());
+        Assertions.assertEquals(2 * depth, result.getConversions());
+        Node current = result.getTree();
+        for (int level = 0; level < depth; level = level + 1) {
+            Assertions.assertEquals("C", current.getTypeName());
+            current = current.getChild(0);
+        }
+        Assertions.assertEquals("Z", current.getTypeName());
+    }
+
+    /**
+     * Testing conversion of a tree that is too deep for recursion.
+     */
+    @Test
+    void testConversionOfDeepTree() {
+        final int depth = 100_000;
+        final Adapter adapter = new Adapter(
+            Collections.singletonList(new RenamingConverter("A", "B")),
+            new Factory(Collections.emptyMap())
+        );
+        Node current = adapter.convert(this.createChain(depth));
+        for (int level = 0; level < depth; level = level + 1) {
+            Assertions.assertEquals("B", current.getTypeName());
+            current = current.getChild(0);
+        }
+        Assertions.assertEquals("Z", current.getTypeName());
+    }
+
+    /**
+     * Testing parallel conversion of a tree that is too deep for recursion, in which every
+     *  node has a small subtree aside.
+     */
+    @Test
+    void testParallelConversionOfDeepTree() {
+        final int depth = 100_000;
+        final Adapter adapter = new Adapter(
+            Collections.singletonList(new RenamingConverter("A", "B")),
+            new Factory(Collections.emptyMap())
+        );
+        Node node = DraftNode.createByDescription("Z");
+        for (int level = 0; level < depth; level = level + 1) {
+            node = this.createNode("A", "", node, DraftNode.createByDescription("Y(A)"));
+        }
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Node current = adapter.convert(node, pool);
+            Node original = node;
+            for (int level = 0; level < depth; level = level + 1) {
+                Assertions.assertEquals("B", current.getTypeName());
+                Assertions.assertEquals("Y(B)", current.getChild(1).toString());
+                current = current.getChild(0);
+                original = original.getChild(0);
+            }
+            Assertions.assertSame(original, current);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Testing that conversion until a fixed point gives the same result as the single pass
+     *  conversion if the single pass is enough.
+     */
+    @Test
+    void testFixedPointConversionOfStableTree() {
+        final Node original = this.createBlock(2);
+        final Adapter adapter = new Adapter(
+            Arrays.asList(
+                new VariableConverter(),
+                new NumericConverter(),
+                new AdditionConverter()
+            ),
+            GreenFactory.INSTANCE
+        );
+        final FixedPointResult result = adapter.convertToFixedPoint(original, 10);
+        Assertions.assertTrue(adapter.convert(original).deepCompare(result.getTree()));
+        Assertions.assertTrue(result.isFixedPoint());
+        Assertions.assertEquals(2, result.getPasses());
+        Assertions.assertEquals(48, result.getConversions());
+    }
+
     /**
      * Test covering the variable converter.
      */
@@ -329,11 +531,74 @@ class AdapterTest {
         return ctor.createNode();
     }
 
+    /**
+     * Creates a chain of 'A' nodes that ends with a 'Z' node.
+     * @param depth Number of 'A' nodes
+     * @return The root node
+     */
+    private Node createChain(final int depth) {
+        Node node = DraftNode.createByDescription("Z");
+        for (int level = 0; level < depth; level = level + 1) {
+            node = this.createNode("A", "", node);
+        }
+        return node;
+    }
+
+    /**
+     * Creates a balanced tree of blocks whose leaves are 'x + 0' expressions.
+     * @param depth Depth of the tree of blocks
+     * @return A new node
+     */
+    private Node createBlock(final int depth) {
+        final Node result;
+        if (depth == 0) {
+            result = this.createNode(
+                AdapterTest.STR_SINGLE_EXPR,
+                "",
+                this.createNode(
+                    AdapterTest.STR_SINGLE_EXPR,
+                    "",
+                    this.createNode(
+                        AdapterTest.STR_IDENTIFIER,
+                        "",
+                        this.createNode(AdapterTest.STR_LITERAL, "x")
+                    )
+                ),
+                this.createNode(AdapterTest.STR_LITERAL, "+"),
+                this.createNode(
+                    AdapterTest.STR_SINGLE_EXPR,
+                    "",
+                    this.createNode(
+                        AdapterTest.STR_LITERAL,
+                        "",
+                        this.createNode(
+                            AdapterTest.STR_NUM_LITERAL,
+                            "",
+                            this.createNode(AdapterTest.STR_LITERAL, "0")
+                        )
+                    )
+                )
+            );
+        } else {
+            final Node[] children = new Node[4];
+            for (int index = 0; index < children.length; index = index + 1) {
+                children[index] = this.createBlock(depth - 1);
+            }
+            result = this.createNode(AdapterTest.STR_BLOCK, "", children);
+        }
+        return result;
+    }
+
     /**
      * Converter variables to a new format.
      * @since 1.0
      */
     private static class VariableConverter implements Converter {
+        @Override
+        public Set<String> getRootTypes() {
+            return Collections.singleton(AdapterTest.STR_SINGLE_EXPR);
+        }
+
         @Override
         public Node convert(final Node root, final Factory factory) {
             Node result = EmptyTree.INSTANCE;
@@ -448,6 +713,11 @@ class AdapterTest {
          */
         private static final int EXPECTED_COUNT = 3;
 
+        @Override
+        public Set<String> getRootTypes() {
+            return Collections.singleton(AdapterTest.STR_SINGLE_EXPR);
+        }
+
         @Override
         public Node convert(final Node root, final Factory factory) {
             Node result = EmptyTree.INSTANCE;
@@ -468,4 +738,85 @@ class AdapterTest {
             return result;
         }
     }
+
+    /**
+     * Converter that converts nothing, but counts the nodes it has been applied to.
+     * @since 1.1.5
+     */
+    private static class CountingConverter implements Converter {
+        /**
+         * Types of the root node.
+         */
+        private final Set<String> types;
+
+        /**
+         * Number of nodes the converter has been applied to.
+         */
+        private int count;
+
+        /**
+         * Constructor.
+         * @param types Types of the root node
+         */
+        CountingConverter(final Set<String> types) {
+            this.types = types;
+        }
+
+        @Override
+        public Node convert(final Node root, final Factory factory) {
+            this.count = this.count + 1;
+            return EmptyTree.INSTANCE;
+        }
+
+        @Override
+        public Set<String> getRootTypes() {
+            return this.types;
+        }
+
+        /**
+         * Returns the number of nodes the converter has been applied to.
+         * @return Number of nodes
+         */
+        int getCount() {
+            return this.count;
+        }
+    }
+
+    /**
+     * Converter that changes the type of a node, keeping its data and children.
+     * @since 1.1.5
+     */
+    private static class RenamingConverter implements Converter {
+        /**
+         * Type of the node to be converted.
+         */
+        private final String source;
+
+        /**
+         * Type of the resulting node.
+         */
+        private final String target;
+
+        /**
+         * Constructor.
+         * @param source Type of the node to be converted
+         * @param target Type of the resulting node
+         */
+        RenamingConverter(final String source, final String target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public Node convert(final Node root, final Factory factory) {
+            Node result = EmptyTree.INSTANCE;
+            if (root.getTypeName().equals(this.source)) {
+                final Builder builder = factory.createBuilder(this.target);
+                builder.setData(root.getData());
+                builder.setChildrenList(root.getChildrenList());
+                result = builder.createNode();
+            }
+            return result;
+        }
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.cqfn.astranaut.core.example.javascript.rules.Matcher1;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests covering {@link Captures} buffer and compatibility of matcher contracts.
+ *
+ * @since 1.1.5
+ */
+class CapturesTest {
+    /**
+     * Some data.
+     */
+    private static final String DATA = "x";
+
+    /**
+     * Testing saving, reading and resetting values.
+     */
+    @Test
+    void testPutAndReset() {
+        final Captures captures = new Captures();
+        final List<Node> nodes = Collections.singletonList(DraftNode.createByDescription("A"));
+        captures.putChildren(2, nodes);
+        captures.putData(10, CapturesTest.DATA);
+        Assertions.assertSame(nodes, captures.getChildren(2));
+        Assertions.assertNull(captures.getChildren(0));
+        Assertions.assertNull(captures.getChildren(-1));
+        Assertions.assertEquals(CapturesTest.DATA, captures.getData(10));
+        Assertions.assertNull(captures.getData(11));
+        captures.reset();
+        Assertions.assertNull(captures.getChildren(2));
+        Assertions.assertNull(captures.getData(10));
+    }
+
+    /**
+     * Testing the map-based method of a matcher that also implements the buffer-based one.
+     */
+    @Test
+    void testMapsOverCaptures() {
+        final Node node = DraftNode.createByDescription("identifier(literal<\"x\">)");
+        final Map<Integer, List<Node>> children = new TreeMap<>();
+        final Map<Integer, String> data = new TreeMap<>();
+        Assertions.assertTrue(Matcher1.INSTANCE.match(node, children, data));
+        Assertions.assertTrue(children.isEmpty());
+        Assertions.assertEquals(Collections.singletonMap(1, CapturesTest.DATA), data);
+        data.clear();
+        final Node other = DraftNode.createByDescription("A");
+        Assertions.assertFalse(Matcher1.INSTANCE.match(other, children, data));
+        Assertions.assertTrue(data.isEmpty());
+    }
+
+    /**
+     * Testing the default buffer-based method of a matcher that implements only
+     *  the map-based one.
+     */
+    @Test
+    void testCapturesOverMaps() {
+        final Matcher matcher = new Matcher() {
+            @Override
+            public boolean match(final Node node, final Map<Integer, List<Node>> children,
+                final Map<Integer, String> data) {
+                children.put(0, node.getChildrenList());
+                data.put(3, node.getData());
+                return node.getChildCount() > 0;
+            }
+        };
+        final Node node = DraftNode.createByDescription("A<\"x\">(B, C)");
+        final Captures captures = new Captures();
+        Assertions.assertTrue(matcher.match(node, captures));
+        Assertions.assertEquals(2, captures.getChildren(0).size());
+        Assertions.assertEquals(CapturesTest.DATA, captures.getData(3));
+        captures.reset();
+        Assertions.assertFalse(matcher.match(DraftNode.createByDescription("B"), captures));
+        Assertions.assertNull(captures.getChildren(0));
+    }
+
+    /**
+     * Testing that matchers and converters can be implemented by lambdas.
+     */
+    @Test
+    void testLambdas() {
+        final Matcher matcher = (node, children, data) -> {
+            data.put(1, node.getTypeName());
+            return true;
+        };
+        final Converter converter = (node, factory) -> node;
+        final Node node = DraftNode.createByDescription("A");
+        final Captures captures = new Captures();
+        Assertions.assertTrue(matcher.match(node, captures));
+        Assertions.assertEquals("A", captures.getData(1));
+        Assertions.assertSame(node, converter.convert(node, null, captures));
+    }
+}
@@ -25,7 +25,9 @@ package org.cqfn.astranaut.core;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 import org.cqfn.astranaut.core.example.green.Addition;
 import org.cqfn.astranaut.core.example.green.IntegerLiteral;
 import org.cqfn.astranaut.core.example.green.Variable;
@@ -438,6 +440,57 @@ class ChildrenMapperTest {
         Assertions.assertTrue(result);
     }
 
+    /**
+     * Testing that a mapper used many times does not keep the state of previous mappings.
+     */
+    @Test
+    void testRepeatedMapping() {
+        final List<ChildDescriptor> descriptors = Arrays.asList(
+            new ChildDescriptor(ChildrenMapperTest.ASSIGN_EXPR),
+            new ChildDescriptor(ChildrenMapperTest.EXPRESSION, true)
+        );
+        final Variable.Constructor ctor = new Variable.Constructor();
+        ctor.setData("a");
+        final Node left = ctor.createNode();
+        ctor.setData("b");
+        final Node right = ctor.createNode();
+        final ChildrenMapper mapper = new ChildrenMapper(descriptors);
+        for (int iteration = 0; iteration < 3; iteration = iteration + 1) {
+            final Node[] pair = new Node[2];
+            Assertions.assertTrue(mapper.map(pair, Arrays.asList(left, right)));
+            Assertions.assertSame(left, pair[0]);
+            Assertions.assertSame(right, pair[1]);
+            final Node[] single = new Node[2];
+            Assertions.assertTrue(mapper.map(single, Collections.singletonList(left)));
+            Assertions.assertSame(left, single[0]);
+            Assertions.assertNull(single[1]);
+            Assertions.assertFalse(mapper.map(new Node[2], Collections.emptyList()));
+        }
+    }
+
+    /**
+     * Testing that one mapper can be used by several threads at the same time.
+     */
+    @Test
+    void testSharedMapper() {
+        final List<ChildDescriptor> descriptors = Arrays.asList(
+            new ChildDescriptor(ChildrenMapperTest.EXPRESSION),
+            new ChildDescriptor(ChildrenMapperTest.EXPRESSION, true)
+        );
+        final ChildrenMapper mapper = new ChildrenMapper(descriptors);
+        final long count = IntStream.range(0, 1000).parallel().filter(
+            index -> {
+                final IntegerLiteral.Constructor ctor = new IntegerLiteral.Constructor();
+                ctor.setData(String.valueOf(index));
+                final Node node = ctor.createNode();
+                final Node[] mapping = new Node[2];
+                return mapper.map(mapping, Collections.singletonList(node))
+                    && mapping[0] == node && mapping[1] == null;
+            }
+        ).count();
+        Assertions.assertEquals(1000, count);
+    }
+
     /**
      * Common test for the {@link ChildrenMapper} class.
      * @param types The list of types
@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.cqfn.astranaut.core.algorithms.hash.AbsoluteHash;
+import org.cqfn.astranaut.core.algorithms.hash.Hash;
+import org.cqfn.astranaut.core.algorithms.mapping.Mapping;
+import org.cqfn.astranaut.core.algorithms.mapping.TopDownMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link CompactTree} class.
+ *
+ * @since 1.1.5
+ */
+class CompactTreeTest {
+    /**
+     * Description of the tree used in tests.
+     */
+    private static final String DESCRIPTION = "X(A<\"1\">, B, C(D<\"1\">, E(F)))";
+
+    /**
+     * Testing that the compact tree contains the same nodes as the source tree.
+     */
+    @Test
+    void testCopying() {
+        final Node source = DraftNode.createByDescription(CompactTreeTest.DESCRIPTION);
+        final CompactTree tree = new CompactTree(source);
+        final Node root = tree.getRoot();
+        Assertions.assertEquals(7, tree.size());
+        Assertions.assertTrue(source.deepCompare(root));
+        Assertions.assertTrue(root.deepCompare(source));
+        Assertions.assertEquals("1", root.getChild(2).getChild(0).getData());
+        Assertions.assertEquals("F", root.getChild(2).getChild(1).getChild(0).getTypeName());
+        Assertions.assertSame(EmptyFragment.INSTANCE, root.getFragment());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> root.getChild(3));
+    }
+
+    /**
+     * Testing that views of nodes are equal if they represent the same node and know
+     *  their parents.
+     */
+    @Test
+    void testViews() {
+        final Node source = DraftNode.createByDescription(CompactTreeTest.DESCRIPTION);
+        final CompactTree tree = new CompactTree(source);
+        final Node root = tree.getRoot();
+        final Node node = root.getChild(2).getChild(1);
+        Assertions.assertNotSame(node, root.getChild(2).getChild(1));
+        Assertions.assertEquals(node, root.getChild(2).getChild(1));
+        Assertions.assertEquals(node.hashCode(), root.getChild(2).getChild(1).hashCode());
+        Assertions.assertNotEquals(node, root.getChild(2).getChild(0));
+        Assertions.assertNotEquals(node, new CompactTree(source).getNode(5));
+        Assertions.assertEquals(root.getChild(2), tree.getParent(node));
+        Assertions.assertNull(tree.getParent(root));
+        Assertions.assertNull(tree.getParent(DraftNode.createByDescription("X")));
+        Assertions.assertEquals(root.getChild(0), tree.getNode(1));
+        final Map<Node, String> map = new HashMap<>();
+        map.put(node, "E");
+        Assertions.assertEquals("E", map.get(tree.getNode(5)));
+    }
+
+    /**
+     * Testing that a tree that retains views always returns the same view of a node.
+     */
+    @Test
+    void testRetainedViews() {
+        final CompactTree tree = new CompactTree(
+            DraftNode.createByDescription(CompactTreeTest.DESCRIPTION),
+            true
+        );
+        final Node root = tree.getRoot();
+        final Node node = root.getChild(2).getChild(1);
+        Assertions.assertSame(node, root.getChild(2).getChild(1));
+        Assertions.assertSame(root.getChild(2), tree.getParent(node));
+        Assertions.assertSame(root.getChild(0), tree.getNode(1));
+    }
+
+    /**
+     * Testing that algorithms work on the compact tree.
+     */
+    @Test
+    void testAlgorithms() {
+        final Node source = DraftNode.createByDescription(CompactTreeTest.DESCRIPTION);
+        final Node root = new CompactTree(source, true).getRoot();
+        final Hash hash = new AbsoluteHash();
+        Assertions.assertEquals(hash.calculate(source), hash.calculate(root));
+        final Node other = new CompactTree(
+            DraftNode.createByDescription("X(A<\"1\">, C(D<\"2\">, E(F)))"),
+            true
+        ).getRoot();
+        final Mapping mapping = TopDownMapper.INSTANCE.map(root, other);
+        Assertions.assertEquals(1, mapping.getDeleted().size());
+        Assertions.assertSame(root.getChild(1), mapping.getDeleted().iterator().next());
+        Assertions.assertEquals(1, mapping.getReplaced().size());
+        Assertions.assertSame(
+            other.getChild(1).getChild(1),
+            mapping.getRight(root.getChild(2).getChild(1))
+        );
+    }
+
+    /**
+     * Testing that parents are found for all nodes, including leaves between inner nodes.
+     */
+    @Test
+    void testParents() {
+        final Node source = DraftNode.createByDescription(
+            "A(B, C(D, E), F, G(H(I, J), K), L)"
+        );
+        final CompactTree tree = new CompactTree(source);
+        for (int index = 0; index < tree.size(); index = index + 1) {
+            final Node node = tree.getNode(index);
+            for (int position = 0; position < node.getChildCount(); position = position + 1) {
+                Assertions.assertEquals(node, tree.getParent(node.getChild(position)));
+            }
+        }
+    }
+
+    /**
+     * Testing that different types with the same name are not merged.
+     */
+    @Test
+    void testTypesByIdentity() {
+        final Node first = DraftNode.createByDescription("A");
+        final DraftNode.Constructor separate = new DraftNode.Constructor(new HashMap<>());
+        separate.setName("A");
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName("X");
+        ctor.addChild(first);
+        ctor.addChild(separate.createNode());
+        final Node root = new CompactTree(ctor.createNode()).getRoot();
+        Assertions.assertSame(first.getType(), root.getChild(0).getType());
+        Assertions.assertNotSame(root.getChild(0).getType(), root.getChild(1).getType());
+    }
+
+    /**
+     * Testing that all threads get the same retained views of nodes.
+     */
+    @Test
+    void testViewsInThreads() {
+        final CompactTree tree = new CompactTree(
+            DraftNode.createByDescription(CompactTreeTest.DESCRIPTION),
+            true
+        );
+        final Set<Node> views = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>())
+        );
+        IntStream.range(0, 1000).parallel().forEach(
+            index -> views.add(tree.getNode(index % tree.size()))
+        );
+        Assertions.assertEquals(tree.size(), views.size());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests covering {@link ConversionVariants} class.
+ *
+ * @since 1.1.5
+ */
+class ConversionVariantsTest {
+    /**
+     * The original tree.
+     */
+    private static final String ORIGINAL = "X(A, A, Y(A))";
+
+    /**
+     * Testing building of all variants.
+     */
+    @Test
+    void testVariants() {
+        final Node original = DraftNode.createByDescription(ConversionVariantsTest.ORIGINAL);
+        final Adapter adapter = ConversionVariantsTest.createAdapter();
+        final ConversionVariants variants = adapter.getVariants(original);
+        Assertions.assertEquals(3, variants.size());
+        final String[] expected = {
+            "X(B, A, Y(A))",
+            "X(A, B, Y(A))",
+            "X(A, A, Y(B))",
+        };
+        final Iterator<Node> iterator = variants.iterator();
+        for (final String description : expected) {
+            Assertions.assertTrue(iterator.hasNext());
+            final Node variant = iterator.next();
+            Assertions.assertTrue(
+                variant.deepCompare(DraftNode.createByDescription(description))
+            );
+        }
+        Assertions.assertFalse(iterator.hasNext());
+        Assertions.assertThrows(NoSuchElementException.class, iterator::next);
+        Assertions.assertTrue(
+            original.deepCompare(DraftNode.createByDescription(ConversionVariantsTest.ORIGINAL))
+        );
+    }
+
+    /**
+     * Testing that variant trees share unchanged subtrees with the original tree.
+     */
+    @Test
+    void testSharing() {
+        final Node original = DraftNode.createByDescription(ConversionVariantsTest.ORIGINAL);
+        final Adapter adapter = ConversionVariantsTest.createAdapter();
+        final ConversionVariants variants = adapter.getVariants(original);
+        final Node first = variants.get(0);
+        Assertions.assertSame(original.getChild(1), first.getChild(1));
+        Assertions.assertSame(original.getChild(2), first.getChild(2));
+        final Node last = variants.get(2);
+        Assertions.assertSame(original.getChild(0), last.getChild(0));
+        Assertions.assertNotSame(original.getChild(2), last.getChild(2));
+    }
+
+    /**
+     * Testing methods of adapter that build a single variant or count variants.
+     */
+    @Test
+    void testPartialConversion() {
+        final Node original = DraftNode.createByDescription(ConversionVariantsTest.ORIGINAL);
+        final Adapter adapter = ConversionVariantsTest.createAdapter();
+        Assertions.assertEquals(3, adapter.calculateConversions(original));
+        Assertions.assertTrue(
+            adapter.partialConvert(1, original).deepCompare(
+                DraftNode.createByDescription("X(A, B, Y(A))")
+            )
+        );
+        Assertions.assertSame(original, adapter.partialConvert(3, original));
+    }
+
+    /**
+     * Testing that variants are found in a tree that is too deep for recursion.
+     */
+    @Test
+    void testDeepTree() {
+        final int depth = 100_000;
+        Node original = DraftNode.createByDescription("A");
+        for (int level = 0; level < depth; level = level + 1) {
+            final DraftNode.Constructor ctor = new DraftNode.Constructor();
+            ctor.setName("Y");
+            ctor.addChild(DraftNode.createByDescription("Z"));
+            ctor.addChild(original);
+            original = ctor.createNode();
+        }
+        final ConversionVariants variants =
+            ConversionVariantsTest.createAdapter().getVariants(original);
+        Assertions.assertEquals(1, variants.size());
+        Node node = variants.get(0);
+        for (int level = 0; level < depth; level = level + 1) {
+            node = node.getChild(1);
+        }
+        Assertions.assertEquals("B", node.getTypeName());
+    }
+
+    /**
+     * Creates an adapter with a converter that changes type 'A' to type 'B'.
+     * @return The adapter
+     */
+    private static Adapter createAdapter() {
+        final Converter converter = new Converter() {
+            @Override
+            public Node convert(final Node node, final Factory factory) {
+                Node result = EmptyTree.INSTANCE;
+                if ("A".equals(node.getTypeName())) {
+                    result = factory.createBuilder("B").createNode();
+                }
+                return result;
+            }
+        };
+        return new Adapter(
+            Collections.singletonList(converter),
+            new Factory(Collections.emptyMap())
+        );
+    }
+}
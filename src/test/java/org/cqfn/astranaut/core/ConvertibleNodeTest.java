@@ -61,4 +61,22 @@ class ConvertibleNodeTest {
         final boolean result = convertible.replaceChild(second, third);
         Assertions.assertTrue(result);
     }
+
+    /**
+     * Testing that unchanged subtrees are neither wrapped nor rebuilt.
+     */
+    @Test
+    void testCopyOnWrite() {
+        final Node original = DraftNode.createByDescription("A(D, B(C))");
+        final ConvertibleNode convertible = new ConvertibleNode(original);
+        Assertions.assertSame(original.getChild(1), convertible.getChild(1));
+        final ConvertibleNode second = convertible.getConvertibleChild(1);
+        Assertions.assertSame(original.getChild(0), convertible.getChild(0));
+        Assertions.assertSame(original, convertible.rebuild());
+        second.replaceChild(second.getChild(0), DraftNode.createByDescription("E"));
+        final Node rebuilt = convertible.rebuild();
+        Assertions.assertNotSame(original, rebuilt);
+        Assertions.assertSame(original.getChild(0), rebuilt.getChild(0));
+        Assertions.assertTrue(rebuilt.deepCompare(DraftNode.createByDescription("A(D, B(E))")));
+    }
 }
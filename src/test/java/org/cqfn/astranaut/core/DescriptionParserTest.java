@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests covering {@link DescriptionParser} class.
+ *
+ * @since 1.1.5
+ */
+class DescriptionParserTest {
+    /**
+     * Testing parsing of nodes that follow nested nodes.
+     */
+    @Test
+    void testSiblings() {
+        final Node root = new DescriptionParser("X(A(B, C), D<\"1\">( ), E())").parse();
+        Assertions.assertEquals(3, root.getChildCount());
+        Assertions.assertEquals("X(A(B, C), D<\"1\">, E)", root.toString());
+        final Node other = new DescriptionParser(" Name_1 ( A ,B ) ".toCharArray()).parse();
+        Assertions.assertEquals("Name_1(A, B)", other.toString());
+    }
+
+    /**
+     * Testing escape sequences in data.
+     */
+    @Test
+    void testEscapes() {
+        final String description = "X<\"a\\\"b\\\\c\\nd\\te\\r\">";
+        final Node node = new DescriptionParser(description).parse();
+        Assertions.assertEquals("a\"b\\c\nd\te\r", node.getData());
+        Assertions.assertEquals(description, node.toString());
+        Assertions.assertEquals("", new DescriptionParser("X<>").parse().getData());
+    }
+
+    /**
+     * Testing syntax errors and their positions.
+     */
+    @Test
+    void testErrors() {
+        final String[][] cases = {
+            {"", "Expected type name at position 0"},
+            {"X(A,)", "Expected type name at position 4"},
+            {"X(A B)", "Expected ',' or ')' at position 4"},
+            {"X(A", "Expected ',' or ')' at position 3"},
+            {"X<\"a\"", "Expected '>' at position 5"},
+            {"X<\"a\\", "Invalid escape sequence at position 5"},
+            {"X<\"a\\n", "Unterminated string at position 6"},
+            {"X)", "Unexpected character at position 1"},
+        };
+        for (final String[] item : cases) {
+            final DescriptionParser parser = new DescriptionParser(item[0]);
+            final IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                parser::parse
+            );
+            Assertions.assertEquals(item[1], exception.getMessage());
+        }
+    }
+
+    /**
+     * Testing parsing and printing of a very deep tree.
+     */
+    @Test
+    void testDeepTree() {
+        final int depth = 100_000;
+        final StringBuilder builder = new StringBuilder(depth * 3);
+        for (int index = 0; index < depth; index = index + 1) {
+            builder.append("A(");
+        }
+        builder.append('B');
+        for (int index = 0; index < depth; index = index + 1) {
+            builder.append(')');
+        }
+        final String description = builder.toString();
+        final Node root = new DescriptionParser(description).parse();
+        Assertions.assertEquals(description, root.toString());
+    }
+}
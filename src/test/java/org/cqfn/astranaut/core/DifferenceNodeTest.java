@@ -191,6 +191,55 @@ class DifferenceNodeTest {
         Assertions.assertFalse(result);
     }
 
+    /**
+     * Tests that nodes inserted after the same node keep the order in which they were inserted,
+     *  and that actions can be applied by index after insertions.
+     */
+    @Test
+    void testInsertionOrder() {
+        final Node before = DraftNode.createByDescription("X(A, B)");
+        final DifferenceNode diff = new DifferenceNode(before);
+        final Node first = before.getChild(0);
+        final Node inserted = DraftNode.createByDescription("Q");
+        Assertions.assertTrue(diff.insertNodeAfter(DraftNode.createByDescription("P"), first));
+        Assertions.assertTrue(diff.insertNodeAfter(inserted, first));
+        Assertions.assertTrue(diff.insertNodeAfter(DraftNode.createByDescription("S"), null));
+        Assertions.assertTrue(diff.insertNodeAfter(DraftNode.createByDescription("T"), null));
+        Assertions.assertTrue(diff.insertNodeAfter(DraftNode.createByDescription("R"), inserted));
+        Assertions.assertEquals("X(S, T, A, P, Q, R, B)", diff.getAfter().toString());
+        Assertions.assertFalse(diff.deleteNode(0));
+        Assertions.assertTrue(diff.deleteNode(6));
+        Assertions.assertTrue(diff.replaceNode(2, DraftNode.createByDescription("Z")));
+        Assertions.assertFalse(diff.replaceNode(first, DraftNode.createByDescription("W")));
+        Assertions.assertEquals("X(S, T, Z, P, Q, R)", diff.getAfter().toString());
+        Assertions.assertTrue(before.deepCompare(diff.getBefore()));
+    }
+
+    /**
+     * Tests applying actions to each child of a wide node.
+     */
+    @Test
+    void testWideNode() {
+        final int count = 20_000;
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName("X");
+        for (int index = 0; index < count; index = index + 1) {
+            ctor.addChild(DraftNode.createByDescription("A"));
+        }
+        final Node before = ctor.createNode();
+        final DifferenceNode diff = new DifferenceNode(before);
+        final Node node = DraftNode.createByDescription("B");
+        for (int index = 0; index < count; index = index + 1) {
+            final Node child = before.getChild(index);
+            Assertions.assertTrue(diff.insertNodeAfter(node, child));
+            Assertions.assertTrue(diff.deleteNode(child));
+        }
+        Assertions.assertEquals(count * 2, diff.getChildCount());
+        final Node after = diff.getAfter();
+        Assertions.assertEquals(count, after.getChildCount());
+        Assertions.assertEquals("B", after.getChild(count - 1).getTypeName());
+    }
+
     /**
      * Returns content of the specified file.
      * @param name The name of the file
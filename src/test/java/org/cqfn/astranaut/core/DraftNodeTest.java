@@ -24,6 +24,7 @@
 package org.cqfn.astranaut.core;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -45,6 +46,7 @@ class DraftNodeTest {
             "X(A)",
             "X(A, B, C)",
             "X(A(B, C))",
+            "X(A(B), C(D(E), F), G)",
             "Addition(Expression, Expression)",
             "Node<\"data\">",
         };
@@ -76,6 +78,27 @@ class DraftNodeTest {
         Assertions.assertEquals(serialized, ctor.createNode().toString());
     }
 
+    /**
+     * Testing that draft nodes with the same type name share the type, unless they are
+     *  created with a separate table of types.
+     */
+    @Test
+    void typesTest() {
+        final Node first = DraftNode.createByDescription("Some(Some)");
+        final Node second = first.getChild(0);
+        Assertions.assertSame(first.getType(), second.getType());
+        Assertions.assertSame(first.getType(), DraftNode.createByDescription("Some").getType());
+        final DraftNode.Constructor ctor = new DraftNode.Constructor(new HashMap<>());
+        ctor.setName("Some");
+        final Node other = ctor.createNode();
+        Assertions.assertNotSame(first.getType(), other.getType());
+        Assertions.assertSame(
+            other.getType(),
+            other.getType().createBuilder().createNode().getType()
+        );
+        Assertions.assertTrue(second.belongsToGroup("Some"));
+    }
+
     /**
      * Testing {@link  DraftNode#createByDescription(String)} and
      * {@link  DraftNode#toString()} methods (testing of one case).
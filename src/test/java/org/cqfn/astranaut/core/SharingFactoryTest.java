@@ -0,0 +1,396 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
+import org.cqfn.astranaut.core.algorithms.DifferenceTreeBuilder;
+import org.cqfn.astranaut.core.algorithms.mapping.BottomUpMapper;
+import org.cqfn.astranaut.core.algorithms.mapping.Mapper;
+import org.cqfn.astranaut.core.algorithms.mapping.TopDownMapper;
+import org.cqfn.astranaut.core.example.green.GreenFactory;
+import org.cqfn.astranaut.core.utils.IdentityIntMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests covering {@link SharingFactory} class.
+ *
+ * @since 1.1.5
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+class SharingFactoryTest {
+    /**
+     * The 'IntegerLiteral' string.
+     */
+    private static final String INT_LITERAL = "IntegerLiteral";
+
+    /**
+     * The '1+2' string.
+     */
+    private static final String SUM = "1+2";
+
+    /**
+     * Testing that identical subtrees become the same object.
+     */
+    @Test
+    void testSharing() {
+        final SharingFactory factory = new SharingFactory(GreenFactory.INSTANCE);
+        final Node first = SharingFactoryTest.createAddition(factory, "1", "2");
+        final Node second = SharingFactoryTest.createAddition(factory, "1", "2");
+        Assertions.assertSame(first, second);
+        Assertions.assertTrue(first.deepCompare(second));
+        final Node third = SharingFactoryTest.createAddition(factory, "1", "3");
+        Assertions.assertNotSame(first, third);
+        Assertions.assertSame(first.getChild(0), third.getChild(0));
+        Assertions.assertEquals(5, factory.size());
+        factory.clear();
+        Assertions.assertEquals(0, factory.size());
+        Assertions.assertNotSame(first, SharingFactoryTest.createAddition(factory, "1", "2"));
+    }
+
+    /**
+     * Testing that nodes with fragments and big subtrees are not shared.
+     */
+    @Test
+    void testNotShared() {
+        final SharingFactory factory = new SharingFactory(GreenFactory.INSTANCE, 2);
+        Assertions.assertNotSame(
+            SharingFactoryTest.createAddition(factory, "1", "2"),
+            SharingFactoryTest.createAddition(factory, "1", "2")
+        );
+        final Fragment fragment = new Fragment() {
+            @Override
+            public Source getSource() {
+                return EmptyFragment.INSTANCE.getSource();
+            }
+
+            @Override
+            public Position getBegin() {
+                return EmptyFragment.INSTANCE.getBegin();
+            }
+
+            @Override
+            public Position getEnd() {
+                return EmptyFragment.INSTANCE.getEnd();
+            }
+        };
+        Assertions.assertNotSame(
+            SharingFactoryTest.createLiteral(factory, "7", fragment),
+            SharingFactoryTest.createLiteral(factory, "7", fragment)
+        );
+        Assertions.assertSame(
+            SharingFactoryTest.createLiteral(factory, "7", EmptyFragment.INSTANCE),
+            SharingFactoryTest.createLiteral(factory, "7", EmptyFragment.INSTANCE)
+        );
+    }
+
+    /**
+     * Testing that a corpus of small statements built by a sharing factory consists
+     *  of much fewer distinct nodes.
+     */
+    @Test
+    void testDistinctNodes() {
+        final int blocks = 1000;
+        final int plain = SharingFactoryTest.countDistinctNodes(
+            SharingFactoryTest.createCorpus(GreenFactory.INSTANCE, blocks)
+        );
+        final SharingFactory factory = new SharingFactory(GreenFactory.INSTANCE);
+        final List<Node> corpus = SharingFactoryTest.createCorpus(factory, blocks);
+        final int shared = SharingFactoryTest.countDistinctNodes(corpus);
+        Assertions.assertTrue(shared * 4 < plain);
+        Assertions.assertTrue(factory.size() < shared);
+    }
+
+    /**
+     * Testing that canonical nodes that are no longer used are removed from the table.
+     * @throws InterruptedException If the thread is interrupted
+     */
+    @Test
+    @SuppressWarnings("PMD.DoNotCallGarbageCollectionExplicitly")
+    void testUnusedNodes() throws InterruptedException {
+        final SharingFactory factory = new SharingFactory(GreenFactory.INSTANCE);
+        final Node kept = SharingFactoryTest.createAddition(factory, "1", "2");
+        SharingFactoryTest.createCorpus(factory, 10);
+        Assertions.assertTrue(factory.size() > 3);
+        for (int attempt = 0; attempt < 100 && factory.size() > 3; attempt = attempt + 1) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(3, factory.size());
+        Assertions.assertSame(kept, SharingFactoryTest.createAddition(factory, "1", "2"));
+    }
+
+    /**
+     * Testing that threads creating identical nodes at once get the same canonical nodes.
+     * @throws InterruptedException If the thread is interrupted
+     */
+    @Test
+    void testThreads() throws InterruptedException {
+        final SharingFactory factory = new SharingFactory(GreenFactory.INSTANCE);
+        final int count = 4;
+        final List<List<Node>> results = new ArrayList<>(count);
+        final List<Thread> threads = new ArrayList<>(count);
+        for (int index = 0; index < count; index = index + 1) {
+            final List<Node> result = new ArrayList<>(0);
+            results.add(result);
+            threads.add(
+                new Thread(() -> result.addAll(SharingFactoryTest.createCorpus(factory, 100)))
+            );
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final List<Node> first = results.get(0);
+        for (final List<Node> result : results) {
+            Assertions.assertEquals(first.size(), result.size());
+            for (int index = 0; index < first.size(); index = index + 1) {
+                final Node statement = first.get(index).getChild(0);
+                Assertions.assertSame(
+                    statement.getChild(0),
+                    result.get(index).getChild(0).getChild(0)
+                );
+            }
+        }
+    }
+
+    /**
+     * Testing that a node can be built from children some of which are the same node.
+     */
+    @Test
+    void testRepeatedChildren() {
+        final SharingFactory factory = new SharingFactory(GreenFactory.INSTANCE);
+        final Builder variable = factory.createBuilder("Variable");
+        variable.setData("x");
+        final Node node = variable.createNode();
+        final Builder builder = factory.createBuilder("SimpleAssignment");
+        Assertions.assertTrue(builder.setChildrenList(Arrays.asList(node, node)));
+        Assertions.assertTrue(builder.isValid());
+        final Node assignment = builder.createNode();
+        Assertions.assertSame(assignment.getChild(0), assignment.getChild(1));
+    }
+
+    /**
+     * Testing that trees containing shared subtrees are compared correctly by mappers,
+     *  even if several occurrences of the same node are changed in different ways.
+     */
+    @Test
+    void testDifferenceTree() {
+        final String sum = SharingFactoryTest.SUM;
+        final String[] before = {sum, sum, "3"};
+        final String[][] variants = {
+            {sum, "3"},
+            {sum, "1+3", "3"},
+            {"1+3", sum, "3"},
+            {"4", sum, sum, "3"},
+            {sum, "4", sum, "3"},
+            {"3", sum, sum},
+            {sum, sum, sum, "3"},
+        };
+        final Mapper[] mappers = {
+            TopDownMapper.INSTANCE,
+            TopDownMapper.INDEXED,
+            BottomUpMapper.INSTANCE,
+        };
+        for (final String[] after : variants) {
+            for (final Mapper mapper : mappers) {
+                SharingFactoryTest.checkDifferenceTree(before, after, mapper, true);
+                SharingFactoryTest.checkDifferenceTree(before, after, mapper, false);
+            }
+        }
+    }
+
+    /**
+     * Builds a difference tree of two blocks of return statements, the first of which
+     *  is created by a sharing factory, and checks that it contains both blocks.
+     * @param before Returned values of the first block
+     * @param after Returned values of the second block
+     * @param mapper The mapper
+     * @param shared Flag indicating that the second block is created by the same
+     *  sharing factory as the first one
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private static void checkDifferenceTree(final String[] before, final String[] after,
+        final Mapper mapper, final boolean shared) {
+        final SharingFactory factory = new SharingFactory(GreenFactory.INSTANCE);
+        final Node first = SharingFactoryTest.createBlock(factory, before);
+        final Node second;
+        if (shared) {
+            second = SharingFactoryTest.createBlock(factory, after);
+        } else {
+            second = SharingFactoryTest.createBlock(GreenFactory.INSTANCE, after);
+        }
+        final DifferenceTreeBuilder builder = new DifferenceTreeBuilder(first);
+        Assertions.assertTrue(builder.build(second, mapper));
+        Assertions.assertTrue(first.deepCompare(builder.getRoot().getBefore()));
+        Assertions.assertTrue(second.deepCompare(builder.getRoot().getAfter()));
+    }
+
+    /**
+     * Creates blocks of random statements, which are assignments and returns
+     *  of variables, integer literals, and additions of them.
+     * @param factory The factory
+     * @param count The number of blocks
+     * @return The list of blocks
+     */
+    private static List<Node> createCorpus(final Factory factory, final int count) {
+        final Random random = new Random(0);
+        final List<Node> blocks = new ArrayList<>(count);
+        for (int block = 0; block < count; block = block + 1) {
+            final List<Node> statements = new ArrayList<>(20);
+            for (int index = 0; index < 20; index = index + 1) {
+                Node expression = SharingFactoryTest.createOperand(factory, random);
+                if (random.nextBoolean()) {
+                    final Builder addition = factory.createBuilder("Addition");
+                    addition.setChildrenList(
+                        Arrays.asList(
+                            expression, SharingFactoryTest.createOperand(factory, random)
+                        )
+                    );
+                    expression = addition.createNode();
+                }
+                final Builder statement = factory.createBuilder("Return");
+                statement.setChildrenList(Collections.singletonList(expression));
+                statements.add(statement.createNode());
+            }
+            final Builder builder = factory.createBuilder("StatementBlock");
+            builder.setChildrenList(statements);
+            blocks.add(builder.createNode());
+        }
+        return blocks;
+    }
+
+    /**
+     * Creates a random variable or integer literal.
+     * @param factory The factory
+     * @param random The random number generator
+     * @return A node
+     */
+    private static Node createOperand(final Factory factory, final Random random) {
+        final Node node;
+        if (random.nextBoolean()) {
+            final Builder builder = factory.createBuilder("Variable");
+            builder.setData(String.format("v%d", random.nextInt(30)));
+            node = builder.createNode();
+        } else {
+            node = SharingFactoryTest.createLiteral(
+                factory, String.valueOf(random.nextInt(16)), EmptyFragment.INSTANCE
+            );
+        }
+        return node;
+    }
+
+    /**
+     * Counts distinct objects among nodes of trees.
+     * @param roots Root nodes of the trees
+     * @return The number of distinct nodes
+     */
+    private static int countDistinctNodes(final List<Node> roots) {
+        final IdentityIntMap<Node> nodes = new IdentityIntMap<>();
+        final DepthFirstWalker.Visitor visitor = new DepthFirstWalker.Visitor() {
+            @Override
+            public boolean enter(final Node node) {
+                final boolean absent = !nodes.containsKey(node);
+                nodes.put(node, 0);
+                return absent;
+            }
+
+            @Override
+            public void leave(final Node node) {
+                assert nodes.containsKey(node);
+            }
+        };
+        for (final Node root : roots) {
+            new DepthFirstWalker(root).walk(visitor);
+        }
+        return nodes.size();
+    }
+
+    /**
+     * Creates a block of return statements.
+     * @param factory The factory
+     * @param values Returned values, either integers or additions of two integers
+     *  like {@code 1+2}
+     * @return A node
+     */
+    private static Node createBlock(final Factory factory, final String... values) {
+        final List<Node> statements = new ArrayList<>(values.length);
+        for (final String value : values) {
+            final String[] operands = value.split("\\+");
+            final Node expression;
+            if (operands.length == 2) {
+                expression = SharingFactoryTest.createAddition(factory, operands[0], operands[1]);
+            } else {
+                expression = SharingFactoryTest.createLiteral(
+                    factory, value, EmptyFragment.INSTANCE
+                );
+            }
+            final Builder builder = factory.createBuilder("Return");
+            builder.setChildrenList(Collections.singletonList(expression));
+            statements.add(builder.createNode());
+        }
+        final Builder builder = factory.createBuilder("StatementBlock");
+        builder.setChildrenList(statements);
+        return builder.createNode();
+    }
+
+    /**
+     * Creates an addition of two integer literals.
+     * @param factory The factory
+     * @param left The value of the left operand
+     * @param right The value of the right operand
+     * @return A node
+     */
+    private static Node createAddition(final Factory factory, final String left,
+        final String right) {
+        final Builder builder = factory.createBuilder("Addition");
+        builder.setChildrenList(
+            Arrays.asList(
+                SharingFactoryTest.createLiteral(factory, left, EmptyFragment.INSTANCE),
+                SharingFactoryTest.createLiteral(factory, right, EmptyFragment.INSTANCE)
+            )
+        );
+        return builder.createNode();
+    }
+
+    /**
+     * Creates an integer literal.
+     * @param factory The factory
+     * @param value The value
+     * @param fragment The fragment
+     * @return A node
+     */
+    private static Node createLiteral(final Factory factory, final String value,
+        final Fragment fragment) {
+        final Builder builder = factory.createBuilder(SharingFactoryTest.INT_LITERAL);
+        builder.setFragment(fragment);
+        builder.setData(value);
+        return builder.createNode();
+    }
+}
@@ -23,7 +23,9 @@
  */
 package org.cqfn.astranaut.core.algorithms;
 
+import org.cqfn.astranaut.core.DraftNode;
 import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.hash.AbsoluteHash;
 import org.cqfn.astranaut.core.example.LittleTrees;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -43,4 +45,21 @@ class DepthTest {
         value = depth.calculate(tree.getChild(0));
         Assertions.assertEquals(3, value);
     }
+
+    /**
+     * Testing that a very deep tree does not cause a stack overflow.
+     */
+    @Test
+    void testVeryDeepTree() {
+        final int count = 100_000;
+        Node tree = DraftNode.createByDescription("Leaf");
+        for (int index = 1; index < count; index = index + 1) {
+            final DraftNode.Constructor ctor = new DraftNode.Constructor();
+            ctor.setName("Node");
+            ctor.addChild(tree);
+            tree = ctor.createNode();
+        }
+        Assertions.assertEquals(count, new Depth().calculate(tree));
+        Assertions.assertNotEquals(0, new AbsoluteHash().calculate(tree));
+    }
 }
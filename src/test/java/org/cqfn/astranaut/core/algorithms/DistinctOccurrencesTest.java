@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms;
+
+import java.util.Arrays;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.hash.AbsoluteHash;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing {@link DistinctOccurrences} class.
+ *
+ * @since 1.1.5
+ */
+class DistinctOccurrencesTest {
+    /**
+     * Testing that a tree without repeated nodes is returned as is.
+     */
+    @Test
+    void testTreeWithoutRepeatedNodes() {
+        final Node tree = DraftNode.createByDescription("A(B(C,D),B(C,D))");
+        Assertions.assertSame(tree, new DistinctOccurrences().process(tree));
+    }
+
+    /**
+     * Testing that repeated nodes are replaced by copies.
+     */
+    @Test
+    void testRepeatedNodes() {
+        final Node leaf = DraftNode.createByDescription("C");
+        final Node subtree = DistinctOccurrencesTest.createNode("B", leaf, leaf);
+        final Node other = DistinctOccurrencesTest.createNode("E", leaf);
+        final Node tree = DistinctOccurrencesTest.createNode("A", subtree, other, subtree);
+        final Node result = new DistinctOccurrences().process(tree);
+        Assertions.assertTrue(tree.deepCompare(result));
+        final Node[] nodes = {
+            result,
+            result.getChild(0),
+            result.getChild(0).getChild(0),
+            result.getChild(0).getChild(1),
+            result.getChild(1),
+            result.getChild(1).getChild(0),
+            result.getChild(2),
+            result.getChild(2).getChild(0),
+            result.getChild(2).getChild(1),
+        };
+        Assertions.assertEquals(
+            nodes.length,
+            Arrays.stream(nodes).map(System::identityHashCode).distinct().count()
+        );
+        Assertions.assertSame(leaf, result.getChild(0).getChild(0));
+        Assertions.assertNotSame(other, result.getChild(1));
+    }
+
+    /**
+     * Testing that nodes that occurred in a tree processed before are replaced by copies.
+     */
+    @Test
+    void testNodesOfPreviousTree() {
+        final Node first = DraftNode.createByDescription("A(B,C)");
+        final Node second = DistinctOccurrencesTest.createNode(
+            "A", first.getChild(0), DraftNode.createByDescription("D")
+        );
+        final DistinctOccurrences distinct = new DistinctOccurrences();
+        Assertions.assertSame(first, distinct.process(first));
+        final Node result = distinct.process(second);
+        Assertions.assertNotSame(second, result);
+        Assertions.assertTrue(second.deepCompare(result));
+        Assertions.assertNotSame(first.getChild(0), result.getChild(0));
+        Assertions.assertSame(second.getChild(1), result.getChild(1));
+    }
+
+    /**
+     * Testing that a very deep tree does not cause a stack overflow.
+     */
+    @Test
+    void testVeryDeepTree() {
+        final Node leaf = DraftNode.createByDescription("Leaf");
+        Node tree = DistinctOccurrencesTest.createNode("Node", leaf, leaf);
+        for (int index = 1; index < 100_000; index = index + 1) {
+            tree = DistinctOccurrencesTest.createNode("Node", tree);
+        }
+        final Node result = new DistinctOccurrences().process(tree);
+        Assertions.assertNotSame(tree, result);
+        Assertions.assertEquals(
+            new AbsoluteHash().calculate(tree),
+            new AbsoluteHash().calculate(result)
+        );
+    }
+
+    /**
+     * Creates a draft node.
+     * @param name The type name
+     * @param children The children
+     * @return A node
+     */
+    private static Node createNode(final String name, final Node... children) {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName(name);
+        ctor.setChildrenList(Arrays.asList(children));
+        return ctor.createNode();
+    }
+}
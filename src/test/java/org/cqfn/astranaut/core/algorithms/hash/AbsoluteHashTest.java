@@ -49,4 +49,36 @@ class AbsoluteHashTest {
         actual = hash.calculate(second.getChild(0));
         Assertions.assertEquals(expected, actual);
     }
+
+    /**
+     * Testing that clearing the cache does not affect the calculated values.
+     */
+    @Test
+    void testClearing() {
+        final AbsoluteHash hash = new AbsoluteHash();
+        final Node tree = LittleTrees.createTreeWithDeleteAction();
+        final int expected = hash.calculate(tree);
+        Assertions.assertTrue(hash.size() > 1);
+        hash.clear();
+        Assertions.assertEquals(0, hash.size());
+        Assertions.assertEquals(expected, hash.calculate(tree));
+    }
+
+    /**
+     * Testing that a layered hash reuses the hashes of its base without modifying it.
+     */
+    @Test
+    void testLayering() {
+        final AbsoluteHash base = new AbsoluteHash();
+        final Node tree = LittleTrees.createTreeWithDeleteAction();
+        final int expected = base.calculate(tree);
+        final int size = base.size();
+        final AbsoluteHash layer = new AbsoluteHash(base);
+        Assertions.assertEquals(expected, layer.calculate(tree));
+        Assertions.assertEquals(0, layer.size());
+        final Node other = LittleTrees.createTreeWithDeleteAction();
+        Assertions.assertEquals(expected, layer.calculate(other));
+        Assertions.assertTrue(layer.size() > 1);
+        Assertions.assertEquals(size, base.size());
+    }
 }
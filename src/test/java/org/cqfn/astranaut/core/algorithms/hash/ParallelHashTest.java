@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.hash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.DepthFirstWalker;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ParallelHash} class.
+ *
+ * @since 1.1.5
+ */
+class ParallelHashTest {
+    /**
+     * Number of leaves in the generated tree.
+     */
+    private static final int LEAVES = 100_000;
+
+    /**
+     * Maximum number of children of a node in the generated tree.
+     */
+    private static final int FAN_OUT = 5;
+
+    /**
+     * Testing that the parallel algorithm calculates the same hashes as the sequential one.
+     */
+    @Test
+    void testSameHashesAsSequential() {
+        final Node tree = ParallelHashTest.generate(new Random(0));
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final ParallelHash parallel = new ParallelHash(pool);
+        final AbsoluteHash sequential = new AbsoluteHash();
+        Assertions.assertEquals(sequential.calculate(tree), parallel.calculate(tree));
+        pool.shutdown();
+        Assertions.assertEquals(sequential.size(), parallel.size());
+        final int[] mismatches = new int[1];
+        new DepthFirstWalker(tree).walk(
+            new DepthFirstWalker.Visitor() {
+                @Override
+                public boolean enter(final Node node) {
+                    return true;
+                }
+
+                @Override
+                public void leave(final Node node) {
+                    if (sequential.calculate(node) != parallel.calculate(node)) {
+                        mismatches[0] += 1;
+                    }
+                }
+            }
+        );
+        Assertions.assertEquals(0, mismatches[0]);
+        parallel.clear();
+        Assertions.assertEquals(0, parallel.size());
+    }
+
+    /**
+     * Testing the equality feature on the common pool.
+     */
+    @Test
+    void testEqualityFeature() {
+        final Hash hash = new ParallelHash();
+        final Node first = ParallelHashTest.generate(new Random(1));
+        final Node second = ParallelHashTest.generate(new Random(1));
+        Assertions.assertEquals(hash.calculate(first), hash.calculate(second));
+    }
+
+    /**
+     * Generates a random tree, grouping nodes into parents level by level.
+     * @param random Random number generator
+     * @return Root node of the tree
+     */
+    private static Node generate(final Random random) {
+        List<Node> level = new ArrayList<>(ParallelHashTest.LEAVES);
+        for (int index = 0; index < ParallelHashTest.LEAVES; index = index + 1) {
+            final DraftNode.Constructor ctor = new DraftNode.Constructor();
+            ctor.setName("Leaf");
+            ctor.setData(String.valueOf(random.nextInt(100)));
+            level.add(ctor.createNode());
+        }
+        while (level.size() > 1) {
+            final List<Node> parents = new ArrayList<>(level.size() / 2);
+            int index = 0;
+            while (index < level.size()) {
+                final int count = Math.min(
+                    1 + random.nextInt(ParallelHashTest.FAN_OUT), level.size() - index
+                );
+                final DraftNode.Constructor ctor = new DraftNode.Constructor();
+                ctor.setName("Node".concat(String.valueOf(count)));
+                ctor.setChildrenList(level.subList(index, index + count));
+                parents.add(ctor.createNode());
+                index = index + count;
+            }
+            level = parents;
+        }
+        return level.get(0);
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.mapping;
+
+import java.time.Duration;
+import java.util.Random;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Insertion;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.DifferenceTreeBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link BottomUpMapper} class.
+ *
+ * @since 1.1.5
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+class BottomUpMapperTest {
+    /**
+     * The 'Statement' type name.
+     */
+    private static final String STATEMENT = "Statement";
+
+    /**
+     * The 'Expression' type name.
+     */
+    private static final String EXPRESSION = "Expression";
+
+    @Test
+    void testIdenticalTrees() {
+        final Node first = BottomUpMapperTest.createBlock("a", "b", "c");
+        final Node second = BottomUpMapperTest.createBlock("a", "b", "c");
+        final Mapping mapping = BottomUpMapper.INSTANCE.map(first, second);
+        Assertions.assertSame(second, mapping.getRight(first));
+        Assertions.assertSame(first, mapping.getLeft(second));
+        Assertions.assertSame(
+            second.getChild(2).getChild(0),
+            mapping.getRight(first.getChild(2).getChild(0))
+        );
+        Assertions.assertTrue(mapping.getInserted().isEmpty());
+        Assertions.assertTrue(mapping.getReplaced().isEmpty());
+        Assertions.assertTrue(mapping.getDeleted().isEmpty());
+    }
+
+    @Test
+    void testRenamedContainer() {
+        final Node first = BottomUpMapperTest.create(
+            "Class",
+            "",
+            BottomUpMapperTest.create("Method", "foo", BottomUpMapperTest.createBlock("a", "b"))
+        );
+        final Node second = BottomUpMapperTest.create(
+            "Class",
+            "",
+            BottomUpMapperTest.create("Method", "bar", BottomUpMapperTest.createBlock("a", "b"))
+        );
+        final Mapping mapping = BottomUpMapper.INSTANCE.map(first, second);
+        Assertions.assertSame(second, mapping.getRight(first));
+        Assertions.assertSame(second.getChild(0), mapping.getRight(first.getChild(0)));
+        Assertions.assertSame(
+            second.getChild(0).getChild(0).getChild(1),
+            mapping.getRight(first.getChild(0).getChild(0).getChild(1))
+        );
+        Assertions.assertEquals(1, mapping.getReplaced().size());
+        Assertions.assertSame(
+            second.getChild(0),
+            mapping.getReplaced().get(first.getChild(0))
+        );
+        Assertions.assertTrue(mapping.getInserted().isEmpty());
+        Assertions.assertTrue(mapping.getDeleted().isEmpty());
+    }
+
+    @Test
+    void testInsertionAndDeletion() {
+        final Node first = BottomUpMapperTest.createBlock("a", "b", "c", "d");
+        final Node second = BottomUpMapperTest.createBlock("a", "c", "d", "e");
+        final Mapping mapping = BottomUpMapper.INSTANCE.map(first, second);
+        Assertions.assertEquals(1, mapping.getDeleted().size());
+        Assertions.assertTrue(mapping.getDeleted().contains(first.getChild(1)));
+        Assertions.assertEquals(1, mapping.getInserted().size());
+        final Insertion insertion = mapping.getInserted().iterator().next();
+        Assertions.assertSame(second.getChild(3), insertion.getNode());
+        Assertions.assertSame(first, insertion.getInto());
+        Assertions.assertSame(first.getChild(3), insertion.getAfter());
+        Assertions.assertTrue(mapping.getReplaced().isEmpty());
+        Assertions.assertSame(second.getChild(1), mapping.getRight(first.getChild(2)));
+    }
+
+    @Test
+    void testDifferenceTreeRoundTrip() {
+        final Node first = BottomUpMapperTest.createBlock("a", "b", "c", "d");
+        final Node second = BottomUpMapperTest.createBlock(
+            "a", "p", "q", "r", "c", "s", "t", "d", "u", "v", "w"
+        );
+        final DifferenceTreeBuilder builder = new DifferenceTreeBuilder(first);
+        Assertions.assertTrue(builder.build(second, BottomUpMapper.INSTANCE));
+        Assertions.assertTrue(builder.getRoot().getBefore().deepCompare(first));
+        Assertions.assertTrue(builder.getRoot().getAfter().deepCompare(second));
+    }
+
+    @Test
+    void testReplacedLeaf() {
+        final Node first = BottomUpMapperTest.create(
+            "Block",
+            "",
+            BottomUpMapperTest.createStatement("a"),
+            BottomUpMapperTest.create("Name", "x")
+        );
+        final Node second = BottomUpMapperTest.create(
+            "Block",
+            "",
+            BottomUpMapperTest.createStatement("a"),
+            BottomUpMapperTest.create("Name", "y")
+        );
+        final Mapping mapping = BottomUpMapper.INSTANCE.map(first, second);
+        Assertions.assertEquals(1, mapping.getReplaced().size());
+        Assertions.assertSame(second.getChild(1), mapping.getReplaced().get(first.getChild(1)));
+        Assertions.assertTrue(mapping.getInserted().isEmpty());
+        Assertions.assertTrue(mapping.getDeleted().isEmpty());
+    }
+
+    @Test
+    void testDifferentRoots() {
+        final Node first = DraftNode.createByDescription("X(A,B)");
+        final Node second = DraftNode.createByDescription("Y(C)");
+        final Mapping mapping = BottomUpMapper.INSTANCE.map(first, second);
+        Assertions.assertSame(second, mapping.getRight(first));
+        Assertions.assertEquals(1, mapping.getReplaced().size());
+        Assertions.assertSame(second, mapping.getReplaced().get(first));
+    }
+
+    @Test
+    void testRecoveryDoesNotDependOnOrder() {
+        final String[][] orders = {{"a", "b"}, {"b", "a"}};
+        for (final String[] order : orders) {
+            final Node first = BottomUpMapperTest.createBlockOfPairs(order, "b");
+            final Node second = BottomUpMapperTest.createBlockOfPairs(order, "c");
+            final Mapping mapping = BottomUpMapper.INSTANCE.map(first, second);
+            for (int index = 0; index < order.length; index = index + 1) {
+                Assertions.assertSame(
+                    second.getChild(index),
+                    mapping.getRight(first.getChild(index))
+                );
+                Assertions.assertSame(
+                    second.getChild(index).getChild(0),
+                    mapping.getRight(first.getChild(index).getChild(0))
+                );
+            }
+            Assertions.assertEquals(1, mapping.getReplaced().size());
+            Assertions.assertTrue(mapping.getInserted().isEmpty());
+            Assertions.assertTrue(mapping.getDeleted().isEmpty());
+        }
+    }
+
+    @Test
+    void testLargeTrees() {
+        final int depth = 8;
+        final Node first = BottomUpMapperTest.generate(new Random(0), depth, new int[] {-1});
+        final Node second = BottomUpMapperTest.generate(new Random(0), depth, new int[] {5000});
+        final Mapping mapping = Assertions.assertTimeout(
+            Duration.ofSeconds(1),
+            () -> BottomUpMapper.INSTANCE.map(first, second)
+        );
+        Assertions.assertSame(second, mapping.getRight(first));
+        Assertions.assertEquals(1, mapping.getReplaced().size());
+        Assertions.assertTrue(mapping.getInserted().isEmpty());
+        Assertions.assertTrue(mapping.getDeleted().isEmpty());
+    }
+
+    @Test
+    void testDeepTrees() {
+        final int length = 50_000;
+        final Node first = BottomUpMapperTest.createChain(length, -1);
+        final Node second = BottomUpMapperTest.createChain(length, length / 2);
+        final Mapping mapping = Assertions.assertTimeout(
+            Duration.ofSeconds(1),
+            () -> BottomUpMapper.INSTANCE.map(first, second)
+        );
+        Assertions.assertSame(second, mapping.getRight(first));
+        Assertions.assertSame(second.getChild(0), mapping.getRight(first.getChild(0)));
+        Assertions.assertEquals(1, mapping.getReplaced().size());
+        Assertions.assertTrue(mapping.getInserted().isEmpty());
+        Assertions.assertTrue(mapping.getDeleted().isEmpty());
+    }
+
+    /**
+     * Creates a node.
+     * @param type Type name
+     * @param data Data
+     * @param children Children
+     * @return The node
+     */
+    private static Node create(final String type, final String data, final Node... children) {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName(type);
+        ctor.setData(data);
+        for (final Node child : children) {
+            ctor.addChild(child);
+        }
+        return ctor.createNode();
+    }
+
+    /**
+     * Creates a statement, that is, a subtree of height 2.
+     * @param data Data of the statement
+     * @return The node
+     */
+    private static Node createStatement(final String data) {
+        return BottomUpMapperTest.create(
+            BottomUpMapperTest.STATEMENT,
+            data,
+            BottomUpMapperTest.create(BottomUpMapperTest.EXPRESSION, data)
+        );
+    }
+
+    /**
+     * Creates a block of statements.
+     * @param data Data of the statements
+     * @return The node
+     */
+    private static Node createBlock(final String... data) {
+        final Node[] children = new Node[data.length];
+        for (int index = 0; index < data.length; index = index + 1) {
+            children[index] = BottomUpMapperTest.createStatement(data[index]);
+        }
+        return BottomUpMapperTest.create("Block", "", children);
+    }
+
+    /**
+     * Creates a block of two statements. The statement 'a' contains the expression 'a',
+     *  and the other statement contains the expression 'q'.
+     * @param order Order of statements, where 'b' stands for the other statement
+     * @param data Data of the other statement
+     * @return The node
+     */
+    private static Node createBlockOfPairs(final String[] order, final String data) {
+        final Node[] children = new Node[order.length];
+        for (int index = 0; index < order.length; index = index + 1) {
+            if ("a".equals(order[index])) {
+                children[index] = BottomUpMapperTest.createStatement("a");
+            } else {
+                children[index] = BottomUpMapperTest.create(
+                    BottomUpMapperTest.STATEMENT,
+                    data,
+                    BottomUpMapperTest.create(BottomUpMapperTest.EXPRESSION, "q")
+                );
+            }
+        }
+        return BottomUpMapperTest.create("Block", "", children);
+    }
+
+    /**
+     * Creates a left-deep chain of binary expressions, like the one the parser builds
+     *  for {@code x0 + x1 + ... + xN}.
+     * @param length Number of binary expressions
+     * @param changed Index of the operand that gets unique data, or {@code -1}
+     * @return The root node
+     */
+    private static Node createChain(final int length, final int changed) {
+        Node result = BottomUpMapperTest.create(BottomUpMapperTest.EXPRESSION, "x0");
+        for (int index = 1; index <= length; index = index + 1) {
+            final String data;
+            if (index == changed) {
+                data = "changed";
+            } else {
+                data = String.format("x%d", index);
+            }
+            result = BottomUpMapperTest.create(
+                "Addition",
+                "",
+                result,
+                BottomUpMapperTest.create(BottomUpMapperTest.EXPRESSION, data)
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Generates a random tree where each inner node has four children.
+     * @param random Random number generator
+     * @param depth Depth of the tree
+     * @param counter Counter of leaves; the leaf whose index is zero gets unique data
+     * @return The root node
+     */
+    private static Node generate(final Random random, final int depth, final int... counter) {
+        final Node result;
+        final String data = String.valueOf(random.nextInt(100));
+        if (depth == 0) {
+            counter[0] = counter[0] - 1;
+            if (counter[0] == 0) {
+                result = BottomUpMapperTest.create(BottomUpMapperTest.EXPRESSION, "changed");
+            } else {
+                result = BottomUpMapperTest.create(BottomUpMapperTest.EXPRESSION, data);
+            }
+        } else {
+            final Node[] children = new Node[4];
+            for (int index = 0; index < children.length; index = index + 1) {
+                children[index] = BottomUpMapperTest.generate(random, depth - 1, counter);
+            }
+            result = BottomUpMapperTest.create(BottomUpMapperTest.STATEMENT, data, children);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.algorithms.mapping;
+
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Node;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link MappingSession} class.
+ *
+ * @since 1.1.5
+ */
+class MappingSessionTest {
+    /**
+     * The 'Block' type name.
+     */
+    private static final String BLOCK = "Block";
+
+    @Test
+    void testSequenceOfTrees() {
+        final Node left = MappingSessionTest.createBlock("a", "b", "c");
+        final MappingSession session = new MappingSession(left);
+        final String[][] revisions = {
+            {"a", "b", "c"},
+            {"a", "c"},
+            {"a", "x", "b", "c"},
+            {"a", "y", "c"},
+        };
+        for (final String[] revision : revisions) {
+            final Node right = MappingSessionTest.createBlock(revision);
+            final Mapping expected = TopDownMapper.INSTANCE.map(left, right);
+            final Mapping actual = session.map(right);
+            Assertions.assertEquals(expected.getInserted().size(), actual.getInserted().size());
+            Assertions.assertEquals(expected.getDeleted(), actual.getDeleted());
+            Assertions.assertEquals(expected.getReplaced(), actual.getReplaced());
+            Assertions.assertSame(right, actual.getRight(left));
+        }
+    }
+
+    @Test
+    void testNodesInsideIdenticalSubtrees() {
+        final Node left = MappingSessionTest.createBlock("a", "b", "c");
+        final Node right = MappingSessionTest.createBlock("a", "x", "c");
+        final Mapping mapping = new MappingSession(left).map(right);
+        final Node first = left.getChild(2).getChild(1).getChild(0);
+        final Node second = right.getChild(2).getChild(1).getChild(0);
+        Assertions.assertEquals("Name", first.getTypeName());
+        Assertions.assertSame(second, mapping.getRight(first));
+        Assertions.assertSame(first, mapping.getLeft(second));
+        Assertions.assertSame(right.getChild(0), mapping.getRight(left.getChild(0)));
+        Assertions.assertSame(
+            left.getChild(2).getChild(0),
+            mapping.getLeft(right.getChild(2).getChild(0))
+        );
+        Assertions.assertNull(mapping.getRight(DraftNode.createByDescription("Name")));
+    }
+
+    @Test
+    void testSharedSubtrees() {
+        final Node left = MappingSessionTest.createBlock("a", "b", "c");
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName(MappingSessionTest.BLOCK);
+        ctor.addChild(left.getChild(0));
+        ctor.addChild(left.getChild(2));
+        final Node right = ctor.createNode();
+        final Mapping mapping = new MappingSession(left, true).map(right);
+        Assertions.assertEquals(1, mapping.getDeleted().size());
+        Assertions.assertTrue(mapping.getDeleted().contains(left.getChild(1)));
+        Assertions.assertTrue(mapping.getInserted().isEmpty());
+        final Node node = left.getChild(2).getChild(0);
+        Assertions.assertSame(node, mapping.getRight(node));
+    }
+
+    /**
+     * Creates a block of statements, where each statement contains an expression
+     *  and a nested block.
+     * @param names Data of the statements
+     * @return The node
+     */
+    private static Node createBlock(final String... names) {
+        final DraftNode.Constructor block = new DraftNode.Constructor();
+        block.setName(MappingSessionTest.BLOCK);
+        for (final String name : names) {
+            final DraftNode.Constructor statement = new DraftNode.Constructor();
+            statement.setName("Statement");
+            statement.setData(name);
+            statement.addChild(DraftNode.createByDescription("Expression"));
+            statement.addChild(
+                DraftNode.createByDescription(String.format("Block(Name<\"%s\">)", name))
+            );
+            block.addChild(statement.createNode());
+        }
+        return block.createNode();
+    }
+}
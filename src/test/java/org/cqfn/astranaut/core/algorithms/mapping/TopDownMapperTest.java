@@ -31,6 +31,7 @@ import java.util.TreeMap;
 import org.cqfn.astranaut.core.DraftNode;
 import org.cqfn.astranaut.core.Insertion;
 import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.DifferenceTreeBuilder;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -220,4 +221,110 @@ class TopDownMapperTest {
             );
         }
     }
+
+    @Test
+    void testIndexedMapperOnSimpleChanges() {
+        final Mapper mapper = TopDownMapper.INDEXED;
+        Mapping mapping = mapper.map(
+            DraftNode.createByDescription("X(A,B,C)"),
+            DraftNode.createByDescription("X(A,D,C)")
+        );
+        Assertions.assertEquals(1, mapping.getReplaced().size());
+        Assertions.assertTrue(mapping.getInserted().isEmpty());
+        Assertions.assertTrue(mapping.getDeleted().isEmpty());
+        final Node first = DraftNode.createByDescription("X(A,C)");
+        final Node second = DraftNode.createByDescription("X(A,B,C)");
+        mapping = mapper.map(first, second);
+        Assertions.assertEquals(1, mapping.getInserted().size());
+        final Insertion insertion = mapping.getInserted().iterator().next();
+        Assertions.assertEquals("B", insertion.getNode().getTypeName());
+        Assertions.assertSame(first.getChild(0), insertion.getAfter());
+        Assertions.assertSame(second.getChild(2), mapping.getRight(first.getChild(1)));
+        mapping = mapper.map(
+            DraftNode.createByDescription("X(A,B)"),
+            DraftNode.createByDescription("X(A)")
+        );
+        Assertions.assertEquals(1, mapping.getDeleted().size());
+        Assertions.assertEquals("B", mapping.getDeleted().iterator().next().getTypeName());
+        Assertions.assertTrue(mapping.getMoved().isEmpty());
+    }
+
+    @Test
+    void testIndexedMapperDetectsMovedNode() {
+        final Node first = DraftNode.createByDescription("X(A,B,C,D)");
+        final Node second = DraftNode.createByDescription("X(B,C,D,A)");
+        final Mapping mapping = TopDownMapper.INDEXED.map(first, second);
+        final Map<Node, Node> moved = mapping.getMoved();
+        Assertions.assertEquals(1, moved.size());
+        Assertions.assertSame(second.getChild(3), moved.get(first.getChild(0)));
+        Assertions.assertSame(second.getChild(3), mapping.getRight(first.getChild(0)));
+        Assertions.assertEquals(1, mapping.getDeleted().size());
+        Assertions.assertTrue(mapping.getDeleted().contains(first.getChild(0)));
+        Assertions.assertEquals(1, mapping.getInserted().size());
+        final Insertion insertion = mapping.getInserted().iterator().next();
+        Assertions.assertSame(second.getChild(3), insertion.getNode());
+        Assertions.assertSame(first.getChild(3), insertion.getAfter());
+        Assertions.assertTrue(mapping.getReplaced().isEmpty());
+    }
+
+    @Test
+    void testIndexedMapperOnWideNode() {
+        final int count = 2000;
+        final DraftNode.Constructor before = new DraftNode.Constructor();
+        before.setName("Class");
+        final DraftNode.Constructor after = new DraftNode.Constructor();
+        after.setName("Class");
+        after.addChild(TopDownMapperTest.createMember(count - 1));
+        for (int index = 0; index < count; index = index + 1) {
+            before.addChild(TopDownMapperTest.createMember(index));
+            if (index != 1 && index < count - 1) {
+                after.addChild(TopDownMapperTest.createMember(index));
+            }
+        }
+        final Node first = before.createNode();
+        final Node second = after.createNode();
+        final Mapping mapping = TopDownMapper.INDEXED.map(first, second);
+        Assertions.assertEquals(1, mapping.getMoved().size());
+        Assertions.assertSame(
+            second.getChild(0),
+            mapping.getMoved().get(first.getChild(count - 1))
+        );
+        Assertions.assertEquals(2, mapping.getDeleted().size());
+        Assertions.assertTrue(mapping.getDeleted().contains(first.getChild(1)));
+        Assertions.assertEquals(1, mapping.getInserted().size());
+        Assertions.assertTrue(mapping.getReplaced().isEmpty());
+        Assertions.assertSame(second.getChild(1), mapping.getRight(first.getChild(0)));
+        Assertions.assertSame(second.getChild(2), mapping.getRight(first.getChild(2)));
+    }
+
+    @Test
+    void testIndexedMapperBuildsDifferenceTree() {
+        final String[][] cases = {
+            {"X(A, D)", "X(A, P, Q, R, S, T, D)"},
+            {"X(A, B, C, D)", "X(B, P, Q, C, D, A, R)"},
+            {"X(A, B)", "X(P, Q, R, A, S, T)"},
+            {"X(A<\"1\">, B<\"2\">)", "X(A<\"3\">, P, Q, B<\"2\">, R, S)"},
+        };
+        for (final String[] item : cases) {
+            final Node first = DraftNode.createByDescription(item[0]);
+            final Node second = DraftNode.createByDescription(item[1]);
+            final DifferenceTreeBuilder builder = new DifferenceTreeBuilder(first);
+            Assertions.assertTrue(builder.build(second, TopDownMapper.INDEXED));
+            Assertions.assertTrue(builder.getRoot().getBefore().deepCompare(first));
+            Assertions.assertEquals(item[1], builder.getRoot().getAfter().toString());
+        }
+    }
+
+    /**
+     * Creates a class member with some unique data.
+     * @param index Index of the member
+     * @return The node
+     */
+    private static Node createMember(final int index) {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName("Member");
+        ctor.setData(String.valueOf(index));
+        ctor.addChild(DraftNode.createByDescription("Body"));
+        return ctor.createNode();
+    }
 }
@@ -186,6 +186,12 @@ public final class Addition implements BinaryExpression {
      * @since 1.0
      */
     public static final class Constructor implements Builder {
+        /**
+         * The mapper of child nodes, shared by all builders.
+         */
+        private static final ChildrenMapper MAPPER =
+            new ChildrenMapper(Addition.TYPE.getChildTypes());
+
         /**
          * The fragment associated with the node.
          */
@@ -230,8 +236,7 @@ public final class Addition implements BinaryExpression {
         @Override
         public boolean setChildrenList(final List<Node> list) {
             final Node[] mapping = new Node[2];
-            final ChildrenMapper mapper = new ChildrenMapper(Addition.TYPE.getChildTypes());
-            final boolean result = mapper.map(mapping, list);
+            final boolean result = Constructor.MAPPER.map(mapping, list);
             if (result) {
                 this.left = (Expression) mapping[0];
                 this.right = (Expression) mapping[1];
@@ -211,6 +211,12 @@ public final class ExpressionStatement implements Statement {
          */
         private static final int EXPRESSION_POS = 0;
 
+        /**
+         * The mapper of child nodes, shared by all builders.
+         */
+        private static final ChildrenMapper MAPPER =
+            new ChildrenMapper(ExpressionStatement.TYPE.getChildTypes());
+
         /**
          * The fragment associated with the node.
          */
@@ -242,9 +248,7 @@ public final class ExpressionStatement implements Statement {
         @Override
         public boolean setChildrenList(final List<Node> list) {
             final Node[] mapping = new Node[Constructor.MAX_NODE_COUNT];
-            final ChildrenMapper mapper =
-                new ChildrenMapper(ExpressionStatement.TYPE.getChildTypes());
-            final boolean result = mapper.map(mapping, list);
+            final boolean result = Constructor.MAPPER.map(mapping, list);
             if (result) {
                 this.expression = (Expression) mapping[Constructor.EXPRESSION_POS];
             }
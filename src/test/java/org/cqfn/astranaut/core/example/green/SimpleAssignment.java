@@ -227,6 +227,12 @@ public final class SimpleAssignment implements Assignment {
          */
         private static final int RIGHT_POS = 1;
 
+        /**
+         * The mapper of child nodes, shared by all builders.
+         */
+        private static final ChildrenMapper MAPPER =
+            new ChildrenMapper(SimpleAssignment.TYPE.getChildTypes());
+
         /**
          * The fragment associated with the node.
          */
@@ -271,9 +277,7 @@ public final class SimpleAssignment implements Assignment {
         @Override
         public boolean setChildrenList(final List<Node> list) {
             final Node[] mapping = new Node[Constructor.MAX_NODE_COUNT];
-            final ChildrenMapper mapper =
-                new ChildrenMapper(SimpleAssignment.TYPE.getChildTypes());
-            final boolean result = mapper.map(mapping, list);
+            final boolean result = Constructor.MAPPER.map(mapping, list);
             if (result) {
                 this.left = (AssignableExpression) mapping[Constructor.LEFT_POS];
                 this.right = (Expression) mapping[Constructor.RIGHT_POS];
@@ -25,6 +25,7 @@ package org.cqfn.astranaut.core.example.javascript.rules;
 
 import java.util.List;
 import java.util.Map;
+import org.cqfn.astranaut.core.Captures;
 import org.cqfn.astranaut.core.Matcher;
 import org.cqfn.astranaut.core.Node;
 
@@ -58,10 +59,20 @@ public final class Matcher0 implements Matcher {
     @Override
     public boolean match(final Node node, final Map<Integer, List<Node>> children,
         final Map<Integer, String> data) {
+        final Captures captures = new Captures();
+        final boolean result = this.match(node, captures);
+        if (result) {
+            captures.copyTo(children, data);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean match(final Node node, final Captures captures) {
         final boolean result = node.belongsToGroup(Matcher0.EXPECTED_TYPE)
             && node.getChildCount() == Matcher0.EXPECTED_COUNT;
         if (result) {
-            data.put(1, node.getData());
+            captures.putData(1, node.getData());
         }
         return result;
     }
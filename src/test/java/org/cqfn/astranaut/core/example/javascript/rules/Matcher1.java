@@ -25,6 +25,7 @@ package org.cqfn.astranaut.core.example.javascript.rules;
 
 import java.util.List;
 import java.util.Map;
+import org.cqfn.astranaut.core.Captures;
 import org.cqfn.astranaut.core.Matcher;
 import org.cqfn.astranaut.core.Node;
 
@@ -58,8 +59,18 @@ public final class Matcher1 implements Matcher {
     @Override
     public boolean match(final Node node, final Map<Integer, List<Node>> children,
         final Map<Integer, String> data) {
+        final Captures captures = new Captures();
+        final boolean result = this.match(node, captures);
+        if (result) {
+            captures.copyTo(children, data);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean match(final Node node, final Captures captures) {
         return node.belongsToGroup(Matcher1.EXPECTED_TYPE)
             && node.getChildCount() == Matcher1.EXPECTED_COUNT
-            && Matcher0.INSTANCE.match(node.getChild(0), children, data);
+            && Matcher0.INSTANCE.match(node.getChild(0), captures);
     }
 }
@@ -23,10 +23,10 @@
  */
 package org.cqfn.astranaut.core.example.javascript.rules;
 
-import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.Collections;
+import java.util.Set;
 import org.cqfn.astranaut.core.Builder;
+import org.cqfn.astranaut.core.Captures;
 import org.cqfn.astranaut.core.Converter;
 import org.cqfn.astranaut.core.EmptyTree;
 import org.cqfn.astranaut.core.Factory;
@@ -48,6 +48,11 @@ public final class Rule0 implements Converter {
      */
     private static final String VARIABLE = "Variable";
 
+    /**
+     * Types of the root node.
+     */
+    private static final Set<String> ROOT_TYPES = Collections.singleton("singleExpression");
+
     /**
      * Constructor.
      */
@@ -56,15 +61,23 @@ public final class Rule0 implements Converter {
 
     @Override
     public Node convert(final Node node, final Factory factory) {
+        return this.convert(node, factory, new Captures());
+    }
+
+    @Override
+    public Node convert(final Node node, final Factory factory, final Captures captures) {
         Node result = EmptyTree.INSTANCE;
-        final Map<Integer, List<Node>> children = new TreeMap<>();
-        final Map<Integer, String> data = new TreeMap<>();
-        final boolean matched = Matcher2.INSTANCE.match(node, children, data);
+        final boolean matched = Matcher2.INSTANCE.match(node, captures);
         if (matched) {
             final Builder builder = factory.createBuilder(Rule0.VARIABLE);
-            builder.setData(data.get(1));
+            builder.setData(captures.getData(1));
             result = builder.createNode();
         }
         return result;
     }
+
+    @Override
+    public Set<String> getRootTypes() {
+        return Rule0.ROOT_TYPES;
+    }
 }
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import org.cqfn.astranaut.core.DifferenceNode;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.FactorySelector;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.example.LittleTrees;
+import org.cqfn.astranaut.core.example.green.GreenFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link BinarySerializer} and {@link BinaryDeserializer} classes.
+ *
+ * @since 1.1.5
+ */
+class BinarySerializerTest {
+    /**
+     * The folder with test resources.
+     */
+    private static final String TESTS_PATH = "src/test/resources/json/";
+
+    /**
+     * The selector of the factory of the 'green' language.
+     */
+    private static final FactorySelector GREEN = language -> GreenFactory.INSTANCE;
+
+    /**
+     * Testing that trees stored in the JSON files are converted to the same trees
+     *  after conversion to the binary representation and back.
+     * @throws IOException If a file can't be read
+     */
+    @Test
+    void testEquivalenceToJson() throws IOException {
+        final String[] files = {
+            "test_deserialization.json",
+            "tree_containing_delete_action.json",
+            "tree_containing_insert_action.json",
+            "tree_containing_replace_action.json",
+        };
+        for (final String file : files) {
+            final String json = new String(
+                Files.readAllBytes(Paths.get(BinarySerializerTest.TESTS_PATH, file)),
+                StandardCharsets.UTF_8
+            );
+            final Node expected = new JsonDeserializer(json, BinarySerializerTest.GREEN).convert();
+            Assertions.assertNotSame(EmptyTree.INSTANCE, expected);
+            for (final boolean compressed : new boolean[] {false, true}) {
+                final byte[] bytes = new BinarySerializer(expected, compressed).serialize();
+                final Node actual =
+                    new BinaryDeserializer(bytes, BinarySerializerTest.GREEN).convert();
+                Assertions.assertEquals(
+                    expected instanceof DifferenceNode,
+                    actual instanceof DifferenceNode
+                );
+                Assertions.assertTrue(expected.deepCompare(actual));
+                Assertions.assertEquals(
+                    new JsonSerializer(expected).serialize(),
+                    new JsonSerializer(actual).serialize()
+                );
+            }
+        }
+    }
+
+    /**
+     * Testing that a tree containing a difference is converted to a difference tree.
+     */
+    @Test
+    void testDifferenceTree() {
+        final Node tree = LittleTrees.createTreeWithDeleteAction();
+        final byte[] bytes = new BinarySerializer(tree).serialize();
+        final Node result = new BinaryDeserializer(bytes, BinarySerializerTest.GREEN).convert();
+        Assertions.assertTrue(result instanceof DifferenceNode);
+        Assertions.assertTrue(tree.deepCompare(result));
+    }
+
+    /**
+     * Testing that a large tree is compressed and restored.
+     */
+    @Test
+    void testLargeTree() {
+        final DraftNode.Constructor root = new DraftNode.Constructor();
+        root.setName("Program");
+        for (int index = 0; index < 20_000; index = index + 1) {
+            root.addChild(
+                DraftNode.createByDescription(
+                    String.format("Statement<\"s%d\">(Name<\"x%d\">)", index % 100, index % 7)
+                )
+            );
+        }
+        final Node tree = root.createNode();
+        final byte[] plain = new BinarySerializer(tree).serialize();
+        final byte[] compressed = new BinarySerializer(tree, true).serialize();
+        Assertions.assertTrue(compressed.length < plain.length / 2);
+        final FactorySelector selector = language -> new Factory(Collections.emptyMap());
+        Assertions.assertTrue(
+            tree.deepCompare(new BinaryDeserializer(compressed, selector).convert())
+        );
+        Assertions.assertTrue(tree.deepCompare(new BinaryDeserializer(plain, selector).convert()));
+    }
+
+    /**
+     * Testing that malformed data is converted to an empty tree.
+     */
+    @Test
+    void testMalformedData() {
+        final byte[] bytes = new BinarySerializer(LittleTrees.createTreeWithDeleteAction(), true)
+            .serialize();
+        final byte[] truncated = new byte[bytes.length - 3];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Assertions.assertSame(
+            EmptyTree.INSTANCE,
+            new BinaryDeserializer(truncated, BinarySerializerTest.GREEN).convert()
+        );
+        Assertions.assertSame(
+            EmptyTree.INSTANCE,
+            new BinaryDeserializer(
+                "{}".getBytes(StandardCharsets.UTF_8),
+                BinarySerializerTest.GREEN
+            ).convert()
+        );
+    }
+}
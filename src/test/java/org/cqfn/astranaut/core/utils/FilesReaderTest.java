@@ -0,0 +1,110 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link FilesReader} and {@link FilesBatchReader} classes.
+ *
+ * @since 1.1.5
+ */
+class FilesReaderTest {
+    /**
+     * Testing that UTF-8 text is decoded and carriage returns are removed.
+     * @param temp A temporary directory
+     * @throws IOException If a file can't be read or written
+     */
+    @Test
+    void testDecoding(@TempDir final Path temp) throws IOException {
+        final Path file = temp.resolve("text.txt");
+        Files.write(file, "привет,\r\nμονδο\r\n€ 𝄞".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(
+            "привет,\nμονδο\n€ 𝄞",
+            new FilesReader(file.toString()).readAsString()
+        );
+        Files.write(file, "abc\r\n".getBytes(StandardCharsets.UTF_16LE));
+        Assertions.assertEquals(
+            "abc\n",
+            new FilesReader(file).readAsString(StandardCharsets.UTF_16LE)
+        );
+    }
+
+    /**
+     * Testing that a large file, which is mapped into memory, is read correctly.
+     * @param temp A temporary directory
+     * @throws IOException If a file can't be read or written
+     */
+    @Test
+    void testLargeFile(@TempDir final Path temp) throws IOException {
+        final StringBuilder expected = new StringBuilder();
+        final StringBuilder source = new StringBuilder();
+        for (int index = 0; index < 200_000; index = index + 1) {
+            final String line = String.format("line %d — ok", index);
+            expected.append(line).append('\n');
+            source.append(line).append("\r\n");
+        }
+        final Path file = temp.resolve("large.txt");
+        Files.write(file, source.toString().getBytes(StandardCharsets.UTF_8));
+        Assertions.assertTrue(Files.size(file) > 1 << 20);
+        Assertions.assertEquals(
+            expected.toString(),
+            new FilesReader(file.toString()).readAsString()
+        );
+    }
+
+    /**
+     * Testing that many files are read in parallel and returned in the same order.
+     * @param temp A temporary directory
+     * @throws IOException If a file can't be read or written
+     */
+    @Test
+    void testBatch(@TempDir final Path temp) throws IOException {
+        final List<String> paths = new ArrayList<>(100);
+        for (int index = 0; index < 100; index = index + 1) {
+            final Path file = temp.resolve(String.format("file%d.txt", index));
+            Files.write(file, String.format("#%d", index).getBytes(StandardCharsets.UTF_8));
+            paths.add(file.toString());
+        }
+        final List<String> contents = new FilesBatchReader(paths, 4).readAll();
+        Assertions.assertEquals(100, contents.size());
+        for (int index = 0; index < 100; index = index + 1) {
+            Assertions.assertEquals(String.format("#%d", index), contents.get(index));
+        }
+        paths.add(temp.resolve("missing.txt").toString());
+        Assertions.assertThrows(
+            NoSuchFileException.class,
+            () -> new FilesBatchReader(paths).readAll()
+        );
+    }
+}
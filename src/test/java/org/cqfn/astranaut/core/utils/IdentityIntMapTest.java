@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link IdentityIntMap} class.
+ *
+ * @since 1.1.5
+ */
+class IdentityIntMapTest {
+    /**
+     * Number of keys, large enough to make the table grow several times.
+     */
+    private static final int COUNT = 10_000;
+
+    /**
+     * Testing that keys are compared by identity, not by equality.
+     */
+    @Test
+    void testIdentity() {
+        final IdentityIntMap<String> map = new IdentityIntMap<>();
+        final char[] chars = {'k', 'e', 'y'};
+        final String first = String.valueOf(chars);
+        final String second = String.valueOf(chars);
+        Assertions.assertEquals(first, second);
+        map.put(first, 1);
+        Assertions.assertTrue(map.containsKey(first));
+        Assertions.assertFalse(map.containsKey(second));
+        Assertions.assertEquals(1, map.get(first, -1));
+        Assertions.assertEquals(-1, map.get(second, -1));
+        map.put(second, 2);
+        map.put(first, 3);
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(3, map.get(first, -1));
+        Assertions.assertEquals(2, map.get(second, -1));
+    }
+
+    /**
+     * Testing growing and clearing of the table.
+     */
+    @Test
+    void testGrowingAndClearing() {
+        final IdentityIntMap<Object> map = new IdentityIntMap<>();
+        final Object[] keys = new Object[IdentityIntMapTest.COUNT];
+        for (int index = 0; index < IdentityIntMapTest.COUNT; index = index + 1) {
+            keys[index] = new Object();
+            map.put(keys[index], index);
+        }
+        Assertions.assertEquals(IdentityIntMapTest.COUNT, map.size());
+        boolean correct = true;
+        for (int index = 0; index < IdentityIntMapTest.COUNT; index = index + 1) {
+            correct = correct && map.get(keys[index], -1) == index;
+        }
+        Assertions.assertTrue(correct);
+        map.clear();
+        Assertions.assertEquals(0, map.size());
+        Assertions.assertFalse(map.containsKey(keys[0]));
+        map.put(keys[0], 0);
+        Assertions.assertEquals(1, map.size());
+    }
+
+    /**
+     * Testing that a {@code null} key is rejected.
+     */
+    @Test
+    void testNullKey() {
+        final IdentityIntMap<Object> map = new IdentityIntMap<>();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(null, 0));
+    }
+}
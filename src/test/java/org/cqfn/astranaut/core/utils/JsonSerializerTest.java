@@ -23,7 +23,11 @@
  */
 package org.cqfn.astranaut.core.utils;
 
+import com.kniazkov.json.JsonArray;
+import com.kniazkov.json.JsonObject;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
@@ -33,6 +37,7 @@ import org.cqfn.astranaut.core.ChildDescriptor;
 import org.cqfn.astranaut.core.DraftNode;
 import org.cqfn.astranaut.core.EmptyFragment;
 import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
 import org.cqfn.astranaut.core.Fragment;
 import org.cqfn.astranaut.core.Node;
 import org.cqfn.astranaut.core.Type;
@@ -46,6 +51,7 @@ import org.junit.jupiter.api.io.TempDir;
  *
  * @since 1.0.2
  */
+@SuppressWarnings("PMD.TooManyMethods")
 class JsonSerializerTest {
     /**
      * The type IntegerLiteral.
@@ -135,6 +141,85 @@ class JsonSerializerTest {
         Assertions.assertFalse(result);
     }
 
+    /**
+     * Test that the text is the same as the text produced by the JSON library,
+     *  including escape sequences and objects written in one line.
+     */
+    @Test
+    void testEquivalenceToJsonLibrary() {
+        final DraftNode.Constructor text = new DraftNode.Constructor();
+        text.setName("Text");
+        text.setData("a \" b \\ c \n \u0001 \u044f");
+        final DraftNode.Constructor call = new DraftNode.Constructor();
+        call.setName("Call");
+        call.setData("print");
+        call.addChild(text.createNode());
+        final Node tree = DraftNode.createByDescription("Block(Break, Label)");
+        final DraftNode.Constructor block = new DraftNode.Constructor();
+        block.setName(tree.getTypeName());
+        block.addChild(call.createNode());
+        block.addChild(tree.getChild(0));
+        block.addChild(tree.getChild(1));
+        final JsonObject obj = new JsonObject();
+        JsonSerializerTest.fill(obj.createObject("root"), block.createNode());
+        Assertions.assertEquals(
+            obj.toText("  "),
+            new JsonSerializer(block.createNode()).serialize()
+        );
+    }
+
+    /**
+     * Test for a tree serialization to a compact JSON string.
+     */
+    @Test
+    void testCompactSerialization() {
+        final Node tree = this.createSampleTree();
+        final String result = new JsonSerializer(tree, true).serialize();
+        Assertions.assertEquals(
+            new JsonSerializer(tree).serialize().replaceAll("\\s", ""),
+            result
+        );
+        final Node restored = new JsonDeserializer(
+            result,
+            language -> new Factory(Collections.emptyMap())
+        ).convert();
+        Assertions.assertTrue(tree.deepCompare(restored));
+    }
+
+    /**
+     * Test for a tree serialization to a byte stream.
+     * @throws IOException If the tree can't be serialized
+     */
+    @Test
+    void testSerializationToStream() throws IOException {
+        final Node tree = LittleTrees.createTreeWithDeleteAction();
+        final JsonSerializer serializer = new JsonSerializer(tree);
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        serializer.serialize(stream);
+        Assertions.assertEquals(
+            serializer.serialize(),
+            new String(stream.toByteArray(), StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Fills a JSON object with data of a node using the JSON library.
+     * @param obj The object
+     * @param node The node
+     */
+    private static void fill(final JsonObject obj, final Node node) {
+        obj.addString("type", node.getTypeName());
+        if (!node.getData().isEmpty()) {
+            obj.addString("data", node.getData());
+        }
+        if (node.getChildCount() > 0) {
+            final JsonArray array = obj.createArray("children");
+            for (int index = 0; index < node.getChildCount(); index = index + 1) {
+                JsonSerializerTest.fill(array.createObject(), node.getChild(index));
+            }
+        }
+    }
+
     /**
      * Create a simple tree for testing.
      * @return Tree
@@ -0,0 +1,207 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.cqfn.astranaut.core.DifferenceNode;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.FactorySelector;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.example.green.GreenFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link JsonStreamDeserializer} class.
+ *
+ * @since 1.1.5
+ */
+class JsonStreamDeserializerTest {
+    /**
+     * The folder with test resources.
+     */
+    private static final String TESTS_PATH = "src/test/resources/json/";
+
+    /**
+     * The selector of the factory of the 'green' language.
+     */
+    private static final FactorySelector GREEN = language -> GreenFactory.INSTANCE;
+
+    /**
+     * The selector of the factory of draft nodes.
+     */
+    private static final FactorySelector DRAFT = language -> new Factory(Collections.emptyMap());
+
+    /**
+     * Testing that trees stored in the JSON files are converted to the same trees
+     *  as by the JSON deserializer, whether the language is specified before or after
+     *  the root node.
+     * @throws IOException If a file can't be read
+     */
+    @Test
+    void testEquivalenceToJsonDeserializer() throws IOException {
+        final String[] files = {
+            "test_deserialization.json",
+            "tree_containing_delete_action.json",
+            "tree_containing_insert_action.json",
+            "tree_containing_replace_action.json",
+            "serialization_language_specified.json",
+        };
+        for (final String file : files) {
+            final String json = new String(
+                Files.readAllBytes(Paths.get(JsonStreamDeserializerTest.TESTS_PATH, file)),
+                StandardCharsets.UTF_8
+            );
+            final Node expected =
+                new JsonDeserializer(json, JsonStreamDeserializerTest.GREEN).convert();
+            Assertions.assertNotSame(EmptyTree.INSTANCE, expected);
+            final Node actual = new JsonStreamDeserializer(
+                new StringReader(json),
+                JsonStreamDeserializerTest.GREEN
+            ).convert();
+            Assertions.assertEquals(
+                expected instanceof DifferenceNode,
+                actual instanceof DifferenceNode
+            );
+            Assertions.assertTrue(expected.deepCompare(actual));
+        }
+    }
+
+    /**
+     * Testing that the selector receives the language, whether it is specified before
+     *  or after the root node.
+     * @throws IOException If the text can't be read
+     */
+    @Test
+    void testLanguageSelection() throws IOException {
+        final String[] sources = {
+            "{\"language\": \"java\", \"root\": {\"type\": \"A\"}}",
+            "{\"root\": {\"type\": \"A\"}, \"language\": \"java\"}",
+            "{\"root\": {\"type\": \"A\"}}",
+        };
+        final List<String> languages = new ArrayList<>(sources.length);
+        for (final String source : sources) {
+            final Node node = new JsonStreamDeserializer(
+                new StringReader(source),
+                language -> {
+                    languages.add(language);
+                    return new Factory(Collections.emptyMap());
+                }
+            ).convert();
+            Assertions.assertEquals("A", node.getTypeName());
+        }
+        Assertions.assertEquals("java", languages.get(0));
+        Assertions.assertEquals("java", languages.get(1));
+        Assertions.assertNull(languages.get(2));
+    }
+
+    /**
+     * Testing that a large tree with special characters in data is restored
+     *  from both indented and compact text.
+     * @throws IOException If the text can't be read
+     */
+    @Test
+    void testLargeTree() throws IOException {
+        final DraftNode.Constructor root = new DraftNode.Constructor();
+        root.setName("Program");
+        for (int index = 0; index < 10_000; index = index + 1) {
+            final DraftNode.Constructor name = new DraftNode.Constructor();
+            name.setName("Name");
+            name.setData(String.format("x\"%d\\\n\t\u0002я", index));
+            final DraftNode.Constructor stmt = new DraftNode.Constructor();
+            stmt.setName("Statement");
+            stmt.addChild(name.createNode());
+            root.addChild(stmt.createNode());
+        }
+        final Node tree = root.createNode();
+        for (final boolean compact : new boolean[] {false, true}) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            new JsonSerializer(tree, compact).serialize(output);
+            final Node result = new JsonStreamDeserializer(
+                new ByteArrayInputStream(output.toByteArray()),
+                JsonStreamDeserializerTest.DRAFT
+            ).convert();
+            Assertions.assertTrue(tree.deepCompare(result));
+        }
+    }
+
+    /**
+     * Testing that unknown properties are skipped.
+     * @throws IOException If the text can't be read
+     */
+    @Test
+    void testUnknownProperties() throws IOException {
+        final String source = String.join(
+            "",
+            "{\"version\": [1, {\"a\": null}], \"root\": {\"type\": \"A\", \"extra\": ",
+            "{\"b\": [true, false, -1.5e3]}, \"children\": [{\"data\": \"\\u0041\\/\", ",
+            "\"type\": \"B\"}]}}"
+        );
+        final Node node = new JsonStreamDeserializer(
+            new StringReader(source),
+            JsonStreamDeserializerTest.DRAFT
+        ).convert();
+        Assertions.assertEquals("A(B<\"A/\">)", node.toString());
+    }
+
+    /**
+     * Testing that malformed text is converted to an empty tree.
+     * @throws IOException If the text can't be read
+     */
+    @Test
+    void testMalformedText() throws IOException {
+        final String[] sources = {
+            "",
+            "[]",
+            "{\"root\": {\"type\": \"A\"}",
+            "{\"root\": {\"type\": \"A\"},}",
+            "{\"root\": {\"type\": \"A\" \"data\": \"x\"}}",
+            "{\"root\": {\"data\": \"x\"}}",
+            "{\"root\": {\"type\": \"A\", \"children\": [1]}}",
+            "{\"root\": {\"type\": \"A\\q\"}}",
+            "{\"root\": {\"type\": \"A}}",
+            "{\"root\": {\"type\": \"A\"}} {}",
+        };
+        for (final String source : sources) {
+            Assertions.assertSame(
+                EmptyTree.INSTANCE,
+                new JsonStreamDeserializer(
+                    new StringReader(source),
+                    JsonStreamDeserializerTest.DRAFT
+                ).convert()
+            );
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.EmptyTree;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.FactorySelector;
+import org.cqfn.astranaut.core.Node;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link TreePipeline} class.
+ *
+ * @since 1.1.5
+ */
+class TreePipelineTest {
+    /**
+     * Number of files.
+     */
+    private static final int COUNT = 50;
+
+    /**
+     * The selector of the factory of draft nodes.
+     */
+    private static final FactorySelector DRAFT = language -> new Factory(Collections.emptyMap());
+
+    /**
+     * Transformation that wraps a tree into a new root node.
+     */
+    private static final Function<Node, Node> WRAP = tree -> {
+        final DraftNode.Constructor ctor = new DraftNode.Constructor();
+        ctor.setName("Wrapper");
+        ctor.addChild(tree);
+        return ctor.createNode();
+    };
+
+    /**
+     * Testing that all files are processed and the results are written.
+     * @param temp A temporary directory
+     * @throws IOException If a file can't be read or written
+     */
+    @Test
+    void testProcessing(@TempDir final Path temp) throws IOException {
+        final List<Pair<String, String>> files = TreePipelineTest.createFiles(temp);
+        final TreePipeline.Statistics statistics =
+            new TreePipeline(TreePipelineTest.DRAFT, TreePipelineTest.WRAP, 4).run(files);
+        Assertions.assertEquals(TreePipelineTest.COUNT, statistics.getProcessed());
+        Assertions.assertTrue(statistics.getFailed().isEmpty());
+        Assertions.assertTrue(statistics.getElapsedTime() > 0);
+        Assertions.assertTrue(statistics.getTime(TreePipeline.Stage.READ) > 0);
+        for (int index = 0; index < TreePipelineTest.COUNT; index = index + 1) {
+            final Node result = new JsonDeserializer(
+                new FilesReader(files.get(index).getValue()).readAsString(),
+                TreePipelineTest.DRAFT
+            ).convert();
+            Assertions.assertEquals(
+                String.format("Wrapper(Statement(Name<\"x%d\">))", index),
+                result.toString()
+            );
+        }
+    }
+
+    /**
+     * Testing that files that can't be processed are reported, and the remaining files
+     *  are processed using an external executor.
+     * @param temp A temporary directory
+     * @throws IOException If a file can't be read or written
+     */
+    @Test
+    void testFailures(@TempDir final Path temp) throws IOException {
+        final List<Pair<String, String>> files = TreePipelineTest.createFiles(temp);
+        final Path malformed = temp.resolve("malformed.json");
+        Files.write(malformed, "{\"root\": ".getBytes(StandardCharsets.UTF_8));
+        files.add(new Pair<>(malformed.toString(), temp.resolve("out1.json").toString()));
+        final String missing = temp.resolve("missing.json").toString();
+        files.add(new Pair<>(missing, temp.resolve("out2.json").toString()));
+        final String rejected = files.get(0).getKey();
+        final TreePipeline pipeline = new TreePipeline(
+            TreePipelineTest.DRAFT,
+            tree -> {
+                Node result = tree;
+                if (tree.getChild(0).getData().equals("x0")) {
+                    result = EmptyTree.INSTANCE;
+                }
+                return result;
+            },
+            2
+        );
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final TreePipeline.Statistics statistics = pipeline.run(files, executor);
+        executor.shutdown();
+        Assertions.assertEquals(TreePipelineTest.COUNT - 1, statistics.getProcessed());
+        final List<String> failed = statistics.getFailed();
+        Collections.sort(failed);
+        final List<String> expected = new ArrayList<>(3);
+        expected.add(malformed.toString());
+        expected.add(missing);
+        expected.add(rejected);
+        Collections.sort(expected);
+        Assertions.assertEquals(expected, failed);
+    }
+
+    /**
+     * Testing that an exception thrown by the transformation marks only one file as failed.
+     * @param temp A temporary directory
+     */
+    @Test
+    void testExceptionInTransformation(@TempDir final Path temp) {
+        final List<Pair<String, String>> files = TreePipelineTest.createFiles(temp);
+        final TreePipeline pipeline = new TreePipeline(
+            TreePipelineTest.DRAFT,
+            tree -> {
+                if (tree.getChild(0).getData().equals("x1")) {
+                    throw new IllegalStateException("Can't transform");
+                }
+                return tree;
+            },
+            3
+        );
+        final TreePipeline.Statistics statistics = pipeline.run(files);
+        Assertions.assertEquals(TreePipelineTest.COUNT - 1, statistics.getProcessed());
+        Assertions.assertEquals(
+            Collections.singletonList(files.get(1).getKey()),
+            statistics.getFailed()
+        );
+    }
+
+    /**
+     * Testing that after an interruption the pipeline stops submitting files, but waits
+     *  for the submitted ones, so the statistics are complete.
+     * @param temp A temporary directory
+     * @throws InterruptedException If the test thread is interrupted
+     */
+    @Test
+    void testInterruption(@TempDir final Path temp) throws InterruptedException {
+        final List<Pair<String, String>> files = TreePipelineTest.createFiles(temp);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TreePipeline pipeline = new TreePipeline(
+            TreePipelineTest.DRAFT,
+            tree -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+                return tree;
+            },
+            2
+        );
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final AtomicReference<TreePipeline.Statistics> result = new AtomicReference<>();
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final Thread thread = new Thread(
+            () -> {
+                result.set(pipeline.run(files, executor));
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        );
+        thread.start();
+        started.await();
+        thread.interrupt();
+        Thread.sleep(100);
+        Assertions.assertTrue(thread.isAlive());
+        release.countDown();
+        thread.join();
+        executor.shutdown();
+        final TreePipeline.Statistics statistics = result.get();
+        Assertions.assertTrue(interrupted.get());
+        Assertions.assertTrue(statistics.getProcessed() > 0);
+        Assertions.assertTrue(statistics.getProcessed() < TreePipelineTest.COUNT);
+        Assertions.assertTrue(statistics.getFailed().isEmpty());
+    }
+
+    /**
+     * Creates source files.
+     * @param temp A temporary directory
+     * @return List of pairs of paths of the source and the resulting files
+     */
+    private static List<Pair<String, String>> createFiles(final Path temp) {
+        final List<Pair<String, String>> files = new ArrayList<>(TreePipelineTest.COUNT + 2);
+        for (int index = 0; index < TreePipelineTest.COUNT; index = index + 1) {
+            final Node tree = DraftNode.createByDescription(
+                String.format("Statement(Name<\"x%d\">)", index)
+            );
+            final String source = temp.resolve(String.format("in%d.json", index)).toString();
+            Assertions.assertTrue(new JsonSerializer(tree).serializeToFile(source));
+            files.add(
+                new Pair<>(
+                    source,
+                    temp.resolve(String.format("result/out%d.json", index)).toString()
+                )
+            );
+        }
+        return files;
+    }
+}
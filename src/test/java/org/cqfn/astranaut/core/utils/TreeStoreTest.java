@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.cqfn.astranaut.core.DraftNode;
+import org.cqfn.astranaut.core.Factory;
+import org.cqfn.astranaut.core.Node;
+import org.cqfn.astranaut.core.algorithms.hash.AbsoluteHash;
+import org.cqfn.astranaut.core.example.LittleTrees;
+import org.cqfn.astranaut.core.example.green.GreenFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link TreeStore} class.
+ *
+ * @since 1.1.5
+ */
+class TreeStoreTest {
+    /**
+     * The name of the file.
+     */
+    private static final String FILE = "tree.bin";
+
+    /**
+     * Testing that a tree of draft nodes is stored and opened.
+     * @param temp A temporary directory
+     * @throws IOException If the file can't be written or read
+     */
+    @Test
+    void testDraftTree(@TempDir final Path temp) throws IOException {
+        final Node source = DraftNode.createByDescription(
+            "Program(Name<\"Привет\">, Block(Statement<\"x\">, Statement<\"x\">, Statement))"
+        );
+        final TreeStore store = new TreeStore(temp.resolve(TreeStoreTest.FILE).toString());
+        store.write(source);
+        final Node root = store.open(language -> new Factory(Collections.emptyMap()));
+        Assertions.assertTrue(source.deepCompare(root));
+        Assertions.assertEquals("Привет", root.getChild(0).getData());
+        Assertions.assertEquals(root.getChild(1), root.getChild(1));
+        Assertions.assertNotEquals(root.getChild(1).getChild(0), root.getChild(1).getChild(1));
+        Assertions.assertEquals(
+            new AbsoluteHash().calculate(source),
+            new AbsoluteHash().calculate(root)
+        );
+        Assertions.assertEquals(
+            new JsonSerializer(source).serialize(),
+            new JsonSerializer(root).serialize()
+        );
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> root.getChild(2));
+    }
+
+    /**
+     * Testing that nodes of a stored tree get types from the factory of the language.
+     * @param temp A temporary directory
+     * @throws IOException If the file can't be written or read
+     */
+    @Test
+    void testTypesOfLanguage(@TempDir final Path temp) throws IOException {
+        final Node source = LittleTrees.createAssignment(
+            LittleTrees.createVariable("x"),
+            LittleTrees.createAddition(
+                LittleTrees.createIntegerLiteral(2),
+                LittleTrees.createIntegerLiteral(3)
+            )
+        );
+        final TreeStore store = new TreeStore(temp.resolve(TreeStoreTest.FILE).toString());
+        store.write(source);
+        final Node root = store.open(language -> GreenFactory.INSTANCE);
+        Assertions.assertTrue(source.deepCompare(root));
+        Assertions.assertSame(source.getType(), root.getType());
+        Assertions.assertSame(
+            source.getChild(1).getChild(0).getType(),
+            root.getChild(1).getChild(0).getType()
+        );
+    }
+
+    /**
+     * Testing the intended way to hash stored trees and to use stored nodes as keys.
+     * @param temp A temporary directory
+     * @throws IOException If the file can't be written or read
+     */
+    @Test
+    void testHashingAndMapping(@TempDir final Path temp) throws IOException {
+        final Node source = DraftNode.createByDescription(
+            "A(B(C, D<\"1\">), B(C, D<\"2\">), E(F(G(H))))"
+        );
+        final TreeStore store = new TreeStore(temp.resolve(TreeStoreTest.FILE).toString());
+        store.write(source);
+        final Node root = store.open(language -> new Factory(Collections.emptyMap()));
+        final AbsoluteHash hash = new AbsoluteHash();
+        Assertions.assertEquals(
+            new AbsoluteHash().calculate(source),
+            hash.calculateTransient(root)
+        );
+        Assertions.assertEquals(0, hash.size());
+        final Map<Node, Integer> map = new HashMap<>();
+        for (int index = 0; index < root.getChildCount(); index = index + 1) {
+            map.put(root.getChild(index), hash.calculateTransient(root.getChild(index)));
+        }
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertEquals(
+            new AbsoluteHash().calculate(source.getChild(1)),
+            map.get(root.getChild(1))
+        );
+        Assertions.assertNotEquals(map.get(root.getChild(0)), map.get(root.getChild(1)));
+    }
+
+    /**
+     * Testing that a tree opened from a file is written to another file.
+     * @param temp A temporary directory
+     * @throws IOException If the file can't be written or read
+     */
+    @Test
+    void testRewriting(@TempDir final Path temp) throws IOException {
+        final StringBuilder description = new StringBuilder();
+        for (int index = 0; index < 10_000; index = index + 1) {
+            description.append(String.format("Item<\"%d\">, ", index % 100));
+        }
+        final Node source = DraftNode.createByDescription(
+            String.format("List(%sEnd)", description)
+        );
+        final TreeStore first = new TreeStore(temp.resolve(TreeStoreTest.FILE).toString());
+        first.write(source);
+        final Factory factory = new Factory(Collections.emptyMap());
+        final TreeStore second = new TreeStore(temp.resolve("copy.bin").toString());
+        second.write(first.open(language -> factory));
+        final Node root = second.open(language -> factory);
+        Assertions.assertTrue(source.deepCompare(root));
+        second.write(DraftNode.createByDescription("Small"));
+        Assertions.assertEquals("Small", second.open(language -> factory).getTypeName());
+    }
+
+    /**
+     * Testing that a file of another format is not opened.
+     * @param temp A temporary directory
+     * @throws IOException If the file can't be written
+     */
+    @Test
+    void testUnknownFormat(@TempDir final Path temp) throws IOException {
+        final Path file = temp.resolve(TreeStoreTest.FILE);
+        Files.write(
+            file,
+            "{ \"root\": { \"type\": \"Example\" } }".getBytes(StandardCharsets.UTF_8)
+        );
+        final TreeStore store = new TreeStore(file.toString());
+        Assertions.assertThrows(
+            IOException.class,
+            () -> store.open(language -> new Factory(Collections.emptyMap()))
+        );
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2024 Ivan Kniazkov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.astranaut.core.utils.binary;
+
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link BlockCodec} class.
+ *
+ * @since 1.1.5
+ */
+class BlockCodecTest {
+    /**
+     * Pattern for generating data with repeating sequences.
+     */
+    private static final String PATTERN = "abcabcabd";
+
+    /**
+     * Testing that data is compressed and decompressed without changes.
+     */
+    @Test
+    void testRoundTrip() {
+        final Random random = new Random(0);
+        final byte[][] samples = {
+            new byte[0],
+            new byte[] {1, 2, 3},
+            new byte[200_000],
+            new byte[100_000],
+            new byte[70_000],
+        };
+        random.nextBytes(samples[3]);
+        for (int index = 0; index < samples[4].length; index = index + 1) {
+            samples[4][index] = (byte) (BlockCodecTest.PATTERN.charAt(index % 9)
+                + random.nextInt(2));
+        }
+        for (final byte[] sample : samples) {
+            final BinaryOutput output = new BinaryOutput();
+            BlockCodec.INSTANCE.compress(sample, sample.length, output);
+            final byte[] restored =
+                BlockCodec.INSTANCE.decompress(new BinaryInput(output.toByteArray()));
+            Assertions.assertArrayEquals(sample, restored);
+        }
+    }
+
+    /**
+     * Testing that repeating data is compressed well.
+     */
+    @Test
+    void testCompressionRatio() {
+        final byte[] data = new byte[100_000];
+        for (int index = 0; index < data.length; index = index + 1) {
+            data[index] = (byte) (index % 37);
+        }
+        final BinaryOutput output = new BinaryOutput();
+        BlockCodec.INSTANCE.compress(data, data.length, output);
+        Assertions.assertTrue(output.size() < data.length / 20);
+    }
+
+    /**
+     * Testing that malformed data is rejected.
+     */
+    @Test
+    void testMalformedData() {
+        final BinaryOutput output = new BinaryOutput();
+        output.writeVarInt(10);
+        output.writeByte(1);
+        output.writeVarInt(4);
+        output.writeByte(0);
+        output.writeByte(5);
+        output.writeByte(0);
+        output.writeByte(0);
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> BlockCodec.INSTANCE.decompress(new BinaryInput(output.toByteArray()))
+        );
+    }
+
+    /**
+     * Testing that a huge stored length is rejected before a buffer is allocated.
+     */
+    @Test
+    void testHugeLength() {
+        final int[] markers = {0, 1};
+        for (final int marker : markers) {
+            final BinaryOutput output = new BinaryOutput();
+            output.writeVarInt(100);
+            output.writeByte(marker);
+            output.writeVarInt(Integer.MAX_VALUE);
+            output.writeByte(0);
+            final IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> BlockCodec.INSTANCE.decompress(new BinaryInput(output.toByteArray()))
+            );
+            Assertions.assertEquals("Malformed block", exception.getMessage());
+        }
+    }
+
+    /**
+     * Testing that a huge number of literals is rejected before a buffer is allocated.
+     */
+    @Test
+    void testHugeLiterals() {
+        final BinaryOutput output = new BinaryOutput();
+        output.writeVarInt(100);
+        output.writeByte(1);
+        output.writeVarInt(50);
+        output.writeByte(0xF0);
+        for (int index = 0; index < 48; index = index + 1) {
+            output.writeByte(255);
+        }
+        output.writeByte(254);
+        final IllegalArgumentException exception = Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> BlockCodec.INSTANCE.decompress(new BinaryInput(output.toByteArray()))
+        );
+        Assertions.assertEquals("Malformed literals", exception.getMessage());
+    }
+}